@@ -0,0 +1,25 @@
+package com.myfurniture.designapp.Bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}: the usual JMH command line, with the
+ * GC profiler always on so every result comes with its allocation rate
+ * ({@code gc.alloc.rate.norm} is bytes per operation). Benchmarks per
+ * furniture type run over every template unless {@code -p type=...} picks some.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(cmd)
+                .addProfiler(GCProfiler.class);
+        if (!cmd.getParameter("type").hasValue()) options.param("type", Designs.types().toArray(String[]::new));
+        new Runner(options.build()).run();
+    }
+}
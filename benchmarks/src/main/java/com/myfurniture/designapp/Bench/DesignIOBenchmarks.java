@@ -0,0 +1,57 @@
+package com.myfurniture.designapp.Bench;
+
+import com.myfurniture.designapp.Core.DesignIO;
+import com.myfurniture.designapp.Core.RoomDesign;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+/** Saving and loading the {@code .design} text format, in memory so disk speed does not count. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DesignIOBenchmarks {
+
+    @Param({"10", "1000", "100000"})
+    int count;
+
+    private RoomDesign room;
+    private String text;
+
+    @Setup
+    public void setUp() throws IOException {
+        room = Designs.grid(count);
+        StringWriter w = new StringWriter();
+        DesignIO.write(room, w);
+        text = w.toString();
+    }
+
+    @Benchmark
+    public int save() throws IOException {
+        StringWriter w = new StringWriter(text.length());
+        DesignIO.write(room, w);
+        return w.getBuffer().length();
+    }
+
+    @Benchmark
+    public RoomDesign load() throws IOException {
+        return DesignIO.read(new BufferedReader(new StringReader(text)));
+    }
+}
@@ -0,0 +1,46 @@
+package com.myfurniture.designapp.Bench;
+
+import com.myfurniture.designapp.Core.FurnitureItem;
+import com.myfurniture.designapp.Core.RoomDesign;
+import com.myfurniture.designapp.Factory.FurnitureFactory;
+import com.myfurniture.designapp.Factory.FurnitureTemplate;
+import com.myfurniture.designapp.Factory.FurnitureTemplates;
+import javafx.scene.paint.Color;
+
+import java.util.List;
+import java.util.Random;
+
+/** Reproducible benchmark designs. Needs no JavaFX toolkit. */
+final class Designs {
+
+    /** design-unit pitch of the grid items are laid out on */
+    static final int PITCH = 200;
+
+    private Designs() { }
+
+    static List<String> types() {
+        return FurnitureTemplates.getAll().stream().map(FurnitureTemplate::getName).toList();
+    }
+
+    /**
+     * A square room holding {@code count} items of every type in turn, one per
+     * grid cell, with varied sizes, colours and rotations.
+     */
+    static RoomDesign grid(int count) {
+        int side = (int) Math.ceil(Math.sqrt(count));
+        RoomDesign room = new RoomDesign(side * PITCH, side * PITCH, Color.BEIGE);
+        List<String> types = types();
+        Random rnd = new Random(42);
+        for (int i = 0; i < count; i++) {
+            FurnitureItem it = FurnitureFactory.createFurniture(types.get(i % types.size()));
+            it.setWidth(40 + rnd.nextInt(120));
+            it.setHeight(40 + rnd.nextInt(120));
+            it.setX((i % side) * PITCH + 20);
+            it.setY((i / side) * PITCH + 20);
+            it.setRotation(rnd.nextInt(4) * 90 + (rnd.nextBoolean() ? 0 : 15));
+            it.setPrimaryColor(Color.hsb(rnd.nextInt(360), 0.6, 0.8));
+            room.addFurniture(it);
+        }
+        return room;
+    }
+}
@@ -0,0 +1,85 @@
+package com.myfurniture.designapp.Bench;
+
+import com.myfurniture.designapp.Core.FurnitureItem;
+import com.myfurniture.designapp.Factory.Furniture3DFactory;
+import com.myfurniture.designapp.Factory.FurnitureFactory;
+import com.myfurniture.designapp.Factory.RenderQuality;
+import com.myfurniture.designapp.Tools.HeadlessFx;
+import javafx.scene.Group;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** The item factories: new 2D items, and 3D nodes per type and quality tier. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FactoryBenchmarks {
+
+    @State(Scope.Thread)
+    public static class Items {
+        @Param({"10", "1000", "100000"})
+        int count;
+
+        List<String> types;
+
+        @Setup
+        public void setUp() {
+            types = Designs.types();
+        }
+    }
+
+    /** {@code count} new items of every type in turn. */
+    @Benchmark
+    public void createFurniture(Items s, Blackhole bh) {
+        for (int i = 0; i < s.count; i++) bh.consume(FurnitureFactory.createFurniture(s.types.get(i % s.types.size())));
+    }
+
+    @State(Scope.Thread)
+    public static class Nodes {
+        /** every template unless given with {@code -p type=...}; filled in by {@link BenchmarkMain} */
+        @Param({})
+        String type;
+
+        @Param({"HIGH", "MINIMAL"})
+        RenderQuality quality;
+
+        /** a few sizes, so no single footprint stays hot */
+        FurnitureItem[] items;
+        int next;
+
+        @Setup
+        public void setUp() {
+            HeadlessFx.start();
+            items = new FurnitureItem[16];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = FurnitureFactory.createFurniture(type);
+                items[i].setWidth(items[i].getWidth() + i * 7);
+                items[i].setHeight(items[i].getHeight() + i * 5);
+                items[i].setRotation(i * 22.5);
+            }
+            // shared meshes, materials and atlas pages are built once, as in the app
+            HeadlessFx.call(() -> Furniture3DFactory.createFurniture3D(items[0], quality));
+        }
+    }
+
+    /** One 3D node, built on the benchmark thread: legal while the node is not part of a live scene. */
+    @Benchmark
+    public Group createFurniture3D(Nodes s) {
+        return Furniture3DFactory.createFurniture3D(s.items[s.next++ & 15], s.quality);
+    }
+}
@@ -0,0 +1,90 @@
+package com.myfurniture.designapp.Bench;
+
+import com.myfurniture.designapp.Core.FurnitureItem;
+import com.myfurniture.designapp.Core.RoomDesign;
+import com.myfurniture.designapp.Export.PlanRasterizer;
+import com.myfurniture.designapp.Export.RasterPlanGraphics;
+import com.myfurniture.designapp.Factory.Furniture2DFactory;
+import com.myfurniture.designapp.Factory.FxPlanGraphics;
+import com.myfurniture.designapp.Factory.PlanGraphics;
+import com.myfurniture.designapp.Tools.HeadlessFx;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 2D drawing: the item icons on their own, and whole plans the way the
+ * designer canvas draws them (room, then every item placed and rotated), both
+ * onto a JavaFX canvas and through the software rasteriser.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PlanBenchmarks {
+
+    /** largest raster edge, so big plans are drawn zoomed out as on screen */
+    private static final int MAX_RASTER = 4096;
+
+    @Param({"10", "1000", "100000"})
+    int count;
+
+    private RoomDesign room;
+    private double scale;
+    private int[] iconPixels;
+    private PlanRasterizer rasterizer;
+    private Canvas canvas;
+
+    @Setup
+    public void setUp() {
+        HeadlessFx.start();
+        room = Designs.grid(count);
+        scale = Math.min(1, (double) MAX_RASTER / room.getRoomWidth());
+        iconPixels = new int[256 * 256];
+        rasterizer = new PlanRasterizer(ForkJoinPool.commonPool());
+        canvas = HeadlessFx.call(() -> new Canvas(1280, 800));
+    }
+
+    /** Every item's icon, unplaced, into one 256 x 256 software raster. */
+    @Benchmark
+    public int drawFurnitureIcons() {
+        RasterPlanGraphics g = new RasterPlanGraphics(iconPixels, 256, 0, 0, 256, 256);
+        for (FurnitureItem it : room.getFurniture()) Furniture2DFactory.drawFurniture(g, it, false);
+        return iconPixels[128 * 256 + 128];
+    }
+
+    /** The whole plan onto a canvas, fitted to it, and the canvas commands flushed to an image. */
+    @Benchmark
+    public Object drawPlanCanvas() {
+        return HeadlessFx.call(() -> {
+            GraphicsContext gc = canvas.getGraphicsContext2D();
+            double z = Math.min(canvas.getWidth() / room.getRoomWidth(), canvas.getHeight() / room.getRoomHeight());
+            gc.setTransform(z, 0, 0, z, 0, 0);
+            PlanGraphics g = new FxPlanGraphics(gc);
+            Furniture2DFactory.drawRoom(g, room);
+            for (FurnitureItem it : room.getFurniture()) Furniture2DFactory.drawPlaced(g, it, false);
+            return canvas.snapshot(null, null);
+        });
+    }
+
+    /** The whole plan through the tiled, parallel software rasteriser. */
+    @Benchmark
+    public PlanRasterizer.Raster rasterizePlan() {
+        return rasterizer.render(room, scale);
+    }
+}
@@ -0,0 +1,57 @@
+package com.myfurniture.designapp.Bench;
+
+import com.myfurniture.designapp.Core.DesignManager;
+import com.myfurniture.designapp.Tools.HeadlessFx;
+import com.myfurniture.designapp.UI.RoomRenderer3D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full 3D scene construction: {@link RoomRenderer3D#updateScene()} with the
+ * progressive build forced to completion, on the FX thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SceneBenchmarks {
+
+    @Param({"10", "1000", "100000"})
+    int count;
+
+    private RoomRenderer3D renderer;
+
+    @Setup
+    public void setUp() {
+        HeadlessFx.start();
+        DesignManager dm = new DesignManager();
+        dm.setCurrentDesign(Designs.grid(count));
+        renderer = HeadlessFx.call(() -> {
+            RoomRenderer3D r = new RoomRenderer3D(dm);
+            r.resize(1280, 800);
+            return r;
+        });
+    }
+
+    @Benchmark
+    public RoomRenderer3D rebuild() {
+        return HeadlessFx.call(() -> {
+            renderer.updateScene();
+            renderer.finishSceneBuild();
+            return renderer;
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.myfurniture.designapp.Assets;
+
+import com.myfurniture.designapp.Factory.BuiltInAssets;
+import com.myfurniture.designapp.Factory.MaterialAtlas;
+import javafx.scene.paint.Color;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Bakes the default {@link AssetPack}: the texture atlas pages of every
+ * quality tier, the built-in materials, and the LOD chains of the mesh
+ * catalogue. Textures are painted with the software rasteriser, so baking
+ * needs no JavaFX toolkit and can run at build time as well as in the
+ * background on the first launch.
+ *
+ * <pre>java -cp app.jar com.myfurniture.designapp.Assets.AssetBaker [out.pack]</pre>
+ */
+public class AssetBaker {
+
+    public static void bake(Path out, MeshCatalog catalog) throws IOException {
+        AssetPackWriter w = new AssetPackWriter(BuiltInAssets.VERSION);
+        for (int size : MaterialAtlas.tierSizes()) MaterialAtlas.forTextureSize(size).forEachPage(w::addTexture);
+        for (String kind : BuiltInAssets.KINDS) {
+            BuiltInAssets.MaterialSpec spec = BuiltInAssets.spec(kind);
+            w.addMaterial(BuiltInAssets.materialName(kind), new AssetPack.Material(
+                    argb(spec.diffuse()), argb(spec.specular()), (float) spec.specularPower(), spec.texture()));
+        }
+        for (String type : catalog.getTypes()) {
+            List<MeshData> chain = catalog.get(type);
+            String prefix = catalog.packName(type);
+            if (chain == null || prefix == null) continue;
+            for (int lod = 0; lod < chain.size(); lod++) w.addMesh(prefix + "/" + lod, chain.get(lod));
+        }
+        w.write(out);
+    }
+
+    /**
+     * Re-bakes the default pack if it is missing, was baked from other
+     * built-in assets, or lacks a catalogue model. The new pack is used from
+     * the next launch on.
+     */
+    public static void bakeIfStale(MeshCatalog catalog) {
+        AssetPack pack = AssetPack.getDefault();
+        if (!BuiltInAssets.needsBaking() && catalog.isPacked(pack)) return;
+        try {
+            bake(AssetPack.defaultPath(), catalog);
+        } catch (IOException ex) {
+            System.err.println("Could not bake asset pack: " + ex);
+        }
+    }
+
+    private static int argb(Color c) {
+        return (int) Math.round(c.getOpacity() * 255) << 24 | (int) Math.round(c.getRed() * 255) << 16
+                | (int) Math.round(c.getGreen() * 255) << 8 | (int) Math.round(c.getBlue() * 255);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path out = args.length > 0 ? Paths.get(args[0]) : AssetPack.defaultPath();
+        bake(out, MeshCatalog.getDefault());
+        System.out.println("Wrote " + out);
+        for (int size : MaterialAtlas.tierSizes()) System.out.println(MaterialAtlas.forTextureSize(size));
+    }
+}
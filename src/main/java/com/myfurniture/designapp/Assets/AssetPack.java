@@ -0,0 +1,165 @@
+package com.myfurniture.designapp.Assets;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read side of the asset pack: one file holding textures, meshes and material
+ * definitions behind a table of contents. The whole file is memory-mapped;
+ * opening it reads only the table, and textures are handed to JavaFX as
+ * {@link PixelBuffer}s over the mapping, so they are never copied on the heap.
+ * Meshes are copied out on request, since {@code TriangleMesh} wants arrays.
+ *
+ * <p>Layout (little-endian): magic, format version, content version, entry
+ * count; per entry a UTF-8 name, kind, offset, length and three ints of
+ * metadata; then the data blocks, each 16-byte aligned. Textures are
+ * premultiplied BGRA (JavaFX's native pixel layout); meshes are the three
+ * {@link MeshData} arrays; materials are diffuse and specular ARGB, specular
+ * power, then an optional texture name.
+ *
+ * @see AssetPackWriter
+ */
+public class AssetPack {
+
+    static final int MAGIC = 0x4B504146;   // "FAPK"
+    static final int FORMAT = 1;
+    static final byte TEXTURE = 1, MESH = 2, MATERIAL = 3;
+
+    /** A material definition; colours are ARGB, texture is a name or null. */
+    public record Material(int diffuse, int specular, float specularPower, String texture) { }
+
+    private record Entry(byte kind, long offset, long length, int a, int b, int c) { }
+
+    private static final Path DEFAULT_PATH = Paths.get(System.getProperty("user.home"),
+            ".myfurniture", "cache", "assets.pack");
+    private static volatile AssetPack defaultPack;
+    private static volatile boolean defaultOpened;
+
+    private final MappedByteBuffer map;
+    private final int contentVersion;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, Image> images = new ConcurrentHashMap<>();
+
+    private AssetPack(MappedByteBuffer map) throws IOException {
+        this.map = map;
+        map.order(ByteOrder.LITTLE_ENDIAN);
+        if (map.getInt(0) != MAGIC || map.getInt(4) != FORMAT) throw new IOException("not an asset pack");
+        contentVersion = map.getInt(8);
+        int count = map.getInt(12);
+        ByteBuffer toc = map.duplicate().order(ByteOrder.LITTLE_ENDIAN).position(16);
+        for (int i = 0; i < count; i++) {
+            byte[] name = new byte[toc.getShort() & 0xFFFF];
+            toc.get(name);
+            Entry e = new Entry(toc.get(), toc.getLong(), toc.getLong(), toc.getInt(), toc.getInt(), toc.getInt());
+            if (e.offset() < 0 || e.offset() + e.length() > map.capacity()) throw new IOException("truncated asset pack");
+            entries.put(new String(name, StandardCharsets.UTF_8), e);
+        }
+    }
+
+    public static AssetPack open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return new AssetPack(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    /** Where the default pack lives: {@code myfurniture.assets}, or the user's cache folder. */
+    public static Path defaultPath() {
+        String configured = System.getProperty("myfurniture.assets");
+        return configured != null ? Paths.get(configured) : DEFAULT_PATH;
+    }
+
+    /** The pack at {@link #defaultPath()}, opened once; null if there is none or it is unreadable. */
+    public static AssetPack getDefault() {
+        if (!defaultOpened) {
+            synchronized (AssetPack.class) {
+                if (!defaultOpened) {
+                    Path p = defaultPath();
+                    if (Files.isRegularFile(p)) {
+                        try {
+                            defaultPack = open(p);
+                        } catch (IOException | RuntimeException ex) {
+                            System.err.println("Ignoring asset pack " + p + ": " + ex);
+                        }
+                    }
+                    defaultOpened = true;
+                }
+            }
+        }
+        return defaultPack;
+    }
+
+    /** Version of the built-in content the pack was baked from. */
+    public int getContentVersion() {
+        return contentVersion;
+    }
+
+    public boolean hasTexture(String name)  { return kind(name) == TEXTURE; }
+    public boolean hasMesh(String name)     { return kind(name) == MESH; }
+    public boolean hasMaterial(String name) { return kind(name) == MATERIAL; }
+
+    private int kind(String name) {
+        Entry e = entries.get(name);
+        return e == null ? 0 : e.kind();
+    }
+
+    /** Image backed directly by the mapped pixels; shared per name. Needs the FX toolkit. */
+    public Image texture(String name) {
+        Entry e = require(name, TEXTURE);
+        return images.computeIfAbsent(name, n -> {
+            PixelBuffer<ByteBuffer> pixels = new PixelBuffer<>(e.a(), e.b(), slice(e),
+                    PixelFormat.getByteBgraPreInstance());
+            return new WritableImage(pixels);
+        });
+    }
+
+    public MeshData mesh(String name) {
+        Entry e = require(name, MESH);
+        ByteBuffer b = slice(e).order(ByteOrder.LITTLE_ENDIAN);
+        float[] points = new float[e.a()], tex = new float[e.b()];
+        int[] faces = new int[e.c()];
+        b.asFloatBuffer().get(points);
+        b.position(points.length * 4);
+        b.asFloatBuffer().get(tex);
+        b.position(b.position() + tex.length * 4);
+        b.asIntBuffer().get(faces);
+        return new MeshData(points, tex, faces);
+    }
+
+    public Material material(String name) {
+        Entry e = require(name, MATERIAL);
+        ByteBuffer b = slice(e).order(ByteOrder.LITTLE_ENDIAN);
+        int diffuse = b.getInt(), specular = b.getInt();
+        float power = b.getFloat();
+        byte[] texture = new byte[b.remaining()];
+        b.get(texture);
+        return new Material(diffuse, specular, power,
+                texture.length == 0 ? null : new String(texture, StandardCharsets.UTF_8));
+    }
+
+    private Entry require(String name, byte kind) {
+        Entry e = entries.get(name);
+        if (e == null || e.kind() != kind) throw new IllegalArgumentException("no such asset: " + name);
+        return e;
+    }
+
+    private ByteBuffer slice(Entry e) {
+        return map.slice((int) e.offset(), (int) e.length());
+    }
+}
@@ -0,0 +1,121 @@
+package com.myfurniture.designapp.Assets;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds an {@link AssetPack} file. Entries are collected in memory, then the
+ * table of contents and the data blocks are written in one pass to a
+ * temporary file that replaces the target, so readers never see a partial pack.
+ */
+public class AssetPackWriter {
+
+    private static final int ALIGN = 16;
+
+    private record Pending(String name, byte kind, ByteBuffer data, int a, int b, int c) { }
+
+    private final int contentVersion;
+    private final List<Pending> entries = new ArrayList<>();
+
+    public AssetPackWriter(int contentVersion) {
+        this.contentVersion = contentVersion;
+    }
+
+    /** @param argb non-premultiplied ARGB pixels, row-major */
+    public void addTexture(String name, int width, int height, int[] argb) {
+        ByteBuffer b = ByteBuffer.allocate(width * height * 4);
+        for (int p : argb) {
+            int a = p >>> 24;
+            // premultiplied BGRA, rounded
+            b.put((byte) (((p & 0xFF) * a + 127) / 255));
+            b.put((byte) ((((p >> 8) & 0xFF) * a + 127) / 255));
+            b.put((byte) ((((p >> 16) & 0xFF) * a + 127) / 255));
+            b.put((byte) a);
+        }
+        entries.add(new Pending(name, AssetPack.TEXTURE, b.flip(), width, height, 0));
+    }
+
+    public void addMesh(String name, MeshData mesh) {
+        ByteBuffer b = ByteBuffer.allocate(4 * (mesh.points().length + mesh.texCoords().length
+                + mesh.faces().length)).order(ByteOrder.LITTLE_ENDIAN);
+        b.asFloatBuffer().put(mesh.points());
+        b.position(mesh.points().length * 4);
+        b.asFloatBuffer().put(mesh.texCoords());
+        b.position(b.position() + mesh.texCoords().length * 4);
+        b.asIntBuffer().put(mesh.faces());
+        b.position(0);
+        entries.add(new Pending(name, AssetPack.MESH, b,
+                mesh.points().length, mesh.texCoords().length, mesh.faces().length));
+    }
+
+    public void addMaterial(String name, AssetPack.Material m) {
+        byte[] texture = m.texture() == null ? new byte[0] : m.texture().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer b = ByteBuffer.allocate(12 + texture.length).order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(m.diffuse()).putInt(m.specular()).putFloat(m.specularPower()).put(texture).flip();
+        entries.add(new Pending(name, AssetPack.MATERIAL, b, 0, 0, 0));
+    }
+
+    public void write(Path file) throws IOException {
+        List<byte[]> names = new ArrayList<>();
+        long tocBytes = 16;
+        for (Pending p : entries) {
+            byte[] n = p.name().getBytes(StandardCharsets.UTF_8);
+            names.add(n);
+            tocBytes += 2 + n.length + 1 + 8 + 8 + 12;
+        }
+        long[] offsets = new long[entries.size()];
+        long offset = align(tocBytes);
+        for (int i = 0; i < entries.size(); i++) {
+            offsets[i] = offset;
+            offset = align(offset + entries.get(i).data().remaining());
+        }
+        if (offset > Integer.MAX_VALUE) throw new IOException("asset pack larger than 2 GB");
+
+        ByteBuffer toc = ByteBuffer.allocate((int) align(tocBytes)).order(ByteOrder.LITTLE_ENDIAN);
+        toc.putInt(AssetPack.MAGIC).putInt(AssetPack.FORMAT).putInt(contentVersion).putInt(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Pending p = entries.get(i);
+            toc.putShort((short) names.get(i).length).put(names.get(i)).put(p.kind())
+               .putLong(offsets[i]).putLong(p.data().remaining()).putInt(p.a()).putInt(p.b()).putInt(p.c());
+        }
+        toc.position(toc.limit()).flip();
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "assets", ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                writeFully(ch, toc);
+                for (int i = 0; i < entries.size(); i++) {
+                    ch.position(offsets[i]);
+                    writeFully(ch, entries.get(i).data().duplicate());
+                }
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static long align(long n) {
+        return (n + ALIGN - 1) / ALIGN * ALIGN;
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer b) throws IOException {
+        while (b.hasRemaining()) ch.write(b);
+    }
+}
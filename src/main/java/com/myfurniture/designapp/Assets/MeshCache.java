@@ -0,0 +1,124 @@
+package com.myfurniture.designapp.Assets;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk cache of parsed and simplified meshes. Each source file maps to one
+ * binary file named after its path, size and modification time, so an edited
+ * model is re-parsed and a stale entry is simply never read again. Entries are
+ * memory-mapped and copied out in bulk, which is much faster than parsing.
+ *
+ * <p>Layout, little-endian: magic, version, level count, then per level the
+ * point, texture-coordinate and face array lengths followed by the arrays.
+ */
+public class MeshCache {
+
+    private static final int MAGIC = 0x48534D46;   // "FMSH"
+    private static final int VERSION = 1;
+
+    private final Path dir;
+
+    public MeshCache(Path dir) {
+        this.dir = dir;
+    }
+
+    /** LOD chain for a model, from the cache if it is current, else parsed and stored. */
+    public List<MeshData> load(Path model) throws IOException {
+        Path entry = entryFor(model);
+        if (Files.isRegularFile(entry)) {
+            try {
+                return read(entry);
+            } catch (IOException | RuntimeException ex) {
+                Files.deleteIfExists(entry);       // corrupt or from another version
+            }
+        }
+        List<MeshData> chain = MeshSimplifier.lodChain(ObjParser.parse(model));
+        try {
+            write(chain, entry);
+        } catch (IOException ex) {
+            System.err.println("Could not cache " + model + ": " + ex);
+        }
+        return chain;
+    }
+
+    Path entryFor(Path model) throws IOException {
+        Path abs = model.toAbsolutePath().normalize();
+        FileTime modified = Files.getLastModifiedTime(abs);
+        CRC32 crc = new CRC32();
+        crc.update(abs.toString().getBytes(StandardCharsets.UTF_8));
+        String name = abs.getFileName().toString().replaceAll("[^A-Za-z0-9._-]", "_");
+        String stamp = HexFormat.of().toHexDigits(crc.getValue() ^ Files.size(abs) * 31 ^ modified.toMillis());
+        return dir.resolve(name + "-" + stamp + ".mesh");
+    }
+
+    static List<MeshData> read(Path entry) throws IOException {
+        try (FileChannel ch = FileChannel.open(entry, StandardOpenOption.READ)) {
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getInt() != MAGIC || map.getInt() != VERSION) throw new IOException("not a mesh cache entry");
+            int levels = map.getInt();
+            List<MeshData> chain = new ArrayList<>(levels);
+            for (int l = 0; l < levels; l++) {
+                float[] points = new float[map.getInt()];
+                float[] tex    = new float[map.getInt()];
+                int[] faces    = new int[map.getInt()];
+                map.asFloatBuffer().get(points);
+                map.position(map.position() + points.length * 4);
+                map.asFloatBuffer().get(tex);
+                map.position(map.position() + tex.length * 4);
+                map.asIntBuffer().get(faces);
+                map.position(map.position() + faces.length * 4);
+                chain.add(new MeshData(points, tex, faces));
+            }
+            return chain;
+        }
+    }
+
+    void write(List<MeshData> chain, Path entry) throws IOException {
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "mesh", ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(chain.size()).flip();
+            writeFully(ch, header);
+            for (MeshData m : chain) {
+                ByteBuffer b = ByteBuffer.allocate(12 + 4 * (m.points().length + m.texCoords().length
+                        + m.faces().length)).order(ByteOrder.LITTLE_ENDIAN);
+                b.putInt(m.points().length).putInt(m.texCoords().length).putInt(m.faces().length);
+                b.asFloatBuffer().put(m.points());
+                b.position(b.position() + m.points().length * 4);
+                b.asFloatBuffer().put(m.texCoords());
+                b.position(b.position() + m.texCoords().length * 4);
+                b.asIntBuffer().put(m.faces());
+                b.position(b.limit()).flip();
+                writeFully(ch, b);
+            }
+        }
+        try {
+            Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer b) throws IOException {
+        while (b.hasRemaining()) ch.write(b);
+    }
+}
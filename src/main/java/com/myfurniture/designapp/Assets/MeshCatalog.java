@@ -0,0 +1,169 @@
+package com.myfurniture.designapp.Assets;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Furniture types whose 3D shape comes from a model file instead of the
+ * built-in factory code. The catalogue is a properties file mapping type names
+ * to OBJ paths (relative to the file):
+ *
+ * <pre>
+ * armchair = models/armchair.obj
+ * sofa     = models/chesterfield.obj
+ * </pre>
+ *
+ * Only the index is read at start-up. Models load on first use, or earlier
+ * via {@link #preload}, from the default {@link AssetPack} when it holds them
+ * and through a {@link MeshCache} otherwise, so later launches skip parsing. The default catalogue lives in {@code ~/.myfurniture/models};
+ * the {@code myfurniture.catalog} system property points elsewhere.
+ */
+public class MeshCatalog {
+
+    public static final int LOD_LEVELS = 1 + MeshSimplifier.LOD_RESOLUTIONS.length;
+
+    private static final Path HOME = Paths.get(System.getProperty("user.home"), ".myfurniture");
+    private static MeshCatalog defaultCatalog;
+
+    private final Map<String, Path> models = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<List<MeshData>>> loaded = new ConcurrentHashMap<>();
+    private final MeshCache cache;
+
+    public MeshCatalog(MeshCache cache) {
+        this.cache = cache;
+    }
+
+    /** The catalogue named by {@code myfurniture.catalog}, or the one in the user's home; empty if missing. */
+    public static synchronized MeshCatalog getDefault() {
+        if (defaultCatalog == null) {
+            defaultCatalog = new MeshCatalog(new MeshCache(HOME.resolve("cache").resolve("meshes")));
+            String configured = System.getProperty("myfurniture.catalog");
+            Path index = configured != null ? Paths.get(configured) : HOME.resolve("models").resolve("catalog.properties");
+            if (Files.isRegularFile(index)) {
+                try {
+                    defaultCatalog.loadIndex(index);
+                } catch (IOException ex) {
+                    System.err.println("Could not read mesh catalogue " + index + ": " + ex);
+                }
+            }
+        }
+        return defaultCatalog;
+    }
+
+    public void loadIndex(Path index) throws IOException {
+        Properties p = new Properties();
+        try (Reader r = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+            p.load(r);
+        }
+        Path base = index.toAbsolutePath().getParent();
+        for (String type : p.stringPropertyNames()) register(type, base.resolve(p.getProperty(type).trim()));
+    }
+
+    public void register(String type, Path model) {
+        String key = key(type);
+        models.put(key, model);
+        loaded.remove(key);
+    }
+
+    public boolean contains(String type) {
+        return type != null && models.containsKey(key(type));
+    }
+
+    public Set<String> getTypes() {
+        return Collections.unmodifiableSet(models.keySet());
+    }
+
+    /**
+     * LOD chain for a type, full detail first and {@link #LOD_LEVELS} long;
+     * null if the type has no model or it failed to load. Blocks while the
+     * model is loading.
+     */
+    public List<MeshData> get(String type) {
+        CompletableFuture<List<MeshData>> f = request(type, Runnable::run);
+        if (f == null) return null;
+        try {
+            return f.join();
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /** Starts loading every model in the background, so the 3D view finds them ready. */
+    public void preload(Executor executor) {
+        for (String type : models.keySet()) request(type, executor);
+    }
+
+    private CompletableFuture<List<MeshData>> request(String type, Executor executor) {
+        if (!contains(type)) return null;
+        String key = key(type);
+        CompletableFuture<List<MeshData>> f = new CompletableFuture<>();
+        CompletableFuture<List<MeshData>> existing = loaded.putIfAbsent(key, f);
+        if (existing != null) return existing;
+
+        Path model = models.get(key);
+        executor.execute(() -> {
+            try {
+                f.complete(load(key));
+            } catch (IOException | RuntimeException ex) {
+                System.err.println("Could not load model " + model + ": " + ex);
+                f.completeExceptionally(ex);
+            }
+        });
+        return f;
+    }
+
+    /** The chain from the default asset pack if it holds this version of the model, else from the cache. */
+    private List<MeshData> load(String type) throws IOException {
+        AssetPack pack = AssetPack.getDefault();
+        String prefix = packName(type);
+        if (pack != null && prefix != null && pack.hasMesh(prefix + "/0")) {
+            List<MeshData> chain = new ArrayList<>(LOD_LEVELS);
+            for (int lod = 0; lod < LOD_LEVELS && pack.hasMesh(prefix + "/" + lod); lod++) {
+                chain.add(pack.mesh(prefix + "/" + lod));
+            }
+            if (chain.size() == LOD_LEVELS) return chain;
+        }
+        return cache.load(models.get(type));
+    }
+
+    /** True if the pack holds every model of the catalogue in its current version. */
+    public boolean isPacked(AssetPack pack) {
+        for (String type : models.keySet()) {
+            String prefix = packName(type);
+            if (prefix != null && !pack.hasMesh(prefix + "/" + (LOD_LEVELS - 1))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Name prefix of a type's meshes in an asset pack. It includes the cache
+     * stamp of the model file, so a pack never serves an outdated model.
+     */
+    String packName(String type) {
+        Path model = models.get(key(type));
+        if (model == null) return null;
+        try {
+            return "mesh/" + cache.entryFor(model).getFileName();
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private static String key(String type) {
+        return type.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,37 @@
+package com.myfurniture.designapp.Assets;
+
+import javafx.scene.shape.TriangleMesh;
+
+/**
+ * Triangle mesh as plain arrays in {@link TriangleMesh} layout: points are
+ * x,y,z triples, texture coordinates u,v pairs, and faces p0,t0,p1,t1,p2,t2.
+ * Kept free of JavaFX objects so it can be parsed, simplified and cached off
+ * the FX thread.
+ */
+public record MeshData(float[] points, float[] texCoords, int[] faces) {
+
+    public int triangleCount() {
+        return faces.length / 6;
+    }
+
+    /** min x, y, z then max x, y, z of the points */
+    public float[] bounds() {
+        float[] b = { Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE,
+                     -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE };
+        for (int i = 0; i < points.length; i += 3) {
+            for (int a = 0; a < 3; a++) {
+                b[a]     = Math.min(b[a],     points[i + a]);
+                b[a + 3] = Math.max(b[a + 3], points[i + a]);
+            }
+        }
+        return b;
+    }
+
+    public TriangleMesh toTriangleMesh() {
+        TriangleMesh mesh = new TriangleMesh();
+        mesh.getPoints().setAll(points);
+        mesh.getTexCoords().setAll(texCoords);
+        mesh.getFaces().setAll(faces);
+        return mesh;
+    }
+}
@@ -0,0 +1,92 @@
+package com.myfurniture.designapp.Assets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decimation by vertex clustering: points are snapped to a uniform grid over
+ * the mesh bounds, each occupied cell becomes one point at the average of its
+ * members, and triangles that collapse are dropped. It is one linear pass, so
+ * LOD chains for big catalogues are cheap to build, at the cost of the
+ * quality a quadric-error simplifier would give.
+ */
+public class MeshSimplifier {
+
+    /** grid cells along the longest side for each coarser level */
+    static final int[] LOD_RESOLUTIONS = { 48, 16 };
+    /** a level must keep fewer than this share of the previous one's triangles to be worth its memory */
+    private static final double MIN_REDUCTION = 0.85;
+
+    /**
+     * Full mesh first, then one level per {@link #LOD_RESOLUTIONS} entry. A
+     * level that would barely shrink repeats the previous one.
+     */
+    public static List<MeshData> lodChain(MeshData mesh) {
+        List<MeshData> chain = new ArrayList<>();
+        chain.add(mesh);
+        for (int resolution : LOD_RESOLUTIONS) {
+            MeshData previous = chain.get(chain.size() - 1);
+            MeshData coarse = cluster(mesh, resolution);
+            boolean worthIt = coarse.triangleCount() > 0
+                    && coarse.triangleCount() < previous.triangleCount() * MIN_REDUCTION;
+            chain.add(worthIt ? coarse : previous);
+        }
+        return chain;
+    }
+
+    public static MeshData cluster(MeshData mesh, int resolution) {
+        float[] p = mesh.points();
+        int n = p.length / 3;
+        float[] b = mesh.bounds();
+        double extent = Math.max(b[3] - b[0], Math.max(b[4] - b[1], b[5] - b[2]));
+        if (n == 0 || extent <= 0) return mesh;
+        double cell = extent / resolution;
+        int cells = resolution + 1;
+
+        Map<Long, Integer> cellIds = new HashMap<>();
+        int[] remap = new int[n];
+        double[] sum = new double[n * 3];
+        int[] count = new int[n];
+        int clusters = 0;
+        for (int i = 0; i < n; i++) {
+            long cx = (long) ((p[i * 3]     - b[0]) / cell);
+            long cy = (long) ((p[i * 3 + 1] - b[1]) / cell);
+            long cz = (long) ((p[i * 3 + 2] - b[2]) / cell);
+            long key = (cx * cells + cy) * cells + cz;
+            Integer id = cellIds.get(key);
+            if (id == null) {
+                id = clusters++;
+                cellIds.put(key, id);
+            }
+            remap[i] = id;
+            sum[id * 3]     += p[i * 3];
+            sum[id * 3 + 1] += p[i * 3 + 1];
+            sum[id * 3 + 2] += p[i * 3 + 2];
+            count[id]++;
+        }
+
+        float[] points = new float[clusters * 3];
+        for (int c = 0; c < clusters; c++) {
+            points[c * 3]     = (float) (sum[c * 3]     / count[c]);
+            points[c * 3 + 1] = (float) (sum[c * 3 + 1] / count[c]);
+            points[c * 3 + 2] = (float) (sum[c * 3 + 2] / count[c]);
+        }
+
+        int[] f = mesh.faces();
+        int[] faces = new int[f.length];
+        int kept = 0;
+        for (int i = 0; i < f.length; i += 6) {
+            int a = remap[f[i]], c1 = remap[f[i + 2]], c2 = remap[f[i + 4]];
+            if (a == c1 || a == c2 || c1 == c2) continue;
+            faces[kept]     = a;  faces[kept + 1] = f[i + 1];
+            faces[kept + 2] = c1; faces[kept + 3] = f[i + 3];
+            faces[kept + 4] = c2; faces[kept + 5] = f[i + 5];
+            kept += 6;
+        }
+        // texture coordinates are shared with the full mesh; corners keep their own
+        return new MeshData(points, mesh.texCoords(), Arrays.copyOf(faces, kept));
+    }
+}
@@ -0,0 +1,225 @@
+package com.myfurniture.designapp.Assets;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Wavefront OBJ reader for geometry only: {@code v}, {@code vt} and {@code f}
+ * records; everything else (normals, groups, materials) is skipped. Input is
+ * read in blocks and numbers are parsed straight from the bytes into growing
+ * primitive arrays, so a model of millions of faces creates no per-line or
+ * per-number objects. Polygons are split into triangle fans.
+ */
+public class ObjParser {
+
+    private static final int BLOCK = 64 * 1024;
+
+    private final InputStream in;
+    private final byte[] buf = new byte[BLOCK];
+    private int pos, limit;
+    private boolean eof;
+
+    private final FloatArray points = new FloatArray();
+    // index 0 is a (0,0) placeholder for corners without texture coordinates,
+    // which also makes OBJ's 1-based vt indices usable as they are
+    private final FloatArray texCoords = new FloatArray();
+    private final IntArray faces = new IntArray();
+    private int[] polygon = new int[2 * 64];   // grows for larger faces
+
+    private ObjParser(InputStream in) {
+        this.in = in;
+        texCoords.add(0);
+        texCoords.add(0);
+    }
+
+    public static MeshData parse(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return parse(in);
+        }
+    }
+
+    public static MeshData parse(InputStream in) throws IOException {
+        ObjParser p = new ObjParser(in);
+        p.run();
+        MeshData mesh = new MeshData(p.points.toArray(), p.texCoords.toArray(), p.faces.toArray());
+        int nPoints = mesh.points().length / 3, nTex = mesh.texCoords().length / 2;
+        int[] f = mesh.faces();
+        for (int i = 0; i < f.length; i += 2) {
+            if (f[i] < 0 || f[i] >= nPoints || f[i + 1] < 0 || f[i + 1] >= nTex) {
+                throw new IOException("face " + (i / 6 + 1) + " refers to a missing vertex");
+            }
+        }
+        return mesh;
+    }
+
+    private void run() throws IOException {
+        int c;
+        while ((c = peek()) >= 0) {
+            if (c == 'v') {
+                pos++;
+                int next = peek();
+                if (next == ' ' || next == '\t') {
+                    points.add(number());
+                    points.add(number());
+                    points.add(number());
+                } else if (next == 't') {
+                    pos++;
+                    texCoords.add(number());
+                    texCoords.add(1 - number());     // OBJ's v runs up, JavaFX's down
+                }
+            } else if (c == 'f') {
+                pos++;
+                face();
+            }
+            skipLine();
+        }
+    }
+
+    private void face() throws IOException {
+        int corners = 0;
+        while (true) {
+            skipBlanks();
+            int c = peek();
+            if (c < 0 || c == '\n' || c == '\r' || c == '#') break;
+            int v = index(points.size() / 3);
+            int t = 0;
+            if (peek() == '/') {
+                pos++;
+                if (peek() != '/') t = index(texCoords.size() / 2 - 1) + 1;
+                if (peek() == '/') {
+                    pos++;
+                    index(0);                         // normal, not used
+                }
+            }
+            if (corners * 2 == polygon.length) polygon = Arrays.copyOf(polygon, polygon.length * 2);
+            polygon[corners * 2]     = v;
+            polygon[corners * 2 + 1] = t;
+            corners++;
+            // skip whatever else the token holds
+            while ((c = peek()) >= 0 && c != ' ' && c != '\t' && c != '\n' && c != '\r') pos++;
+        }
+        for (int i = 1; i + 1 < corners; i++) {
+            faces.add(polygon[0]);           faces.add(polygon[1]);
+            faces.add(polygon[i * 2]);       faces.add(polygon[i * 2 + 1]);
+            faces.add(polygon[i * 2 + 2]);   faces.add(polygon[i * 2 + 3]);
+        }
+    }
+
+    /** 1-based OBJ index (negative counts back from the end) to a 0-based one. */
+    private int index(int count) throws IOException {
+        boolean negative = false;
+        if (peek() == '-') {
+            negative = true;
+            pos++;
+        }
+        int n = 0, c;
+        while ((c = peek()) >= '0' && c <= '9') {
+            n = n * 10 + (c - '0');
+            pos++;
+        }
+        return negative ? count - n : n - 1;
+    }
+
+    /** Decimal number with optional sign, fraction and exponent; 0 if missing. */
+    private float number() throws IOException {
+        skipBlanks();
+        boolean negative = false;
+        int c = peek();
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            pos++;
+        }
+        long mantissa = 0;
+        int exponent = 0, digits = 0;
+        while ((c = peek()) >= '0' && c <= '9') {
+            if (digits++ < 18) mantissa = mantissa * 10 + (c - '0');
+            else exponent++;
+            pos++;
+        }
+        if (c == '.') {
+            pos++;
+            while ((c = peek()) >= '0' && c <= '9') {
+                if (digits++ < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    exponent--;
+                }
+                pos++;
+            }
+        }
+        if (c == 'e' || c == 'E') {
+            pos++;
+            boolean negExp = false;
+            if ((c = peek()) == '-' || c == '+') {
+                negExp = c == '-';
+                pos++;
+            }
+            int e = 0;
+            while ((c = peek()) >= '0' && c <= '9') {
+                e = Math.min(e * 10 + (c - '0'), 1000);
+                pos++;
+            }
+            exponent += negExp ? -e : e;
+        }
+        double value = mantissa;
+        if (exponent != 0) value = exponent > 0 ? value * Math.pow(10, exponent) : value / Math.pow(10, -exponent);
+        return (float) (negative ? -value : value);
+    }
+
+    private void skipBlanks() throws IOException {
+        int c;
+        while ((c = peek()) == ' ' || c == '\t') pos++;
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        while ((c = peek()) >= 0) {
+            pos++;
+            if (c == '\n') return;
+        }
+    }
+
+    /** Next byte without consuming it, or -1 at the end of input. */
+    private int peek() throws IOException {
+        if (pos < limit) return buf[pos] & 0xFF;
+        if (eof) return -1;
+        limit = in.readNBytes(buf, 0, BLOCK);
+        pos = 0;
+        if (limit <= 0) {
+            eof = true;
+            limit = 0;
+            return -1;
+        }
+        return buf[0] & 0xFF;
+    }
+
+    // ------------------- growable arrays -------------------
+
+    private static final class FloatArray {
+        private float[] a = new float[1024];
+        private int n;
+
+        void add(float v) {
+            if (n == a.length) a = Arrays.copyOf(a, n * 2);
+            a[n++] = v;
+        }
+
+        int size() { return n; }
+
+        float[] toArray() { return Arrays.copyOf(a, n); }
+    }
+
+    private static final class IntArray {
+        private int[] a = new int[1024];
+        private int n;
+
+        void add(int v) {
+            if (n == a.length) a = Arrays.copyOf(a, n * 2);
+            a[n++] = v;
+        }
+
+        int[] toArray() { return Arrays.copyOf(a, n); }
+    }
+}
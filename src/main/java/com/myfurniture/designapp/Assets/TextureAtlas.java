@@ -0,0 +1,262 @@
+package com.myfurniture.designapp.Assets;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Layout of several textures packed into one or a few atlas pages, so parts
+ * drawn with different textures can share one material. Packing is a skyline
+ * bottom-left fit, tallest sprites first, tried at a few page widths to find
+ * the smallest page holding everything; only when the maximum size is not
+ * enough do further pages of that size open. Each sprite is surrounded by a gutter of its own
+ * edge pixels, so bilinear filtering never bleeds a neighbour in.
+ *
+ * <p>The layout depends only on the names and sizes, never on the pixels, so
+ * a baked page stays valid as long as the sprites keep their sizes. An atlas
+ * only serves textures mapped within [0, 1]; repeating textures cannot be
+ * packed.
+ */
+public class TextureAtlas {
+
+    public static final int PADDING = 2;
+    /** page edges are multiples of this */
+    private static final int ALIGN = 4;
+
+    /** Where a sprite landed: its page, its pixel rectangle and the matching UV rectangle. */
+    public record Region(int page, int x, int y, int width, int height,
+                         float u0, float v0, float u1, float v1) {
+
+        public float u(float s) { return u0 + s * (u1 - u0); }
+        public float v(float t) { return v0 + t * (v1 - v0); }
+
+        /** Copy of interleaved (u, v) pairs in [0, 1] moved into this region. */
+        public float[] remap(float[] texCoords) {
+            float[] out = new float[texCoords.length];
+            for (int i = 0; i + 1 < texCoords.length; i += 2) {
+                out[i]     = u(texCoords[i]);
+                out[i + 1] = v(texCoords[i + 1]);
+            }
+            return out;
+        }
+    }
+
+    private record Sprite(String name, int width, int height) { }
+
+    private final int pageWidth, pageHeight, pageCount;
+    private final Map<String, Region> regions;
+    private final long usedTexels;
+
+    private TextureAtlas(int pageWidth, int pageHeight, int pageCount, Map<String, Region> regions) {
+        this.pageWidth  = pageWidth;
+        this.pageHeight = pageHeight;
+        this.pageCount  = pageCount;
+        this.regions    = Collections.unmodifiableMap(regions);
+        long used = 0;
+        for (Region r : regions.values()) used += (long) r.width() * r.height();
+        this.usedTexels = used;
+    }
+
+    /**
+     * @param sizes       sprite name to {width, height}
+     * @param maxPageSize largest page edge
+     * @throws IllegalArgumentException if a sprite does not fit on a page of the maximum size
+     */
+    public static TextureAtlas pack(Map<String, int[]> sizes, int maxPageSize) {
+        List<Sprite> sprites = new ArrayList<>();
+        long area = 0;
+        int widest = 1;
+        for (Map.Entry<String, int[]> e : sizes.entrySet()) {
+            Sprite s = new Sprite(e.getKey(), e.getValue()[0], e.getValue()[1]);
+            int w = s.width() + 2 * PADDING, h = s.height() + 2 * PADDING;
+            if (w > maxPageSize || h > maxPageSize) {
+                throw new IllegalArgumentException(s.name() + " does not fit a " + maxPageSize + " atlas page");
+            }
+            sprites.add(s);
+            area += (long) w * h;
+            widest = Math.max(widest, w);
+        }
+        sprites.sort(Comparator.comparingInt(Sprite::height).reversed()
+                .thenComparing(Comparator.comparingInt(Sprite::width).reversed())
+                .thenComparing(Sprite::name));
+
+        // single page: try widths from the square root of the area up, keep the smallest page
+        int[] best = null;
+        for (int w = align(Math.max(widest, (int) Math.ceil(Math.sqrt(area)))); w <= maxPageSize;
+                w = align(w + Math.max(ALIGN, w / 16))) {
+            Skyline sky = new Skyline(w, maxPageSize);
+            if (!fill(sprites, sky, 0, w, maxPageSize, new LinkedHashMap<>())) continue;
+            int h = align(sky.top());
+            if (best == null || (long) w * h < (long) best[0] * best[1]) best = new int[] {w, h};
+        }
+        if (best != null) {
+            Map<String, Region> placed = new LinkedHashMap<>();
+            fill(sprites, new Skyline(best[0], best[1]), 0, best[0], best[1], placed);
+            return new TextureAtlas(best[0], best[1], 1, placed);
+        }
+
+        // too much for one page: fill maximum-size pages in turn
+        Map<String, Region> placed = new LinkedHashMap<>();
+        List<Skyline> pages = new ArrayList<>();
+        for (Sprite s : sprites) {
+            boolean done = false;
+            for (int p = 0; p < pages.size() && !done; p++) {
+                done = place(s, pages.get(p), p, maxPageSize, maxPageSize, placed);
+            }
+            if (!done) {
+                pages.add(new Skyline(maxPageSize, maxPageSize));
+                place(s, pages.get(pages.size() - 1), pages.size() - 1, maxPageSize, maxPageSize, placed);
+            }
+        }
+        return new TextureAtlas(maxPageSize, maxPageSize, Math.max(1, pages.size()), placed);
+    }
+
+    private static int align(int n) {
+        return (n + ALIGN - 1) / ALIGN * ALIGN;
+    }
+
+    private static boolean fill(List<Sprite> sprites, Skyline sky, int page, int w, int h, Map<String, Region> out) {
+        for (Sprite s : sprites) {
+            if (!place(s, sky, page, w, h, out)) return false;
+        }
+        return true;
+    }
+
+    private static boolean place(Sprite s, Skyline sky, int page, int w, int h, Map<String, Region> out) {
+        int[] at = sky.insert(s.width() + 2 * PADDING, s.height() + 2 * PADDING);
+        if (at == null) return false;
+        int x = at[0] + PADDING, y = at[1] + PADDING;
+        out.put(s.name(), new Region(page, x, y, s.width(), s.height(),
+                (float) x / w, (float) y / h, (float) (x + s.width()) / w, (float) (y + s.height()) / h));
+        return true;
+    }
+
+    public Region region(String name) {
+        return regions.get(name);
+    }
+
+    public Map<String, Region> getRegions() {
+        return regions;
+    }
+
+    public int getPageCount()  { return pageCount; }
+    public int getPageWidth()  { return pageWidth; }
+    public int getPageHeight() { return pageHeight; }
+
+    /** Share of the page area covered by sprite pixels (gutters count as waste). */
+    public double getFillRatio() {
+        return (double) usedTexels / ((long) pageWidth * pageHeight * pageCount);
+    }
+
+    /**
+     * Non-premultiplied ARGB pixels of a page, row-major; the space no sprite
+     * covers stays transparent.
+     *
+     * @param pixels ARGB pixels of a sprite by name, row-major at the sprite's size
+     */
+    public int[] compose(int page, Function<String, int[]> pixels) {
+        int[] out = new int[pageWidth * pageHeight];
+        for (Map.Entry<String, Region> e : regions.entrySet()) {
+            Region r = e.getValue();
+            if (r.page() != page) continue;
+            int[] src = pixels.apply(e.getKey());
+            int w = r.width(), h = r.height();
+            for (int dy = -PADDING; dy < h + PADDING; dy++) {
+                int sy = Math.min(h - 1, Math.max(0, dy)), row = (r.y() + dy) * pageWidth + r.x();
+                for (int dx = -PADDING; dx < w + PADDING; dx++) {
+                    out[row + dx] = src[sy * w + Math.min(w - 1, Math.max(0, dx))];
+                }
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d sprites on %d page(s) of %dx%d, %.1f%% filled",
+                regions.size(), pageCount, pageWidth, pageHeight, getFillRatio() * 100);
+    }
+
+    // ------------------- skyline -------------------
+
+    /** Top edge of the filled area as a list of horizontal segments, left to right. */
+    private static final class Skyline {
+        private final int width, height;
+        private final List<int[]> segments = new ArrayList<>();   // {x, y, width}
+
+        Skyline(int width, int height) {
+            this.width = width;
+            this.height = height;
+            segments.add(new int[] {0, 0, width});
+        }
+
+        /** Top-left corner of the lowest, then leftmost, spot for a w x h rectangle; null if none. */
+        int[] insert(int w, int h) {
+            int best = -1, bestY = Integer.MAX_VALUE;
+            for (int i = 0; i < segments.size(); i++) {
+                int y = fitAt(i, w);
+                if (y >= 0 && y + h <= height && y < bestY) {
+                    best = i;
+                    bestY = y;
+                }
+            }
+            if (best < 0) return null;
+            int x = segments.get(best)[0];
+            add(best, x, bestY + h, w);
+            return new int[] {x, bestY};
+        }
+
+        /** Lowest point of the filled area. */
+        int top() {
+            int y = 0;
+            for (int[] s : segments) y = Math.max(y, s[1]);
+            return y;
+        }
+
+        /** Resting height of a rectangle of width w whose left edge is at segment i; -1 if it sticks out. */
+        private int fitAt(int i, int w) {
+            int x = segments.get(i)[0];
+            if (x + w > width) return -1;
+            int y = 0, left = w;
+            for (int j = i; left > 0; j++) {
+                int[] s = segments.get(j);
+                y = Math.max(y, s[1]);
+                left -= s[2];
+            }
+            return y;
+        }
+
+        private void add(int i, int x, int y, int w) {
+            segments.add(i, new int[] {x, y, w});
+            // shorten or drop the segments now underneath
+            for (int j = i + 1; j < segments.size(); ) {
+                int[] s = segments.get(j), prev = segments.get(j - 1);
+                int end = prev[0] + prev[2];
+                if (s[0] >= end) break;
+                int cut = end - s[0];
+                if (s[2] <= cut) {
+                    segments.remove(j);
+                } else {
+                    s[0] += cut;
+                    s[2] -= cut;
+                    break;
+                }
+            }
+            // merge neighbours of equal height
+            for (int j = 0; j + 1 < segments.size(); ) {
+                int[] a = segments.get(j), b = segments.get(j + 1);
+                if (a[1] == b[1]) {
+                    a[2] += b[2];
+                    segments.remove(j + 1);
+                } else {
+                    j++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.myfurniture.designapp.Core;
+
+import com.myfurniture.designapp.Diagnostics.Events;
+import com.myfurniture.designapp.Diagnostics.Metrics;
+import javafx.scene.paint.Color;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Reads and writes the text {@code .design} format:
+ * <pre>
+ * width,height,#room,#backWall,#leftWall,#rightWall
+ * type;x;y;width;height;#primary;#secondary;material;rotation   (one line per item)
+ * </pre>
+ * Needs no running JavaFX toolkit, so it can be used from headless tools.
+ * File reads and writes are timed and emit {@link Events.DesignIO}.
+ */
+public class DesignIO {
+
+    private static final Metrics.Timer loadTimer = Metrics.timer("design.load");
+    private static final Metrics.Timer saveTimer = Metrics.timer("design.save");
+
+    public static RoomDesign read(Path file) throws IOException {
+        Events.DesignIO event = new Events.DesignIO();
+        event.begin();
+        long t0 = System.nanoTime();
+        RoomDesign design;
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            design = read(br);
+        }
+        loadTimer.recordSince(t0);
+        commit(event, "load", file, design);
+        return design;
+    }
+
+    public static RoomDesign read(BufferedReader br) throws IOException {
+        String header = br.readLine();
+        if (header == null) throw new IOException("empty design file");
+        String[] room = header.split(",");
+        RoomDesign design = new RoomDesign(
+                Integer.parseInt(room[0].trim()),
+                Integer.parseInt(room[1].trim()),
+                Color.web(room[2].trim()));
+        design.setBackWallColor (Color.web(room[3].trim()));
+        design.setLeftWallColor (Color.web(room[4].trim()));
+        design.setRightWallColor(Color.web(room[5].trim()));
+
+        for (String ln; (ln = br.readLine()) != null; ) {
+            if (ln.isBlank()) continue;
+            design.addFurniture(parseItem(ln));
+        }
+        return design;
+    }
+
+    /** Parses one furniture line. */
+    public static FurnitureItem parseItem(String line) {
+        String[] p = line.split(";");
+        FurnitureItem it = new FurnitureItem(
+                p[0], Integer.parseInt(p[1]), Integer.parseInt(p[2]),
+                Integer.parseInt(p[3]), Integer.parseInt(p[4]),
+                Color.web(p[5]), Color.web(p[6]), p[7]);
+        it.setRotation(Double.parseDouble(p[8]));
+        return it;
+    }
+
+    public static void write(RoomDesign design, Path file) throws IOException {
+        Events.DesignIO event = new Events.DesignIO();
+        event.begin();
+        long t0 = System.nanoTime();
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            write(design, w);
+        }
+        saveTimer.recordSince(t0);
+        commit(event, "save", file, design);
+    }
+
+    private static void commit(Events.DesignIO event, String operation, Path file, RoomDesign design) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.operation = operation;
+        event.file = file.toString();
+        event.items = design.getFurniture().size();
+        try {
+            event.bytes = Files.size(file);
+        } catch (IOException ignored) {
+        }
+        event.commit();
+    }
+
+    public static void write(RoomDesign design, Writer out) throws IOException {
+        PrintWriter pw = new PrintWriter(out);
+        pw.printf(Locale.ROOT, "%d,%d,%s,%s,%s,%s%n",
+                design.getRoomWidth(),
+                design.getRoomHeight(),
+                toHex(design.getRoomColor()),
+                toHex(design.getBackWallColor()),
+                toHex(design.getLeftWallColor()),
+                toHex(design.getRightWallColor()));
+        for (FurnitureItem it : design.getFurniture()) {
+            // ROOT locale: a decimal comma would break the ';'-separated parse
+            pw.printf(Locale.ROOT, "%s;%d;%d;%d;%d;%s;%s;%s;%.2f%n",
+                    it.getType(), it.getX(), it.getY(),
+                    it.getWidth(), it.getHeight(),
+                    toHex(it.getPrimaryColor()),
+                    toHex(it.getSecondaryColor()),
+                    it.getMaterial(),
+                    it.getRotation());
+        }
+        pw.flush();
+        if (pw.checkError()) throw new IOException("write failed");
+    }
+
+    public static String toHex(Color c) {
+        return String.format("#%02X%02X%02X",
+                (int)(c.getRed()*255),
+                (int)(c.getGreen()*255),
+                (int)(c.getBlue()*255));
+    }
+}
@@ -1,13 +1,32 @@
 package com.myfurniture.designapp.Core;
 
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+
 public class DesignManager {
     private RoomDesign currentDesign;
 
+    // selection shared by the 2D and 3D views
+    private final ObjectProperty<FurnitureItem> selectedItem = new SimpleObjectProperty<>();
+
     public RoomDesign getCurrentDesign() {
         return currentDesign;
     }
 
     public void setCurrentDesign(RoomDesign design) {
         this.currentDesign = design;
+        setSelectedItem(null);
+    }
+
+    public FurnitureItem getSelectedItem() {
+        return selectedItem.get();
+    }
+
+    public void setSelectedItem(FurnitureItem item) {
+        selectedItem.set(item);
+    }
+
+    public ObjectProperty<FurnitureItem> selectedItemProperty() {
+        return selectedItem;
     }
 }
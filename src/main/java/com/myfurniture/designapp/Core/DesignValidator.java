@@ -0,0 +1,214 @@
+package com.myfurniture.designapp.Core;
+
+import com.myfurniture.designapp.Util.SpatialHashGrid;
+import javafx.scene.paint.Color;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Checks a {@code .design} file line by line, where {@link DesignIO#read}
+ * stops at the first bad line. Reports malformed numbers and colours with
+ * their line, and in what does load: non-positive sizes, unknown types,
+ * items reaching past the walls and overlapping items (rotated footprints,
+ * through a {@link SpatialHashGrid}).
+ *
+ * <p>Two older forms are read and repaired: a header with only the room
+ * colour, and rotations written with a decimal comma. Lines that cannot be
+ * read are left out of the design.
+ */
+public class DesignValidator {
+
+    public enum Severity { WARNING, ERROR }
+
+    /** @param line 1-based line in the file */
+    public record Problem(int line, Severity severity, String message) {
+        @Override
+        public String toString() {
+            return "line " + line + ": " + (severity == Severity.ERROR ? "error: " : "") + message;
+        }
+    }
+
+    /**
+     * @param design   the lines that could be read, or null if the header could not
+     * @param repaired an older form was read, so writing the design back changes it
+     */
+    public record Result(RoomDesign design, List<Problem> problems, boolean repaired) {
+        public boolean hasErrors() {
+            for (Problem p : problems) if (p.severity() == Severity.ERROR) return true;
+            return false;
+        }
+    }
+
+    /** overlaps listed per design; the rest are only counted */
+    private static final int MAX_OVERLAPS_LISTED = 20;
+    /** how far past a wall an item may reach before it is reported, for rounding at odd angles */
+    private static final double WALL_TOLERANCE = 1;
+
+    private final Set<String> knownTypes;
+
+    /**
+     * @param knownTypes lower-case names of the types with a template; read
+     *                   without locking, so one validator can serve many threads
+     */
+    public DesignValidator(Set<String> knownTypes) {
+        this.knownTypes = Set.copyOf(knownTypes);
+    }
+
+    private record Placed(FurnitureItem item, Footprint footprint, int line) { }
+
+    public Result validate(BufferedReader br) throws IOException {
+        List<Problem> problems = new ArrayList<>();
+        boolean[] repaired = new boolean[1];
+        String header = br.readLine();
+        if (header == null) {
+            problems.add(new Problem(1, Severity.ERROR, "empty file"));
+            return new Result(null, problems, false);
+        }
+        RoomDesign design = parseHeader(header, problems, repaired);
+        if (design == null) return new Result(null, problems, false);
+
+        List<Placed> placed = new ArrayList<>();
+        int lineNo = 1;
+        for (String ln; (ln = br.readLine()) != null; ) {
+            lineNo++;
+            if (ln.isBlank()) continue;
+            FurnitureItem it = parseItem(ln, lineNo, problems, repaired);
+            if (it == null) continue;
+            design.addFurniture(it);
+            placed.add(new Placed(it, Footprint.of(it), lineNo));
+        }
+        checkPlacement(design, placed, problems);
+        problems.sort(Comparator.comparingInt(Problem::line));
+        return new Result(design, problems, repaired[0]);
+    }
+
+    // ------------------- parsing -------------------
+
+    private static RoomDesign parseHeader(String header, List<Problem> problems, boolean[] repaired) {
+        String[] f = header.split(",");
+        if (f.length != 3 && f.length < 6) {
+            problems.add(new Problem(1, Severity.ERROR, "header has " + f.length + " fields, expected 6"));
+            return null;
+        }
+        int w, h;
+        try {
+            w = Integer.parseInt(f[0].trim());
+            h = Integer.parseInt(f[1].trim());
+        } catch (NumberFormatException ex) {
+            problems.add(new Problem(1, Severity.ERROR, "malformed room size '" + f[0] + "," + f[1] + "'"));
+            return null;
+        }
+        if (w <= 0 || h <= 0) {
+            problems.add(new Problem(1, Severity.ERROR, "room size " + w + " x " + h + " is not positive"));
+            return null;
+        }
+        Color room = colour(f[2], 1, "room", problems);
+        if (room == null) return null;
+        RoomDesign design = new RoomDesign(w, h, room);
+        if (f.length == 3) {
+            // older files: the walls take the room colour
+            problems.add(new Problem(1, Severity.WARNING, "no wall colours, using the room colour"));
+            repaired[0] = true;
+            return design;
+        }
+        Color back = colour(f[3], 1, "back wall", problems);
+        Color left = colour(f[4], 1, "left wall", problems);
+        Color right = colour(f[5], 1, "right wall", problems);
+        if (back != null) design.setBackWallColor(back);
+        if (left != null) design.setLeftWallColor(left);
+        if (right != null) design.setRightWallColor(right);
+        return design;
+    }
+
+    private FurnitureItem parseItem(String ln, int line, List<Problem> problems, boolean[] repaired) {
+        String[] p = ln.split(";");
+        if (p.length != 9) {
+            problems.add(new Problem(line, Severity.ERROR, "item has " + p.length + " fields, expected 9"));
+            return null;
+        }
+        int[] box = new int[4];
+        for (int i = 0; i < 4; i++) {
+            try {
+                box[i] = Integer.parseInt(p[i + 1]);
+            } catch (NumberFormatException ex) {
+                problems.add(new Problem(line, Severity.ERROR, "malformed number '" + p[i + 1] + "'"));
+                return null;
+            }
+        }
+        double rotation;
+        try {
+            rotation = Double.parseDouble(p[8]);
+        } catch (NumberFormatException ex) {
+            try {
+                // written in a locale with a decimal comma before saving used ROOT
+                rotation = Double.parseDouble(p[8].replace(',', '.'));
+                problems.add(new Problem(line, Severity.WARNING, "decimal comma in rotation '" + p[8] + "'"));
+                repaired[0] = true;
+            } catch (NumberFormatException ex2) {
+                problems.add(new Problem(line, Severity.ERROR, "malformed rotation '" + p[8] + "'"));
+                return null;
+            }
+        }
+        Color primary = colour(p[5], line, "primary", problems);
+        Color secondary = colour(p[6], line, "secondary", problems);
+        if (primary == null || secondary == null) return null;
+
+        if (box[2] <= 0 || box[3] <= 0) {
+            problems.add(new Problem(line, Severity.ERROR, p[0] + " size " + box[2] + " x " + box[3] + " is not positive"));
+        }
+        if (!knownTypes.contains(p[0].trim().toLowerCase(Locale.ROOT))) {
+            problems.add(new Problem(line, Severity.WARNING, "unknown furniture type '" + p[0] + "'"));
+        }
+        FurnitureItem it = new FurnitureItem(p[0], box[0], box[1], box[2], box[3], primary, secondary, p[7]);
+        it.setRotation(rotation);
+        return it;
+    }
+
+    private static Color colour(String s, int line, String what, List<Problem> problems) {
+        try {
+            return Color.web(s.trim());
+        } catch (IllegalArgumentException ex) {
+            problems.add(new Problem(line, Severity.ERROR, "malformed " + what + " colour '" + s + "'"));
+            return null;
+        }
+    }
+
+    // ------------------- placement -------------------
+
+    private static void checkPlacement(RoomDesign design, List<Placed> placed, List<Problem> problems) {
+        if (placed.isEmpty()) return;
+        double meanSize = 0;
+        for (Placed p : placed) meanSize += p.footprint().hw() + p.footprint().hh();
+        SpatialHashGrid<Placed> grid = new SpatialHashGrid<>(Math.max(16, 2 * meanSize / placed.size()));
+
+        int overlaps = 0;
+        for (Placed p : placed) {
+            double out = p.footprint().outside(design.getRoomWidth(), design.getRoomHeight());
+            if (out > WALL_TOLERANCE) {
+                problems.add(new Problem(p.line(), Severity.WARNING, String.format(Locale.ROOT,
+                        "%s reaches %.0f past the walls", p.item().getType(), out)));
+            }
+            // the grid holds the earlier items only, so each pair is tested once
+            double[] b = p.footprint().bounds();
+            for (Placed o : grid.query(b[0], b[1], b[2], b[3])) {
+                if (!p.footprint().overlaps(o.footprint())) continue;
+                if (++overlaps <= MAX_OVERLAPS_LISTED) {
+                    double depth = p.footprint().penetration(o.footprint());
+                    problems.add(new Problem(p.line(), Severity.WARNING, String.format(Locale.ROOT,
+                            "%s overlaps %s on line %d by %.1f", p.item().getType(), o.item().getType(), o.line(), depth)));
+                }
+            }
+            grid.insert(p, b[0], b[1], b[2], b[3]);
+        }
+        if (overlaps > MAX_OVERLAPS_LISTED) {
+            problems.add(new Problem(placed.get(placed.size() - 1).line(), Severity.WARNING,
+                    (overlaps - MAX_OVERLAPS_LISTED) + " more overlapping pairs"));
+        }
+    }
+}
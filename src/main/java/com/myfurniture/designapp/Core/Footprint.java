@@ -0,0 +1,122 @@
+package com.myfurniture.designapp.Core;
+
+/**
+ * The rotated rectangle an item covers on the floor plan: centred on the
+ * item's unrotated box and turned by its rotation, as the plan draws it.
+ *
+ * @param cx  centre
+ * @param hw  half the item's width, along {@code (cos, sin)}
+ * @param hh  half the item's depth, along {@code (-sin, cos)}
+ */
+public record Footprint(double cx, double cy, double hw, double hh, double cos, double sin) {
+
+    /** footprints touching along an edge, or off by rounding, do not overlap */
+    private static final double EPSILON = 1e-6;
+
+    public static Footprint of(FurnitureItem it) {
+        double a = Math.toRadians(it.getRotation());
+        double hw = it.getWidth() / 2.0, hh = it.getHeight() / 2.0;
+        return new Footprint(it.getX() + hw, it.getY() + hh, hw, hh, Math.cos(a), Math.sin(a));
+    }
+
+    /** Half the footprint's extent along a unit axis. */
+    double radius(double ax, double ay) {
+        return hw * Math.abs(cos * ax + sin * ay) + hh * Math.abs(-sin * ax + cos * ay);
+    }
+
+    /** Axis-aligned bounds {minX, minY, maxX, maxY}. */
+    public double[] bounds() {
+        double ex = radius(1, 0), ey = radius(0, 1);
+        return new double[] { cx - ex, cy - ey, cx + ex, cy + ey };
+    }
+
+    /**
+     * How far two footprints overlap: the smallest distance one would have to
+     * move to clear the other, by the separating-axis test over the four edge
+     * normals. Zero or less when they do not overlap.
+     */
+    public double penetration(Footprint o) {
+        double dx = o.cx - cx, dy = o.cy - cy;
+        double min = Double.MAX_VALUE;
+        double[] axes = { cos, sin, -sin, cos, o.cos, o.sin, -o.sin, o.cos };
+        for (int i = 0; i < axes.length; i += 2) {
+            double ax = axes[i], ay = axes[i + 1];
+            double depth = radius(ax, ay) + o.radius(ax, ay) - Math.abs(dx * ax + dy * ay);
+            if (depth <= 0) return depth;   // a separating axis
+            min = Math.min(min, depth);
+        }
+        return min;
+    }
+
+    public boolean overlaps(Footprint o) {
+        return penetration(o) > EPSILON;
+    }
+
+    /** Corners {x0, y0, ... x3, y3}, in order around the edge. */
+    public double[] corners() {
+        double ux = cos * hw, uy = sin * hw, vx = -sin * hh, vy = cos * hh;
+        return new double[] {
+                cx - ux - vx, cy - uy - vy,
+                cx + ux - vx, cy + uy - vy,
+                cx + ux + vx, cy + uy + vy,
+                cx - ux + vx, cy - uy + vy };
+    }
+
+    /** Shortest distance between the edges of two footprints; zero if they overlap. */
+    public double distance(Footprint o) {
+        if (penetration(o) > 0) return 0;
+        double[] a = corners(), b = o.corners();
+        // apart, the closest points are a corner of one and an edge of the other
+        return Math.sqrt(Math.min(cornersToEdges(a, b), cornersToEdges(b, a)));
+    }
+
+    private static double cornersToEdges(double[] corners, double[] edges) {
+        double min = Double.MAX_VALUE;
+        for (int i = 0; i < 8; i += 2) {
+            for (int j = 0; j < 8; j += 2) {
+                int k = (j + 2) % 8;
+                min = Math.min(min, segmentDistanceSq(corners[i], corners[i + 1],
+                        edges[j], edges[j + 1], edges[k], edges[k + 1]));
+            }
+        }
+        return min;
+    }
+
+    private static double segmentDistanceSq(double px, double py, double ax, double ay, double bx, double by) {
+        double ex = bx - ax, ey = by - ay;
+        double len = ex * ex + ey * ey;
+        double t = len == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * ex + (py - ay) * ey) / len));
+        double dx = ax + t * ex - px, dy = ay + t * ey - py;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * The shortest move {dx, dy} that takes this footprint at least
+     * {@code clearance} away from another along one of the four edge normals,
+     * or null if it already is. Near corners this can move a little further
+     * than needed, never less.
+     */
+    public double[] pushOut(Footprint o, double clearance) {
+        double dx = o.cx - cx, dy = o.cy - cy;
+        double min = Double.MAX_VALUE, mx = 0, my = 0;
+        double[] axes = { cos, sin, -sin, cos, o.cos, o.sin, -o.sin, o.cos };
+        for (int i = 0; i < axes.length; i += 2) {
+            double ax = axes[i], ay = axes[i + 1], d = dx * ax + dy * ay;
+            double depth = radius(ax, ay) + o.radius(ax, ay) + clearance - Math.abs(d);
+            if (depth <= EPSILON) return null;
+            if (depth < min) {
+                min = depth;
+                double away = d > 0 ? -depth : depth;
+                mx = ax * away;
+                my = ay * away;
+            }
+        }
+        return new double[] { mx, my };
+    }
+
+    /** How far the footprint reaches past the walls of a room, or zero if it is inside. */
+    public double outside(double roomWidth, double roomHeight) {
+        double[] b = bounds();
+        return Math.max(0, Math.max(Math.max(-b[0], -b[1]), Math.max(b[2] - roomWidth, b[3] - roomHeight)));
+    }
+}
@@ -0,0 +1,90 @@
+package com.myfurniture.designapp.Diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for the designer's own operations, so a
+ * recording shows them next to GC, allocation and lock events. Each carries
+ * the item counts that explain its duration. Disabled events cost a field
+ * check. The frequent ones skip the stack trace.
+ */
+public final class Events {
+
+    private static final String CATEGORY = "Furniture Design";
+
+    private Events() { }
+
+    @Name("com.myfurniture.designapp.DesignIO")
+    @Label("Design Load/Save")
+    @Category({CATEGORY, "I/O"})
+    public static class DesignIO extends Event {
+        @Label("Operation") public String operation;
+        @Label("File") public String file;
+        @Label("Items") public int items;
+        @Label("Size") @DataAmount public long bytes;
+    }
+
+    @Name("com.myfurniture.designapp.SceneRebuild")
+    @Label("3D Scene Rebuild")
+    @Description("From the rebuild request until the last furniture node is in the scene")
+    @Category({CATEGORY, "3D"})
+    public static class SceneRebuild extends Event {
+        @Label("Items") public int items;
+        @Label("Quality") public String quality;
+    }
+
+    @Name("com.myfurniture.designapp.FurnitureNode")
+    @Label("Create Furniture Node")
+    @Category({CATEGORY, "3D"})
+    @StackTrace(false)
+    public static class FurnitureNode extends Event {
+        @Label("Type") public String type;
+        @Label("Quality") public String quality;
+        @Label("Source") @Description("model, template or none") public String source;
+    }
+
+    @Name("com.myfurniture.designapp.PlanDraw")
+    @Label("Plan Draw")
+    @Category({CATEGORY, "2D"})
+    @StackTrace(false)
+    public static class PlanDraw extends Event {
+        @Label("Items") public int items;
+        @Label("Live Items") @Description("Items drawn as vectors rather than from cached tiles") public int liveItems;
+        @Label("Tiles Rendered") public int tilesRendered;
+        @Label("Zoom") public double zoom;
+    }
+
+    @Name("com.myfurniture.designapp.HitTest")
+    @Label("Hit Test")
+    @Category({CATEGORY, "Input"})
+    @StackTrace(false)
+    public static class HitTest extends Event {
+        @Label("View") public String view;
+        @Label("Candidates") public int candidates;
+        @Label("Hit") public boolean hit;
+    }
+
+    @Name("com.myfurniture.designapp.Texture")
+    @Label("Texture Generation")
+    @Category({CATEGORY, "Assets"})
+    public static class Texture extends Event {
+        @Label("Name") public String name;
+        @Label("Width") public int width;
+        @Label("Height") public int height;
+        @Label("Source") @Description("painted, composed, prepared or pack") public String source;
+    }
+
+    @Name("com.myfurniture.designapp.ViewSync")
+    @Label("2D to 3D Sync")
+    @Category({CATEGORY, "3D"})
+    public static class ViewSync extends Event {
+        @Label("Kind") @Description("rebuild or item") public String kind;
+        @Label("Items") public int items;
+    }
+}
@@ -0,0 +1,110 @@
+package com.myfurniture.designapp.Diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Records a fixed stretch of the running app with the JDK's "profile"
+ * settings plus all {@link Events}, for a user to attach to a bug report.
+ * The metrics are written next to the recording when it finishes, or when
+ * the app exits first.
+ */
+public final class FlightRecording {
+
+    private static final Path DIR = Paths.get(System.getProperty("user.home"), ".myfurniture", "recordings");
+    private static Recording current;
+
+    private FlightRecording() { }
+
+    public static synchronized boolean isRecording() {
+        return current != null;
+    }
+
+    /**
+     * Starts a recording that stops itself after {@code length}.
+     *
+     * @param onDone called, on the recorder's thread, with the file written
+     * @return the file the recording goes to
+     */
+    public static synchronized Path start(Duration length, Consumer<Path> onDone)
+            throws IOException {
+        if (current != null) throw new IllegalStateException("already recording");
+        Files.createDirectories(DIR);
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path file = DIR.resolve("designer-" + stamp + ".jfr");
+        Recording r;
+        try {
+            r = new Recording(Configuration.getConfiguration("profile"));
+        } catch (ParseException ex) {
+            r = new Recording();
+        }
+        r.enable(Events.DesignIO.class);
+        r.enable(Events.SceneRebuild.class);
+        r.enable(Events.FurnitureNode.class);
+        r.enable(Events.PlanDraw.class);
+        r.enable(Events.HitTest.class);
+        r.enable(Events.Texture.class);
+        r.enable(Events.ViewSync.class);
+        r.setName("Furniture Design " + stamp);
+        r.setDestination(file);
+        r.setToDisk(true);
+        Recording recording = r;
+        Path metrics = DIR.resolve("designer-" + stamp + ".metrics.txt");
+        AtomicBoolean finished = new AtomicBoolean();
+        // the waiter is a daemon, so quitting mid-recording would otherwise leave no file
+        Thread onExit = new Thread(() -> finish(recording, metrics, finished), "flight-recording-exit");
+        Thread waiter = new Thread(() -> {
+            try {
+                Thread.sleep(length.toMillis());
+            } catch (InterruptedException ignored) {
+            }
+            if (!finish(recording, metrics, finished)) return;
+            try {
+                Runtime.getRuntime().removeShutdownHook(onExit);
+            } catch (IllegalStateException shuttingDown) {
+            }
+            if (onDone != null) onDone.accept(file);
+        }, "flight-recording");
+        waiter.setDaemon(true);
+        try {
+            r.start();
+        } catch (RuntimeException ex) {
+            r.close();
+            throw ex;
+        }
+        current = r;
+        Runtime.getRuntime().addShutdownHook(onExit);
+        waiter.start();
+        return file;
+    }
+
+    /** Stops the recording and writes the metrics, once; false if that has already happened. */
+    private static boolean finish(Recording recording, Path metrics, AtomicBoolean finished) {
+        if (!finished.compareAndSet(false, true)) return false;
+        try {
+            recording.stop();   // writes the destination file
+        } catch (IllegalStateException alreadyStopped) {   // by JFR's own shutdown, which writes it too
+        }
+        try {
+            Metrics.dump(metrics);
+        } catch (IOException ex) {
+            System.err.println("Could not write metrics: " + ex);
+        }
+        synchronized (FlightRecording.class) {
+            current = null;
+        }
+        recording.close();
+        return true;
+    }
+}
@@ -0,0 +1,156 @@
+package com.myfurniture.designapp.Diagnostics;
+
+import com.myfurniture.designapp.Util.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide registry of named counters, timers and value histograms for
+ * the designer's own operations. Recording is a map lookup at most, and
+ * callers on hot paths keep the instrument in a static field. The
+ * performance overlay shows the busiest timers. {@link #dump} writes
+ * everything to a text file. With {@code -Dmyfurniture.metrics=FILE} that
+ * also happens when the JVM exits.
+ */
+public final class Metrics {
+
+    private static final Map<String, Object> registry = new ConcurrentHashMap<>();
+
+    static {
+        String file = System.getProperty("myfurniture.metrics");
+        if (file != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    dump(Paths.get(file));
+                } catch (IOException ex) {
+                    System.err.println("Could not write metrics: " + ex);
+                }
+            }, "metrics-dump"));
+        }
+    }
+
+    private Metrics() { }
+
+    /** Number of times something happened. */
+    public static final class Counter {
+        private final LongAdder count = new LongAdder();
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long n) {
+            count.add(n);
+        }
+
+        public long get() {
+            return count.sum();
+        }
+    }
+
+    /** Durations of an operation: count, total and distribution. */
+    public static final class Timer {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private long totalNanos;
+
+        public synchronized void record(long nanos) {
+            histogram.record(nanos);
+            totalNanos += Math.max(0, nanos);
+        }
+
+        /** Records the time since {@code startNanos}, a {@link System#nanoTime()} reading. */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        public synchronized long getCount() {
+            return histogram.getCount();
+        }
+
+        public synchronized long getTotalNanos() {
+            return totalNanos;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format(Locale.ROOT, "n=%d total=%.1f ms mean=%.3f p50=%.3f p99=%.3f max=%.3f ms",
+                    histogram.getCount(), totalNanos / 1e6, histogram.getMean() / 1e6,
+                    histogram.getPercentile(50) / 1e6, histogram.getPercentile(99) / 1e6, histogram.getMax() / 1e6);
+        }
+    }
+
+    /** Distribution of a non-negative quantity, such as items per draw. */
+    public static final class Histogram {
+        private final LatencyHistogram histogram = new LatencyHistogram(0);
+
+        public synchronized void record(long value) {
+            histogram.record(value);
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format(Locale.ROOT, "n=%d mean=%.1f p50=%d p99=%d max=%d", histogram.getCount(),
+                    histogram.getMean(), histogram.getPercentile(50), histogram.getPercentile(99), histogram.getMax());
+        }
+    }
+
+    public static Counter counter(String name) {
+        return get(name, Counter.class);
+    }
+
+    public static Timer timer(String name) {
+        return get(name, Timer.class);
+    }
+
+    public static Histogram histogram(String name) {
+        return get(name, Histogram.class);
+    }
+
+    private static <T> T get(String name, Class<T> kind) {
+        Object m = registry.computeIfAbsent(name, k -> {
+            if (kind == Counter.class) return new Counter();
+            if (kind == Timer.class) return new Timer();
+            return new Histogram();
+        });
+        if (!kind.isInstance(m)) throw new IllegalArgumentException(name + " is not a " + kind.getSimpleName());
+        return kind.cast(m);
+    }
+
+    /** One line per instrument, by name. */
+    public static List<String> report() {
+        List<String> lines = new ArrayList<>();
+        new TreeMap<>(registry).forEach((name, m) -> lines.add(name + " " +
+                (m instanceof Counter c ? "count=" + c.get() : m.toString())));
+        return lines;
+    }
+
+    /** The timers with the most total time, busiest first. */
+    public static List<String> topTimers(int n) {
+        return registry.entrySet().stream()
+                .filter(e -> e.getValue() instanceof Timer t && t.getCount() > 0)
+                .sorted(Comparator.comparingLong(e -> -((Timer) e.getValue()).getTotalNanos()))
+                .limit(n)
+                .map(e -> e.getKey() + " " + e.getValue())
+                .toList();
+    }
+
+    public static void dump(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# Furniture Design metrics, " + LocalDateTime.now());
+        lines.addAll(report());
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+}
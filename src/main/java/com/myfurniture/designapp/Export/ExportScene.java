@@ -0,0 +1,298 @@
+package com.myfurniture.designapp.Export;
+
+import com.myfurniture.designapp.Core.FurnitureItem;
+import com.myfurniture.designapp.Core.RoomDesign;
+import com.myfurniture.designapp.Factory.BoothRoomFactory;
+import com.myfurniture.designapp.Factory.Furniture3DFactory;
+import com.myfurniture.designapp.Render.SurfaceMaterial;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.Box;
+import javafx.scene.shape.Cylinder;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.Shape3D;
+import javafx.scene.shape.TriangleMesh;
+import javafx.scene.transform.Affine;
+import javafx.scene.transform.Transform;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The 3D scene reduced to what a model file needs: shared geometry, shared
+ * materials and textures, and one instance (geometry, material, matrix) per
+ * visible part. Boxes and cylinders all share one unit mesh per kind and carry
+ * their size in the instance matrix, so a venue of thousands of items stores
+ * only a handful of meshes.
+ *
+ * <p>Coordinates are room units (x, y up, z = plan y); {@link #METRES_PER_UNIT}
+ * converts them for formats that expect metres. {@link #capture} must run on
+ * the FX thread; the result is immutable and can be written from any thread.
+ */
+public final class ExportScene {
+
+    /** 40 room units to the foot */
+    public static final double METRES_PER_UNIT = 0.3048 / 40;
+
+    /** Triangle list with flat per-corner normals and texture coordinates. */
+    public record Geometry(float[] positions, float[] normals, float[] uvs, int[] indices) {
+        public int vertexCount() {
+            return positions.length / 3;
+        }
+    }
+
+    /** sRGB base colour, metal/roughness and an optional texture (-1 for none). */
+    public record Material(float r, float g, float b, float metallic, float roughness, int texture) { }
+
+    /** ARGB pixels of a texture. */
+    public record Texture(int width, int height, int[] argb) { }
+
+    /** One placed part: row-major 3x4 matrix from geometry to room coordinates. */
+    public record Instance(int geometry, int material, float[] matrix) { }
+
+    /** A furniture item (or the booth) and the range of its parts in {@link #getInstances()}. */
+    public record Group(String name, int firstInstance, int instanceCount) { }
+
+    private final List<Geometry> geometries = new ArrayList<>();
+    private final List<Material> materials  = new ArrayList<>();
+    private final List<Texture>  textures   = new ArrayList<>();
+    private final List<Instance> instances  = new ArrayList<>();
+    private final List<Group>    groups     = new ArrayList<>();
+
+    // dedup while capturing
+    private final Map<Material, Integer> materialIds = new HashMap<>();
+    private final Map<Image, Integer> textureIds = new IdentityHashMap<>();
+    private final Map<MeshKey, Integer> meshIds = new HashMap<>();
+    private final Map<Integer, Integer> cylinderIds = new HashMap<>();
+    private int unitBox = -1;
+
+    private ExportScene() { }
+
+    /** Builds the booth and every item at full quality and collects them. */
+    public static ExportScene capture(RoomDesign room) {
+        ExportScene s = new ExportScene();
+        s.addGroup("Booth", BoothRoomFactory.createBooth(room),
+                SurfaceMaterial.Preset.PAINT, SurfaceMaterial.Preset.FLOOR);
+        for (FurnitureItem item : room.getFurniture()) {
+            s.addGroup(item.getType(), Furniture3DFactory.createFurniture3D(item),
+                    SurfaceMaterial.Preset.forName(item.getMaterial()), SurfaceMaterial.Preset.WOOD);
+        }
+        s.materialIds.clear();
+        s.textureIds.clear();
+        s.meshIds.clear();
+        s.cylinderIds.clear();
+        return s;
+    }
+
+    public List<Geometry> getGeometries() { return geometries; }
+    public List<Material> getMaterials()  { return materials; }
+    public List<Texture>  getTextures()   { return textures; }
+    public List<Instance> getInstances()  { return instances; }
+    public List<Group>    getGroups()     { return groups; }
+
+    private void addGroup(String name, Node root, SurfaceMaterial.Preset preset, SurfaceMaterial.Preset textured) {
+        int first = instances.size();
+        add(root, new Affine(), preset, textured);
+        if (instances.size() > first) groups.add(new Group(name, first, instances.size() - first));
+    }
+
+    private void add(Node node, Transform parentToRoom, SurfaceMaterial.Preset preset,
+                     SurfaceMaterial.Preset textured) {
+        if (!node.isVisible()) return;
+        Transform t = parentToRoom.createConcatenation(node.getLocalToParentTransform());
+        if (node instanceof Parent p) {
+            for (Node child : p.getChildrenUnmodifiable()) add(child, t, preset, textured);
+            return;
+        }
+        if (!(node instanceof Shape3D shape)) return;
+        int mat = material(shape, preset, textured);
+        if (mat < 0) return;
+
+        if (shape instanceof Box box) {
+            if (unitBox < 0) unitBox = addGeometry(unitBox());
+            instances.add(new Instance(unitBox, mat, matrix(t, box.getWidth(), box.getHeight(), box.getDepth())));
+        } else if (shape instanceof Cylinder cyl) {
+            int n = Math.max(3, cyl.getDivisions());
+            int g = cylinderIds.computeIfAbsent(n, k -> addGeometry(unitCylinder(k)));
+            double d = cyl.getRadius() * 2;
+            instances.add(new Instance(g, mat, matrix(t, d, cyl.getHeight(), d)));
+        } else if (shape instanceof MeshView mv && mv.getMesh() instanceof TriangleMesh mesh) {
+            MeshKey key = new MeshKey(mesh.getPoints().toArray(null), mesh.getTexCoords().toArray(null),
+                    mesh.getFaces().toArray(null), mesh.getVertexFormat().getVertexIndexSize());
+            int g = meshIds.computeIfAbsent(key, k -> addGeometry(triangulate(k)));
+            instances.add(new Instance(g, mat, matrix(t, 1, 1, 1)));
+        }
+    }
+
+    private int addGeometry(Geometry g) {
+        geometries.add(g);
+        return geometries.size() - 1;
+    }
+
+    /** Material index for a part, or -1 for the translucent contact shadows, which are left out. */
+    private int material(Shape3D shape, SurfaceMaterial.Preset preset, SurfaceMaterial.Preset textured) {
+        Color c = Color.LIGHTGRAY;
+        Image map = null;
+        if (shape.getMaterial() instanceof PhongMaterial pm) {
+            c = pm.getDiffuseColor();
+            if (c.getOpacity() < 0.5) return -1;
+            map = pm.getDiffuseMap();
+        }
+        SurfaceMaterial sm = SurfaceMaterial.of(c, SurfaceMaterial.presetOf(shape.getMaterial(), preset, textured));
+        Material m = new Material((float) c.getRed(), (float) c.getGreen(), (float) c.getBlue(),
+                sm.metal() ? 1 : 0,
+                (float) Math.sqrt(2 / (sm.exponent() + 2)),   // Blinn-Phong exponent to GGX roughness
+                map == null ? -1 : texture(map));
+        return materialIds.computeIfAbsent(m, k -> {
+            materials.add(k);
+            return materials.size() - 1;
+        });
+    }
+
+    private int texture(Image img) {
+        return textureIds.computeIfAbsent(img, i -> {
+            int w = (int) i.getWidth(), h = (int) i.getHeight();
+            int[] argb = new int[w * h];
+            PixelReader pr = i.getPixelReader();
+            if (pr != null) pr.getPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), argb, 0, w);
+            textures.add(new Texture(w, h, argb));
+            return textures.size() - 1;
+        });
+    }
+
+    /** Row-major 3x4 of t applied after a scale. */
+    private static float[] matrix(Transform t, double sx, double sy, double sz) {
+        return new float[] {
+                (float) (t.getMxx() * sx), (float) (t.getMxy() * sy), (float) (t.getMxz() * sz), (float) t.getTx(),
+                (float) (t.getMyx() * sx), (float) (t.getMyy() * sy), (float) (t.getMyz() * sz), (float) t.getTy(),
+                (float) (t.getMzx() * sx), (float) (t.getMzy() * sy), (float) (t.getMzz() * sz), (float) t.getTz()
+        };
+    }
+
+    // ------------------- unit meshes -------------------
+
+    /** Builds flat-shaded geometry one face at a time. */
+    private static final class GeometryBuilder {
+        private float[] p = new float[192], n = new float[192], uv = new float[128];
+        private int[] idx = new int[96];
+        private int verts, count;
+
+        int vertex(double x, double y, double z, double nx, double ny, double nz, double u, double v) {
+            if (verts * 3 + 3 > p.length) {
+                p  = Arrays.copyOf(p,  p.length * 2);
+                n  = Arrays.copyOf(n,  n.length * 2);
+                uv = Arrays.copyOf(uv, uv.length * 2);
+            }
+            p[verts * 3] = (float) x; p[verts * 3 + 1] = (float) y; p[verts * 3 + 2] = (float) z;
+            n[verts * 3] = (float) nx; n[verts * 3 + 1] = (float) ny; n[verts * 3 + 2] = (float) nz;
+            uv[verts * 2] = (float) u; uv[verts * 2 + 1] = (float) v;
+            return verts++;
+        }
+
+        void triangle(int a, int b, int c) {
+            if (count + 3 > idx.length) idx = Arrays.copyOf(idx, idx.length * 2);
+            idx[count++] = a; idx[count++] = b; idx[count++] = c;
+        }
+
+        Geometry build() {
+            return new Geometry(Arrays.copyOf(p, verts * 3), Arrays.copyOf(n, verts * 3),
+                    Arrays.copyOf(uv, verts * 2), Arrays.copyOf(idx, count));
+        }
+    }
+
+    /** Unit cube centred on the origin, counter-clockwise outward faces, full texture per face. */
+    private static Geometry unitBox() {
+        GeometryBuilder b = new GeometryBuilder();
+        // for each face: normal axis and sign; u and v run along the two other axes
+        int[][] faces = { {0, 1}, {0, -1}, {1, 1}, {1, -1}, {2, 1}, {2, -1} };
+        for (int[] f : faces) {
+            int axis = f[0], sign = f[1];
+            int ua = (axis + 1) % 3, va = (axis + 2) % 3;
+            int[] c = new int[4];
+            double[][] corners = { {-1, -1}, {1, -1}, {1, 1}, {-1, 1} };
+            for (int i = 0; i < 4; i++) {
+                double[] pos = new double[3], nrm = new double[3];
+                pos[axis] = 0.5 * sign;
+                pos[ua] = 0.5 * corners[i][0] * sign;   // mirrored on the negative side keeps the winding outward
+                pos[va] = 0.5 * corners[i][1];
+                nrm[axis] = sign;
+                c[i] = b.vertex(pos[0], pos[1], pos[2], nrm[0], nrm[1], nrm[2],
+                        (corners[i][0] + 1) / 2, (1 - corners[i][1]) / 2);
+            }
+            b.triangle(c[0], c[1], c[2]);
+            b.triangle(c[0], c[2], c[3]);
+        }
+        return b.build();
+    }
+
+    /** Cylinder of diameter 1 and height 1 along y, centred on the origin, with caps. */
+    private static Geometry unitCylinder(int divisions) {
+        GeometryBuilder b = new GeometryBuilder();
+        for (int i = 0; i < divisions; i++) {
+            double a0 = 2 * Math.PI * i / divisions, a1 = 2 * Math.PI * (i + 1) / divisions;
+            double x0 = Math.cos(a0), z0 = Math.sin(a0), x1 = Math.cos(a1), z1 = Math.sin(a1);
+            double u0 = (double) i / divisions, u1 = (double) (i + 1) / divisions;
+            int b0 = b.vertex(x0 / 2, -0.5, z0 / 2, x0, 0, z0, u0, 1);
+            int b1 = b.vertex(x1 / 2, -0.5, z1 / 2, x1, 0, z1, u1, 1);
+            int t1 = b.vertex(x1 / 2,  0.5, z1 / 2, x1, 0, z1, u1, 0);
+            int t0 = b.vertex(x0 / 2,  0.5, z0 / 2, x0, 0, z0, u0, 0);
+            b.triangle(b0, t1, b1);
+            b.triangle(b0, t0, t1);
+
+            int ct = b.vertex(0, 0.5, 0, 0, 1, 0, 0.5, 0.5);
+            b.triangle(ct, b.vertex(x1 / 2, 0.5, z1 / 2, 0, 1, 0, (x1 + 1) / 2, (z1 + 1) / 2),
+                           b.vertex(x0 / 2, 0.5, z0 / 2, 0, 1, 0, (x0 + 1) / 2, (z0 + 1) / 2));
+            int cb = b.vertex(0, -0.5, 0, 0, -1, 0, 0.5, 0.5);
+            b.triangle(cb, b.vertex(x0 / 2, -0.5, z0 / 2, 0, -1, 0, (x0 + 1) / 2, (z0 + 1) / 2),
+                           b.vertex(x1 / 2, -0.5, z1 / 2, 0, -1, 0, (x1 + 1) / 2, (z1 + 1) / 2));
+        }
+        return b.build();
+    }
+
+    /** A TriangleMesh's arrays, compared by content so equal meshes built twice are stored once. */
+    private record MeshKey(float[] points, float[] texCoords, int[] faces, int stride) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof MeshKey k && stride == k.stride && Arrays.equals(points, k.points)
+                    && Arrays.equals(texCoords, k.texCoords) && Arrays.equals(faces, k.faces);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Arrays.hashCode(points) + Arrays.hashCode(faces)) + Arrays.hashCode(texCoords);
+        }
+    }
+
+    private static Geometry triangulate(MeshKey m) {
+        GeometryBuilder b = new GeometryBuilder();
+        float[] p = m.points(), tc = m.texCoords();
+        int[] f = m.faces();
+        int s = m.stride();
+        for (int i = 0; i + 3 * s <= f.length; i += 3 * s) {
+            int a = f[i] * 3, c1 = f[i + s] * 3, c2 = f[i + 2 * s] * 3;
+            double e1x = p[c1] - p[a], e1y = p[c1 + 1] - p[a + 1], e1z = p[c1 + 2] - p[a + 2];
+            double e2x = p[c2] - p[a], e2y = p[c2 + 1] - p[a + 1], e2z = p[c2 + 2] - p[a + 2];
+            double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+            double len = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (len == 0) continue;
+            nx /= len; ny /= len; nz /= len;
+            int[] v = new int[3];
+            for (int k = 0; k < 3; k++) {
+                int pi = f[i + k * s] * 3, ti = f[i + k * s + 1] * 2;
+                double u = ti + 1 < tc.length ? tc[ti] : 0, w = ti + 1 < tc.length ? tc[ti + 1] : 0;
+                v[k] = b.vertex(p[pi], p[pi + 1], p[pi + 2], nx, ny, nz, u, w);
+            }
+            b.triangle(v[0], v[1], v[2]);
+        }
+        return b.build();
+    }
+}
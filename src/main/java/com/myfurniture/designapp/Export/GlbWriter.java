@@ -0,0 +1,336 @@
+package com.myfurniture.designapp.Export;
+
+import com.myfurniture.designapp.Render.SurfaceMaterial;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Writes an {@link ExportScene} as binary glTF 2.0. Each shared geometry is
+ * stored once in the binary chunk and every part is a node that points at a
+ * mesh; a mesh exists per (geometry, material) pair actually used. The root
+ * node scales room units to metres.
+ *
+ * <p>The file is streamed through a {@link FileChannel}: the JSON chunk is
+ * flushed as it grows and the lengths in the headers are patched at the end,
+ * so only the textures (PNG-encoded in parallel) are held in memory.
+ */
+public class GlbWriter {
+
+    private static final int MAGIC = 0x46546C67;       // "glTF"
+    private static final int CHUNK_JSON = 0x4E4F534A;  // "JSON"
+    private static final int CHUNK_BIN  = 0x004E4942;  // "BIN\0"
+    private static final int FLUSH_CHARS = 64 * 1024;
+
+    private static final int FLOAT = 5126, UNSIGNED_SHORT = 5123, UNSIGNED_INT = 5125;
+    private static final int ARRAY_BUFFER = 34962, ELEMENT_ARRAY_BUFFER = 34963;
+
+    private final ExportScene scene;
+    private final List<byte[]> pngs = new ArrayList<>();
+    private final long[] geometryOffsets;               // byte offset of each geometry in BIN
+    private final long[] textureOffsets;
+    private final long binLength;
+
+    private FileChannel channel;
+    private long binWritten;                            // BIN bytes drained to the channel so far
+    private final StringBuilder json = new StringBuilder(FLUSH_CHARS + 1024);
+
+    private GlbWriter(ExportScene scene, ForkJoinPool pool) throws IOException {
+        this.scene = scene;
+        List<ForkJoinTask<byte[]>> encoding = new ArrayList<>();
+        for (ExportScene.Texture t : scene.getTextures()) {
+            encoding.add(pool.submit(() -> PngEncoder.encode(t.argb(), t.width(), t.height(), pool)));
+        }
+        for (ForkJoinTask<byte[]> e : encoding) pngs.add(e.join());
+
+        long offset = 0;
+        geometryOffsets = new long[scene.getGeometries().size()];
+        for (int i = 0; i < geometryOffsets.length; i++) {
+            geometryOffsets[i] = offset;
+            offset += geometryBytes(scene.getGeometries().get(i));
+        }
+        textureOffsets = new long[pngs.size()];
+        for (int i = 0; i < textureOffsets.length; i++) {
+            textureOffsets[i] = offset;
+            offset += align4(pngs.get(i).length);
+        }
+        binLength = offset;
+    }
+
+    public static void write(ExportScene scene, Path file, ForkJoinPool pool) throws IOException {
+        GlbWriter w = new GlbWriter(scene, pool);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            w.channel = ch;
+            w.writeFile();
+        }
+    }
+
+    private void writeFile() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(2).putInt(0).putInt(0).putInt(CHUNK_JSON).flip();
+        channel.write(header);                  // total and JSON lengths are patched below
+
+        writeJson();
+        flushJson();
+        long jsonEnd = channel.position();
+        int jsonLength = (int) (jsonEnd - 20);
+        int pad = align4(jsonLength) - jsonLength;
+        if (pad > 0) channel.write(ByteBuffer.wrap("   ".getBytes(StandardCharsets.US_ASCII), 0, pad));
+        jsonLength += pad;
+
+        ByteBuffer binHeader = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        binHeader.putInt((int) binLength).putInt(CHUNK_BIN).flip();
+        channel.write(binHeader);
+        writeBinary();
+
+        ByteBuffer patch = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        channel.write(patch.putInt(0, (int) channel.position()), 8);
+        channel.write(patch.clear().putInt(0, jsonLength), 12);
+    }
+
+    // ------------------- JSON -------------------
+
+    private void writeJson() throws IOException {
+        List<ExportScene.Geometry> geometries = scene.getGeometries();
+        List<ExportScene.Instance> instances = scene.getInstances();
+        List<ExportScene.Group> groups = scene.getGroups();
+
+        json.append("{\"asset\":{\"version\":\"2.0\",\"generator\":\"MyFurniture Design App\"},");
+        json.append("\"scene\":0,\"scenes\":[{\"nodes\":[0]}],");
+
+        // node 0 scales to metres, nodes 1..groups are items, the rest are parts
+        float m = (float) ExportScene.METRES_PER_UNIT;
+        json.append("\"nodes\":[{\"name\":\"Room\",\"scale\":[").append(m).append(',').append(m).append(',')
+                .append(m).append("],\"children\":[");
+        for (int g = 0; g < groups.size(); g++) json.append(g == 0 ? "" : ",").append(1 + g);
+        json.append("]}");
+
+        // meshes are numbered on first use of a (geometry, material) pair
+        Map<Long, Integer> meshIds = new HashMap<>();
+        List<long[]> meshes = new ArrayList<>();
+        int part = 1 + groups.size();
+        for (ExportScene.Group g : groups) {
+            json.append(",{\"name\":");
+            string(g.name());
+            json.append(",\"children\":[");
+            for (int i = 0; i < g.instanceCount(); i++) json.append(i == 0 ? "" : ",").append(part + i);
+            json.append("]}");
+            part += g.instanceCount();
+            maybeFlush();
+        }
+        for (ExportScene.Instance inst : instances) {
+            long key = ((long) inst.geometry() << 32) | inst.material();
+            Integer mesh = meshIds.get(key);
+            if (mesh == null) {
+                mesh = meshes.size();
+                meshIds.put(key, mesh);
+                meshes.add(new long[] { inst.geometry(), inst.material() });
+            }
+            float[] r = inst.matrix();
+            // glTF matrices are column-major 4x4
+            json.append(",{\"mesh\":").append(mesh).append(",\"matrix\":[")
+                    .append(r[0]).append(',').append(r[4]).append(',').append(r[8]).append(",0,")
+                    .append(r[1]).append(',').append(r[5]).append(',').append(r[9]).append(",0,")
+                    .append(r[2]).append(',').append(r[6]).append(',').append(r[10]).append(",0,")
+                    .append(r[3]).append(',').append(r[7]).append(',').append(r[11]).append(",1]}");
+            maybeFlush();
+        }
+        json.append("],");
+
+        json.append("\"meshes\":[");
+        for (int i = 0; i < meshes.size(); i++) {
+            int g = (int) meshes.get(i)[0];
+            int a = 4 * g;        // accessors per geometry: position, normal, uv, indices
+            json.append(i == 0 ? "" : ",").append("{\"primitives\":[{\"attributes\":{\"POSITION\":").append(a)
+                    .append(",\"NORMAL\":").append(a + 1).append(",\"TEXCOORD_0\":").append(a + 2)
+                    .append("},\"indices\":").append(a + 3).append(",\"material\":").append(meshes.get(i)[1])
+                    .append("}]}");
+            maybeFlush();
+        }
+        json.append("],");
+
+        json.append("\"materials\":[");
+        List<ExportScene.Material> materials = scene.getMaterials();
+        for (int i = 0; i < materials.size(); i++) {
+            ExportScene.Material mat = materials.get(i);
+            json.append(i == 0 ? "" : ",").append("{\"pbrMetallicRoughness\":{\"baseColorFactor\":[")
+                    .append(SurfaceMaterial.toLinear(mat.r())).append(',')
+                    .append(SurfaceMaterial.toLinear(mat.g())).append(',')
+                    .append(SurfaceMaterial.toLinear(mat.b())).append(",1]");
+            if (mat.texture() >= 0) json.append(",\"baseColorTexture\":{\"index\":").append(mat.texture()).append('}');
+            json.append(",\"metallicFactor\":").append(mat.metallic())
+                    .append(",\"roughnessFactor\":").append(mat.roughness()).append("}}");
+        }
+        json.append("],");
+
+        if (!pngs.isEmpty()) {
+            json.append("\"samplers\":[{\"wrapS\":10497,\"wrapT\":10497}],\"textures\":[");
+            for (int i = 0; i < pngs.size(); i++) {
+                json.append(i == 0 ? "" : ",").append("{\"sampler\":0,\"source\":").append(i).append('}');
+            }
+            json.append("],\"images\":[");
+            int view = 4 * geometries.size();
+            for (int i = 0; i < pngs.size(); i++) {
+                json.append(i == 0 ? "" : ",").append("{\"mimeType\":\"image/png\",\"bufferView\":")
+                        .append(view + i).append('}');
+            }
+            json.append("],");
+        }
+
+        json.append("\"accessors\":[");
+        for (int g = 0; g < geometries.size(); g++) {
+            ExportScene.Geometry geo = geometries.get(g);
+            int n = geo.vertexCount(), v = 4 * g;
+            float[] min = { Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE };
+            float[] max = { -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE };
+            float[] p = geo.positions();
+            for (int i = 0; i < p.length; i++) {
+                min[i % 3] = Math.min(min[i % 3], p[i]);
+                max[i % 3] = Math.max(max[i % 3], p[i]);
+            }
+            json.append(g == 0 ? "" : ",")
+                    .append("{\"bufferView\":").append(v).append(",\"componentType\":").append(FLOAT)
+                    .append(",\"count\":").append(n).append(",\"type\":\"VEC3\",\"min\":[")
+                    .append(min[0]).append(',').append(min[1]).append(',').append(min[2]).append("],\"max\":[")
+                    .append(max[0]).append(',').append(max[1]).append(',').append(max[2]).append("]},")
+                    .append("{\"bufferView\":").append(v + 1).append(",\"componentType\":").append(FLOAT)
+                    .append(",\"count\":").append(n).append(",\"type\":\"VEC3\"},")
+                    .append("{\"bufferView\":").append(v + 2).append(",\"componentType\":").append(FLOAT)
+                    .append(",\"count\":").append(n).append(",\"type\":\"VEC2\"},")
+                    .append("{\"bufferView\":").append(v + 3).append(",\"componentType\":")
+                    .append(shortIndices(geo) ? UNSIGNED_SHORT : UNSIGNED_INT)
+                    .append(",\"count\":").append(geo.indices().length).append(",\"type\":\"SCALAR\"}");
+        }
+        json.append("],");
+
+        json.append("\"bufferViews\":[");
+        for (int g = 0; g < geometries.size(); g++) {
+            ExportScene.Geometry geo = geometries.get(g);
+            long o = geometryOffsets[g];
+            int n = geo.vertexCount();
+            json.append(g == 0 ? "" : ",");
+            bufferView(o, n * 12L, ARRAY_BUFFER);
+            json.append(',');
+            bufferView(o + n * 12L, n * 12L, ARRAY_BUFFER);
+            json.append(',');
+            bufferView(o + n * 24L, n * 8L, ARRAY_BUFFER);
+            json.append(',');
+            bufferView(o + n * 32L, (long) geo.indices().length * (shortIndices(geo) ? 2 : 4), ELEMENT_ARRAY_BUFFER);
+        }
+        for (int i = 0; i < pngs.size(); i++) {
+            json.append(geometries.isEmpty() && i == 0 ? "" : ",");
+            bufferView(textureOffsets[i], pngs.get(i).length, -1);
+        }
+        json.append("],\"buffers\":[{\"byteLength\":").append(binLength).append("}]}");
+    }
+
+    private void bufferView(long offset, long length, int target) {
+        json.append("{\"buffer\":0,\"byteOffset\":").append(offset).append(",\"byteLength\":").append(length);
+        if (target > 0) json.append(",\"target\":").append(target);
+        json.append('}');
+    }
+
+    private void string(String s) {
+        json.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') json.append('\\').append(c);
+            else if (c < 0x20) json.append(String.format("\\u%04x", (int) c));
+            else json.append(c);
+        }
+        json.append('"');
+    }
+
+    private void maybeFlush() throws IOException {
+        if (json.length() >= FLUSH_CHARS) flushJson();
+    }
+
+    private void flushJson() throws IOException {
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(json));
+        while (bytes.hasRemaining()) channel.write(bytes);
+        json.setLength(0);
+    }
+
+    // ------------------- binary -------------------
+
+    /**
+     * Writes the BIN chunk, checking each geometry and texture starts at the
+     * offset its buffer views declare and the chunk is as long as its header says.
+     */
+    private void writeBinary() throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(256 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        List<ExportScene.Geometry> geometries = scene.getGeometries();
+        for (int g = 0; g < geometries.size(); g++) {
+            ExportScene.Geometry geo = geometries.get(g);
+            checkOffset("geometry " + g, binWritten + buf.position(), geometryOffsets[g]);
+            for (float f : geo.positions()) buf = put(buf).putFloat(f);
+            for (float f : geo.normals())   buf = put(buf).putFloat(f);
+            for (float f : geo.uvs())       buf = put(buf).putFloat(f);
+            boolean shorts = shortIndices(geo);
+            for (int i : geo.indices()) {
+                if (shorts) put(buf).putShort((short) i);
+                else        put(buf).putInt(i);
+            }
+            // pad by the index count: the staging buffer drains at any offset
+            if (shorts && geo.indices().length % 2 != 0) put(buf).putShort((short) 0);
+        }
+        drain(buf);
+        for (int i = 0; i < pngs.size(); i++) {
+            byte[] png = pngs.get(i);
+            checkOffset("texture " + i, binWritten, textureOffsets[i]);
+            drain(ByteBuffer.wrap(png).position(png.length));
+            int pad = align4(png.length) - png.length;
+            if (pad > 0) drain(ByteBuffer.allocate(pad).position(pad));
+        }
+        checkOffset("end of BIN", binWritten, binLength);
+    }
+
+    private static void checkOffset(String what, long actual, long declared) throws IOException {
+        if (actual != declared) {
+            throw new IOException(what + " written at byte " + actual + " of BIN, declared at " + declared);
+        }
+    }
+
+    /** Makes room for one more value, writing the buffer out when it is nearly full. */
+    private ByteBuffer put(ByteBuffer buf) throws IOException {
+        if (buf.remaining() < 8) drain(buf);
+        return buf;
+    }
+
+    private void drain(ByteBuffer buf) throws IOException {
+        buf.flip();
+        binWritten += buf.remaining();
+        while (buf.hasRemaining()) channel.write(buf);
+        buf.clear();
+    }
+
+    private static long geometryBytes(ExportScene.Geometry g) {
+        long n = g.vertexCount();
+        return n * 32 + align4((long) g.indices().length * (shortIndices(g) ? 2 : 4));
+    }
+
+    private static boolean shortIndices(ExportScene.Geometry g) {
+        return g.vertexCount() <= 0xFFFF;
+    }
+
+    private static int align4(int n) {
+        return (n + 3) & ~3;
+    }
+
+    private static long align4(long n) {
+        return (n + 3) & ~3L;
+    }
+}
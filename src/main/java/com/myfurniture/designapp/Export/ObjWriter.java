@@ -0,0 +1,205 @@
+package com.myfurniture.designapp.Export;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Writes an {@link ExportScene} as Wavefront OBJ in metres, with a {@code .mtl}
+ * beside it and textures as PNG files. OBJ has no instancing, so every part's
+ * vertices are transformed and written out; numbers are formatted straight
+ * into a byte buffer that is drained to a {@link FileChannel}.
+ */
+public class ObjWriter {
+
+    private static final int  BUFFER = 1 << 20;
+    private static final int  DECIMALS = 5;            // 10 µm in metres
+    private static final long SCALE = 100_000;         // 10^DECIMALS
+
+    private final FileChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocate(BUFFER);
+
+    private ObjWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /** Writes {@code file}, {@code <name>.mtl} and {@code <name>_texN.png} next to it. */
+    public static void write(ExportScene scene, Path file, ForkJoinPool pool) throws IOException {
+        String base = file.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+        Path dir = file.toAbsolutePath().getParent();
+        String mtl = base + ".mtl";
+        writeMaterials(scene, dir, base, mtl, pool);
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ObjWriter w = new ObjWriter(ch);
+            w.text("mtllib ").text(mtl).newline();
+            w.writeInstances(scene);
+            w.drain();
+        }
+    }
+
+    private static void writeMaterials(ExportScene scene, Path dir, String base, String mtl, ForkJoinPool pool)
+            throws IOException {
+        List<ExportScene.Texture> textures = scene.getTextures();
+        for (int i = 0; i < textures.size(); i++) {
+            ExportScene.Texture t = textures.get(i);
+            Path png = dir.resolve(base + "_tex" + i + ".png");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(png))) {
+                PngEncoder.write(t.argb(), t.width(), t.height(), out, pool);
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        List<ExportScene.Material> materials = scene.getMaterials();
+        for (int i = 0; i < materials.size(); i++) {
+            ExportScene.Material m = materials.get(i);
+            // Phong exponent back from roughness: n = 2 / r^2 - 2
+            double ns = Math.min(1000, 2 / Math.max(1e-3, m.roughness() * m.roughness()) - 2);
+            sb.append("newmtl m").append(i).append('\n')
+              .append(String.format(Locale.ROOT, "Kd %.4f %.4f %.4f\n", m.r(), m.g(), m.b()))
+              .append(m.metallic() > 0
+                      ? String.format(Locale.ROOT, "Ks %.4f %.4f %.4f\n", m.r(), m.g(), m.b())
+                      : "Ks 0.04 0.04 0.04\n")
+              .append(String.format(Locale.ROOT, "Ns %.1f\n", ns));
+            if (m.texture() >= 0) sb.append("map_Kd ").append(base).append("_tex").append(m.texture()).append(".png\n");
+            sb.append('\n');
+        }
+        Files.writeString(dir.resolve(mtl), sb.toString(), StandardCharsets.UTF_8);
+    }
+
+    private void writeInstances(ExportScene scene) throws IOException {
+        List<ExportScene.Instance> instances = scene.getInstances();
+        List<ExportScene.Geometry> geometries = scene.getGeometries();
+        double unit = ExportScene.METRES_PER_UNIT;
+        long vertexBase = 1;                            // OBJ indices are 1-based and file-wide
+
+        for (ExportScene.Group group : scene.getGroups()) {
+            text("o ").text(group.name().replaceAll("\\s+", "_")).newline();
+            int lastMaterial = -1;
+            for (int k = group.firstInstance(); k < group.firstInstance() + group.instanceCount(); k++) {
+                ExportScene.Instance inst = instances.get(k);
+                ExportScene.Geometry g = geometries.get(inst.geometry());
+                float[] m = inst.matrix();
+                float[] p = g.positions(), n = g.normals(), uv = g.uvs();
+                int count = g.vertexCount();
+
+                for (int i = 0; i < count; i++) {
+                    double x = p[i * 3], y = p[i * 3 + 1], z = p[i * 3 + 2];
+                    text("v ").fixed((m[0] * x + m[1] * y + m[2]  * z + m[3])  * unit).space()
+                               .fixed((m[4] * x + m[5] * y + m[6]  * z + m[7])  * unit).space()
+                               .fixed((m[8] * x + m[9] * y + m[10] * z + m[11]) * unit).newline();
+                }
+                // normals by the inverse transpose, which the cofactor matrix gives up to scale
+                double c00 = m[5] * m[10] - m[6] * m[9], c01 = m[6] * m[8] - m[4] * m[10], c02 = m[4] * m[9] - m[5] * m[8];
+                double c10 = m[2] * m[9] - m[1] * m[10], c11 = m[0] * m[10] - m[2] * m[8], c12 = m[1] * m[8] - m[0] * m[9];
+                double c20 = m[1] * m[6] - m[2] * m[5],  c21 = m[2] * m[4] - m[0] * m[6],  c22 = m[0] * m[5] - m[1] * m[4];
+                for (int i = 0; i < count; i++) {
+                    double x = n[i * 3], y = n[i * 3 + 1], z = n[i * 3 + 2];
+                    double nx = c00 * x + c01 * y + c02 * z, ny = c10 * x + c11 * y + c12 * z, nz = c20 * x + c21 * y + c22 * z;
+                    double len = Math.sqrt(nx * nx + ny * ny + nz * nz);
+                    if (len == 0) len = 1;
+                    text("vn ").fixed(nx / len).space().fixed(ny / len).space().fixed(nz / len).newline();
+                }
+                for (int i = 0; i < count; i++) {
+                    text("vt ").fixed(uv[i * 2]).space().fixed(1 - uv[i * 2 + 1]).newline();
+                }
+
+                if (inst.material() != lastMaterial) {
+                    text("usemtl m").integer(inst.material()).newline();
+                    lastMaterial = inst.material();
+                }
+                int[] idx = g.indices();
+                for (int i = 0; i < idx.length; i += 3) {
+                    text("f");
+                    for (int c = 0; c < 3; c++) {
+                        long v = vertexBase + idx[i + c];
+                        space().integer(v).text("/").integer(v).text("/").integer(v);
+                    }
+                    newline();
+                }
+                vertexBase += count;
+            }
+        }
+    }
+
+    // ------------------- formatting -------------------
+
+    private ObjWriter text(String s) throws IOException {
+        if (buf.remaining() < s.length() * 3) drain();
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                buf.put(s.getBytes(StandardCharsets.UTF_8));   // names only; the hot path is ASCII
+                return this;
+            }
+        }
+        for (int i = 0; i < s.length(); i++) buf.put((byte) s.charAt(i));
+        return this;
+    }
+
+    private ObjWriter space() throws IOException {
+        if (!buf.hasRemaining()) drain();
+        buf.put((byte) ' ');
+        return this;
+    }
+
+    private ObjWriter newline() throws IOException {
+        if (!buf.hasRemaining()) drain();
+        buf.put((byte) '\n');
+        return this;
+    }
+
+    private ObjWriter integer(long v) throws IOException {
+        if (buf.remaining() < 20) drain();
+        if (v < 0) {
+            buf.put((byte) '-');
+            v = -v;
+        }
+        digits(v, 1);
+        return this;
+    }
+
+    /** Fixed-point with {@link #DECIMALS} places; avoids String.format on the hot path. */
+    private ObjWriter fixed(double d) throws IOException {
+        if (buf.remaining() < 32) drain();
+        long scaled = Math.round(d * SCALE);
+        if (scaled < 0) {
+            buf.put((byte) '-');
+            scaled = -scaled;
+        }
+        digits(scaled / SCALE, 1);
+        buf.put((byte) '.');
+        digits(scaled % SCALE, DECIMALS);
+        return this;
+    }
+
+    /** Decimal digits of a non-negative value, zero-padded to at least minDigits. */
+    private void digits(long v, int minDigits) {
+        int start = buf.position();
+        do {
+            buf.put((byte) ('0' + v % 10));
+            v /= 10;
+            minDigits--;
+        } while (v > 0 || minDigits > 0);
+        // digits were written least significant first
+        for (int i = start, j = buf.position() - 1; i < j; i++, j--) {
+            byte t = buf.get(i);
+            buf.put(i, buf.get(j));
+            buf.put(j, t);
+        }
+    }
+
+    private void drain() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) channel.write(buf);
+        buf.clear();
+    }
+}
@@ -0,0 +1,93 @@
+package com.myfurniture.designapp.Export;
+
+import com.myfurniture.designapp.Core.DesignIO;
+import com.myfurniture.designapp.Core.RoomDesign;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Headless batch export of floor plans to PNG. Designs, tiles and PNG bands
+ * all run as tasks on one fork-join pool, so a single large plan and a folder
+ * of small ones both keep every core busy.
+ *
+ * <pre>java -cp app.jar com.myfurniture.designapp.Export.PlanExporter in/ out/ [scale]</pre>
+ */
+public class PlanExporter {
+
+    public static final double DEFAULT_SCALE = 2.0;
+
+    private final ForkJoinPool   pool;
+    private final PlanRasterizer rasterizer;
+    private final double         scale;
+
+    public PlanExporter(ForkJoinPool pool, double scale) {
+        this.pool = pool;
+        this.rasterizer = new PlanRasterizer(pool);
+        this.scale = scale;
+    }
+
+    public void export(RoomDesign design, Path png) throws IOException {
+        PlanRasterizer.Raster r = rasterizer.render(design, scale);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(png))) {
+            PngEncoder.write(r.argb(), r.width(), r.height(), out, pool);
+        }
+    }
+
+    public void export(Path design, Path png) throws IOException {
+        export(DesignIO.read(design), png);
+    }
+
+    /**
+     * Exports every {@code *.design} file in {@code inputDir} to a PNG of the
+     * same name in {@code outputDir}. Failures are reported and skipped.
+     *
+     * @return number of plans written
+     */
+    public int exportAll(Path inputDir, Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        List<Path> inputs;
+        try (Stream<Path> s = Files.list(inputDir)) {
+            inputs = s.filter(p -> p.getFileName().toString().endsWith(".design")).sorted().toList();
+        }
+
+        AtomicInteger written = new AtomicInteger();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(inputs.size());
+        for (Path in : inputs) {
+            String name = in.getFileName().toString();
+            Path out = outputDir.resolve(name.substring(0, name.length() - ".design".length()) + ".png");
+            tasks.add(pool.submit(() -> {
+                try {
+                    export(in, out);
+                    written.incrementAndGet();
+                } catch (IOException | RuntimeException ex) {
+                    System.err.println("Failed to export " + in + ": " + ex);
+                }
+            }));
+        }
+        for (ForkJoinTask<?> t : tasks) t.join();
+        return written.get();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: PlanExporter <inputDir> <outputDir> [pixelsPerUnit]");
+            System.exit(2);
+        }
+        double scale = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_SCALE;
+        long t0 = System.nanoTime();
+        int n = new PlanExporter(ForkJoinPool.commonPool(), scale)
+                .exportAll(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.printf("Exported %d plans in %.1f s%n", n, (System.nanoTime() - t0) / 1e9);
+    }
+}
@@ -0,0 +1,87 @@
+package com.myfurniture.designapp.Export;
+
+import com.myfurniture.designapp.Core.FurnitureItem;
+import com.myfurniture.designapp.Core.RoomDesign;
+import com.myfurniture.designapp.Factory.Furniture2DFactory;
+import com.myfurniture.designapp.Util.SpatialHashGrid;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Renders a {@link RoomDesign} into an ARGB buffer without a JavaFX toolkit,
+ * using the same drawing code as the editor. The image is cut into square
+ * tiles rendered in parallel; each tile only draws the items whose rotated
+ * footprint overlaps it.
+ */
+public class PlanRasterizer {
+
+    public static final int TILE = 512;
+    private static final double MARGIN = 10;      // design units around the room
+
+    /** A rendered plan. */
+    public record Raster(int width, int height, int[] argb) { }
+
+    private final ForkJoinPool pool;
+    private Color background = Color.WHITE;
+
+    public PlanRasterizer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public void setBackground(Color background) {
+        this.background = background;
+    }
+
+    /** @param scale pixels per design unit */
+    public Raster render(RoomDesign design, double scale) {
+        int width  = Math.max(1, (int) Math.ceil((design.getRoomWidth()  + 2 * MARGIN) * scale));
+        int height = Math.max(1, (int) Math.ceil((design.getRoomHeight() + 2 * MARGIN) * scale));
+        int[] argb = new int[Math.multiplyExact(width, height)];
+
+        List<FurnitureItem> items = design.getFurniture();
+        Map<FurnitureItem, Integer> order = new IdentityHashMap<>();
+        SpatialHashGrid<FurnitureItem> index = new SpatialHashGrid<>(TILE / scale);
+        for (int i = 0; i < items.size(); i++) {
+            FurnitureItem it = items.get(i);
+            double[] b = Furniture2DFactory.footprintBounds(it);
+            order.put(it, i);
+            index.insert(it, b[0], b[1], b[2], b[3]);
+        }
+        Comparator<FurnitureItem> designOrder = Comparator.comparingInt(order::get);
+
+        List<ForkJoinTask<?>> tiles = new ArrayList<>();
+        for (int ty = 0; ty < height; ty += TILE) {
+            for (int tx = 0; tx < width; tx += TILE) {
+                int x0 = tx, y0 = ty;
+                tiles.add(pool.submit(() -> renderTile(design, index, designOrder, scale,
+                        argb, width, x0, y0)));
+            }
+        }
+        for (ForkJoinTask<?> t : tiles) t.join();
+        return new Raster(width, height, argb);
+    }
+
+    private void renderTile(RoomDesign design, SpatialHashGrid<FurnitureItem> index,
+                            Comparator<FurnitureItem> designOrder, double scale,
+                            int[] argb, int stride, int x0, int y0) {
+        RasterPlanGraphics g = new RasterPlanGraphics(argb, stride, x0, y0, TILE, TILE);
+        g.clear(background);
+        g.scale(scale);
+        g.translate(MARGIN, MARGIN);
+        Furniture2DFactory.drawRoom(g, design);
+
+        // tile rectangle in design units, for the index query
+        double minX = x0 / scale - MARGIN, minY = y0 / scale - MARGIN;
+        double maxX = (x0 + TILE) / scale - MARGIN, maxY = (y0 + TILE) / scale - MARGIN;
+        List<FurnitureItem> visible = index.query(minX, minY, maxX, maxY);
+        visible.sort(designOrder);
+        for (FurnitureItem it : visible) Furniture2DFactory.drawPlaced(g, it, false);
+    }
+}
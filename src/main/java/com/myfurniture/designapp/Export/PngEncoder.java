@@ -0,0 +1,178 @@
+package com.myfurniture.designapp.Export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * PNG encoder for ARGB {@code int[]} images. Rows are cut into bands that are
+ * filtered and deflated independently on a fork-join pool; every band but the
+ * last ends with a sync flush, so the concatenated bands form one valid zlib
+ * stream (the same trick as pigz). Opaque images are written as RGB.
+ */
+public class PngEncoder {
+
+    private static final byte[] SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+    private static final int    BAND_BYTES = 256 * 1024;   // raw bytes per band
+    private static final int    LEVEL = 6;
+
+    /** Compressed band plus what is needed to stitch the zlib trailer. */
+    private record Band(byte[] data, long adler, long rawLength) { }
+
+    public static void write(int[] argb, int width, int height, OutputStream out, ForkJoinPool pool)
+            throws IOException {
+        boolean alpha = hasAlpha(argb, width * height);
+        int bpp = alpha ? 4 : 3;
+        int rowBytes = 1 + width * bpp;
+        int rowsPerBand = Math.max(1, BAND_BYTES / rowBytes);
+
+        List<ForkJoinTask<Band>> tasks = new ArrayList<>();
+        for (int y = 0; y < height; y += rowsPerBand) {
+            int y0 = y, y1 = Math.min(height, y + rowsPerBand);
+            boolean last = y1 == height;
+            tasks.add(pool.submit(() -> deflateBand(argb, width, y0, y1, bpp, last)));
+        }
+
+        writeHeader(out, width, height, alpha);
+
+        // zlib header: deflate, 32K window, default compression
+        long adler = 1;
+        boolean first = true;
+        for (ForkJoinTask<Band> task : tasks) {
+            Band band = task.join();
+            adler = adler32Combine(adler, band.adler(), band.rawLength());
+            byte[] payload = band.data();
+            if (first) {
+                byte[] withHeader = new byte[payload.length + 2];
+                withHeader[0] = 0x78;
+                withHeader[1] = (byte) 0x9C;
+                System.arraycopy(payload, 0, withHeader, 2, payload.length);
+                payload = withHeader;
+                first = false;
+            }
+            writeChunk(out, "IDAT", payload, payload.length);
+        }
+        byte[] trailer = {
+                (byte) (adler >>> 24), (byte) (adler >>> 16), (byte) (adler >>> 8), (byte) adler
+        };
+        writeChunk(out, "IDAT", trailer, 4);
+        writeChunk(out, "IEND", new byte[0], 0);
+        out.flush();
+    }
+
+    public static byte[] encode(int[] argb, int width, int height, ForkJoinPool pool) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(argb, width, height, out, pool);
+        return out.toByteArray();
+    }
+
+    private static Band deflateBand(int[] argb, int width, int y0, int y1, int bpp, boolean last) {
+        int rowBytes = 1 + width * bpp;
+        byte[] raw = new byte[(y1 - y0) * rowBytes];
+        int o = 0;
+        for (int y = y0; y < y1; y++) o = filterRow(argb, y * width, width, bpp, raw, o);
+
+        Adler32 adler = new Adler32();
+        adler.update(raw, 0, raw.length);
+
+        Deflater deflater = new Deflater(LEVEL, true);
+        try {
+            deflater.setInput(raw);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+            byte[] buf = new byte[64 * 1024];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) out.write(buf, 0, deflater.deflate(buf));
+            } else {
+                int n;
+                do {
+                    n = deflater.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH);
+                    out.write(buf, 0, n);
+                } while (n == buf.length);
+            }
+            return new Band(out.toByteArray(), adler.getValue(), raw.length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /** Writes one row with the "Sub" filter; returns the next write offset. */
+    static int filterRow(int[] argb, int start, int width, int bpp, byte[] out, int o) {
+        out[o++] = 1; // filter type: Sub
+        int pr = 0, pg = 0, pb = 0, pa = 0;
+        for (int x = 0; x < width; x++) {
+            int p = argb[start + x];
+            int r = p >> 16 & 0xFF, g = p >> 8 & 0xFF, b = p & 0xFF;
+            out[o++] = (byte) (r - pr);
+            out[o++] = (byte) (g - pg);
+            out[o++] = (byte) (b - pb);
+            if (bpp == 4) {
+                int a = p >>> 24;
+                out[o++] = (byte) (a - pa);
+                pa = a;
+            }
+            pr = r; pg = g; pb = b;
+        }
+        return o;
+    }
+
+    static boolean hasAlpha(int[] argb, int n) {
+        for (int i = 0; i < n; i++) if ((argb[i] >>> 24) != 0xFF) return true;
+        return false;
+    }
+
+    static void writeHeader(OutputStream out, int width, int height, boolean alpha) throws IOException {
+        out.write(SIGNATURE);
+        byte[] ihdr = new byte[13];
+        putInt(ihdr, 0, width);
+        putInt(ihdr, 4, height);
+        ihdr[8]  = 8;                       // bit depth
+        ihdr[9]  = (byte) (alpha ? 6 : 2);  // RGBA or RGB
+        ihdr[10] = 0;                       // deflate
+        ihdr[11] = 0;                       // adaptive filtering
+        ihdr[12] = 0;                       // no interlace
+        writeChunk(out, "IHDR", ihdr, 13);
+    }
+
+    static void writeChunk(OutputStream out, String type, byte[] data, int length) throws IOException {
+        byte[] head = new byte[8];
+        putInt(head, 0, length);
+        byte[] t = type.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(t, 0, head, 4, 4);
+        CRC32 crc = new CRC32();
+        crc.update(t);
+        crc.update(data, 0, length);
+        out.write(head);
+        out.write(data, 0, length);
+        byte[] tail = new byte[4];
+        putInt(tail, 0, (int) crc.getValue());
+        out.write(tail);
+    }
+
+    private static void putInt(byte[] b, int o, int v) {
+        b[o] = (byte) (v >>> 24); b[o + 1] = (byte) (v >>> 16); b[o + 2] = (byte) (v >>> 8); b[o + 3] = (byte) v;
+    }
+
+    /** Adler-32 of A followed by B, from the checksums of each (as zlib's adler32_combine). */
+    static long adler32Combine(long adler1, long adler2, long len2) {
+        final long base = 65521;
+        long rem  = len2 % base;
+        long sum1 = adler1 & 0xFFFF;
+        long sum2 = (rem * sum1) % base;
+        sum1 += (adler2 & 0xFFFF) + base - 1;
+        sum2 += ((adler1 >>> 16) & 0xFFFF) + ((adler2 >>> 16) & 0xFFFF) + base - rem;
+        if (sum1 >= base) sum1 -= base;
+        if (sum1 >= base) sum1 -= base;
+        if (sum2 >= (base << 1)) sum2 -= (base << 1);
+        if (sum2 >= base) sum2 -= base;
+        return sum1 | (sum2 << 16);
+    }
+}
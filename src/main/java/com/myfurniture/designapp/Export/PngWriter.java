@@ -0,0 +1,87 @@
+package com.myfurniture.designapp.Export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Streaming PNG writer: rows are filtered and deflated as they arrive and the
+ * compressed data is flushed out in fixed-size IDAT chunks, so an image of any
+ * height is written with memory for a single band of rows.
+ */
+public class PngWriter implements Closeable {
+
+    private static final int CHUNK = 64 * 1024;
+
+    private final OutputStream out;
+    private final int width, height, bpp;
+    private final byte[] row;
+    private final Deflater deflater = new Deflater(6);
+    private final DeflaterOutputStream zip;
+    private int rowsWritten;
+    private boolean closed;
+
+    public PngWriter(OutputStream out, int width, int height, boolean alpha) throws IOException {
+        this.out = out;
+        this.width = width;
+        this.height = height;
+        this.bpp = alpha ? 4 : 3;
+        this.row = new byte[1 + width * bpp];
+        this.zip = new DeflaterOutputStream(new IdatStream(), deflater, CHUNK);
+        PngEncoder.writeHeader(out, width, height, alpha);
+    }
+
+    public int getRowsWritten() {
+        return rowsWritten;
+    }
+
+    /**
+     * Appends {@code rows} rows of ARGB pixels, starting at {@code offset} in
+     * {@code argb} with {@code stride} ints between row starts.
+     */
+    public void writeRows(int[] argb, int offset, int stride, int rows) throws IOException {
+        if (rowsWritten + rows > height) throw new IOException("more rows than the image height");
+        for (int r = 0; r < rows; r++) {
+            PngEncoder.filterRow(argb, offset + r * stride, width, bpp, row, 0);
+            zip.write(row);
+        }
+        rowsWritten += rows;
+    }
+
+    /** Finishes the image. Fails if fewer rows than the image height were written. */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            if (rowsWritten != height) throw new IOException("image incomplete: " + rowsWritten + " of " + height + " rows");
+            zip.finish();
+            PngEncoder.writeChunk(out, "IEND", new byte[0], 0);
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    /** Turns each buffer the deflater flushes into one IDAT chunk. */
+    private class IdatStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return;
+            if (off == 0) {
+                PngEncoder.writeChunk(out, "IDAT", b, len);
+            } else {
+                byte[] copy = new byte[len];
+                System.arraycopy(b, off, copy, 0, len);
+                PngEncoder.writeChunk(out, "IDAT", copy, len);
+            }
+        }
+    }
+}
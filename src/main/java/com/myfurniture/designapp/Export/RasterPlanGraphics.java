@@ -0,0 +1,207 @@
+package com.myfurniture.designapp.Export;
+
+import com.myfurniture.designapp.Factory.PlanGraphics;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Pure-Java {@link PlanGraphics} filling an ARGB {@code int[]} buffer.
+ * Shapes are scan-converted as polygons sampled at pixel centres and
+ * alpha-blended. Drawing is clipped to a rectangle, so several instances may
+ * render disjoint tiles of one shared buffer from different threads.
+ */
+public class RasterPlanGraphics implements PlanGraphics {
+
+    private static final int OVAL_SEGMENTS_MIN = 12, OVAL_SEGMENTS_MAX = 96;
+
+    private final int[] pixels;
+    private final int   stride;
+    private final int   clipX0, clipY0, clipX1, clipY1;   // [x0, x1) × [y0, y1)
+
+    // current transform: x' = a*x + c*y + e, y' = b*x + d*y + f
+    private double a = 1, b = 0, c = 0, d = 1, e = 0, f = 0;
+    private int    fill = 0xFF000000, stroke = 0xFF000000;
+    private double lineWidth = 1;
+    private final Deque<double[]> stack = new ArrayDeque<>();
+
+    // scratch for polygon filling
+    private final double[] px = new double[OVAL_SEGMENTS_MAX], py = new double[OVAL_SEGMENTS_MAX];
+    private final double[] crossings = new double[OVAL_SEGMENTS_MAX];
+
+    /**
+     * @param pixels ARGB buffer, row-major
+     * @param stride width of the buffer in pixels
+     * @param clipX  clip rectangle, in buffer pixels
+     */
+    public RasterPlanGraphics(int[] pixels, int stride, int clipX, int clipY, int clipW, int clipH) {
+        this.pixels = pixels;
+        this.stride = stride;
+        this.clipX0 = Math.max(0, clipX);
+        this.clipY0 = Math.max(0, clipY);
+        this.clipX1 = Math.min(stride, clipX + clipW);
+        this.clipY1 = Math.min(pixels.length / stride, clipY + clipH);
+    }
+
+    /** Appends a uniform scale to the transform (design units → pixels). */
+    public void scale(double s) {
+        a *= s; b *= s; c *= s; d *= s;
+    }
+
+    /** Fills the whole clip rectangle, ignoring the transform. */
+    public void clear(Color color) {
+        int argb = toArgb(color);
+        for (int y = clipY0; y < clipY1; y++) {
+            int row = y * stride;
+            for (int x = clipX0; x < clipX1; x++) pixels[row + x] = argb;
+        }
+    }
+
+    @Override
+    public void save() {
+        stack.push(new double[] { a, b, c, d, e, f, fill, stroke, lineWidth });
+    }
+
+    @Override
+    public void restore() {
+        double[] s = stack.poll();
+        if (s == null) return;
+        a = s[0]; b = s[1]; c = s[2]; d = s[3]; e = s[4]; f = s[5];
+        fill = (int) s[6]; stroke = (int) s[7]; lineWidth = s[8];
+    }
+
+    @Override
+    public void translate(double x, double y) {
+        e += a * x + c * y;
+        f += b * x + d * y;
+    }
+
+    @Override
+    public void rotate(double degrees) {
+        double r = Math.toRadians(degrees), cos = Math.cos(r), sin = Math.sin(r);
+        double na = a * cos + c * sin, nb = b * cos + d * sin;
+        double nc = c * cos - a * sin, nd = d * cos - b * sin;
+        a = na; b = nb; c = nc; d = nd;
+    }
+
+    @Override public void setFill(Color color)       { fill = toArgb(color); }
+    @Override public void setStroke(Color color)     { stroke = toArgb(color); }
+    @Override public void setLineWidth(double width) { lineWidth = width; }
+
+    @Override
+    public void fillRect(double x, double y, double w, double h) {
+        px[0] = x;     py[0] = y;
+        px[1] = x + w; py[1] = y;
+        px[2] = x + w; py[2] = y + h;
+        px[3] = x;     py[3] = y + h;
+        fillPolygon(4, fill);
+    }
+
+    @Override
+    public void fillOval(double x, double y, double w, double h) {
+        double rx = w / 2, ry = h / 2, cx = x + rx, cy = y + ry;
+        double devR = Math.max(rx, ry) * deviceScale();
+        int n = (int) Math.max(OVAL_SEGMENTS_MIN, Math.min(OVAL_SEGMENTS_MAX, devR * 1.5));
+        for (int i = 0; i < n; i++) {
+            double t = 2 * Math.PI * i / n;
+            px[i] = cx + rx * Math.cos(t);
+            py[i] = cy + ry * Math.sin(t);
+        }
+        fillPolygon(n, fill);
+    }
+
+    @Override
+    public void strokeLine(double x1, double y1, double x2, double y2) {
+        double dx = x2 - x1, dy = y2 - y1, len = Math.hypot(dx, dy);
+        if (len == 0) return;
+        // at least one device pixel wide so thin outlines survive downscaling
+        double half = Math.max(lineWidth, 1 / deviceScale()) / 2;
+        double nx = -dy / len * half, ny = dx / len * half;
+        px[0] = x1 + nx; py[0] = y1 + ny;
+        px[1] = x2 + nx; py[1] = y2 + ny;
+        px[2] = x2 - nx; py[2] = y2 - ny;
+        px[3] = x1 - nx; py[3] = y1 - ny;
+        fillPolygon(4, stroke);
+    }
+
+    @Override
+    public void strokeRect(double x, double y, double w, double h) {
+        strokeLine(x, y, x + w, y);
+        strokeLine(x + w, y, x + w, y + h);
+        strokeLine(x + w, y + h, x, y + h);
+        strokeLine(x, y + h, x, y);
+    }
+
+    private double deviceScale() {
+        return Math.sqrt(Math.abs(a * d - b * c));
+    }
+
+    /** Transforms px/py[0..n) and fills the polygon with even-odd scanlines. */
+    private void fillPolygon(int n, int argb) {
+        if ((argb >>> 24) == 0) return;
+        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double x = px[i], y = py[i];
+            px[i] = a * x + c * y + e;
+            py[i] = b * x + d * y + f;
+            minX = Math.min(minX, px[i]); maxX = Math.max(maxX, px[i]);
+            minY = Math.min(minY, py[i]); maxY = Math.max(maxY, py[i]);
+        }
+        if (maxX < clipX0 || minX > clipX1 || maxY < clipY0 || minY > clipY1) return;
+
+        int y0 = Math.max(clipY0, (int) Math.ceil(minY - 0.5));
+        int y1 = Math.min(clipY1 - 1, (int) Math.ceil(maxY - 0.5) - 1);
+        for (int y = y0; y <= y1; y++) {
+            double sy = y + 0.5;
+            int k = 0;
+            for (int i = 0, j = n - 1; i < n; j = i++) {
+                double yi = py[i], yj = py[j];
+                if ((yi <= sy) != (yj <= sy)) {
+                    crossings[k++] = px[i] + (sy - yi) / (yj - yi) * (px[j] - px[i]);
+                }
+            }
+            sortSmall(crossings, k);
+            for (int m = 0; m + 1 < k; m += 2) {
+                int xs = Math.max(clipX0, (int) Math.ceil(crossings[m] - 0.5));
+                int xe = Math.min(clipX1, (int) Math.ceil(crossings[m + 1] - 0.5));
+                if (xs < xe) span(y * stride, xs, xe, argb);
+            }
+        }
+    }
+
+    private void span(int row, int xs, int xe, int argb) {
+        int alpha = argb >>> 24;
+        if (alpha == 255) {
+            for (int x = xs; x < xe; x++) pixels[row + x] = argb;
+            return;
+        }
+        int sr = argb >> 16 & 0xFF, sg = argb >> 8 & 0xFF, sb = argb & 0xFF, inv = 255 - alpha;
+        for (int x = xs; x < xe; x++) {
+            int dst = pixels[row + x];
+            int da = dst >>> 24;
+            int r = (sr * alpha + (dst >> 16 & 0xFF) * inv) / 255;
+            int g = (sg * alpha + (dst >> 8 & 0xFF) * inv) / 255;
+            int bl = (sb * alpha + (dst & 0xFF) * inv) / 255;
+            int oa = alpha + da * inv / 255;
+            pixels[row + x] = oa << 24 | r << 16 | g << 8 | bl;
+        }
+    }
+
+    private static void sortSmall(double[] v, int n) {
+        for (int i = 1; i < n; i++) {
+            double x = v[i];
+            int j = i - 1;
+            while (j >= 0 && v[j] > x) { v[j + 1] = v[j]; j--; }
+            v[j + 1] = x;
+        }
+    }
+
+    static int toArgb(Color c) {
+        return (int) Math.round(c.getOpacity() * 255) << 24
+                | (int) Math.round(c.getRed()   * 255) << 16
+                | (int) Math.round(c.getGreen() * 255) << 8
+                | (int) Math.round(c.getBlue()  * 255);
+    }
+}
@@ -2,10 +2,6 @@ package com.myfurniture.designapp.Factory;
 
 import com.myfurniture.designapp.Core.RoomDesign;
 import javafx.scene.Group;
-import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.WritableImage;
-import javafx.scene.paint.Color;
 import javafx.scene.paint.PhongMaterial;
 import javafx.scene.shape.Box;
 import javafx.scene.shape.MeshView;
@@ -15,6 +11,11 @@ import javafx.scene.transform.Translate;
 public class BoothRoomFactory {
 
     public static Group createBooth(RoomDesign room) {
+        return createBooth(room, RenderQuality.HIGH);
+    }
+
+    /** Floor and walls, with the floor texture at a quality tier's size. */
+    public static Group createBooth(RoomDesign room, RenderQuality quality) {
         Group group = new Group();
 
         double width = room.getRoomWidth();
@@ -26,10 +27,10 @@ public class BoothRoomFactory {
         PhongMaterial backWallMat = new PhongMaterial(room.getBackWallColor());
         PhongMaterial leftWallMat = new PhongMaterial(room.getLeftWallColor());
         PhongMaterial rightWallMat = new PhongMaterial(room.getRightWallColor());
-        PhongMaterial floorMat = createFloorMaterial();
+        MaterialAtlas atlas = MaterialAtlas.forQuality(quality);
 
         // Floor
-        MeshView floor = createPlainFloor(width, depth, floorMat);
+        MeshView floor = createPlainFloor(width, depth, atlas);
         group.getChildren().add(floor);
 
         // Back wall
@@ -53,7 +54,7 @@ public class BoothRoomFactory {
         return group;
     }
 
-    private static MeshView createPlainFloor(double width, double depth, PhongMaterial mat) {
+    private static MeshView createPlainFloor(double width, double depth, MaterialAtlas atlas) {
         TriangleMesh mesh = new TriangleMesh();
         float w = (float) width;
         float d = (float) depth;
@@ -67,7 +68,7 @@ public class BoothRoomFactory {
         );
 
         // Texture coordinates
-        mesh.getTexCoords().addAll(0, 0, 1, 0, 1, 1, 0, 1);
+        mesh.getTexCoords().addAll(atlas.region(BuiltInAssets.FLOOR).remap(new float[] {0, 0, 1, 0, 1, 1, 0, 1}));
 
         // Faces - both front and back so it's double-sided
         mesh.getFaces().addAll(
@@ -80,32 +81,8 @@ public class BoothRoomFactory {
         );
 
         MeshView floor = new MeshView(mesh);
-        floor.setMaterial(mat);
+        floor.setMaterial(atlas.material(BuiltInAssets.FLOOR));
         floor.setTranslateY(0);
         return floor;
     }
-
-    private static PhongMaterial createFloorMaterial() {
-        int size = 128;
-        Canvas canvas = new Canvas(size, size);
-        GraphicsContext gc = canvas.getGraphicsContext2D();
-
-        // Base floor color
-        gc.setFill(Color.GRAY);
-        gc.fillRect(0, 0, size, size);
-
-        // Grid lines (subtle)
-        gc.setStroke(Color.rgb(200, 200, 200, 0.3));
-        for (int i = 0; i <= size; i += 16) {
-            gc.strokeLine(i, 0, i, size); // vertical lines
-            gc.strokeLine(0, i, size, i); // horizontal lines
-        }
-
-        WritableImage texture = canvas.snapshot(null, null);
-        PhongMaterial material = new PhongMaterial();
-        material.setDiffuseMap(texture);
-        material.setSpecularColor(Color.WHITE);       // light reflections
-        material.setSpecularPower(32);
-        return material;
-    }
 }
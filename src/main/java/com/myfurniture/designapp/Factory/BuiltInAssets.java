@@ -0,0 +1,114 @@
+package com.myfurniture.designapp.Factory;
+
+import com.myfurniture.designapp.Assets.AssetPack;
+import com.myfurniture.designapp.Diagnostics.Events;
+import com.myfurniture.designapp.Diagnostics.Metrics;
+import com.myfurniture.designapp.Export.RasterPlanGraphics;
+import javafx.scene.paint.Color;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * The procedural textures and the materials using them. The 3D factories do
+ * not use these textures directly but through a {@link MaterialAtlas}; the
+ * painters draw through {@link PlanGraphics}, so atlas pages come out the same
+ * whether they are composed at run time or baked into the {@link AssetPack}.
+ */
+public final class BuiltInAssets {
+
+    /** bump when a painter or a material below changes, so baked packs are rebuilt */
+    public static final int VERSION = 2;
+
+    public static final String WOOD = "wood", FLOOR = "floor";
+
+    /** every texture kind, in atlas order */
+    public static final List<String> KINDS = List.of(WOOD, FLOOR);
+
+    /** how a built-in material looks; {@code texture} names a texture kind or is null */
+    public record MaterialSpec(Color diffuse, Color specular, double specularPower, String texture) { }
+
+    private static final Map<String, MaterialSpec> MATERIALS = Map.of(
+            WOOD,  new MaterialSpec(Color.WHITE, Color.rgb(120, 80, 50, 0.5), 48, WOOD),   // slightly darker specular
+            FLOOR, new MaterialSpec(Color.WHITE, Color.WHITE, 32, FLOOR));               // light reflections
+
+    private static final Metrics.Timer paintTimer = Metrics.timer("texture.paint");
+
+    private BuiltInAssets() { }
+
+    public static String materialName(String kind) {
+        return "material/" + kind;
+    }
+
+    /** Texture edge length of a kind for a tier's texture size; the floor is seen larger and gets twice as much. */
+    public static int textureSize(String kind, int tierSize) {
+        return FLOOR.equals(kind) ? tierSize * 2 : tierSize;
+    }
+
+    public static BiConsumer<PlanGraphics, Integer> painter(String kind) {
+        return FLOOR.equals(kind) ? BuiltInAssets::paintFloor : BuiltInAssets::paintWood;
+    }
+
+    /** Non-premultiplied ARGB pixels of a texture, painted without the JavaFX toolkit. */
+    public static int[] pixels(String kind, int size) {
+        Events.Texture event = new Events.Texture();
+        event.begin();
+        long t0 = System.nanoTime();
+        int[] argb = new int[size * size];
+        painter(kind).accept(new RasterPlanGraphics(argb, size, 0, 0, size, size), size);
+        paintTimer.recordSince(t0);
+        event.end();
+        if (event.shouldCommit()) {
+            event.name = kind;
+            event.width = event.height = size;
+            event.source = "painted";
+            event.commit();
+        }
+        return argb;
+    }
+
+    /** The material of a kind, as baked into the default pack or else as built in. */
+    public static MaterialSpec spec(String kind) {
+        AssetPack pack = pack();
+        if (pack != null && pack.hasMaterial(materialName(kind))) {
+            AssetPack.Material m = pack.material(materialName(kind));
+            return new MaterialSpec(color(m.diffuse()), color(m.specular()), m.specularPower(), m.texture());
+        }
+        return MATERIALS.get(kind);
+    }
+
+    /** The default pack, if it was baked from this version of the built-in assets. */
+    static AssetPack pack() {
+        AssetPack pack = AssetPack.getDefault();
+        return pack != null && pack.getContentVersion() == VERSION ? pack : null;
+    }
+
+    /** True if the default pack is missing or was baked from other built-in assets. */
+    public static boolean needsBaking() {
+        return pack() == null;
+    }
+
+    private static Color color(int argb) {
+        return Color.rgb(argb >> 16 & 0xFF, argb >> 8 & 0xFF, argb & 0xFF, (argb >>> 24) / 255.0);
+    }
+
+    private static void paintWood(PlanGraphics g, int size) {
+        g.setFill(Color.BURLYWOOD);
+        g.fillRect(0, 0, size, size);
+        g.setStroke(Color.SADDLEBROWN);
+        int step = Math.max(1, size / 8);
+        for (int i = 0; i < size; i += step) g.strokeLine(i, 0, i, size);
+    }
+
+    private static void paintFloor(PlanGraphics g, int size) {
+        g.setFill(Color.GRAY);
+        g.fillRect(0, 0, size, size);
+        // subtle grid
+        g.setStroke(Color.rgb(200, 200, 200, 0.3));
+        for (int i = 0; i <= size; i += size / 8) {
+            g.strokeLine(i, 0, i, size);
+            g.strokeLine(0, i, size, i);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.myfurniture.designapp.Factory;
 
 import com.myfurniture.designapp.Core.FurnitureItem;
+import com.myfurniture.designapp.Core.RoomDesign;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
@@ -17,6 +18,13 @@ public class Furniture2DFactory {
     public static void drawFurniture(GraphicsContext g,
                                      FurnitureItem it,
                                      boolean selected) {
+        drawFurniture(new FxPlanGraphics(g), it, selected);
+    }
+
+    /** Draws the item's icon in its own frame: (0,0) to (width,height), unrotated. */
+    public static void drawFurniture(PlanGraphics g,
+                                     FurnitureItem it,
+                                     boolean selected) {
 
         double w = it.getWidth();
         double h = it.getHeight();
@@ -47,7 +55,50 @@ public class Furniture2DFactory {
         g.restore();
     }
 
-    private static void drawChair(GraphicsContext g, Color p, Color s, double w, double h) {
+    /** Draws the item where it sits in the room, rotated about its centre. */
+    public static void drawPlaced(PlanGraphics g, FurnitureItem it, boolean selected) {
+        g.save();
+        g.translate(it.getX() + it.getWidth()/2.0,
+                it.getY() + it.getHeight()/2.0);
+        g.rotate(it.getRotation());
+        g.translate(-it.getWidth()/2.0, -it.getHeight()/2.0);
+        drawFurniture(g, it, selected);
+        g.restore();
+    }
+
+    /** Floor, outline and the three wall strips. */
+    public static void drawRoom(PlanGraphics g, RoomDesign room) {
+        double rw = room.getRoomWidth(), rh = room.getRoomHeight();
+
+        g.setFill(room.getRoomColor());
+        g.fillRect(0, 0, rw, rh);
+        g.setStroke(Color.BLACK);
+        g.setLineWidth(1);
+        g.strokeRect(0, 0, rw, rh);
+
+        double t = 10;
+        g.setFill(room.getBackWallColor());
+        g.fillRect(0, 0, rw, t);
+        g.setFill(room.getLeftWallColor());
+        g.fillRect(0, 0, t, rh);
+        g.setFill(room.getRightWallColor());
+        g.fillRect(rw-t, 0, t, rh);
+    }
+
+    /**
+     * Axis-aligned bounds {minX, minY, maxX, maxY} of the rotated footprint,
+     * with a unit margin for the outline.
+     */
+    public static double[] footprintBounds(FurnitureItem it) {
+        double hw = it.getWidth() / 2.0, hh = it.getHeight() / 2.0;
+        double cx = it.getX() + hw, cy = it.getY() + hh;
+        double a = Math.toRadians(it.getRotation());
+        double c = Math.abs(Math.cos(a)), s = Math.abs(Math.sin(a));
+        double ex = hw * c + hh * s + 1, ey = hw * s + hh * c + 1;
+        return new double[] { cx - ex, cy - ey, cx + ex, cy + ey };
+    }
+
+    private static void drawChair(PlanGraphics g, Color p, Color s, double w, double h) {
         // seat
         g.setFill(p);
         g.fillRect(w*0.2, h*0.5, w*0.6, h*0.4);
@@ -56,7 +107,7 @@ public class Furniture2DFactory {
         g.fillRect(w*0.2, h*0.2, w*0.6, h*0.2);
     }
 
-    private static void drawTable(GraphicsContext g, Color p, Color s, double w, double h) {
+    private static void drawTable(PlanGraphics g, Color p, Color s, double w, double h) {
         // tabletop
         g.setFill(p);
         g.fillRect(0, 0, w, h*0.2);
@@ -69,7 +120,7 @@ public class Furniture2DFactory {
         g.fillRect(w-lw, h*0.5, lw, lh);
     }
 
-    private static void drawBed(GraphicsContext g, Color p, Color s, double w, double h) {
+    private static void drawBed(PlanGraphics g, Color p, Color s, double w, double h) {
         // mattress
         g.setFill(p);
         g.fillRect(0, h*0.2, w, h*0.6);
@@ -79,7 +130,7 @@ public class Furniture2DFactory {
         g.fillOval(w*0.6, 0, w*0.3, h*0.2);
     }
 
-    private static void drawSofa(GraphicsContext g, Color p, Color s, double w, double h) {
+    private static void drawSofa(PlanGraphics g, Color p, Color s, double w, double h) {
         // back
         g.setFill(p);
         g.fillRect(0, 0, w, h*0.3);
@@ -92,7 +143,7 @@ public class Furniture2DFactory {
         g.fillRect(w*0.9, h*0.3, w*0.1, h*0.4);
     }
 
-    private static void drawShelf(GraphicsContext g, Color p, Color s, double w, double h) {
+    private static void drawShelf(PlanGraphics g, Color p, Color s, double w, double h) {
         g.setFill(p);
         g.fillRect(0, 0, w, h);
         g.setStroke(s.darker());
@@ -102,14 +153,14 @@ public class Furniture2DFactory {
         }
     }
 
-    private static void drawWardrobe(GraphicsContext g, Color p, Color s, double w, double h) {
+    private static void drawWardrobe(PlanGraphics g, Color p, Color s, double w, double h) {
         g.setFill(p);
         g.fillRect(0, 0, w, h);
         g.setStroke(s.darker());
         g.strokeLine(w/2, 0, w/2, h);
     }
 
-    private static void drawLamp(GraphicsContext g, Color p, Color s, double w, double h) {
+    private static void drawLamp(PlanGraphics g, Color p, Color s, double w, double h) {
         // shade
         g.setFill(p);
         g.fillOval(w*0.2, 0, w*0.6, h*0.3);
@@ -118,7 +169,7 @@ public class Furniture2DFactory {
         g.fillRect(w*0.48, h*0.3, w*0.04, h*0.5);
     }
 
-    private static void drawTV(GraphicsContext g, Color p, Color s, double w, double h) {
+    private static void drawTV(PlanGraphics g, Color p, Color s, double w, double h) {
         // screen
         g.setFill(p.darker());
         g.fillRect(w*0.1, 0, w*0.8, h*0.3);
@@ -127,7 +178,7 @@ public class Furniture2DFactory {
         g.fillRect(w*0.4, h*0.3, w*0.2, h*0.05);
     }
 
-    private static void drawCoffee(GraphicsContext g, Color p, Color s, double w, double h) {
+    private static void drawCoffee(PlanGraphics g, Color p, Color s, double w, double h) {
         // top
         g.setFill(p);
         g.fillOval(0, 0, w, h*0.2);
@@ -139,7 +190,7 @@ public class Furniture2DFactory {
         g.strokeLine(w-lw, h*0.2, w-lw, h);
     }
 
-    private static void drawDefault(GraphicsContext g, Color p, double w, double h) {
+    private static void drawDefault(PlanGraphics g, Color p, double w, double h) {
         g.setFill(p);
         g.fillRect(0, 0, w, h);
     }
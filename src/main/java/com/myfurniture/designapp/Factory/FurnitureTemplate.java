@@ -0,0 +1,118 @@
+package com.myfurniture.designapp.Factory;
+
+import com.myfurniture.designapp.Core.FurnitureItem;
+import com.myfurniture.designapp.Util.Expression;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+import javafx.scene.transform.Scale;
+
+import java.util.List;
+
+/**
+ * A furniture type compiled from its template: the parts with every size and
+ * position as a compiled {@link Expression} over the item's footprint. Making
+ * a node evaluates those and places scaled instances of shared unit meshes
+ * with shared materials, so no geometry is built per item.
+ *
+ * @see FurnitureTemplates
+ */
+public final class FurnitureTemplate {
+
+    /** variable slots every expression can read; {@code let} names follow */
+    static final List<String> VARIABLES = List.of("w", "d", "lod", "i");
+    private static final int W = 0, D = 1, LOD = 2, I = 3;
+
+    enum Shape { BOX, CYLINDER, LEG }
+
+    /**
+     * One part, repeated {@code count} times (null for once).
+     * {@code material} is primary, secondary, wood or metal, or null for the fixed {@code color}.
+     */
+    record Part(Shape shape, String material, Color color, Expression[] size, Expression[] centre, Expression count) { }
+
+    /** size, colours and material of a newly added item */
+    record Defaults(double width, double depth, Color primary, Color secondary, String material) { }
+
+    private final String name;
+    private final Defaults defaults;
+    private final Expression[] lets;
+    private final Part[] parts;
+    private final int stackDepth;          // deepest operand stack of all the expressions
+
+    FurnitureTemplate(String name, Defaults defaults, Expression[] lets, Part[] parts) {
+        this.name = name;
+        this.defaults = defaults;
+        this.lets = lets;
+        this.parts = parts;
+        int depth = 0;
+        for (Expression e : lets) depth = Math.max(depth, e.getStackDepth());
+        for (Part p : parts) {
+            if (p.count() != null) depth = Math.max(depth, p.count().getStackDepth());
+            for (Expression e : p.size())   depth = Math.max(depth, e.getStackDepth());
+            for (Expression e : p.centre()) depth = Math.max(depth, e.getStackDepth());
+        }
+        this.stackDepth = depth;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** A new item of this type with the template's defaults. */
+    public FurnitureItem createItem() {
+        return new FurnitureItem(name, 50, 50, (int) defaults.width(), (int) defaults.depth(),
+                defaults.primary(), defaults.secondary(), defaults.material());
+    }
+
+    /** The parts for an item in room coordinates, unrotated, at a quality tier's detail. Must run on the FX thread. */
+    public Group instantiate(FurnitureItem item, RenderQuality quality) {
+        double[] v = new double[VARIABLES.size() + lets.length];
+        double[] stack = new double[stackDepth];   // shared by every evaluation below
+        v[W] = item.getWidth();
+        v[D] = item.getHeight();
+        v[LOD] = quality.getLodBias();
+        for (int k = 0; k < lets.length; k++) v[VARIABLES.size() + k] = lets[k].eval(v, stack);
+
+        MaterialAtlas atlas = MaterialAtlas.forQuality(quality);
+        Group group = new Group();
+        List<Node> children = group.getChildren();
+        for (Part p : parts) {
+            int count = p.count() == null ? 1 : (int) Math.round(p.count().eval(v, stack));
+            if (count <= 0) continue;
+            PhongMaterial material = material(p, item, atlas);
+            TriangleMesh mesh = mesh(p, atlas, quality);
+            for (int i = 0; i < count; i++) {
+                v[I] = i;
+                MeshView view = new MeshView(mesh);
+                view.setMaterial(material);
+                view.setTranslateX(item.getX() + p.centre()[0].eval(v, stack));
+                view.setTranslateY(p.centre()[1].eval(v, stack));
+                view.setTranslateZ(item.getY() + p.centre()[2].eval(v, stack));
+                view.getTransforms().add(new Scale(p.size()[0].eval(v, stack), p.size()[1].eval(v, stack),
+                        p.size()[2].eval(v, stack)));
+                children.add(view);
+            }
+        }
+        return group;
+    }
+
+    private static PhongMaterial material(Part p, FurnitureItem item, MaterialAtlas atlas) {
+        if (p.material() == null) return Furniture3DFactory.smoothMaterial(p.color());
+        return switch (p.material()) {
+            case "primary"   -> Furniture3DFactory.smoothMaterial(item.getPrimaryColor());
+            case "secondary" -> Furniture3DFactory.smoothMaterial(item.getSecondaryColor());
+            case "metal"     -> Furniture3DFactory.metalMaterial(item.getSecondaryColor());
+            default          -> atlas.material(BuiltInAssets.WOOD);
+        };
+    }
+
+    private static TriangleMesh mesh(Part p, MaterialAtlas atlas, RenderQuality quality) {
+        String texture = "wood".equals(p.material()) ? BuiltInAssets.WOOD : null;
+        boolean round = p.shape() == Shape.CYLINDER || p.shape() == Shape.LEG && quality.getLodBias() < 2;
+        return round ? atlas.cylinder(texture, quality.getCylinderDivisions()) : atlas.box(texture);
+    }
+}
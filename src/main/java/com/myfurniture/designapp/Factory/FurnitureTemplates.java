@@ -0,0 +1,198 @@
+package com.myfurniture.designapp.Factory;
+
+import com.myfurniture.designapp.Util.Expression;
+import javafx.scene.paint.Color;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Registry of {@link FurnitureTemplate}s, compiled once from the text format
+ * documented in the built-in {@code furniture.templates} resource. Templates
+ * in {@code ~/.myfurniture/furniture.templates} (or the file named by the
+ * {@code myfurniture.templates} property) are added after the built-in ones
+ * and replace those of the same name, so adding a type needs no code.
+ */
+public final class FurnitureTemplates {
+
+    private static final String BUILT_IN = "furniture.templates";
+    private static Map<String, FurnitureTemplate> templates;
+
+    private FurnitureTemplates() { }
+
+    /** The template of a type (case-insensitive), or null. */
+    public static FurnitureTemplate get(String type) {
+        return type == null ? null : all().get(key(type));
+    }
+
+    /** Every template, built-in ones first, in file order. */
+    public static Collection<FurnitureTemplate> getAll() {
+        return Collections.unmodifiableCollection(all().values());
+    }
+
+    private static synchronized Map<String, FurnitureTemplate> all() {
+        if (templates == null) {
+            Map<String, FurnitureTemplate> map = new LinkedHashMap<>();
+            try (InputStream in = FurnitureTemplates.class.getResourceAsStream(BUILT_IN)) {
+                if (in == null) throw new IOException("missing resource " + BUILT_IN);
+                load(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), BUILT_IN, map);
+            } catch (IOException ex) {
+                System.err.println("Could not read built-in furniture templates: " + ex);
+            }
+            String configured = System.getProperty("myfurniture.templates");
+            Path user = configured != null ? Paths.get(configured)
+                    : Paths.get(System.getProperty("user.home"), ".myfurniture", "furniture.templates");
+            if (Files.isRegularFile(user)) {
+                try (BufferedReader br = Files.newBufferedReader(user, StandardCharsets.UTF_8)) {
+                    load(br, user.toString(), map);
+                } catch (IOException ex) {
+                    System.err.println("Could not read furniture templates " + user + ": " + ex);
+                }
+            }
+            templates = map;
+        }
+        return templates;
+    }
+
+    private static void load(BufferedReader br, String source, Map<String, FurnitureTemplate> into) throws IOException {
+        for (FurnitureTemplate t : parse(br, source)) {
+            into.remove(key(t.getName()));   // a replaced type moves to the end
+            into.put(key(t.getName()), t);
+        }
+    }
+
+    /**
+     * Compiles every template in a file.
+     *
+     * @throws IOException on a read error, or naming the line of a syntax error
+     */
+    public static List<FurnitureTemplate> parse(BufferedReader br, String source) throws IOException {
+        List<FurnitureTemplate> out = new ArrayList<>();
+        Builder b = null;
+        int lineNo = 0;
+        for (String ln; (ln = br.readLine()) != null; ) {
+            lineNo++;
+            String line = ln.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            try {
+                if (line.startsWith("[") && line.endsWith("]")) {
+                    if (b != null) out.add(b.build());
+                    b = new Builder(line.substring(1, line.length() - 1).trim());
+                } else if (b == null) {
+                    throw new IllegalArgumentException("expected [type]");
+                } else {
+                    b.line(line);
+                }
+            } catch (IllegalArgumentException ex) {
+                throw new IOException(source + ":" + lineNo + ": " + ex.getMessage());
+            }
+        }
+        if (b != null) out.add(b.build());
+        return out;
+    }
+
+    private static String key(String type) {
+        return type.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // ------------------- compiling -------------------
+
+    private static final class Builder {
+        private final String name;
+        private final List<String> variables = new ArrayList<>(FurnitureTemplate.VARIABLES);
+        private final List<Expression> lets = new ArrayList<>();
+        private final List<FurnitureTemplate.Part> parts = new ArrayList<>();
+        private FurnitureTemplate.Defaults defaults;
+
+        Builder(String name) {
+            this.name = name;
+        }
+
+        void line(String line) {
+            String[] words = line.split("\\s+", 3);
+            switch (words[0]) {
+                case "default" -> {
+                    String[] d = line.split("\\s+");
+                    if (d.length != 6) throw new IllegalArgumentException("expected default WIDTH DEPTH PRIMARY SECONDARY MATERIAL");
+                    defaults = new FurnitureTemplate.Defaults(Double.parseDouble(d[1]), Double.parseDouble(d[2]),
+                            Color.web(d[3]), Color.web(d[4]), d[5]);
+                }
+                case "let" -> {
+                    int eq = line.indexOf('=');
+                    if (eq < 0) throw new IllegalArgumentException("expected let NAME = EXPR");
+                    String var = line.substring(3, eq).trim();
+                    if (!var.matches("[A-Za-z][A-Za-z0-9]*") || variables.contains(var)) {
+                        throw new IllegalArgumentException("bad or duplicate name " + var);
+                    }
+                    lets.add(compile(line.substring(eq + 1)));
+                    variables.add(var);
+                }
+                case "box", "cylinder", "leg" -> parts.add(part(words));
+                default -> throw new IllegalArgumentException("unknown keyword " + words[0]);
+            }
+        }
+
+        private FurnitureTemplate.Part part(String[] words) {
+            if (words.length < 3) throw new IllegalArgumentException("expected SHAPE MATERIAL SIZE @ CENTRE");
+            FurnitureTemplate.Shape shape = FurnitureTemplate.Shape.valueOf(words[0].toUpperCase(Locale.ROOT));
+            String material = words[1].toLowerCase(Locale.ROOT);
+            Color color = null;
+            if (!List.of("primary", "secondary", "wood", "metal").contains(material)) {
+                color = Color.web(words[1]);
+                material = null;
+            }
+            String rest = words[2];
+            Expression count = null;
+            int repeat = rest.lastIndexOf(" repeat ");
+            if (repeat >= 0) {
+                count = compile(rest.substring(repeat + 8));
+                rest = rest.substring(0, repeat);
+            }
+            int at = rest.indexOf('@');
+            if (at < 0) throw new IllegalArgumentException("expected SIZE @ CENTRE");
+            return new FurnitureTemplate.Part(shape, material, color,
+                    vector(rest.substring(0, at)), vector(rest.substring(at + 1)), count);
+        }
+
+        /** three comma-separated expressions; commas inside parentheses belong to min/max */
+        private Expression[] vector(String s) {
+            List<String> items = new ArrayList<>();
+            int depth = 0, start = 0;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '(') depth++;
+                else if (c == ')') depth--;
+                else if (c == ',' && depth == 0) {
+                    items.add(s.substring(start, i));
+                    start = i + 1;
+                }
+            }
+            items.add(s.substring(start));
+            if (items.size() != 3) throw new IllegalArgumentException("expected x, y, z in \"" + s.trim() + "\"");
+            return new Expression[] {compile(items.get(0)), compile(items.get(1)), compile(items.get(2))};
+        }
+
+        private Expression compile(String source) {
+            return Expression.compile(source.trim(), variables);
+        }
+
+        FurnitureTemplate build() {
+            if (defaults == null) throw new IllegalArgumentException("[" + name + "] has no default line");
+            return new FurnitureTemplate(name, defaults, lets.toArray(new Expression[0]),
+                    parts.toArray(new FurnitureTemplate.Part[0]));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.myfurniture.designapp.Factory;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/** {@link PlanGraphics} drawing onto a JavaFX canvas. */
+public class FxPlanGraphics implements PlanGraphics {
+
+    private final GraphicsContext gc;
+
+    public FxPlanGraphics(GraphicsContext gc) {
+        this.gc = gc;
+    }
+
+    @Override public void save()                                { gc.save(); }
+    @Override public void restore()                             { gc.restore(); }
+    @Override public void translate(double x, double y)         { gc.translate(x, y); }
+    @Override public void rotate(double degrees)                { gc.rotate(degrees); }
+    @Override public void setFill(Color color)                  { gc.setFill(color); }
+    @Override public void setStroke(Color color)                { gc.setStroke(color); }
+    @Override public void setLineWidth(double width)            { gc.setLineWidth(width); }
+    @Override public void fillRect(double x, double y, double w, double h)  { gc.fillRect(x, y, w, h); }
+    @Override public void fillOval(double x, double y, double w, double h)  { gc.fillOval(x, y, w, h); }
+    @Override public void strokeLine(double x1, double y1, double x2, double y2) { gc.strokeLine(x1, y1, x2, y2); }
+    @Override public void strokeRect(double x, double y, double w, double h)    { gc.strokeRect(x, y, w, h); }
+}
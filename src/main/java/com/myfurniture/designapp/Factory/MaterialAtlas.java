@@ -0,0 +1,300 @@
+package com.myfurniture.designapp.Factory;
+
+import com.myfurniture.designapp.Assets.AssetPack;
+import com.myfurniture.designapp.Assets.TextureAtlas;
+import com.myfurniture.designapp.Diagnostics.Events;
+import com.myfurniture.designapp.Diagnostics.Metrics;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.TriangleMesh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The built-in textures of one texture size, packed into atlases. Kinds whose
+ * materials differ only in their texture share an atlas and hence one
+ * {@link PhongMaterial}, so all wood parts of a scene (and any further
+ * variants of the same finish) are drawn with one texture binding instead of
+ * one per part. The factories use the textured {@link #box} and
+ * {@link #cylinder} meshes, whose texture coordinates already point into the
+ * atlas, instead of {@code Box} and {@code Cylinder}.
+ *
+ * <p>Pages come mapped from the default {@link AssetPack} when it has them,
+ * and are composed from the painters otherwise.
+ */
+public final class MaterialAtlas {
+
+    private static final int MAX_PAGE_SIZE = 1024;
+    private static final Map<Integer, MaterialAtlas> atlases = new HashMap<>();
+    private static final Metrics.Timer pageTimer = Metrics.timer("texture.page");
+    /** identity mapping, for meshes without a texture */
+    private static final TextureAtlas.Region UNIT = new TextureAtlas.Region(0, 0, 0, 1, 1, 0, 0, 1, 1);
+
+    /** kinds sharing a material */
+    private record Group(String name, BuiltInAssets.MaterialSpec shading, TextureAtlas layout) { }
+
+    /** receives the pixels of one atlas page */
+    public interface PageSink {
+        void accept(String name, int width, int height, int[] argb);
+    }
+
+    private final int tierSize;
+    private final Map<String, Group> groupOfKind = new LinkedHashMap<>();
+    private final Map<String, PhongMaterial> materials = new HashMap<>();
+    private final Map<String, TriangleMesh> meshes = new HashMap<>();
+    /** pages composed ahead by {@link #prepare}, until their material takes them */
+    private final Map<String, int[]> prepared = new HashMap<>();
+    private final Set<String> imaged = new HashSet<>();
+
+    private MaterialAtlas(int tierSize) {
+        this.tierSize = tierSize;
+        Map<BuiltInAssets.MaterialSpec, List<String>> byShading = new LinkedHashMap<>();
+        for (String kind : BuiltInAssets.KINDS) {
+            BuiltInAssets.MaterialSpec s = BuiltInAssets.spec(kind);
+            byShading.computeIfAbsent(new BuiltInAssets.MaterialSpec(s.diffuse(), s.specular(), s.specularPower(), null),
+                    k -> new ArrayList<>()).add(kind);
+        }
+        byShading.forEach((shading, kinds) -> {
+            Map<String, int[]> sizes = new LinkedHashMap<>();
+            for (String kind : kinds) {
+                int size = BuiltInAssets.textureSize(kind, tierSize);
+                sizes.put(kind, new int[] {size, size});
+            }
+            Group g = new Group(String.join("+", kinds), shading, TextureAtlas.pack(sizes, MAX_PAGE_SIZE));
+            for (String kind : kinds) groupOfKind.put(kind, g);
+        });
+    }
+
+    public static MaterialAtlas forQuality(RenderQuality q) {
+        return forTextureSize(q.getTextureSize());
+    }
+
+    /** The atlas for a tier's texture size, built once. */
+    public static synchronized MaterialAtlas forTextureSize(int tierSize) {
+        return atlases.computeIfAbsent(tierSize, MaterialAtlas::new);
+    }
+
+    /** Distinct texture sizes of the quality tiers. */
+    public static int[] tierSizes() {
+        return Arrays.stream(RenderQuality.values()).mapToInt(RenderQuality::getTextureSize).distinct().toArray();
+    }
+
+    public TextureAtlas.Region region(String kind) {
+        return group(kind).layout().region(kind);
+    }
+
+    /** Material shared by every part textured with a kind on the same page. Must run on the FX thread. */
+    public PhongMaterial material(String kind) {
+        Group g = group(kind);
+        int page = g.layout().region(kind).page();
+        return materials.computeIfAbsent(pageName(g, page), name -> {
+            PhongMaterial mat = new PhongMaterial(g.shading().diffuse());
+            mat.setSpecularColor(g.shading().specular());
+            mat.setSpecularPower(g.shading().specularPower());
+            mat.setDiffuseMap(pageImage(g, page, name));
+            return mat;
+        });
+    }
+
+    /**
+     * Unit box centred on the origin, each face showing the whole texture;
+     * shared. A null kind gives plain [0, 1] texture coordinates, for untextured parts.
+     */
+    public TriangleMesh box(String kind) {
+        return meshes.computeIfAbsent("box/" + kind, k -> {
+            TextureAtlas.Region r = kind == null ? UNIT : region(kind);
+            float h = 0.5f;
+            TriangleMesh mesh = new TriangleMesh();
+            // same layout as javafx.scene.shape.Box, so textures sit the same way
+            mesh.getPoints().addAll(
+                    -h, -h, -h,   h, -h, -h,   h,  h, -h,  -h,  h, -h,
+                    -h, -h,  h,   h, -h,  h,   h,  h,  h,  -h,  h,  h);
+            mesh.getTexCoords().addAll(r.remap(new float[] {0, 0, 1, 0, 1, 1, 0, 1}));
+            mesh.getFaces().addAll(
+                    0, 0, 2, 2, 1, 1,   2, 2, 0, 0, 3, 3,
+                    1, 0, 6, 2, 5, 1,   6, 2, 1, 0, 2, 3,
+                    5, 0, 7, 2, 4, 1,   7, 2, 5, 0, 6, 3,
+                    4, 0, 3, 2, 0, 1,   3, 2, 4, 0, 7, 3,
+                    3, 0, 6, 2, 2, 1,   6, 2, 3, 0, 7, 3,
+                    4, 0, 1, 2, 5, 1,   1, 2, 4, 0, 0, 3);
+            mesh.getFaceSmoothingGroups().addAll(1, 1, 2, 2, 4, 4, 8, 8, 16, 16, 32, 32);
+            return mesh;
+        });
+    }
+
+    /**
+     * Unit cylinder (diameter and height 1) along y, centred on the origin:
+     * the texture wraps once around the side and each cap shows a disc of it.
+     * A null kind is untextured, as for {@link #box}.
+     */
+    public TriangleMesh cylinder(String kind, int divisions) {
+        int n = Math.max(3, divisions);
+        return meshes.computeIfAbsent("cylinder/" + kind + "/" + n, k -> {
+            TextureAtlas.Region r = kind == null ? UNIT : region(kind);
+            float[] points = new float[(2 * n + 2) * 3];
+            float[] tex = new float[(2 * (n + 1) + n + 1) * 2];
+            for (int i = 0; i < n; i++) {
+                double a = 2 * Math.PI * i / n;
+                float x = (float) (0.5 * Math.cos(a)), z = (float) (0.5 * Math.sin(a));
+                set(points, i,     x, -0.5f, z);        // top ring
+                set(points, n + i, x,  0.5f, z);        // bottom ring
+                tex[(2 * (n + 1) + i) * 2]     = 0.5f + x;   // cap disc
+                tex[(2 * (n + 1) + i) * 2 + 1] = 0.5f + z;
+            }
+            set(points, 2 * n,     0, -0.5f, 0);
+            set(points, 2 * n + 1, 0,  0.5f, 0);
+            for (int i = 0; i <= n; i++) {
+                tex[i * 2]           = (float) i / n;     // side, top edge
+                tex[(n + 1 + i) * 2] = (float) i / n;     // side, bottom edge
+                tex[(n + 1 + i) * 2 + 1] = 1;
+            }
+            int capTex = 2 * (n + 1), centreTex = capTex + n;
+            tex[centreTex * 2] = tex[centreTex * 2 + 1] = 0.5f;
+
+            int[] faces = new int[4 * n * 6];
+            int[] groups = new int[4 * n];
+            int f = 0, t = 0;
+            for (int i = 0; i < n; i++) {
+                int j = (i + 1) % n;
+                f = face(faces, f, i, i,   n + i, n + 1 + i,   j, i + 1);
+                f = face(faces, f, j, i + 1,   n + i, n + 1 + i,   n + j, n + 2 + i);
+                f = face(faces, f, 2 * n, centreTex,   i, capTex + i,   j, capTex + j);
+                f = face(faces, f, 2 * n + 1, centreTex,   n + j, capTex + j,   n + i, capTex + i);
+                groups[t++] = 1; groups[t++] = 1; groups[t++] = 2; groups[t++] = 4;
+            }
+            TriangleMesh mesh = new TriangleMesh();
+            mesh.getPoints().addAll(points);
+            mesh.getTexCoords().addAll(r.remap(tex));
+            mesh.getFaces().addAll(faces);
+            mesh.getFaceSmoothingGroups().addAll(groups);
+            return mesh;
+        });
+    }
+
+    private static void set(float[] points, int i, float x, float y, float z) {
+        points[i * 3] = x;
+        points[i * 3 + 1] = y;
+        points[i * 3 + 2] = z;
+    }
+
+    private static int face(int[] faces, int f, int p0, int t0, int p1, int t1, int p2, int t2) {
+        faces[f++] = p0; faces[f++] = t0;
+        faces[f++] = p1; faces[f++] = t1;
+        faces[f++] = p2; faces[f++] = t2;
+        return f;
+    }
+
+    /** Share of all atlas pages covered by texture pixels. */
+    public double getFillRatio() {
+        long used = 0, total = 0;
+        for (Group g : groups()) {
+            TextureAtlas a = g.layout();
+            long area = (long) a.getPageWidth() * a.getPageHeight() * a.getPageCount();
+            used += Math.round(a.getFillRatio() * area);
+            total += area;
+        }
+        return total == 0 ? 0 : (double) used / total;
+    }
+
+    /** Composes every page from the painters, for baking. */
+    public void forEachPage(PageSink sink) {
+        for (Group g : groups()) {
+            TextureAtlas a = g.layout();
+            for (int p = 0; p < a.getPageCount(); p++) {
+                sink.accept(pageName(g, p), a.getPageWidth(), a.getPageHeight(), compose(g, p));
+            }
+        }
+    }
+
+    /**
+     * Composes, on the calling thread, the pages the default pack does not
+     * have and whose material does not exist yet, so that {@link #material}
+     * only has to wrap them in an image. For start-up warm-up.
+     */
+    public void prepare() {
+        AssetPack pack = BuiltInAssets.pack();
+        for (Group g : groups()) {
+            for (int p = 0; p < g.layout().getPageCount(); p++) {
+                String name = pageName(g, p);
+                if (pack != null && pack.hasTexture(name)) continue;
+                synchronized (prepared) {
+                    if (imaged.contains(name) || prepared.containsKey(name)) continue;
+                }
+                int[] argb = compose(g, p);
+                synchronized (prepared) {
+                    if (!imaged.contains(name)) prepared.putIfAbsent(name, argb);
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("texture size " + tierSize + ":");
+        for (Group g : groups()) sb.append("\n  ").append(g.name()).append(": ").append(g.layout());
+        return sb.toString();
+    }
+
+    private Group group(String kind) {
+        Group g = groupOfKind.get(kind);
+        if (g == null) throw new IllegalArgumentException("no texture kind " + kind);
+        return g;
+    }
+
+    private List<Group> groups() {
+        return groupOfKind.values().stream().distinct().toList();
+    }
+
+    private String pageName(Group g, int page) {
+        return "atlas/" + g.name() + "/" + tierSize + "/" + page;
+    }
+
+    private int[] compose(Group g, int page) {
+        return g.layout().compose(page, kind -> BuiltInAssets.pixels(kind, BuiltInAssets.textureSize(kind, tierSize)));
+    }
+
+    private Image pageImage(Group g, int page, String name) {
+        Events.Texture event = new Events.Texture();
+        event.begin();
+        long t0 = System.nanoTime();
+        AssetPack pack = BuiltInAssets.pack();
+        Image img;
+        String source;
+        if (pack != null && pack.hasTexture(name)) {
+            img = pack.texture(name);
+            source = "pack";
+        } else {
+            TextureAtlas a = g.layout();
+            int[] argb;
+            synchronized (prepared) {
+                argb = prepared.remove(name);
+                imaged.add(name);
+            }
+            source = argb != null ? "prepared" : "composed";
+            if (argb == null) argb = compose(g, page);
+            WritableImage w = new WritableImage(a.getPageWidth(), a.getPageHeight());
+            w.getPixelWriter().setPixels(0, 0, a.getPageWidth(), a.getPageHeight(),
+                    PixelFormat.getIntArgbInstance(), argb, 0, a.getPageWidth());
+            img = w;
+        }
+        pageTimer.recordSince(t0);
+        event.end();
+        if (event.shouldCommit()) {
+            event.name = name;
+            event.width = (int) img.getWidth();
+            event.height = (int) img.getHeight();
+            event.source = source;
+            event.commit();
+        }
+        return img;
+    }
+}
@@ -0,0 +1,34 @@
+package com.myfurniture.designapp.Factory;
+
+import javafx.scene.paint.Color;
+
+/**
+ * The handful of drawing calls the 2D plan needs. Implemented over a JavaFX
+ * {@code GraphicsContext} for the editor and by a software rasteriser for
+ * headless export, so both draw exactly the same shapes.
+ */
+public interface PlanGraphics {
+
+    void save();
+
+    void restore();
+
+    void translate(double x, double y);
+
+    /** rotates by the given angle in degrees, clockwise on screen */
+    void rotate(double degrees);
+
+    void setFill(Color color);
+
+    void setStroke(Color color);
+
+    void setLineWidth(double width);
+
+    void fillRect(double x, double y, double w, double h);
+
+    void fillOval(double x, double y, double w, double h);
+
+    void strokeLine(double x1, double y1, double x2, double y2);
+
+    void strokeRect(double x, double y, double w, double h);
+}
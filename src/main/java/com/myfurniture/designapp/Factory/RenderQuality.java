@@ -0,0 +1,59 @@
+package com.myfurniture.designapp.Factory;
+
+/**
+ * Quality tiers for the 3D view, best first. Each tier bundles everything the
+ * renderer and the 3D factories can trade for speed.
+ */
+public enum RenderQuality {
+    //        antialias  renderScale  lodBias  shadows  textureSize  cylinderDivisions
+    HIGH     (true,      1.00,        0,       true,    64,          64),
+    MEDIUM   (true,      0.85,        0,       true,    32,          24),
+    LOW      (false,     0.70,        1,       false,   16,          12),
+    MINIMAL  (false,     0.50,        2,       false,    8,           6);
+
+    private final boolean antialiasing;
+    private final double  renderScale;
+    private final int     lodBias;
+    private final boolean shadows;
+    private final int     textureSize;
+    private final int     cylinderDivisions;
+
+    RenderQuality(boolean antialiasing, double renderScale, int lodBias,
+                  boolean shadows, int textureSize, int cylinderDivisions) {
+        this.antialiasing      = antialiasing;
+        this.renderScale       = renderScale;
+        this.lodBias           = lodBias;
+        this.shadows           = shadows;
+        this.textureSize       = textureSize;
+        this.cylinderDivisions = cylinderDivisions;
+    }
+
+    public boolean isAntialiasing()     { return antialiasing; }
+    /** fraction of the view size the SubScene is rendered at before being scaled up */
+    public double  getRenderScale()     { return renderScale; }
+    /** 0 = full detail; each step drops finer parts (shelves, round legs…) */
+    public int     getLodBias()         { return lodBias; }
+    public boolean hasShadows()         { return shadows; }
+    /** edge length of procedural textures, in pixels */
+    public int     getTextureSize()     { return textureSize; }
+    public int     getCylinderDivisions() { return cylinderDivisions; }
+
+    /** next cheaper tier, or this one if already the cheapest */
+    public RenderQuality lower() {
+        RenderQuality[] all = values();
+        return all[Math.min(ordinal() + 1, all.length - 1)];
+    }
+
+    /** next better tier, or this one if already the best */
+    public RenderQuality higher() {
+        return values()[Math.max(ordinal() - 1, 0)];
+    }
+
+    /** true if switching between the two tiers needs the scene geometry rebuilt */
+    public boolean differsInGeometry(RenderQuality other) {
+        return lodBias != other.lodBias
+                || shadows != other.shadows
+                || textureSize != other.textureSize
+                || cylinderDivisions != other.cylinderDivisions;
+    }
+}
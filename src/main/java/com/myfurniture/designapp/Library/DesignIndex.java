@@ -0,0 +1,109 @@
+package com.myfurniture.designapp.Library;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The library's index file: the {@link DesignInfo} of every design under a
+ * root, with paths relative to it so the tree can move. Type names are
+ * stored once in a string table and referred to by number, which keeps
+ * thousands of designs to a few hundred kilobytes.
+ *
+ * <p>Layout, big-endian: magic, version, string count and strings, design
+ * count, then per design its path, modified time, size, 16-byte hash, room
+ * size, type count and (type, count) pairs, colour count and colours.
+ */
+final class DesignIndex {
+
+    private static final int MAGIC = 0x46494458;   // "FIDX"
+    private static final int VERSION = 1;
+
+    private DesignIndex() { }
+
+    /** The designs in an index file; empty if it is missing, corrupt or from another version. */
+    static List<DesignInfo> read(Path indexFile, Path root) {
+        List<DesignInfo> infos = new ArrayList<>();
+        if (!Files.isRegularFile(indexFile)) return infos;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return infos;
+            String[] strings = new String[in.readInt()];
+            for (int i = 0; i < strings.length; i++) strings[i] = in.readUTF();
+            int n = in.readInt();
+            byte[] hash = new byte[16];
+            for (int i = 0; i < n; i++) {
+                Path file = root.resolve(in.readUTF());
+                long modified = in.readLong(), size = in.readLong();
+                in.readFully(hash);
+                int w = in.readInt(), h = in.readInt();
+                int types = in.readUnsignedShort();
+                Map<String, Integer> counts = new LinkedHashMap<>();
+                for (int t = 0; t < types; t++) counts.put(strings[in.readInt()], in.readInt());
+                int[] colours = new int[in.readUnsignedShort()];
+                for (int c = 0; c < colours.length; c++) colours[c] = in.readInt();
+                infos.add(new DesignInfo(file, modified, size, HexFormat.of().formatHex(hash), w, h, counts, colours));
+            }
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("Could not read design index " + indexFile + ", rebuilding it: " + ex);
+            infos.clear();
+        }
+        return infos;
+    }
+
+    static void write(Collection<DesignInfo> infos, Path indexFile, Path root) throws IOException {
+        Map<String, Integer> table = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (DesignInfo d : infos) {
+            for (String type : d.itemCounts().keySet()) {
+                if (table.putIfAbsent(type, strings.size()) == null) strings.add(type);
+            }
+        }
+
+        Files.createDirectories(indexFile.toAbsolutePath().getParent());
+        Path tmp = Files.createTempFile(indexFile.toAbsolutePath().getParent(), "index", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(strings.size());
+                for (String s : strings) out.writeUTF(s);
+                out.writeInt(infos.size());
+                for (DesignInfo d : infos) {
+                    out.writeUTF(root.relativize(d.file()).toString());
+                    out.writeLong(d.modified());
+                    out.writeLong(d.size());
+                    out.write(HexFormat.of().parseHex(d.hash()));
+                    out.writeInt(d.roomWidth());
+                    out.writeInt(d.roomHeight());
+                    out.writeShort(d.itemCounts().size());
+                    for (Map.Entry<String, Integer> e : d.itemCounts().entrySet()) {
+                        out.writeInt(table.get(e.getKey()));
+                        out.writeInt(e.getValue());
+                    }
+                    out.writeShort(d.colours().length);
+                    for (int c : d.colours()) out.writeInt(c);
+                }
+            }
+            try {
+                Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.myfurniture.designapp.Library;
+
+import com.myfurniture.designapp.Core.DesignIO;
+import com.myfurniture.designapp.Core.FurnitureItem;
+import com.myfurniture.designapp.Core.RoomDesign;
+import javafx.scene.paint.Color;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * What the library knows about one design file without opening it again.
+ *
+ * @param file       absolute path
+ * @param modified   last-modified time in milliseconds
+ * @param hash       hex digest of the file content
+ * @param itemCounts number of items by lower-case type
+ * @param colours    distinct 0xRRGGBB colours of the room and its items, most used first
+ */
+public record DesignInfo(Path file, long modified, long size, String hash, int roomWidth, int roomHeight,
+                         Map<String, Integer> itemCounts, int[] colours) {
+
+    /** colours kept per design; the rest are rarely what anyone searches for */
+    static final int MAX_COLOURS = 16;
+
+    public int getItemCount() {
+        int n = 0;
+        for (int c : itemCounts.values()) n += c;
+        return n;
+    }
+
+    /** Items of a type, case-insensitive. */
+    public int count(String type) {
+        return itemCounts.getOrDefault(type.toLowerCase(Locale.ROOT), 0);
+    }
+
+    // the generated ones would compare the colour array by identity
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DesignInfo d && modified == d.modified && size == d.size
+                && roomWidth == d.roomWidth && roomHeight == d.roomHeight && file.equals(d.file)
+                && hash.equals(d.hash) && itemCounts.equals(d.itemCounts) && Arrays.equals(colours, d.colours);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(file, modified, size, hash, roomWidth, roomHeight, itemCounts) * 31 + Arrays.hashCode(colours);
+    }
+
+    public String getName() {
+        return file.getFileName().toString();
+    }
+
+    /** Reads the metadata of a design from its content. */
+    public static DesignInfo of(Path file, long modified, byte[] content) throws IOException {
+        RoomDesign d;
+        try {
+            d = DesignIO.read(new BufferedReader(new InputStreamReader(
+                    new ByteArrayInputStream(content), StandardCharsets.UTF_8)));
+        } catch (RuntimeException ex) {
+            throw new IOException(file + ": not a design file (" + ex + ")");
+        }
+        Map<String, Integer> counts = new TreeMap<>();
+        Map<Integer, Integer> colourUse = new LinkedHashMap<>();
+        for (Color c : new Color[] {d.getRoomColor(), d.getBackWallColor(), d.getLeftWallColor(), d.getRightWallColor()}) {
+            colourUse.merge(rgb(c), 1, Integer::sum);
+        }
+        for (FurnitureItem it : d.getFurniture()) {
+            counts.merge(it.getType().toLowerCase(Locale.ROOT), 1, Integer::sum);
+            colourUse.merge(rgb(it.getPrimaryColor()), 1, Integer::sum);
+            colourUse.merge(rgb(it.getSecondaryColor()), 1, Integer::sum);
+        }
+        int[] colours = colourUse.entrySet().stream()
+                .sorted((a, b) -> b.getValue() - a.getValue())
+                .limit(MAX_COLOURS)
+                .mapToInt(Map.Entry::getKey)
+                .toArray();
+        return new DesignInfo(file, modified, content.length, hash(content), d.getRoomWidth(), d.getRoomHeight(),
+                counts, colours);
+    }
+
+    /** First 128 bits of the SHA-256 of the content, in hex. */
+    public static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);   // every JDK has SHA-256
+        }
+    }
+
+    static int rgb(Color c) {
+        return (int) Math.round(c.getRed() * 255) << 16 | (int) Math.round(c.getGreen() * 255) << 8
+                | (int) Math.round(c.getBlue() * 255);
+    }
+}
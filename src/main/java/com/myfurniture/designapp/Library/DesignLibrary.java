@@ -0,0 +1,460 @@
+package com.myfurniture.designapp.Library;
+
+import com.myfurniture.designapp.Core.DesignIO;
+import com.myfurniture.designapp.Core.RoomDesign;
+import javafx.scene.paint.Color;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * The {@code .design} files under a directory tree, indexed so they can be
+ * searched and filtered without opening them. The index is kept in a file
+ * between runs; {@link #scan} re-reads only designs whose size or modified
+ * time changed, and {@link #startWatching} keeps it current from a
+ * {@link WatchService} as files are added, edited and removed. The last few
+ * designs opened through {@link #open} stay in memory for instant switching.
+ *
+ * <pre>java -cp app.jar com.myfurniture.designapp.Library.DesignLibrary DIR [--name TEXT] [--type TYPE] [--colour #RRGGBB]</pre>
+ */
+public class DesignLibrary implements AutoCloseable {
+
+    public static final String EXTENSION = ".design";
+    private static final Path HOME = Paths.get(System.getProperty("user.home"), ".myfurniture");
+    private static final int RECENT_DESIGNS = 8;
+    /** quiet time before a burst of file events is indexed */
+    private static final long SETTLE_MILLIS = 250;
+
+    private final Path root;
+    private final Path indexFile;
+    private final Map<Path, DesignInfo> designs = new ConcurrentHashMap<>();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private record Recent(long modified, RoomDesign design) { }
+    private final Map<Path, Recent> recent = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, Recent> eldest) {
+            return size() > RECENT_DESIGNS;
+        }
+    };
+
+    private WatchService watcher;
+    private final Map<WatchKey, Path> watchedDirs = new HashMap<>();
+
+    /** Filter for {@link #search}; every criterion left unset matches everything. */
+    public static final class Query {
+        private String name;
+        private int minWidth, maxWidth = Integer.MAX_VALUE, minHeight, maxHeight = Integer.MAX_VALUE;
+        private int minItems, maxItems = Integer.MAX_VALUE;
+        private final Map<String, Integer> minCounts = new LinkedHashMap<>();
+        private int colour = -1;
+        private double colourTolerance;
+        private long modifiedAfter = Long.MIN_VALUE;
+
+        /** File name contains the text, case-insensitive. */
+        public Query name(String text) {
+            name = text == null || text.isBlank() ? null : text.toLowerCase(Locale.ROOT);
+            return this;
+        }
+
+        public Query width(int min, int max) {
+            minWidth = min;
+            maxWidth = max;
+            return this;
+        }
+
+        public Query height(int min, int max) {
+            minHeight = min;
+            maxHeight = max;
+            return this;
+        }
+
+        public Query items(int min, int max) {
+            minItems = min;
+            maxItems = max;
+            return this;
+        }
+
+        /** At least {@code min} items of a type. */
+        public Query containing(String type, int min) {
+            minCounts.put(type.toLowerCase(Locale.ROOT), min);
+            return this;
+        }
+
+        /** Uses a colour within {@code tolerance} (0 to 1, as a fraction of RGB distance). */
+        public Query colour(Color c, double tolerance) {
+            colour = DesignInfo.rgb(c);
+            colourTolerance = tolerance;
+            return this;
+        }
+
+        public Query modifiedSince(Instant t) {
+            modifiedAfter = t.toEpochMilli();
+            return this;
+        }
+
+        public boolean test(DesignInfo d) {
+            if (name != null && !d.getName().toLowerCase(Locale.ROOT).contains(name)) return false;
+            if (d.roomWidth() < minWidth || d.roomWidth() > maxWidth) return false;
+            if (d.roomHeight() < minHeight || d.roomHeight() > maxHeight) return false;
+            if (d.modified() < modifiedAfter) return false;
+            for (Map.Entry<String, Integer> e : minCounts.entrySet()) {
+                if (d.itemCounts().getOrDefault(e.getKey(), 0) < e.getValue()) return false;
+            }
+            if (minItems > 0 || maxItems < Integer.MAX_VALUE) {
+                int n = d.getItemCount();
+                if (n < minItems || n > maxItems) return false;
+            }
+            return colour < 0 || hasColour(d.colours());
+        }
+
+        private boolean hasColour(int[] colours) {
+            double max = colourTolerance * colourTolerance * 3 * 255 * 255;
+            for (int c : colours) {
+                int dr = (c >> 16 & 0xFF) - (colour >> 16 & 0xFF);
+                int dg = (c >> 8 & 0xFF) - (colour >> 8 & 0xFF);
+                int db = (c & 0xFF) - (colour & 0xFF);
+                if (dr * dr + dg * dg + db * db <= max) return true;
+            }
+            return false;
+        }
+    }
+
+    public DesignLibrary(Path root, Path indexFile) {
+        this.root = root.toAbsolutePath().normalize();
+        this.indexFile = indexFile;
+        for (DesignInfo d : DesignIndex.read(indexFile, this.root)) designs.put(d.file(), d);
+    }
+
+    /** A library whose index lives in {@code ~/.myfurniture/library}. */
+    public static DesignLibrary forDirectory(Path root) {
+        Path abs = root.toAbsolutePath().normalize();
+        CRC32 crc = new CRC32();
+        crc.update(abs.toString().getBytes(StandardCharsets.UTF_8));
+        String name = abs.getFileName() == null ? "root" : abs.getFileName().toString().replaceAll("[^A-Za-z0-9._-]", "_");
+        return new DesignLibrary(abs, HOME.resolve("library").resolve(name + "-" + Long.toHexString(crc.getValue()) + ".index"));
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public int size() {
+        return designs.size();
+    }
+
+    /** Called, on the indexing thread, after designs were added, changed or removed. */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    public DesignInfo get(Path file) {
+        return designs.get(file.toAbsolutePath().normalize());
+    }
+
+    /** Matching designs, most recently modified first. */
+    public List<DesignInfo> search(Query q) {
+        List<DesignInfo> result = new ArrayList<>();
+        for (DesignInfo d : designs.values()) if (q.test(d)) result.add(d);
+        result.sort(Comparator.comparingLong(DesignInfo::modified).reversed()
+                .thenComparing(DesignInfo::file));
+        return result;
+    }
+
+    // ------------------- indexing -------------------
+
+    /**
+     * Brings the index up to date with the tree: reads new and changed designs
+     * (in parallel), drops vanished ones and saves the index if anything changed.
+     *
+     * @return the number of designs read, changed or removed
+     */
+    public int scan() throws IOException {
+        Map<Path, BasicFileAttributes> found = new HashMap<>();
+        if (Files.isDirectory(root)) {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile() && isDesign(file)) found.put(file, attrs);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException ex) {
+                    return FileVisitResult.CONTINUE;     // unreadable entries are just not indexed
+                }
+            });
+        }
+        Set<Path> removed = new HashSet<>(designs.keySet());
+        removed.removeAll(found.keySet());
+        removed.forEach(designs::remove);
+
+        List<Path> stale = new ArrayList<>();
+        found.forEach((file, attrs) -> {
+            DesignInfo d = designs.get(file);
+            if (d == null || d.size() != attrs.size() || d.modified() != attrs.lastModifiedTime().toMillis()) {
+                stale.add(file);
+            }
+        });
+        long updated = stale.parallelStream().filter(this::reindex).count();
+
+        int changes = (int) updated + removed.size();
+        if (changes > 0) changed();
+        return changes;
+    }
+
+    /** Re-reads one design; false if it could not be read (it is then left out). */
+    private boolean reindex(Path file) {
+        try {
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            byte[] content = Files.readAllBytes(file);
+            designs.put(file, DesignInfo.of(file, modified, content));
+            return true;
+        } catch (IOException ex) {
+            designs.remove(file);
+            System.err.println("Could not index " + file + ": " + ex.getMessage());
+            return false;
+        }
+    }
+
+    private void changed() {
+        save();
+        for (Runnable l : listeners) l.run();
+    }
+
+    public void save() {
+        try {
+            DesignIndex.write(List.copyOf(designs.values()), indexFile, root);
+        } catch (IOException ex) {
+            System.err.println("Could not write design index " + indexFile + ": " + ex);
+        }
+    }
+
+    private static boolean isDesign(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(EXTENSION);
+    }
+
+    // ------------------- watching -------------------
+
+    /** Scans, then follows changes under the root on a daemon thread until {@link #close}. */
+    public synchronized void startWatching() throws IOException {
+        if (watcher != null) return;
+        watcher = FileSystems.getDefault().newWatchService();
+        registerTree(root);
+        scan();   // catches anything changed between loading the index and registering
+        Thread t = new Thread(this::watchLoop, "design-library-watcher");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void registerTree(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) return;
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path d, BasicFileAttributes attrs) throws IOException {
+                WatchKey key = d.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                synchronized (watchedDirs) {
+                    watchedDirs.put(key, d);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException ex) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void watchLoop() {
+        Set<Path> dirty = new HashSet<>();
+        boolean rescan = false;
+        try {
+            while (true) {
+                // collect until the tree has been quiet for a moment, so a copy of
+                // a thousand files is indexed in one go rather than file by file
+                WatchKey key = dirty.isEmpty() && !rescan ? watcher.take()
+                        : watcher.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    if (rescan) scan();
+                    else applyChanges(dirty);
+                    dirty.clear();
+                    rescan = false;
+                    continue;
+                }
+                Path dir;
+                synchronized (watchedDirs) {
+                    dir = watchedDirs.get(key);
+                }
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null) {
+                        rescan = true;
+                        continue;
+                    }
+                    Path child = dir.resolve((Path) event.context());
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child)) {
+                        registerTree(child);
+                        rescan = true;        // files may have landed before the directory was watched
+                    } else if (isDesign(child)) {
+                        dirty.add(child);
+                    } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        rescan = true;        // possibly a directory full of designs
+                    }
+                }
+                if (!key.reset()) {
+                    synchronized (watchedDirs) {
+                        watchedDirs.remove(key);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            // closed
+        } catch (IOException ex) {
+            System.err.println("Design library stopped watching " + root + ": " + ex);
+        }
+    }
+
+    private void applyChanges(Set<Path> files) {
+        int changes = 0;
+        for (Path file : files) {
+            if (Files.isRegularFile(file)) {
+                if (reindex(file)) changes++;
+            } else if (designs.remove(file) != null) {
+                changes++;
+            }
+        }
+        if (changes > 0) changed();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (watcher == null) return;
+        try {
+            watcher.close();
+        } catch (IOException ignored) {
+        }
+        watcher = null;
+    }
+
+    // ------------------- opening -------------------
+
+    /**
+     * The design in a file, from memory if it was opened recently and has not
+     * changed on disk since. The same instance is returned each time, so
+     * unsaved edits survive switching away and back.
+     */
+    public RoomDesign open(Path file) throws IOException {
+        Path abs = file.toAbsolutePath().normalize();
+        long modified = Files.getLastModifiedTime(abs).toMillis();
+        synchronized (recent) {
+            Recent r = recent.get(abs);
+            if (r != null && r.modified() == modified) return r.design();
+        }
+        byte[] content = Files.readAllBytes(abs);
+        RoomDesign design = DesignIO.read(new BufferedReader(new InputStreamReader(
+                new ByteArrayInputStream(content), StandardCharsets.UTF_8)));
+        if (abs.startsWith(root) && isDesign(abs)) designs.put(abs, DesignInfo.of(abs, modified, content));
+        synchronized (recent) {
+            recent.put(abs, new Recent(modified, design));
+        }
+        return design;
+    }
+
+    /** Files of the designs held in memory, most recently opened first. */
+    public List<Path> getRecent() {
+        synchronized (recent) {
+            List<Path> paths = new ArrayList<>(recent.keySet());
+            Collections.reverse(paths);
+            return paths;
+        }
+    }
+
+    /** Notes a design saved through the app: it stays in the recent cache under its new content. */
+    public void saved(Path file, RoomDesign design) throws IOException {
+        Path abs = file.toAbsolutePath().normalize();
+        long modified = Files.getLastModifiedTime(abs).toMillis();
+        synchronized (recent) {
+            recent.put(abs, new Recent(modified, design));
+        }
+    }
+
+    // ------------------- command line -------------------
+
+    public static void main(String[] args) throws Exception {
+        Path dir = null;
+        Query q = new Query();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--name"   -> q.name(args[++i]);
+                    case "--type"   -> q.containing(args[++i], 1);
+                    case "--colour" -> q.colour(Color.web(args[++i]), 0.1);
+                    case "--width"  -> q.width(Integer.parseInt(args[++i]), Integer.parseInt(args[++i]));
+                    case "--items"  -> q.items(Integer.parseInt(args[++i]), Integer.parseInt(args[++i]));
+                    default         -> {
+                        if (dir != null) throw new IllegalArgumentException("unknown option " + args[i]);
+                        dir = Paths.get(args[i]);
+                    }
+                }
+            }
+        } catch (RuntimeException ex) {
+            System.err.println(ex.getMessage());
+            dir = null;
+        }
+        if (dir == null) {
+            System.err.println("usage: DesignLibrary <dir> [--name TEXT] [--type TYPE] [--colour #RRGGBB]");
+            System.err.println("       [--width MIN MAX] [--items MIN MAX]");
+            System.exit(2);
+        }
+
+        long t0 = System.nanoTime();
+        DesignLibrary lib = forDirectory(dir);
+        long t1 = System.nanoTime();
+        int changes = lib.scan();
+        long t2 = System.nanoTime();
+        List<DesignInfo> hits = lib.search(q);
+        long t3 = System.nanoTime();
+        for (DesignInfo d : hits) {
+            System.out.printf(Locale.ROOT, "%s  %dx%d  %d items  %s%n", lib.root.relativize(d.file()),
+                    d.roomWidth(), d.roomHeight(), d.getItemCount(), d.itemCounts());
+        }
+        System.err.printf(Locale.ROOT, "%d designs: index loaded in %.1f ms, scan %.1f ms (%d changes), "
+                        + "search %.2f ms (%d matches)%n", lib.size(), (t1 - t0) / 1e6, (t2 - t1) / 1e6, changes,
+                (t3 - t2) / 1e6, hits.size());
+    }
+}
@@ -0,0 +1,378 @@
+package com.myfurniture.designapp.Library;
+
+import com.myfurniture.designapp.Core.DesignIO;
+import com.myfurniture.designapp.Core.RoomDesign;
+import com.myfurniture.designapp.Diagnostics.Metrics;
+import com.myfurniture.designapp.Export.PlanRasterizer;
+import com.myfurniture.designapp.Export.PngEncoder;
+import com.myfurniture.designapp.Render.PathTracer;
+import com.myfurniture.designapp.Render.RenderCamera;
+import com.myfurniture.designapp.Render.SceneTriangulator;
+import com.myfurniture.designapp.Render.TriangleScene;
+import javafx.application.Platform;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Thumbnails of design files, as PNGs in a directory, named by content hash
+ * so a renamed or copied design reuses its thumbnail and an edited one gets a
+ * new one. Missing thumbnails are made by a fixed number of background
+ * threads, newest request first: a browser asks for the rows it shows as
+ * they scroll into view, so what is on screen comes before what scrolled
+ * past, and a {@link Request} can be cancelled when its row is reused.
+ * When the directory grows past its size limit, the least recently used
+ * thumbnails are deleted.
+ *
+ * <p>{@link #request} does no disk I/O: which thumbnails exist is kept in
+ * memory, listed once in the background, and uses are recorded there and
+ * written to the files' modified times by the workers in batches.
+ *
+ * <p>Plan thumbnails go through {@link PlanRasterizer} and need no toolkit.
+ * 3D thumbnails are a few-sample {@link PathTracer} frame. Building the scene
+ * needs the running JavaFX toolkit, so they are much slower and only made
+ * when asked for.
+ */
+public class ThumbnailCache implements AutoCloseable {
+
+    public enum Kind { PLAN, VIEW_3D }
+
+    /** longest edge of a thumbnail, in pixels */
+    public static final int SIZE = 160;
+    private static final long DEFAULT_MAX_BYTES = 64L << 20;
+    /** how long workers wait idle before writing recorded uses to disk */
+    private static final long FLUSH_MILLIS = 2000;
+    private static final Path HOME = Paths.get(System.getProperty("user.home"), ".myfurniture");
+    private static final PathTracer.Settings TRACE = new PathTracer.Settings(SIZE, SIZE * 3 / 4, 8, 2, 1, false);
+    private static final Metrics.Timer planTimer = Metrics.timer("thumbnail.plan");
+    private static final Metrics.Timer traceTimer = Metrics.timer("thumbnail.3d");
+
+    /** A pending thumbnail; cancelling it drops the work if no one else wants it. */
+    public interface Request {
+        void cancel();
+    }
+
+    private final class Job implements Comparable<Job> {
+        final String key, hash;
+        final Path design;
+        final Kind kind;
+        long order;
+        boolean running;
+        final List<Waiter> waiters = new ArrayList<>();
+
+        Job(String key, String hash, Path design, Kind kind) {
+            this.key = key;
+            this.hash = hash;
+            this.design = design;
+            this.kind = kind;
+        }
+
+        @Override
+        public int compareTo(Job o) {
+            return Long.compare(o.order, order);   // newest first
+        }
+    }
+
+    private final class Waiter implements Request {
+        final Job job;
+        final Consumer<Path> onReady;
+
+        Waiter(Job job, Consumer<Path> onReady) {
+            this.job = job;
+            this.onReady = onReady;
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (jobs) {
+                job.waiters.remove(this);
+                if (job.waiters.isEmpty() && !job.running && jobs.remove(job.key, job)) queue.remove(job);
+            }
+        }
+    }
+
+    private final Path dir;
+    private final long maxBytes;
+    private final ForkJoinPool pool;
+    private final Map<String, Job> jobs = new HashMap<>();
+    private final PriorityBlockingQueue<Job> queue = new PriorityBlockingQueue<>();
+    private final AtomicLong order = new AtomicLong();
+    private final List<Thread> workers = new ArrayList<>();
+    private long bytes = -1;   // on disk; counted by the first write
+    /** file names of the thumbnails on disk, once listed */
+    private final Set<String> present = ConcurrentHashMap.newKeySet();
+    /** thumbnails handed out since the last {@link #flushTouches} */
+    private final Set<String> touched = ConcurrentHashMap.newKeySet();
+
+    /** @param threads background threads making thumbnails */
+    public ThumbnailCache(Path dir, long maxBytes, int threads) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.pool = new ForkJoinPool(Math.max(1, threads));
+        pool.execute(this::listPresent);
+        for (int i = 0; i < Math.max(1, threads); i++) {
+            Thread t = new Thread(this::work, "thumbnails-" + i);
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            workers.add(t);
+            t.start();
+        }
+    }
+
+    /** In {@code ~/.myfurniture/cache/thumbnails}, 64 MiB, on half the cores. */
+    public static ThumbnailCache createDefault() {
+        return new ThumbnailCache(HOME.resolve("cache").resolve("thumbnails"), DEFAULT_MAX_BYTES,
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /** The cached PNG for a content hash, or null if it has not been made. Checks the disk. */
+    public Path find(String hash, Kind kind) {
+        Path png = file(hash, kind);
+        return Files.isRegularFile(png) ? png : null;
+    }
+
+    /**
+     * Calls {@code onReady} with the PNG of a design's thumbnail: at once if it
+     * is cached, else on a background thread once made. Nothing is called if
+     * the design cannot be read.
+     */
+    public Request request(DesignInfo design, Kind kind, Consumer<Path> onReady) {
+        Path png = file(design.hash(), kind);
+        String name = png.getFileName().toString();
+        if (present.contains(name)) {
+            touched.add(name);
+            onReady.accept(png);
+            return () -> { };
+        }
+        // not known yet (or not listed yet): a worker checks the disk before making it
+        String key = design.hash() + "-" + kind;
+        synchronized (jobs) {
+            Job job = jobs.get(key);
+            if (job == null) {
+                job = new Job(key, design.hash(), design.file(), kind);
+                jobs.put(key, job);
+            } else if (!job.running) {
+                queue.remove(job);
+            }
+            Waiter w = new Waiter(job, onReady);
+            job.waiters.add(w);
+            if (!job.running) {
+                job.order = order.incrementAndGet();   // asked again: move to the front
+                queue.add(job);
+            }
+            return w;
+        }
+    }
+
+    private void work() {
+        try {
+            while (true) {
+                Job job = queue.poll(FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+                if (job == null) {
+                    flushTouches();   // idle
+                    continue;
+                }
+                synchronized (jobs) {
+                    if (jobs.get(job.key) != job) continue;   // cancelled
+                    job.running = true;
+                }
+                Path png = null;
+                try {
+                    png = find(job.hash, job.kind);
+                    if (png != null) {
+                        present.add(png.getFileName().toString());
+                        touched.add(png.getFileName().toString());
+                    } else {
+                        png = make(job.design, job.kind);
+                    }
+                } catch (IOException | RuntimeException ex) {
+                    System.err.println("Could not make thumbnail of " + job.design + ": " + ex);
+                }
+                List<Waiter> waiters;
+                synchronized (jobs) {
+                    jobs.remove(job.key, job);
+                    waiters = List.copyOf(job.waiters);
+                }
+                if (png != null) for (Waiter w : waiters) w.onReady.accept(png);
+            }
+        } catch (InterruptedException ex) {
+            // closed
+        }
+    }
+
+    /** Renders and stores a thumbnail, keyed by the hash of the content actually read. */
+    Path make(Path designFile, Kind kind) throws IOException {
+        byte[] content = Files.readAllBytes(designFile);
+        Path png = file(DesignInfo.hash(content), kind);
+        if (Files.isRegularFile(png)) return png;
+        RoomDesign design = DesignIO.read(new BufferedReader(new InputStreamReader(
+                new ByteArrayInputStream(content), StandardCharsets.UTF_8)));
+
+        long t0 = System.nanoTime();
+        int width, height;
+        int[] argb;
+        if (kind == Kind.PLAN) {
+            PlanRasterizer rasterizer = new PlanRasterizer(pool);
+            double extent = Math.max(design.getRoomWidth(), design.getRoomHeight()) + 20;   // plus the rasterizer's margins
+            PlanRasterizer.Raster r = rasterizer.render(design, SIZE / extent);
+            width = r.width();
+            height = r.height();
+            argb = r.argb();
+            planTimer.recordSince(t0);
+        } else {
+            TriangleScene scene = onFxThread(() -> SceneTriangulator.triangulate(design));
+            argb = new PathTracer(scene, overview(design), TRACE).render(pool, null);
+            width = TRACE.width();
+            height = TRACE.height();
+            traceTimer.recordSince(t0);
+        }
+        store(png, argb, width, height);
+        return png;
+    }
+
+    /** Three-quarter view from the open front of the room, high enough to see over the furniture. */
+    static RenderCamera overview(RoomDesign design) {
+        double w = design.getRoomWidth(), d = design.getRoomHeight(), size = Math.max(w, d);
+        double ex = w / 2, ey = size * 0.8, ez = d + size * 0.9;
+        double fx = w / 2 - ex, fy = 40 - ey, fz = d / 2 - ez;
+        double fl = Math.sqrt(fx * fx + fy * fy + fz * fz);
+        fx /= fl; fy /= fl; fz /= fl;
+        // right = forward x (0, 1, 0), up = right x forward
+        double rx = -fz, rz = fx, rl = Math.sqrt(rx * rx + rz * rz);
+        rx /= rl; rz /= rl;
+        double ux = -rz * fy, uy = rz * fx - rx * fz, uz = rx * fy;
+        return new RenderCamera(ex, ey, ez, fx, fy, fz, rx, 0, rz, ux, uy, uz, 35);
+    }
+
+    private static <T> T onFxThread(Callable<T> task) throws IOException {
+        CompletableFuture<T> f = new CompletableFuture<>();
+        try {
+            Platform.runLater(() -> {
+                try {
+                    f.complete(task.call());
+                } catch (Exception ex) {
+                    f.completeExceptionally(ex);
+                }
+            });
+            return f.get();
+        } catch (IllegalStateException ex) {
+            throw new IOException("3D thumbnails need the JavaFX toolkit");
+        } catch (Exception ex) {
+            throw new IOException(ex.getCause() != null ? ex.getCause() : ex);
+        }
+    }
+
+    // ------------------- disk -------------------
+
+    private Path file(String hash, Kind kind) {
+        return dir.resolve(hash + (kind == Kind.PLAN ? "-plan.png" : "-3d.png"));
+    }
+
+    private void store(Path png, int[] argb, int width, int height) throws IOException {
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "thumb", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                PngEncoder.write(argb, width, height, out, pool);
+            }
+            long size = Files.size(tmp);
+            try {
+                Files.move(tmp, png, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, png, StandardCopyOption.REPLACE_EXISTING);
+            }
+            present.add(png.getFileName().toString());
+            added(size);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void listPresent() {
+        try {
+            for (Path p : list()) present.add(p.getFileName().toString());
+        } catch (IOException ex) {
+            System.err.println("Could not list thumbnails in " + dir + ": " + ex);
+        }
+    }
+
+    /** Writes the uses recorded by {@link #request} to the files' modified times, for eviction. */
+    private void flushTouches() {
+        if (touched.isEmpty()) return;
+        FileTime now = FileTime.fromMillis(System.currentTimeMillis());
+        for (Iterator<String> i = touched.iterator(); i.hasNext(); ) {
+            Path png = dir.resolve(i.next());
+            i.remove();
+            try {
+                Files.setLastModifiedTime(png, now);
+            } catch (IOException ignored) {
+                // evicted meanwhile
+            }
+        }
+    }
+
+    private synchronized void added(long size) throws IOException {
+        if (bytes < 0) {
+            bytes = 0;
+            for (Path p : list()) bytes += Files.size(p);
+        } else {
+            bytes += size;
+        }
+        if (bytes > maxBytes) evict(maxBytes * 9 / 10);
+    }
+
+    /** Deletes the least recently used thumbnails until at most {@code target} bytes remain. */
+    private void evict(long target) throws IOException {
+        flushTouches();   // so recent uses count
+        List<Path> files = list();
+        Map<Path, Long> used = new HashMap<>();
+        for (Path p : files) used.put(p, Files.getLastModifiedTime(p).toMillis());
+        files.sort(Comparator.comparing(used::get));
+        for (Path p : files) {
+            if (bytes <= target) break;
+            long size = Files.size(p);
+            present.remove(p.getFileName().toString());
+            if (Files.deleteIfExists(p)) bytes -= size;
+        }
+    }
+
+    private List<Path> list() throws IOException {
+        if (!Files.isDirectory(dir)) return new ArrayList<>();
+        try (Stream<Path> s = Files.list(dir)) {
+            return new ArrayList<>(s.filter(p -> p.getFileName().toString().endsWith(".png")).toList());
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.forEach(Thread::interrupt);
+        flushTouches();
+        pool.shutdownNow();
+    }
+}
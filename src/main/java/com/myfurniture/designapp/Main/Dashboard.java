@@ -1,40 +1,194 @@
 package com.myfurniture.designapp.Main;
 
 import com.myfurniture.designapp.Core.DesignManager;
+import com.myfurniture.designapp.Core.FurnitureItem;
+import com.myfurniture.designapp.Diagnostics.Events;
+import com.myfurniture.designapp.Diagnostics.Metrics;
+import com.myfurniture.designapp.UI.DesignBrowser;
+import com.myfurniture.designapp.UI.InteractionRecorder;
 import com.myfurniture.designapp.UI.RoomDesigner2D;
 import com.myfurniture.designapp.UI.RoomRenderer3D;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.SplitPane;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.control.ToolBar;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.BorderPane;
+import javafx.stage.FileChooser;
+import javafx.stage.WindowEvent;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 
 public class Dashboard extends BorderPane {
     private DesignManager designManager;
     private RoomDesigner2D roomDesigner2D;
     private RoomRenderer3D roomRenderer3D;
 
+    private TabPane tabPane;
+    private Tab tab2D, tab3D;
+    private SplitPane splitPane;
+    private ToggleButton btnSplit;
+    private final InteractionRecorder recorder = new InteractionRecorder();
+    private boolean hudVisible;
+    private DesignBrowser browser;
+    private Path libraryRoot;
+    private static final Metrics.Timer syncTimer = Metrics.timer("sync.3d");
+
     public Dashboard(DesignManager designManager) {
         this.designManager = designManager;
         initComponents();
     }
 
     private void initComponents() {
-        TabPane tabPane = new TabPane();
+        tabPane = new TabPane();
 
-        Tab tab2D = new Tab("2D Room Designer");
+        tab2D = new Tab("2D Room Designer");
         roomDesigner2D = new RoomDesigner2D(designManager, () -> {
             if (roomRenderer3D != null) {
-                roomRenderer3D.updateScene();
+                sync3D("rebuild", roomRenderer3D::updateScene);
             }
         });
         tab2D.setContent(roomDesigner2D);
         tab2D.setClosable(false);
 
-        Tab tab3D = new Tab("3D Room View");
-        roomRenderer3D = new RoomRenderer3D(designManager);
-        tab3D.setContent(roomRenderer3D);
+        // the 3D view (SubScene, lights, timers, first scene build) is created when first shown
+        tab3D = new Tab("3D Room View");
         tab3D.setClosable(false);
+        tab3D.selectedProperty().addListener((o, was, selected) -> {
+            if (selected && tab3D.getContent() == null && !btnSplit.isSelected()) {
+                tab3D.setContent(getRoomRenderer3D());
+            }
+        });
 
         tabPane.getTabs().addAll(tab2D, tab3D);
+
+        splitPane = new SplitPane();
+        btnSplit = new ToggleButton("Side-by-Side 2D / 3D");
+        btnSplit.setOnAction(e -> setSplitView(btnSplit.isSelected()));
+
+        recorder.attach(InteractionRecorder.PLAN, roomDesigner2D.getPlanView());
+        ToggleButton btnRecord = new ToggleButton("⏺ Record Input");
+        btnRecord.setOnAction(e -> {
+            if (btnRecord.isSelected()) recorder.start(btnSplit.isSelected());
+            else saveRecording(recorder.stop());
+        });
+        // F3 toggles the performance overlay from anywhere in the window
+        ToggleButton btnHud = new ToggleButton("📊 Performance (F3)");
+        btnHud.setOnAction(e -> {
+            hudVisible = btnHud.isSelected();
+            roomDesigner2D.setHudVisible(hudVisible);
+            if (roomRenderer3D != null) roomRenderer3D.setHudVisible(hudVisible);
+        });
+        addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+            if (e.getCode() == KeyCode.F3) {
+                btnHud.fire();
+                e.consume();
+            }
+        });
+        Button btnLibrary = new Button("📁 Design Library");
+        btnLibrary.setOnAction(e -> showLibrary());
+        setTop(new ToolBar(btnSplit, btnRecord, btnHud, btnLibrary));
+
         setCenter(tabPane);
     }
+
+    public RoomDesigner2D getRoomDesigner2D() {
+        return roomDesigner2D;
+    }
+
+    /** The 3D view, created on first use. */
+    public RoomRenderer3D getRoomRenderer3D() {
+        if (roomRenderer3D == null) {
+            roomRenderer3D = new RoomRenderer3D(designManager);
+            roomRenderer3D.setOnItemEdited(item -> roomDesigner2D.redraw());
+            roomRenderer3D.setHudVisible(hudVisible);
+            recorder.attach(InteractionRecorder.VIEW_3D, roomRenderer3D);
+        }
+        return roomRenderer3D;
+    }
+
+    /** Brings the plan or the 3D view to the front; a no-op side by side. */
+    public void showView(boolean threeD) {
+        tabPane.getSelectionModel().select(threeD ? tab3D : tab2D);
+    }
+
+    /**
+     * Shows the plan and the 3D view next to each other. In this mode the 3D
+     * view follows drags in the plan live instead of rebuilding on release.
+     */
+    public void setSplitView(boolean split) {
+        btnSplit.setSelected(split);
+        if (split) {
+            tab2D.setContent(null);
+            tab3D.setContent(null);
+            splitPane.getItems().setAll(roomDesigner2D, getRoomRenderer3D());
+            splitPane.setDividerPositions(0.55);
+            roomDesigner2D.setLivePreview(roomRenderer3D::previewItem, this::refresh3DItem);
+            setCenter(splitPane);
+        } else {
+            roomDesigner2D.setLivePreview(null, null);
+            splitPane.getItems().clear();
+            tab2D.setContent(roomDesigner2D);
+            tab3D.setContent(roomRenderer3D);   // still null if never shown
+            setCenter(tabPane);
+        }
+    }
+
+    private void refresh3DItem(FurnitureItem item) {
+        sync3D("item", () -> roomRenderer3D.refreshItem(item));
+    }
+
+    /** Runs a plan-to-3D update, timed and reported as a {@link Events.ViewSync}. */
+    private void sync3D(String kind, Runnable update) {
+        Events.ViewSync event = new Events.ViewSync();
+        event.begin();
+        long t0 = System.nanoTime();
+        update.run();
+        syncTimer.recordSince(t0);
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.items = designManager.getCurrentDesign() == null ? 0
+                    : designManager.getCurrentDesign().getFurniture().size();
+            event.commit();
+        }
+    }
+
+    /** Opens the design browser, or brings it to the front; closing it stops its scanning and thumbnails. */
+    private void showLibrary() {
+        if (browser == null) {
+            browser = new DesignBrowser(getScene().getWindow(), design -> roomDesigner2D.setDesign(design));
+            browser.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> {
+                libraryRoot = browser.getRoot();   // reopened on the same folder
+                browser = null;
+            });
+            if (libraryRoot != null) browser.setRoot(libraryRoot);
+        }
+        browser.show();
+        browser.toFront();
+    }
+
+    /** Saves a recorded session for replay with {@code Tools.InteractionPlayer}. */
+    private void saveRecording(InteractionRecorder.Recording recording) {
+        if (recording.inputs().isEmpty()) return;
+        FileChooser ch = new FileChooser();
+        ch.setTitle("Save Input Recording");
+        ch.setInitialFileName("session.input");
+        ch.getExtensionFilters().add(new FileChooser.ExtensionFilter("Input recordings", "*.input"));
+        File file = ch.showSaveDialog(getScene().getWindow());
+        if (file == null) return;
+        try {
+            InteractionRecorder.write(recording, file.toPath());
+        } catch (IOException ex) {
+            Alert a = new Alert(Alert.AlertType.ERROR, "Could not save recording: " + ex.getMessage());
+            a.initOwner(getScene().getWindow());
+            a.showAndWait();
+        }
+    }
 }
@@ -0,0 +1,18 @@
+package com.myfurniture.designapp.Main;
+
+/**
+ * Entry point for running from a plain class path. The Java launcher
+ * refuses to start a main class that extends {@code Application} unless
+ * JavaFX is on the module path; class-data sharing archives only classes
+ * loaded from jars on the class path, so the AppCDS build starts here.
+ *
+ * <pre>java -XX:SharedArchiveFile=target/app.jsa -cp app.jar:... com.myfurniture.designapp.Main.Launcher</pre>
+ */
+public final class Launcher {
+
+    private Launcher() { }
+
+    public static void main(String[] args) {
+        Main.main(args);
+    }
+}
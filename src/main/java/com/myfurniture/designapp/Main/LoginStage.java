@@ -63,6 +63,7 @@ public class LoginStage extends Stage {
             dashboardStage.setScene(new Scene(dashboard, 1200, 800));
             dashboardStage.setTitle("Furniture Design Application - JavaFX 3D");
             dashboardStage.show();
+            Startup.windowShown(dashboard);
         } else {
             Alert alert = new Alert(Alert.AlertType.ERROR, "Invalid credentials. Please try again.");
             alert.setHeaderText("Login Error");
@@ -1,5 +1,7 @@
 package com.myfurniture.designapp.Main;
 
+import com.myfurniture.designapp.Assets.AssetBaker;
+import com.myfurniture.designapp.Assets.MeshCatalog;
 import com.myfurniture.designapp.Core.DesignManager;
 import com.myfurniture.designapp.Factory.FurnitureFactory;
 import com.myfurniture.designapp.Core.FurnitureItem;
@@ -8,12 +10,23 @@ import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import java.util.concurrent.ForkJoinPool;
+
 public class Main extends Application {
 
     private DesignManager designManager = new DesignManager();
 
     @Override
     public void start(Stage primaryStage) {
+        Startup.started();
+        // parse or map catalogue models while the window comes up
+        MeshCatalog.getDefault().preload(ForkJoinPool.commonPool());
+        // refresh the mapped asset pack for the next launch if it is out of date
+        Thread baker = new Thread(() -> AssetBaker.bakeIfStale(MeshCatalog.getDefault()), "asset-baker");
+        baker.setDaemon(true);
+        baker.setPriority(Thread.MIN_PRIORITY);
+        baker.start();
+
         // Create a sample room design.
         RoomDesign room = new RoomDesign(800, 600, javafx.scene.paint.Color.LIGHTGRAY);
         // Add sample furniture.
@@ -34,6 +47,8 @@ public class Main extends Application {
         primaryStage.setTitle("Furniture Design Application");
         primaryStage.setScene(scene);
         primaryStage.show();
+        // template parsing, texture painting etc. happen off the FX thread after the first frame
+        Startup.windowShown(dashboard);
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,180 @@
+package com.myfurniture.designapp.Main;
+
+import com.myfurniture.designapp.Core.DesignIO;
+import com.myfurniture.designapp.Core.FurnitureItem;
+import com.myfurniture.designapp.Core.RoomDesign;
+import com.myfurniture.designapp.Diagnostics.Metrics;
+import com.myfurniture.designapp.Export.RasterPlanGraphics;
+import com.myfurniture.designapp.Factory.Furniture2DFactory;
+import com.myfurniture.designapp.Factory.Furniture3DFactory;
+import com.myfurniture.designapp.Factory.FurnitureTemplate;
+import com.myfurniture.designapp.Factory.FurnitureTemplates;
+import com.myfurniture.designapp.Factory.MaterialAtlas;
+import com.myfurniture.designapp.Factory.RenderQuality;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.paint.Color;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Start-up timeline, measured from JVM start, and the background warm-up.
+ * <ul>
+ *   <li>first frame: the pulse after the one that showed the window has begun,
+ *       so the window has been rendered</li>
+ *   <li>interactive: the warm-up has finished and the FX thread has answered
+ *       a request after it, so opening the 3D view no longer waits on
+ *       template parsing, texture painting or first instantiation</li>
+ * </ul>
+ * The warm-up parses the furniture templates, draws each type once into an
+ * off-screen raster, composes the texture pages the 3D view starts with and
+ * round-trips a design through {@link DesignIO}: class loading, parsing and
+ * first-call JIT that would otherwise land on the FX thread. It then builds
+ * a detached 3D node of each type on the FX thread, a few per pulse.
+ * With {@code -Dmyfurniture.startup.exit=true} the app prints one
+ * {@code startup ...} line and exits once interactive; the start-up
+ * benchmark uses that. The class-data-sharing training run also sets
+ * {@code -Dmyfurniture.startup.train=true}, which opens the 3D view and lets
+ * it render for a moment before exiting, so its classes are archived too.
+ */
+public final class Startup {
+
+    public static final String EXIT_PROPERTY = "myfurniture.startup.exit";
+    public static final String TRAIN_PROPERTY = "myfurniture.startup.train";
+    public static final String REPORT_PREFIX = "startup ";
+    /** FX-thread time per pulse for building warm-up nodes */
+    private static final long WARM_UP_SLICE_NANOS = 4_000_000L;
+    /** pulses the 3D view renders for in a training run */
+    private static final int TRAIN_PULSES = 30;
+
+    private static long mainMillis = -1, firstFrameMillis = -1;
+    private static boolean windowShown;
+    private static Dashboard dashboard;
+
+    private Startup() { }
+
+    /** Milliseconds since the JVM started. */
+    static long uptime() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    /** Call first thing in {@code Application.start}. */
+    static void started() {
+        mainMillis = uptime();
+    }
+
+    /** Call right after the first dashboard is shown; later calls do nothing. */
+    static synchronized void windowShown(Dashboard shown) {
+        if (windowShown) return;
+        windowShown = true;
+        dashboard = shown;
+        new AnimationTimer() {
+            private int pulses;
+
+            @Override
+            public void handle(long now) {
+                if (++pulses < 2) return;
+                stop();
+                firstFrameMillis = uptime();
+                Metrics.timer("startup.firstFrame").record(firstFrameMillis * 1_000_000);
+                warmUp();
+            }
+        }.start();
+    }
+
+    private static void warmUp() {
+        Thread t = new Thread(() -> {
+            long t0 = System.nanoTime();
+            try {
+                warmUpTemplates();
+                MaterialAtlas.forQuality(RenderQuality.HIGH).prepare();
+                warmUpDesignIO();
+            } catch (RuntimeException | IOException ex) {
+                System.err.println("Could not warm up: " + ex);
+            }
+            Metrics.timer("startup.warmUp").recordSince(t0);
+            Platform.runLater(Startup::warmUp3D);
+        }, "startup-warm-up");
+        t.setDaemon(true);
+        t.setPriority(Thread.NORM_PRIORITY - 1);
+        t.start();
+    }
+
+    private static void warmUpTemplates() {
+        int size = 64;
+        RasterPlanGraphics g = new RasterPlanGraphics(new int[size * size], size, 0, 0, size, size);
+        for (FurnitureTemplate t : FurnitureTemplates.getAll()) {
+            FurnitureItem item = t.createItem();
+            item.setX(0);
+            item.setY(0);
+            Furniture2DFactory.drawPlaced(g, item, false);
+        }
+    }
+
+    /**
+     * One detached node per type: template instantiation and the shared atlas
+     * materials and meshes. Built on the FX thread, since nodes register
+     * listeners on those shared objects, a few per pulse within a budget.
+     */
+    private static void warmUp3D() {
+        Iterator<FurnitureTemplate> templates = FurnitureTemplates.getAll().iterator();
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                long deadline = System.nanoTime() + WARM_UP_SLICE_NANOS;
+                try {
+                    while (templates.hasNext() && System.nanoTime() < deadline) {
+                        Furniture3DFactory.createFurniture3D(templates.next().createItem());
+                    }
+                } catch (RuntimeException ex) {
+                    System.err.println("Could not warm up 3D: " + ex);
+                    templates.forEachRemaining(t -> { });
+                }
+                if (templates.hasNext()) return;
+                stop();
+                interactive();
+            }
+        }.start();
+    }
+
+    private static void warmUpDesignIO() throws IOException {
+        RoomDesign design = new RoomDesign(400, 400, Color.LIGHTGRAY);
+        for (FurnitureTemplate t : FurnitureTemplates.getAll()) design.addFurniture(t.createItem());
+        StringWriter out = new StringWriter();
+        DesignIO.write(design, out);
+        DesignIO.read(new BufferedReader(new StringReader(out.toString())));
+    }
+
+    private static void interactive() {
+        long interactiveMillis = uptime();
+        Metrics.timer("startup.interactive").record(interactiveMillis * 1_000_000);
+        if (Boolean.getBoolean(EXIT_PROPERTY)) {
+            System.out.printf(Locale.ROOT, "%sstart=%d firstFrame=%d interactive=%d%n",
+                    REPORT_PREFIX, mainMillis, firstFrameMillis, interactiveMillis);
+            System.out.flush();
+            if (Boolean.getBoolean(TRAIN_PROPERTY) && dashboard != null) train3D();
+            else Platform.exit();
+        }
+    }
+
+    /** Shows the lazily created 3D view and exits once it has rendered for a few pulses. */
+    private static void train3D() {
+        dashboard.showView(true);
+        new AnimationTimer() {
+            private int pulses;
+
+            @Override
+            public void handle(long now) {
+                if (++pulses < TRAIN_PULSES) return;
+                stop();
+                Platform.exit();
+            }
+        }.start();
+    }
+}
@@ -0,0 +1,367 @@
+package com.myfurniture.designapp.Render;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Progressive CPU path tracer for a {@link TriangleScene}. The image is cut
+ * into small tiles traced in parallel on a fork-join pool; each pass adds a
+ * few samples to every pixel and hands a tone-mapped preview to the listener,
+ * until the sample budget is spent.
+ *
+ * <p>Lighting: an open sky (the booth has no ceiling and no front wall), a
+ * soft sun in daylight mode, and the lamps as small sphere lights. Sun and
+ * lamps are sampled directly at every bounce; the sky is found by escaping rays.
+ *
+ * <p>Output is reproducible: every sample draws its random numbers from a
+ * stream keyed by (seed, pixel, sample), and each pixel's samples are summed
+ * in the same order whatever the thread count.
+ */
+public class PathTracer {
+
+    /**
+     * @param samplesPerPixel sample budget; rendering stops once every pixel has this many
+     * @param maxBounces      indirect bounces after the first hit
+     * @param evening         sun off, dim sky, lamps carry the scene
+     */
+    public record Settings(int width, int height, int samplesPerPixel, int maxBounces,
+                           long seed, boolean evening) {
+
+        public static Settings defaults(int width, int height) {
+            return new Settings(width, height, 256, 5, 1, false);
+        }
+    }
+
+    /** Called from the rendering thread after each pass with a fresh preview. */
+    public interface Listener {
+        void onPass(int samplesPerPixel, int[] argb);
+    }
+
+    private static final int    TILE = 32;
+    private static final int    MAX_SAMPLES_PER_PASS = 16;
+    private static final int    MAX_LIGHTS_PER_HIT = 8;
+    private static final double RAY_OFFSET = 0.01;        // design units
+    private static final double MAX_SAMPLE = 64;          // clamp against fireflies
+
+    // daylight: direction towards the sun, its irradiance and apparent radius
+    private static final double[] SUN_DIR = normalize(0.35, 0.85, 0.40);
+    private static final double   SUN_IRRADIANCE = 3.0;
+    private static final double   SUN_COS_RADIUS = Math.cos(Math.toRadians(2.5));
+
+    private final TriangleScene scene;
+    private final TriangleBvh bvh;
+    private final RenderCamera camera;
+    private final Settings settings;
+    private final SurfaceMaterial[] materials;
+    private final TriangleScene.SphereLight[] lights;
+
+    private final float[] accum;            // linear rgb sums
+    private final int[]   tileSamples;      // samples per pixel so far, per tile
+    private final int     tilesX, tilesY;
+    private int samplesDone;
+    private volatile boolean cancelled;
+
+    public PathTracer(TriangleScene scene, RenderCamera camera, Settings settings) {
+        this.scene = scene;
+        this.bvh = new TriangleBvh(scene);
+        this.camera = camera;
+        this.settings = settings;
+        this.materials = scene.getMaterials().toArray(new SurfaceMaterial[0]);
+        this.lights = scene.getLights().toArray(new TriangleScene.SphereLight[0]);
+        this.accum = new float[settings.width() * settings.height() * 3];
+        this.tilesX = (settings.width()  + TILE - 1) / TILE;
+        this.tilesY = (settings.height() + TILE - 1) / TILE;
+        this.tileSamples = new int[tilesX * tilesY];
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    public int getSamplesDone() {
+        return samplesDone;
+    }
+
+    /** Stops after the tiles already started; the image keeps what was traced. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Traces passes until the sample budget is spent or {@link #cancel()} is
+     * called, and returns the final tone-mapped image as ARGB.
+     */
+    public int[] render(ForkJoinPool pool, Listener listener) {
+        int pass = 1;
+        while (samplesDone < settings.samplesPerPixel() && !cancelled) {
+            // short passes first so the preview appears quickly
+            int n = Math.min(pass, settings.samplesPerPixel() - samplesDone);
+            int from = samplesDone;
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(tilesX * tilesY);
+            for (int ty = 0; ty < tilesY; ty++) {
+                for (int tx = 0; tx < tilesX; tx++) {
+                    int tile = ty * tilesX + tx;
+                    tasks.add(pool.submit(() -> {
+                        if (!cancelled) traceTile(tile, from, n);
+                    }));
+                }
+            }
+            for (ForkJoinTask<?> t : tasks) t.join();
+            if (cancelled) break;
+            samplesDone += n;
+            pass = Math.min(MAX_SAMPLES_PER_PASS, pass * 2);
+            if (listener != null) listener.onPass(samplesDone, toneMap());
+        }
+        return toneMap();
+    }
+
+    /** Current estimate, tone mapped (Reinhard) and sRGB encoded. */
+    public int[] toneMap() {
+        int w = settings.width(), h = settings.height();
+        int[] out = new int[w * h];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int p = y * w + x;
+                int n = tileSamples[(y / TILE) * tilesX + x / TILE];
+                if (n == 0) {
+                    out[p] = 0xFF000000;
+                    continue;
+                }
+                double k = 1.0 / n;
+                out[p] = 0xFF000000
+                        | encode(accum[p * 3]     * k) << 16
+                        | encode(accum[p * 3 + 1] * k) << 8
+                        | encode(accum[p * 3 + 2] * k);
+            }
+        }
+        return out;
+    }
+
+    private static int encode(double linear) {
+        double c = linear / (1 + linear);
+        c = c <= 0.0031308 ? c * 12.92 : 1.055 * Math.pow(c, 1 / 2.4) - 0.055;
+        return (int) Math.round(Math.max(0, Math.min(1, c)) * 255);
+    }
+
+    private void traceTile(int tile, int fromSample, int samples) {
+        int w = settings.width(), h = settings.height();
+        int x0 = (tile % tilesX) * TILE, y0 = (tile / tilesX) * TILE;
+        int x1 = Math.min(w, x0 + TILE), y1 = Math.min(h, y0 + TILE);
+
+        PathState st = new PathState();
+        double tanHalf = Math.tan(Math.toRadians(camera.fieldOfView()) / 2);
+        double aspect = (double) w / h;
+        for (int y = y0; y < y1; y++) {
+            for (int x = x0; x < x1; x++) {
+                int p = y * w + x;
+                double r = 0, g = 0, b = 0;
+                for (int s = fromSample; s < fromSample + samples; s++) {
+                    st.rng.reset(settings.seed(), p, s);
+                    double sx = (2 * (x + st.rng.next()) / w - 1) * tanHalf * aspect;
+                    double sy = (1 - 2 * (y + st.rng.next()) / h) * tanHalf;
+                    double dx = camera.forwardX() + sx * camera.rightX() + sy * camera.upX();
+                    double dy = camera.forwardY() + sx * camera.rightY() + sy * camera.upY();
+                    double dz = camera.forwardZ() + sx * camera.rightZ() + sy * camera.upZ();
+                    double len = Math.sqrt(dx * dx + dy * dy + dz * dz);
+                    trace(st, camera.eyeX(), camera.eyeY(), camera.eyeZ(), dx / len, dy / len, dz / len);
+                    double m = Math.max(st.lr, Math.max(st.lg, st.lb));
+                    double clamp = m > MAX_SAMPLE ? MAX_SAMPLE / m : 1;
+                    if (Double.isFinite(m)) {
+                        r += st.lr * clamp; g += st.lg * clamp; b += st.lb * clamp;
+                    }
+                }
+                accum[p * 3]     += (float) r;
+                accum[p * 3 + 1] += (float) g;
+                accum[p * 3 + 2] += (float) b;
+            }
+        }
+        tileSamples[tile] = fromSample + samples;
+    }
+
+    /** Per-task scratch: random stream, hit record, traversal stack and path radiance. */
+    private static final class PathState {
+        final SampleRandom rng = new SampleRandom();
+        final TriangleBvh.Hit hit = new TriangleBvh.Hit();
+        final int[] stack = new int[128];
+        double lr, lg, lb;            // radiance of the current path
+    }
+
+    private void trace(PathState st, double ox, double oy, double oz, double dx, double dy, double dz) {
+        SampleRandom rng = st.rng;
+        double tr = 1, tg = 1, tb = 1;
+        st.lr = st.lg = st.lb = 0;
+        float[] tris = scene.getTriangles();
+
+        for (int bounce = 0; ; bounce++) {
+            if (!bvh.intersect(ox, oy, oz, dx, dy, dz, Double.POSITIVE_INFINITY, st.hit, st.stack)) {
+                sky(st, dx, dy, dz, tr, tg, tb);
+                return;
+            }
+            int tri = st.hit.triangle;
+            SurfaceMaterial m = materials[scene.getMaterialIndex(tri)];
+            double t = st.hit.t;
+            double px = ox + dx * t, py = oy + dy * t, pz = oz + dz * t;
+
+            // geometric normal, facing the incoming ray
+            int o = tri * 9;
+            double nx = tris[o + 4] * tris[o + 8] - tris[o + 5] * tris[o + 7];
+            double ny = tris[o + 5] * tris[o + 6] - tris[o + 3] * tris[o + 8];
+            double nz = tris[o + 3] * tris[o + 7] - tris[o + 4] * tris[o + 6];
+            double nl = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            nx /= nl; ny /= nl; nz /= nl;
+            if (nx * dx + ny * dy + nz * dz > 0) { nx = -nx; ny = -ny; nz = -nz; }
+            px += nx * RAY_OFFSET; py += ny * RAY_OFFSET; pz += nz * RAY_OFFSET;
+
+            // mirror direction, for the glossy lobe
+            double dn = dx * nx + dy * ny + dz * nz;
+            double rx = dx - 2 * dn * nx, ry = dy - 2 * dn * ny, rz = dz - 2 * dn * nz;
+
+            directLight(st, m, px, py, pz, nx, ny, nz, rx, ry, rz, tr, tg, tb);
+            if (bounce >= settings.maxBounces()) return;
+
+            // continue the path: pick a lobe by its share of the reflected energy
+            double[] dir;
+            if (rng.next() < m.specular()) {
+                dir = phongLobe(rng, rx, ry, rz, m.exponent());
+                if (dir[0] * nx + dir[1] * ny + dir[2] * nz <= 0) return;
+                if (m.metal()) { tr *= m.r(); tg *= m.g(); tb *= m.b(); }
+            } else {
+                dir = cosineHemisphere(rng, nx, ny, nz);
+                tr *= m.r(); tg *= m.g(); tb *= m.b();
+            }
+
+            if (bounce >= 2) {   // Russian roulette
+                double q = Math.min(0.95, Math.max(tr, Math.max(tg, tb)));
+                if (rng.next() >= q) return;
+                tr /= q; tg /= q; tb /= q;
+            }
+            ox = px; oy = py; oz = pz;
+            dx = dir[0]; dy = dir[1]; dz = dir[2];
+        }
+    }
+
+    /** Adds sun and lamp light reaching the point, weighted by the BRDF and path throughput. */
+    private void directLight(PathState st, SurfaceMaterial m, double px, double py, double pz,
+                             double nx, double ny, double nz, double rx, double ry, double rz,
+                             double tr, double tg, double tb) {
+        SampleRandom rng = st.rng;
+        if (!settings.evening()) {
+            double[] l = cone(rng, SUN_DIR[0], SUN_DIR[1], SUN_DIR[2], SUN_COS_RADIUS);
+            double cos = l[0] * nx + l[1] * ny + l[2] * nz;
+            if (cos > 0 && !bvh.occluded(px, py, pz, l[0], l[1], l[2], Double.POSITIVE_INFINITY, st.stack)) {
+                double e = SUN_IRRADIANCE * cos;
+                addBrdf(st, m, l, rx, ry, rz, tr * e, tg * e, tb * e);
+            }
+        }
+        if (lights.length == 0) return;
+
+        // with many lamps, one random lamp stands in for all of them
+        int first = 0, count = lights.length;
+        double weight = 1;
+        if (count > MAX_LIGHTS_PER_HIT) {
+            first = (int) (rng.next() * count);
+            weight = count;
+            count = 1;
+        }
+        for (int i = 0; i < count; i++) {
+            TriangleScene.SphereLight light = lights[(first + i) % lights.length];
+            double[] u = uniformSphere(rng);
+            double lx = light.x() + u[0] * light.radius() - px;
+            double ly = light.y() + u[1] * light.radius() - py;
+            double lz = light.z() + u[2] * light.radius() - pz;
+            double d2 = lx * lx + ly * ly + lz * lz, d = Math.sqrt(d2);
+            lx /= d; ly /= d; lz /= d;
+            double cos = lx * nx + ly * ny + lz * nz;
+            if (cos <= 0 || bvh.occluded(px, py, pz, lx, ly, lz, d, st.stack)) continue;
+            double e = weight * cos / d2;
+            addBrdf(st, m, new double[] { lx, ly, lz }, rx, ry, rz,
+                    tr * light.r() * e, tg * light.g() * e, tb * light.b() * e);
+        }
+    }
+
+    /** Adds irradiance (er, eg, eb) arriving from direction l, times the BRDF. */
+    private static void addBrdf(PathState st, SurfaceMaterial m, double[] l, double rx, double ry, double rz,
+                                double er, double eg, double eb) {
+        double kd = (1 - m.specular()) / Math.PI;
+        double spec = 0;
+        if (m.specular() > 0) {
+            double c = l[0] * rx + l[1] * ry + l[2] * rz;
+            if (c > 0) spec = m.specular() * (m.exponent() + 2) / (2 * Math.PI) * Math.pow(c, m.exponent());
+        }
+        double sr = m.metal() ? spec * m.r() : spec, sg = m.metal() ? spec * m.g() : spec,
+               sb = m.metal() ? spec * m.b() : spec;
+        st.lr += er * (kd * m.r() + sr);
+        st.lg += eg * (kd * m.g() + sg);
+        st.lb += eb * (kd * m.b() + sb);
+    }
+
+    private void sky(PathState st, double dx, double dy, double dz, double tr, double tg, double tb) {
+        double r, g, b;
+        if (dy < 0) {               // below the horizon: the ground outside
+            r = 0.22; g = 0.20; b = 0.18;
+        } else {
+            double k = Math.sqrt(dy);
+            r = 0.95 + (0.45 - 0.95) * k;
+            g = 0.95 + (0.60 - 0.95) * k;
+            b = 1.00 + (0.90 - 1.00) * k;
+        }
+        double scale = settings.evening() ? 0.03 : 1.2;
+        st.lr += tr * r * scale;
+        st.lg += tg * g * scale;
+        st.lb += tb * b * scale;
+    }
+
+    // ------------------- sampling -------------------
+
+    private static double[] cosineHemisphere(SampleRandom rng, double nx, double ny, double nz) {
+        double u1 = rng.next(), u2 = rng.next();
+        double r = Math.sqrt(u1), phi = 2 * Math.PI * u2;
+        return toWorld(r * Math.cos(phi), r * Math.sin(phi), Math.sqrt(Math.max(0, 1 - u1)), nx, ny, nz);
+    }
+
+    private static double[] phongLobe(SampleRandom rng, double ax, double ay, double az, double exponent) {
+        double u1 = rng.next(), u2 = rng.next();
+        double cos = Math.pow(u1, 1 / (exponent + 1)), sin = Math.sqrt(Math.max(0, 1 - cos * cos));
+        double phi = 2 * Math.PI * u2;
+        return toWorld(sin * Math.cos(phi), sin * Math.sin(phi), cos, ax, ay, az);
+    }
+
+    /** uniform direction within the cone of half-angle acos(cosMax) around the axis */
+    private static double[] cone(SampleRandom rng, double ax, double ay, double az, double cosMax) {
+        double u1 = rng.next(), u2 = rng.next();
+        double cos = 1 - u1 * (1 - cosMax), sin = Math.sqrt(Math.max(0, 1 - cos * cos));
+        double phi = 2 * Math.PI * u2;
+        return toWorld(sin * Math.cos(phi), sin * Math.sin(phi), cos, ax, ay, az);
+    }
+
+    private static double[] uniformSphere(SampleRandom rng) {
+        double z = 1 - 2 * rng.next(), r = Math.sqrt(Math.max(0, 1 - z * z));
+        double phi = 2 * Math.PI * rng.next();
+        return new double[] { r * Math.cos(phi), r * Math.sin(phi), z };
+    }
+
+    /** local (x, y, z) in a frame whose z axis is (ax, ay, az), to world */
+    private static double[] toWorld(double x, double y, double z, double ax, double ay, double az) {
+        // branchless orthonormal basis (Duff et al. 2017)
+        double sign = Math.copySign(1.0, az);
+        double a = -1 / (sign + az), b = ax * ay * a;
+        double tx = 1 + sign * ax * ax * a, ty = sign * b, tz = -sign * ax;
+        double bx = b, by = sign + ay * ay * a, bz = -ay;
+        return new double[] {
+                x * tx + y * bx + z * ax,
+                x * ty + y * by + z * ay,
+                x * tz + y * bz + z * az
+        };
+    }
+
+    private static double[] normalize(double x, double y, double z) {
+        double l = Math.sqrt(x * x + y * y + z * z);
+        return new double[] { x / l, y / l, z / l };
+    }
+}
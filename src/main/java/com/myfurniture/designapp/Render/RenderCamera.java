@@ -0,0 +1,11 @@
+package com.myfurniture.designapp.Render;
+
+/**
+ * Pinhole camera in room coordinates. The three axes are unit vectors;
+ * {@code fieldOfView} is vertical, in degrees, as for the JavaFX camera.
+ */
+public record RenderCamera(double eyeX, double eyeY, double eyeZ,
+                           double forwardX, double forwardY, double forwardZ,
+                           double rightX, double rightY, double rightZ,
+                           double upX, double upY, double upZ,
+                           double fieldOfView) { }
@@ -0,0 +1,27 @@
+package com.myfurniture.designapp.Render;
+
+/**
+ * Counter-based random numbers for the path tracer. The stream for a sample is
+ * a pure function of (seed, pixel, sample index), so the image does not depend
+ * on how tiles are spread over threads or in which order they finish.
+ */
+final class SampleRandom {
+
+    private long state;
+
+    void reset(long seed, long pixel, long sample) {
+        state = mix(seed ^ mix(pixel * 0x9E3779B97F4A7C15L + sample));
+    }
+
+    /** uniform in [0, 1) */
+    double next() {
+        state += 0x9E3779B97F4A7C15L;   // SplitMix64
+        return (mix(state) >>> 11) * 0x1.0p-53;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
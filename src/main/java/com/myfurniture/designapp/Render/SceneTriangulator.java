@@ -0,0 +1,173 @@
+package com.myfurniture.designapp.Render;
+
+import com.myfurniture.designapp.Core.FurnitureItem;
+import com.myfurniture.designapp.Core.RoomDesign;
+import com.myfurniture.designapp.Factory.BoothRoomFactory;
+import com.myfurniture.designapp.Factory.Furniture3DFactory;
+import javafx.geometry.Point3D;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Material;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.Box;
+import javafx.scene.shape.Cylinder;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.Shape3D;
+import javafx.scene.shape.TriangleMesh;
+import javafx.scene.transform.Affine;
+import javafx.scene.transform.Transform;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Turns the nodes built by {@link BoothRoomFactory} and {@link Furniture3DFactory}
+ * into a {@link TriangleScene}, so the path tracer renders exactly the geometry
+ * the 3D view shows. Textures are reduced to their average colour, and the
+ * translucent contact-shadow boxes are dropped since the tracer casts real shadows.
+ *
+ * <p>Must run on the FX thread: the factories create their textures with
+ * canvas snapshots.
+ */
+public class SceneTriangulator {
+
+    /** radiant intensity of a lamp bulb, per unit of its colour */
+    private static final double LAMP_INTENSITY = 12_000;
+    private static final double LAMP_RADIUS = 1.5;   // stays clear of the lamp head
+
+    private final TriangleScene scene = new TriangleScene();
+    private final Map<Image, Color> textureAverages = new IdentityHashMap<>();
+
+    public static TriangleScene triangulate(RoomDesign room) {
+        SceneTriangulator t = new SceneTriangulator();
+        Affine identity = new Affine();
+        t.add(BoothRoomFactory.createBooth(room), identity,
+                SurfaceMaterial.Preset.PAINT, SurfaceMaterial.Preset.FLOOR);
+        for (FurnitureItem item : room.getFurniture()) {
+            t.add(Furniture3DFactory.createFurniture3D(item), identity,
+                    SurfaceMaterial.Preset.forName(item.getMaterial()), SurfaceMaterial.Preset.WOOD);
+            if (Furniture3DFactory.isLightSource(item)) t.addLamp(item);
+        }
+        return t.scene;
+    }
+
+    private void addLamp(FurnitureItem lamp) {
+        Point3D p = Furniture3DFactory.lampLightPosition(lamp);
+        Color warm = lamp.getPrimaryColor().interpolate(Color.rgb(255, 236, 200), 0.6);
+        scene.addLight(new TriangleScene.SphereLight(p.getX(), p.getY(), p.getZ(), LAMP_RADIUS,
+                SurfaceMaterial.toLinear(warm.getRed())   * LAMP_INTENSITY,
+                SurfaceMaterial.toLinear(warm.getGreen()) * LAMP_INTENSITY,
+                SurfaceMaterial.toLinear(warm.getBlue())  * LAMP_INTENSITY));
+    }
+
+    /**
+     * @param preset   glossiness of plain-coloured parts
+     * @param textured glossiness of texture-mapped parts (wood, the floor)
+     */
+    private void add(Node node, Transform parentToRoom, SurfaceMaterial.Preset preset,
+                     SurfaceMaterial.Preset textured) {
+        if (!node.isVisible()) return;
+        Transform t = parentToRoom.createConcatenation(node.getLocalToParentTransform());
+        if (node instanceof Parent p) {
+            for (Node child : p.getChildrenUnmodifiable()) add(child, t, preset, textured);
+            return;
+        }
+        if (!(node instanceof Shape3D shape)) return;
+        SurfaceMaterial mat = material(shape.getMaterial(), preset, textured);
+        if (mat == null) return;
+        int id = scene.materialId(mat);
+
+        if (shape instanceof Box box) {
+            addBox(t, box.getWidth() / 2, box.getHeight() / 2, box.getDepth() / 2, id);
+        } else if (shape instanceof Cylinder cyl) {
+            addCylinder(t, cyl.getRadius(), cyl.getHeight() / 2, cyl.getDivisions(), id);
+        } else if (shape instanceof MeshView mv && mv.getMesh() instanceof TriangleMesh mesh) {
+            addMesh(t, mesh, id);
+        }
+    }
+
+    private SurfaceMaterial material(Material m, SurfaceMaterial.Preset preset,
+                                     SurfaceMaterial.Preset textured) {
+        if (!(m instanceof PhongMaterial pm)) return SurfaceMaterial.of(Color.LIGHTGRAY, preset);
+        Color c = pm.getDiffuseColor();
+        if (c.getOpacity() < 0.5) return null;   // fake contact shadow
+        SurfaceMaterial.Preset kind = SurfaceMaterial.presetOf(pm, preset, textured);
+        if (pm.getDiffuseMap() != null) {
+            Color avg = textureAverages.computeIfAbsent(pm.getDiffuseMap(), SceneTriangulator::average);
+            c = Color.color(avg.getRed() * c.getRed(), avg.getGreen() * c.getGreen(), avg.getBlue() * c.getBlue());
+        }
+        return SurfaceMaterial.of(c, kind);
+    }
+
+    private static Color average(Image img) {
+        PixelReader pr = img.getPixelReader();
+        int w = (int) img.getWidth(), h = (int) img.getHeight();
+        if (pr == null || w == 0 || h == 0) return Color.LIGHTGRAY;
+        double r = 0, g = 0, b = 0, n = 0;
+        int step = Math.max(1, Math.min(w, h) / 64);
+        for (int y = 0; y < h; y += step) {
+            for (int x = 0; x < w; x += step) {
+                // weighted by opacity, so the empty space of an atlas page does not count
+                Color c = pr.getColor(x, y);
+                double a = c.getOpacity();
+                r += c.getRed() * a; g += c.getGreen() * a; b += c.getBlue() * a;
+                n += a;
+            }
+        }
+        return n == 0 ? Color.LIGHTGRAY : Color.color(r / n, g / n, b / n);
+    }
+
+    private void addBox(Transform t, double hx, double hy, double hz, int mat) {
+        Point3D[] v = new Point3D[8];
+        for (int i = 0; i < 8; i++) {
+            v[i] = t.transform((i & 1) == 0 ? -hx : hx, (i & 2) == 0 ? -hy : hy, (i & 4) == 0 ? -hz : hz);
+        }
+        int[][] faces = {
+                {0, 2, 3, 1}, {4, 5, 7, 6},   // -z, +z
+                {0, 1, 5, 4}, {2, 6, 7, 3},   // -y, +y
+                {0, 4, 6, 2}, {1, 3, 7, 5}    // -x, +x
+        };
+        for (int[] f : faces) quad(v[f[0]], v[f[1]], v[f[2]], v[f[3]], mat);
+    }
+
+    private void addCylinder(Transform t, double r, double hh, int divisions, int mat) {
+        int n = Math.max(3, divisions);
+        Point3D top = t.transform(0, -hh, 0), bottom = t.transform(0, hh, 0);
+        Point3D[] ringTop = new Point3D[n], ringBottom = new Point3D[n];
+        for (int i = 0; i < n; i++) {
+            double a = 2 * Math.PI * i / n, x = r * Math.cos(a), z = r * Math.sin(a);
+            ringTop[i]    = t.transform(x, -hh, z);
+            ringBottom[i] = t.transform(x,  hh, z);
+        }
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            quad(ringTop[i], ringTop[j], ringBottom[j], ringBottom[i], mat);
+            tri(top, ringTop[j], ringTop[i], mat);
+            tri(bottom, ringBottom[i], ringBottom[j], mat);
+        }
+    }
+
+    private void addMesh(Transform t, TriangleMesh mesh, int mat) {
+        float[] pts = mesh.getPoints().toArray(null);
+        int[] faces = mesh.getFaces().toArray(null);
+        int perVertex = mesh.getVertexFormat().getVertexIndexSize();
+        Point3D[] v = new Point3D[pts.length / 3];
+        for (int i = 0; i < v.length; i++) v[i] = t.transform(pts[i * 3], pts[i * 3 + 1], pts[i * 3 + 2]);
+        for (int f = 0; f + 3 * perVertex <= faces.length; f += 3 * perVertex) {
+            tri(v[faces[f]], v[faces[f + perVertex]], v[faces[f + 2 * perVertex]], mat);
+        }
+    }
+
+    private void quad(Point3D a, Point3D b, Point3D c, Point3D d, int mat) {
+        tri(a, b, c, mat);
+        tri(a, c, d, mat);
+    }
+
+    private void tri(Point3D a, Point3D b, Point3D c, int mat) {
+        scene.addTriangle(a.getX(), a.getY(), a.getZ(), b.getX(), b.getY(), b.getZ(),
+                c.getX(), c.getY(), c.getZ(), mat);
+    }
+}
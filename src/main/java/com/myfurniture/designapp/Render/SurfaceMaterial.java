@@ -0,0 +1,73 @@
+package com.myfurniture.designapp.Render;
+
+import com.myfurniture.designapp.Factory.Furniture3DFactory;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Material;
+import javafx.scene.paint.PhongMaterial;
+
+import java.util.Locale;
+
+/**
+ * Reflectance of a surface for the path tracer: a Lambert lobe with the given
+ * linear albedo plus a normalised Phong lobe. {@code specular} is the share of
+ * light reflected by the glossy lobe; metals tint it with the albedo.
+ */
+public record SurfaceMaterial(float r, float g, float b, float specular, float exponent, boolean metal) {
+
+    /** Glossiness per {@code FurnitureItem.material} name. */
+    public enum Preset {
+        FABRIC (0.00f,   1, false),
+        LEATHER(0.10f,  30, false),
+        WOOD   (0.05f,  40, false),
+        METAL  (0.65f, 220, true),
+        PLASTIC(0.06f,  80, false),
+        PAINT  (0.02f,  10, false),
+        FLOOR  (0.08f,  60, false);
+
+        final float specular, exponent;
+        final boolean metal;
+
+        Preset(float specular, float exponent, boolean metal) {
+            this.specular = specular;
+            this.exponent = exponent;
+            this.metal    = metal;
+        }
+
+        /** Preset for a material name; unknown names are treated as plastic. */
+        public static Preset forName(String material) {
+            if (material == null) return PLASTIC;
+            return switch (material.trim().toLowerCase(Locale.ROOT)) {
+                case "fabric", "cloth", "velvet" -> FABRIC;
+                case "leather"                   -> LEATHER;
+                case "wood", "oak", "walnut"     -> WOOD;
+                case "metal", "steel", "chrome"  -> METAL;
+                default                          -> PLASTIC;
+            };
+        }
+    }
+
+    /**
+     * Glossiness of a part of a JavaFX scene, shared by the path tracer and the
+     * exporters: metal for the factory's metal materials, else by whether the
+     * part is texture-mapped.
+     *
+     * @param plain    glossiness of plain-coloured parts
+     * @param textured glossiness of texture-mapped parts
+     */
+    public static Preset presetOf(Material m, Preset plain, Preset textured) {
+        if (Furniture3DFactory.isMetal(m)) return Preset.METAL;
+        return m instanceof PhongMaterial pm && pm.getDiffuseMap() != null ? textured : plain;
+    }
+
+    /** @param color sRGB colour, as JavaFX stores it */
+    public static SurfaceMaterial of(Color color, Preset preset) {
+        return new SurfaceMaterial(
+                toLinear(color.getRed()), toLinear(color.getGreen()), toLinear(color.getBlue()),
+                preset.specular, preset.exponent, preset.metal);
+    }
+
+    /** sRGB component (0..1) to linear. */
+    public static float toLinear(double srgb) {
+        return (float) (srgb <= 0.04045 ? srgb / 12.92 : Math.pow((srgb + 0.055) / 1.055, 2.4));
+    }
+}
@@ -0,0 +1,279 @@
+package com.myfurniture.designapp.Render;
+
+import com.myfurniture.designapp.Util.RayBox;
+
+import java.util.Arrays;
+
+/**
+ * Bounding-volume hierarchy over the triangles of a {@link TriangleScene},
+ * built with the binned surface-area heuristic. Nodes are flattened into
+ * primitive arrays like {@code Util.BoundingVolumeHierarchy}, and the scene's
+ * triangles are reordered into leaf order so a leaf reads one contiguous run.
+ * Immutable after construction and safe to query from many threads.
+ */
+public class TriangleBvh {
+
+    /** Nearest hit of a ray; reused per thread to keep the inner loop allocation-free. */
+    public static final class Hit {
+        public double t, u, v;
+        public int    triangle = -1;
+    }
+
+    private static final int    BINS = 16;
+    private static final int    MAX_LEAF = 8;
+    private static final double TRAVERSAL_COST = 1.0;   // relative to one triangle test
+    private static final double EPS = 1e-7;
+
+    private final float[] tris;            // from the scene, in leaf order
+    private final int     triCount;
+
+    // node i: bounds in nodeBounds[6*i..]; leaves hold a triangle range, inner nodes their right child
+    private float[] nodeBounds;
+    private int[]   nodeStart;
+    private int[]   nodeCount;             // 0 marks an inner node: children are i + 1 and nodeStart[i]
+    private int     nodeTotal;
+
+    // build-time scratch
+    private int[]   order;
+    private float[] triBounds;             // 6 per triangle
+    private float[] centroids;             // 3 per triangle
+
+    public TriangleBvh(TriangleScene scene) {
+        int n = scene.getTriangleCount();
+        float[] t = scene.getTriangles();
+        order = new int[n];
+        triBounds = new float[n * 6];
+        centroids = new float[n * 3];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            int o = i * 9;
+            for (int a = 0; a < 3; a++) {
+                float v0 = t[o + a], v1 = v0 + t[o + 3 + a], v2 = v0 + t[o + 6 + a];
+                float lo = Math.min(v0, Math.min(v1, v2)), hi = Math.max(v0, Math.max(v1, v2));
+                triBounds[i * 6 + a] = lo;
+                triBounds[i * 6 + 3 + a] = hi;
+                centroids[i * 3 + a] = (lo + hi) * 0.5f;
+            }
+        }
+
+        int maxNodes = Math.max(1, 2 * n);
+        nodeBounds = new float[maxNodes * 6];
+        nodeStart  = new int[maxNodes];
+        nodeCount  = new int[maxNodes];
+        if (n > 0) build(0, n);
+
+        scene.permute(order);
+        this.tris = scene.getTriangles();
+        this.triCount = n;
+        order = null;
+        triBounds = null;
+        centroids = null;
+    }
+
+    public int getNodeCount() {
+        return nodeTotal;
+    }
+
+    /**
+     * Nearest triangle hit by the ray within (0, tMax), written to {@code hit}.
+     * Direction need not be normalised; t is in units of its length.
+     */
+    public boolean intersect(double ox, double oy, double oz, double dx, double dy, double dz,
+                             double tMax, Hit hit, int[] stack) {
+        if (triCount == 0) return false;
+        double ix = RayBox.inverse(dx), iy = RayBox.inverse(dy), iz = RayBox.inverse(dz);
+
+        double best = tMax;
+        int bestTri = -1;
+        double bestU = 0, bestV = 0;
+        int sp = 0;
+        stack[sp++] = 0;
+        while (sp > 0) {
+            int node = stack[--sp];
+            if (RayBox.entry(nodeBounds, node * 6, ox, oy, oz, ix, iy, iz) >= best) continue;
+
+            int count = nodeCount[node];
+            if (count > 0) {
+                for (int k = nodeStart[node], end = k + count; k < end; k++) {
+                    int o = k * 9;
+                    // Möller–Trumbore
+                    double e1x = tris[o + 3], e1y = tris[o + 4], e1z = tris[o + 5];
+                    double e2x = tris[o + 6], e2y = tris[o + 7], e2z = tris[o + 8];
+                    double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+                    double det = e1x * px + e1y * py + e1z * pz;
+                    if (det > -EPS && det < EPS) continue;
+                    double inv = 1 / det;
+                    double sx = ox - tris[o], sy = oy - tris[o + 1], sz = oz - tris[o + 2];
+                    double u = (sx * px + sy * py + sz * pz) * inv;
+                    if (u < 0 || u > 1) continue;
+                    double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+                    double v = (dx * qx + dy * qy + dz * qz) * inv;
+                    if (v < 0 || u + v > 1) continue;
+                    double t = (e2x * qx + e2y * qy + e2z * qz) * inv;
+                    if (t > EPS && t < best) {
+                        best = t; bestTri = k; bestU = u; bestV = v;
+                    }
+                }
+            } else {
+                int left = node + 1, right = nodeStart[node];
+                double tl = RayBox.entry(nodeBounds, left  * 6, ox, oy, oz, ix, iy, iz);
+                double tr = RayBox.entry(nodeBounds, right * 6, ox, oy, oz, ix, iy, iz);
+                sp = RayBox.pushNearerLast(stack, sp, left, tl, right, tr, best);
+            }
+        }
+        if (bestTri < 0) return false;
+        hit.t = best;
+        hit.u = bestU;
+        hit.v = bestV;
+        hit.triangle = bestTri;
+        return true;
+    }
+
+    /** True if anything blocks the ray within (0, tMax); stops at the first hit found. */
+    public boolean occluded(double ox, double oy, double oz, double dx, double dy, double dz,
+                            double tMax, int[] stack) {
+        if (triCount == 0) return false;
+        double ix = RayBox.inverse(dx), iy = RayBox.inverse(dy), iz = RayBox.inverse(dz);
+        int sp = 0;
+        stack[sp++] = 0;
+        while (sp > 0) {
+            int node = stack[--sp];
+            if (RayBox.entry(nodeBounds, node * 6, ox, oy, oz, ix, iy, iz) >= tMax) continue;
+            int count = nodeCount[node];
+            if (count == 0) {
+                stack[sp++] = nodeStart[node];
+                stack[sp++] = node + 1;
+                continue;
+            }
+            for (int k = nodeStart[node], end = k + count; k < end; k++) {
+                int o = k * 9;
+                double e1x = tris[o + 3], e1y = tris[o + 4], e1z = tris[o + 5];
+                double e2x = tris[o + 6], e2y = tris[o + 7], e2z = tris[o + 8];
+                double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+                double det = e1x * px + e1y * py + e1z * pz;
+                if (det > -EPS && det < EPS) continue;
+                double inv = 1 / det;
+                double sx = ox - tris[o], sy = oy - tris[o + 1], sz = oz - tris[o + 2];
+                double u = (sx * px + sy * py + sz * pz) * inv;
+                if (u < 0 || u > 1) continue;
+                double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+                double v = (dx * qx + dy * qy + dz * qz) * inv;
+                if (v < 0 || u + v > 1) continue;
+                double t = (e2x * qx + e2y * qy + e2z * qz) * inv;
+                if (t > EPS && t < tMax) return true;
+            }
+        }
+        return false;
+    }
+
+
+    /** Builds the subtree for order[from..to) and returns its node index. */
+    private int build(int from, int to) {
+        int node = nodeTotal++;
+        int o = node * 6;
+        float[] nb = nodeBounds;
+        nb[o] = nb[o + 1] = nb[o + 2] = Float.POSITIVE_INFINITY;
+        nb[o + 3] = nb[o + 4] = nb[o + 5] = Float.NEGATIVE_INFINITY;
+        float[] cMin = { Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY };
+        float[] cMax = { Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY };
+        for (int k = from; k < to; k++) {
+            int b = order[k] * 6, c = order[k] * 3;
+            for (int a = 0; a < 3; a++) {
+                nb[o + a]     = Math.min(nb[o + a],     triBounds[b + a]);
+                nb[o + 3 + a] = Math.max(nb[o + 3 + a], triBounds[b + 3 + a]);
+                cMin[a] = Math.min(cMin[a], centroids[c + a]);
+                cMax[a] = Math.max(cMax[a], centroids[c + a]);
+            }
+        }
+
+        int count = to - from;
+        int bestAxis = -1, bestSplit = 0;
+        double bestCost = Double.POSITIVE_INFINITY;
+        if (count > 2) {
+            int[]     binCount  = new int[BINS];
+            float[]   binBounds = new float[BINS * 6];
+            double[]  rightArea = new double[BINS];
+            int[]     rightCount = new int[BINS];
+            for (int axis = 0; axis < 3; axis++) {
+                float extent = cMax[axis] - cMin[axis];
+                if (extent <= 0) continue;
+                float k1 = BINS * (1 - 1e-6f) / extent;
+                Arrays.fill(binCount, 0);
+                for (int i = 0; i < BINS; i++) resetBox(binBounds, i * 6);
+                for (int k = from; k < to; k++) {
+                    int t = order[k];
+                    int bin = (int) ((centroids[t * 3 + axis] - cMin[axis]) * k1);
+                    binCount[bin]++;
+                    growBox(binBounds, bin * 6, triBounds, t * 6);
+                }
+                // sweep from the right, then from the left, costing each of the BINS - 1 planes
+                float[] acc = new float[6];
+                resetBox(acc, 0);
+                int n = 0;
+                for (int i = BINS - 1; i > 0; i--) {
+                    growBox(acc, 0, binBounds, i * 6);
+                    n += binCount[i];
+                    rightCount[i] = n;
+                    rightArea[i] = n == 0 ? 0 : area(acc, 0);
+                }
+                resetBox(acc, 0);
+                n = 0;
+                for (int i = 0; i < BINS - 1; i++) {
+                    growBox(acc, 0, binBounds, i * 6);
+                    n += binCount[i];
+                    if (n == 0 || rightCount[i + 1] == 0) continue;
+                    double cost = n * area(acc, 0) + rightCount[i + 1] * rightArea[i + 1];
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestAxis = axis;
+                        bestSplit = i + 1;
+                    }
+                }
+            }
+        }
+
+        double leafCost = count;
+        double splitCost = bestAxis < 0 ? Double.POSITIVE_INFINITY
+                : TRAVERSAL_COST + bestCost / Math.max(1e-12, area(nb, o));
+        if (bestAxis < 0 || (count <= MAX_LEAF && splitCost >= leafCost)) {
+            nodeStart[node] = from;
+            nodeCount[node] = count;
+            return node;
+        }
+
+        // partition order[from..to) by bin
+        float k1 = BINS * (1 - 1e-6f) / (cMax[bestAxis] - cMin[bestAxis]);
+        int i = from, j = to - 1;
+        while (i <= j) {
+            int bin = (int) ((centroids[order[i] * 3 + bestAxis] - cMin[bestAxis]) * k1);
+            if (bin < bestSplit) {
+                i++;
+            } else {
+                int t = order[i]; order[i] = order[j]; order[j] = t;
+                j--;
+            }
+        }
+
+        nodeCount[node] = 0;
+        build(from, i);              // left child is always node + 1
+        nodeStart[node] = build(i, to);
+        return node;
+    }
+
+    private static void resetBox(float[] b, int o) {
+        b[o] = b[o + 1] = b[o + 2] = Float.POSITIVE_INFINITY;
+        b[o + 3] = b[o + 4] = b[o + 5] = Float.NEGATIVE_INFINITY;
+    }
+
+    private static void growBox(float[] b, int o, float[] src, int s) {
+        for (int a = 0; a < 3; a++) {
+            b[o + a]     = Math.min(b[o + a],     src[s + a]);
+            b[o + 3 + a] = Math.max(b[o + 3 + a], src[s + 3 + a]);
+        }
+    }
+
+    private static double area(float[] b, int o) {
+        double x = b[o + 3] - b[o], y = b[o + 4] - b[o + 1], z = b[o + 5] - b[o + 2];
+        return x * y + y * z + z * x;
+    }
+}
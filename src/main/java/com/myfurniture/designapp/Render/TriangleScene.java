@@ -0,0 +1,86 @@
+package com.myfurniture.designapp.Render;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flat triangle soup for the path tracer, in room coordinates (y up, design
+ * units). Each triangle is stored as one vertex plus two edge vectors, which
+ * is what the intersection test needs, and refers to a material by index.
+ */
+public class TriangleScene {
+
+    /** Small spherical light, e.g. the bulb of a lamp. */
+    public record SphereLight(double x, double y, double z, double radius,
+                              double r, double g, double b) { }
+
+    private float[] tris = new float[9 * 256];   // v0, e1, e2
+    private int[]   materialOf = new int[256];
+    private int     count;
+
+    private final List<SurfaceMaterial> materials = new ArrayList<>();
+    private final Map<SurfaceMaterial, Integer> materialIds = new HashMap<>();
+    private final List<SphereLight> lights = new ArrayList<>();
+
+    public int materialId(SurfaceMaterial m) {
+        return materialIds.computeIfAbsent(m, k -> {
+            materials.add(k);
+            return materials.size() - 1;
+        });
+    }
+
+    public void addTriangle(double ax, double ay, double az,
+                            double bx, double by, double bz,
+                            double cx, double cy, double cz, int material) {
+        if (count == materialOf.length) {
+            materialOf = Arrays.copyOf(materialOf, count * 2);
+            tris = Arrays.copyOf(tris, count * 2 * 9);
+        }
+        int o = count * 9;
+        tris[o]     = (float) ax;        tris[o + 1] = (float) ay;        tris[o + 2] = (float) az;
+        tris[o + 3] = (float) (bx - ax); tris[o + 4] = (float) (by - ay); tris[o + 5] = (float) (bz - az);
+        tris[o + 6] = (float) (cx - ax); tris[o + 7] = (float) (cy - ay); tris[o + 8] = (float) (cz - az);
+        materialOf[count++] = material;
+    }
+
+    public void addLight(SphereLight light) {
+        lights.add(light);
+    }
+
+    public int getTriangleCount()                { return count; }
+    public float[] getTriangles()                { return tris; }
+    public int getMaterialIndex(int triangle)    { return materialOf[triangle]; }
+    public SurfaceMaterial getMaterial(int id)   { return materials.get(id); }
+    public List<SurfaceMaterial> getMaterials()  { return materials; }
+    public List<SphereLight> getLights()         { return lights; }
+
+    /** Reorders triangles; {@code order[i]} is the old index of the new triangle i. */
+    void permute(int[] order) {
+        float[] t = new float[count * 9];
+        int[] m = new int[count];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(tris, order[i] * 9, t, i * 9, 9);
+            m[i] = materialOf[order[i]];
+        }
+        tris = t;
+        materialOf = m;
+    }
+
+    /** {minX, minY, minZ, maxX, maxY, maxZ} of all triangles. */
+    public double[] bounds() {
+        double[] b = { Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE,
+                      -Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE };
+        for (int i = 0; i < count; i++) {
+            int o = i * 9;
+            for (int k = 0; k < 3; k++) {
+                double v0 = tris[o + k], v1 = v0 + tris[o + 3 + k], v2 = v0 + tris[o + 6 + k];
+                b[k]     = Math.min(b[k],     Math.min(v0, Math.min(v1, v2)));
+                b[k + 3] = Math.max(b[k + 3], Math.max(v0, Math.max(v1, v2)));
+            }
+        }
+        return b;
+    }
+}
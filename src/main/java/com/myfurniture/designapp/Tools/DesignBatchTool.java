@@ -0,0 +1,251 @@
+package com.myfurniture.designapp.Tools;
+
+import com.myfurniture.designapp.Core.DesignIO;
+import com.myfurniture.designapp.Core.DesignValidator;
+import com.myfurniture.designapp.Export.PlanExporter;
+import com.myfurniture.designapp.Factory.FurnitureTemplate;
+import com.myfurniture.designapp.Factory.FurnitureTemplates;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless check and migration of a tree of {@code .design} files. Every file
+ * is read in one go and run through {@link DesignValidator}; problems are
+ * printed per file and counted in a summary. Optionally each readable file
+ * is written back in the current text format (only when that changes it,
+ * through a temporary file so an interrupted run leaves no half-written
+ * design), into a copy of the tree, and as a plan PNG.
+ *
+ * <p>Files are processed on a fork-join pool while the tree is still being
+ * walked, with a bounded number in flight, so memory stays flat on archives
+ * of any size. Needs no JavaFX toolkit. Exits with 1 if any file has errors
+ * (or warnings, with {@code --strict}).
+ *
+ * <pre>java -cp app.jar com.myfurniture.designapp.Tools.DesignBatchTool archive/ [--rewrite] [--out DIR] [--png DIR]</pre>
+ */
+public class DesignBatchTool {
+
+    private final ForkJoinPool pool;
+    private final DesignValidator validator = new DesignValidator(knownTypes());
+    private boolean rewrite, quiet;
+    private Path textOut, pngOut;
+    private PlanExporter exporter;
+
+    private final AtomicInteger files = new AtomicInteger(), clean = new AtomicInteger();
+    private final AtomicInteger withWarnings = new AtomicInteger(), withErrors = new AtomicInteger();
+    private final AtomicInteger rewritten = new AtomicInteger(), exported = new AtomicInteger();
+    private final AtomicLong bytes = new AtomicLong();
+
+    public DesignBatchTool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /** lower-case names of every template, looked up once rather than per item line */
+    private static Set<String> knownTypes() {
+        Set<String> types = new HashSet<>();
+        for (FurnitureTemplate t : FurnitureTemplates.getAll()) types.add(t.getName().toLowerCase(Locale.ROOT));
+        return types;
+    }
+
+    /** Writes files that read in an older form, or not exactly as the app writes them, back in place. */
+    public DesignBatchTool setRewrite(boolean rewrite) {
+        this.rewrite = rewrite;
+        return this;
+    }
+
+    /** Writes every readable file, in the current format, to the same relative path under {@code dir}. */
+    public DesignBatchTool setTextOutput(Path dir) {
+        this.textOut = dir;
+        return this;
+    }
+
+    /** Writes the plan of every readable file as a PNG under {@code dir}. */
+    public DesignBatchTool setPngOutput(Path dir, double scale) {
+        this.pngOut = dir;
+        this.exporter = new PlanExporter(pool, scale);
+        return this;
+    }
+
+    /** Prints only files with errors. */
+    public DesignBatchTool setQuiet(boolean quiet) {
+        this.quiet = quiet;
+        return this;
+    }
+
+    /** Processes every design under {@code root}; returns once all are done. */
+    public void run(Path root) throws IOException {
+        // bounds the files read but not yet processed
+        Semaphore inFlight = new Semaphore(pool.getParallelism() * 4);
+        Phaser pending = new Phaser(1);
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (!attrs.isRegularFile() || !file.getFileName().toString().endsWith(".design")) {
+                    return FileVisitResult.CONTINUE;
+                }
+                inFlight.acquireUninterruptibly();
+                pending.register();
+                pool.execute(() -> {
+                    try {
+                        process(root, file);
+                    } finally {
+                        inFlight.release();
+                        pending.arriveAndDeregister();
+                    }
+                });
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException ex) {
+                System.err.println("Could not read " + file + ": " + ex);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        pending.arriveAndAwaitAdvance();
+    }
+
+    private void process(Path root, Path file) {
+        files.incrementAndGet();
+        Path rel = root.relativize(file);
+        StringBuilder report = new StringBuilder();
+        boolean counted = false;
+        try {
+            byte[] content = Files.readAllBytes(file);
+            bytes.addAndGet(content.length);
+            DesignValidator.Result r = validator.validate(new BufferedReader(new InputStreamReader(
+                    new ByteArrayInputStream(content), StandardCharsets.UTF_8)));
+            if (r.hasErrors()) withErrors.incrementAndGet();
+            else if (!r.problems().isEmpty()) withWarnings.incrementAndGet();
+            else clean.incrementAndGet();
+            counted = true;
+            if (!quiet || r.hasErrors()) {
+                for (DesignValidator.Problem p : r.problems()) report.append(rel).append(": ").append(p).append('\n');
+            }
+
+            if (r.design() == null || r.hasErrors()) return;   // writing back would lose the bad lines
+            if (rewrite || textOut != null) {
+                ByteArrayOutputStream buf = new ByteArrayOutputStream(content.length + 64);
+                try (Writer w = new OutputStreamWriter(buf, StandardCharsets.UTF_8)) {
+                    DesignIO.write(r.design(), w);
+                }
+                byte[] text = buf.toByteArray();
+                if (rewrite && !Arrays.equals(text, content)) {
+                    replace(file, text);
+                    rewritten.incrementAndGet();
+                    if (!quiet) report.append(rel).append(": rewritten\n");
+                }
+                if (textOut != null) replace(textOut.resolve(rel.toString()), text);
+            }
+            if (pngOut != null) {
+                String name = rel.toString();
+                Path png = pngOut.resolve(name.substring(0, name.length() - ".design".length()) + ".png");
+                Files.createDirectories(png.toAbsolutePath().getParent());
+                exporter.export(r.design(), png);
+                exported.incrementAndGet();
+            }
+        } catch (IOException | RuntimeException ex) {
+            if (!counted) withErrors.incrementAndGet();
+            report.append(rel).append(": error: ").append(ex).append('\n');
+        } finally {
+            if (report.length() > 0) System.out.print(report);   // one print per file keeps reports whole
+        }
+    }
+
+    /** Writes a file through a temporary one beside it, so it is never left half written. */
+    private static void replace(Path file, byte[] content) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "design", ".tmp");
+        try {
+            Files.write(tmp, content);
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public int getFiles()        { return files.get(); }
+    public int getWithWarnings() { return withWarnings.get(); }
+    public int getWithErrors()   { return withErrors.get(); }
+
+    // ------------------- command line -------------------
+
+    public static void main(String[] args) throws IOException {
+        Path root = null, textOut = null, pngOut = null;
+        boolean rewrite = false, quiet = false, strict = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        double scale = PlanExporter.DEFAULT_SCALE;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--rewrite" -> rewrite = true;
+                    case "--out"     -> textOut = Paths.get(args[++i]);
+                    case "--png"     -> pngOut = Paths.get(args[++i]);
+                    case "--scale"   -> scale = Double.parseDouble(args[++i]);
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--quiet"   -> quiet = true;
+                    case "--strict"  -> strict = true;
+                    default -> {
+                        if (root != null) throw new IllegalArgumentException("unknown option " + args[i]);
+                        root = Paths.get(args[i]);
+                    }
+                }
+            }
+        } catch (RuntimeException ex) {
+            System.err.println(ex.getMessage());
+            root = null;
+        }
+        if (root == null || threads < 1) {
+            System.err.println("usage: DesignBatchTool <dir> [--rewrite] [--out DIR] [--png DIR [--scale S]]");
+            System.err.println("       [--threads N] [--quiet] [--strict]");
+            System.exit(2);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        DesignBatchTool tool = new DesignBatchTool(pool).setRewrite(rewrite).setQuiet(quiet);
+        if (textOut != null) tool.setTextOutput(textOut);
+        if (pngOut != null) tool.setPngOutput(pngOut, scale);
+        long t0 = System.nanoTime();
+        tool.run(root);
+        double s = (System.nanoTime() - t0) / 1e9;
+        pool.shutdown();
+
+        System.out.printf(Locale.ROOT, "%d designs (%.1f MB) in %.1f s, %.0f files/s on %d threads: "
+                        + "%d clean, %d with warnings, %d with errors%n",
+                tool.files.get(), tool.bytes.get() / 1e6, s, tool.files.get() / s, threads,
+                tool.clean.get(), tool.withWarnings.get(), tool.withErrors.get());
+        if (rewrite) System.out.println("Rewrote " + tool.rewritten.get() + " files");
+        if (pngOut != null) System.out.println("Exported " + tool.exported.get() + " plans");
+        boolean failed = tool.withErrors.get() > 0 || (strict && tool.withWarnings.get() > 0);
+        System.exit(failed ? 1 : 0);
+    }
+}
@@ -0,0 +1,268 @@
+package com.myfurniture.designapp.Tools;
+
+import com.myfurniture.designapp.Core.DesignIO;
+import com.myfurniture.designapp.Core.FurnitureItem;
+import com.myfurniture.designapp.Core.RoomDesign;
+import com.myfurniture.designapp.Factory.FurnitureTemplate;
+import com.myfurniture.designapp.Factory.FurnitureTemplates;
+import com.myfurniture.designapp.Util.SpatialHashGrid;
+import javafx.scene.paint.Color;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic designs for scale testing. The same seed, settings
+ * and item count always give the same design. Items get their template's
+ * default size give or take a fifth, colours from a seeded palette, and
+ * mostly right-angle rotations. The room is sized so furniture covers about
+ * a third of the floor, and each item tries a few spots to avoid overlapping
+ * the ones already placed. Needs no JavaFX toolkit.
+ *
+ * <pre>java -cp app.jar com.myfurniture.designapp.Tools.DesignGenerator out/ 10 1000 100000 [options]</pre>
+ */
+public class DesignGenerator {
+
+    public enum Placement {
+        /** anywhere in the room */
+        UNIFORM,
+        /** in groups of about {@link #CLUSTER_SIZE}, turned to face the group's centre */
+        CLUSTERED
+    }
+
+    /** relative frequency of the built-in types; other templates count 1 */
+    private static final Map<String, Double> DEFAULT_MIX = Map.of(
+            "Chair", 4.0, "Table", 1.0, "Bed", 0.5, "Sofa", 1.0, "Bookshelf", 1.0, "Wardrobe", 0.5,
+            "Dining Table", 0.5, "Lamp", 1.0, "TV Stand", 0.3, "Coffee Table", 0.7);
+    private static final double COVERAGE = 0.35;     // share of the floor under furniture
+    private static final int    CLUSTER_SIZE = 8;
+    private static final int    PLACEMENT_TRIES = 8;
+    private static final int    MIN_ROOM = 400;      // 10 ft
+    private static final Color[] ROOM_COLORS = {
+            Color.BEIGE, Color.LINEN, Color.LIGHTGRAY, Color.WHITESMOKE, Color.web("#E8DCCA") };
+
+    private final long seed;
+    private final Map<String, Double> mix = new LinkedHashMap<>();
+    private Placement placement = Placement.UNIFORM;
+    private int paletteSize = 12;
+    private double freeRotation = 0.1;
+
+    public DesignGenerator(long seed) {
+        this.seed = seed;
+        for (FurnitureTemplate t : FurnitureTemplates.getAll()) mix.put(t.getName(), DEFAULT_MIX.getOrDefault(t.getName(), 1.0));
+    }
+
+    public DesignGenerator setPlacement(Placement placement) {
+        this.placement = placement;
+        return this;
+    }
+
+    /**
+     * Replaces the type mix: type name to relative frequency.
+     *
+     * @throws IllegalArgumentException for a type without a template, or no positive weight
+     */
+    public DesignGenerator setTypeMix(Map<String, Double> weights) {
+        Map<String, Double> m = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> e : weights.entrySet()) {
+            FurnitureTemplate t = FurnitureTemplates.get(e.getKey());
+            if (t == null) throw new IllegalArgumentException("no furniture type " + e.getKey());
+            if (e.getValue() > 0) m.put(t.getName(), e.getValue());
+        }
+        if (m.isEmpty()) throw new IllegalArgumentException("type mix has no positive weight");
+        mix.clear();
+        mix.putAll(m);
+        return this;
+    }
+
+    /** Number of distinct colours items are painted in; 0 keeps every template's own colours. */
+    public DesignGenerator setPaletteSize(int paletteSize) {
+        this.paletteSize = paletteSize;
+        return this;
+    }
+
+    /** Share of items turned to an arbitrary angle instead of a right angle. */
+    public DesignGenerator setFreeRotation(double share) {
+        this.freeRotation = share;
+        return this;
+    }
+
+    public RoomDesign generate(int count) {
+        Random rnd = new Random(seed * 1_000_003 + count);
+        List<Color> palette = new ArrayList<>();
+        for (int i = 0; i < paletteSize; i++) {
+            palette.add(Color.hsb(rnd.nextInt(360), 0.3 + 0.4 * rnd.nextDouble(), 0.5 + 0.4 * rnd.nextDouble()));
+        }
+
+        List<FurnitureItem> items = new ArrayList<>(count);
+        double footprint = 0;
+        for (int i = 0; i < count; i++) {
+            FurnitureItem it = FurnitureTemplates.get(pickType(rnd)).createItem();
+            it.setWidth(Math.max(4, (int) Math.round(it.getWidth() * (0.8 + 0.4 * rnd.nextDouble()))));
+            it.setHeight(Math.max(4, (int) Math.round(it.getHeight() * (0.8 + 0.4 * rnd.nextDouble()))));
+            if (!palette.isEmpty()) {
+                it.setPrimaryColor(palette.get(rnd.nextInt(palette.size())));
+                it.setSecondaryColor(palette.get(rnd.nextInt(palette.size())));
+            }
+            footprint += it.getWidth() * (double) it.getHeight();
+            items.add(it);
+        }
+
+        double area = Math.max(footprint / COVERAGE, MIN_ROOM * (double) MIN_ROOM);
+        int width  = Math.max(MIN_ROOM, (int) Math.round(Math.sqrt(area * 4 / 3)));
+        int height = Math.max(MIN_ROOM, (int) Math.round(area / width));
+        RoomDesign room = new RoomDesign(width, height, ROOM_COLORS[rnd.nextInt(ROOM_COLORS.length)]);
+        Color walls = ROOM_COLORS[rnd.nextInt(ROOM_COLORS.length)];
+        room.setBackWallColor(walls);
+        room.setLeftWallColor(walls);
+        room.setRightWallColor(walls);
+
+        double meanSize = count == 0 ? 1 : Math.sqrt(footprint / count);
+        SpatialHashGrid<FurnitureItem> placed = new SpatialHashGrid<>(2 * meanSize);
+        // radius of a cluster's share of the floor
+        double spread = meanSize * Math.sqrt(CLUSTER_SIZE / COVERAGE) / 2;
+        double cx = 0, cy = 0;
+        for (int i = 0; i < count; i++) {
+            FurnitureItem it = items.get(i);
+            if (placement == Placement.CLUSTERED && i % CLUSTER_SIZE == 0) {
+                cx = spread + rnd.nextDouble() * Math.max(0, width - 2 * spread);
+                cy = spread + rnd.nextDouble() * Math.max(0, height - 2 * spread);
+            }
+            for (int attempt = 0; attempt < PLACEMENT_TRIES; attempt++) {
+                double x, y;
+                if (placement == Placement.CLUSTERED) {
+                    x = cx + rnd.nextGaussian() * spread / 2 - it.getWidth() / 2.0;
+                    y = cy + rnd.nextGaussian() * spread / 2 - it.getHeight() / 2.0;
+                } else {
+                    x = rnd.nextDouble() * (width - it.getWidth());
+                    y = rnd.nextDouble() * (height - it.getHeight());
+                }
+                it.setX((int) Math.round(clamp(x, 0, width - it.getWidth())));
+                it.setY((int) Math.round(clamp(y, 0, height - it.getHeight())));
+                it.setRotation(rotation(rnd, it, cx, cy));
+                if (!overlapsAny(placed, it)) break;
+            }
+            double[] b = bounds(it);
+            placed.insert(it, b[0], b[1], b[2], b[3]);
+            room.addFurniture(it);
+        }
+        return room;
+    }
+
+    /** Writes the design for each count to {@code dir} and returns the files. */
+    public List<Path> write(Path dir, int... counts) throws IOException {
+        Files.createDirectories(dir);
+        List<Path> files = new ArrayList<>();
+        for (int count : counts) {
+            Path file = dir.resolve(String.format(Locale.ROOT, "generated-%d-%s-s%d.design",
+                    count, placement.name().toLowerCase(Locale.ROOT), seed));
+            DesignIO.write(generate(count), file);
+            files.add(file);
+        }
+        return files;
+    }
+
+    private String pickType(Random rnd) {
+        double total = 0;
+        for (double w : mix.values()) total += w;
+        double r = rnd.nextDouble() * total;
+        String last = null;
+        for (Map.Entry<String, Double> e : mix.entrySet()) {
+            last = e.getKey();
+            r -= e.getValue();
+            if (r < 0) break;
+        }
+        return last;
+    }
+
+    private double rotation(Random rnd, FurnitureItem it, double cx, double cy) {
+        if (rnd.nextDouble() < freeRotation) return rnd.nextInt(72) * 5;
+        if (placement == Placement.CLUSTERED) {
+            // front (the plan's +y side) towards the cluster centre, snapped to a right angle
+            double dx = cx - (it.getX() + it.getWidth() / 2.0), dy = cy - (it.getY() + it.getHeight() / 2.0);
+            double a = Math.toDegrees(Math.atan2(-dx, dy));
+            return ((Math.round(a / 90) * 90) % 360 + 360) % 360;
+        }
+        return rnd.nextInt(4) * 90;
+    }
+
+    private static boolean overlapsAny(SpatialHashGrid<FurnitureItem> placed, FurnitureItem it) {
+        double[] b = bounds(it);
+        for (FurnitureItem other : placed.query(b[0], b[1], b[2], b[3])) {
+            double[] o = bounds(other);
+            if (o[0] < b[2] && b[0] < o[2] && o[1] < b[3] && b[1] < o[3]) return true;
+        }
+        return false;
+    }
+
+    /** plan bounds of the rotated footprint: minX, minY, maxX, maxY */
+    private static double[] bounds(FurnitureItem it) {
+        double a = Math.toRadians(it.getRotation());
+        double c = Math.abs(Math.cos(a)), s = Math.abs(Math.sin(a));
+        double hw = (it.getWidth() * c + it.getHeight() * s) / 2, hh = (it.getWidth() * s + it.getHeight() * c) / 2;
+        double x = it.getX() + it.getWidth() / 2.0, y = it.getY() + it.getHeight() / 2.0;
+        return new double[] {x - hw, y - hh, x + hw, y + hh};
+    }
+
+    private static double clamp(double v, double lo, double hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+
+    // ------------------- command line -------------------
+
+    public static void main(String[] args) throws IOException {
+        Path out = null;
+        List<Integer> counts = new ArrayList<>();
+        long seed = 1;
+        Placement placement = Placement.UNIFORM;
+        Map<String, Double> types = null;
+        Integer colours = null;
+        Double free = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--seed"      -> seed = Long.parseLong(args[++i]);
+                    case "--placement" -> placement = Placement.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    case "--types"     -> types = parseMix(args[++i]);
+                    case "--colours"   -> colours = Integer.parseInt(args[++i]);
+                    case "--free-rotation" -> free = Double.parseDouble(args[++i]);
+                    default -> {
+                        if (out == null) out = Paths.get(args[i]);
+                        else counts.add(Integer.parseInt(args[i]));
+                    }
+                }
+            }
+        } catch (RuntimeException ex) {
+            out = null;
+            System.err.println(ex.getMessage());
+        }
+        if (out == null || counts.isEmpty()) {
+            System.err.println("usage: DesignGenerator <outputDir> <itemCount>... [--seed N] [--placement uniform|clustered]");
+            System.err.println("       [--types Chair=4,Table=1,...] [--colours N] [--free-rotation SHARE]");
+            System.exit(2);
+        }
+        DesignGenerator g = new DesignGenerator(seed).setPlacement(placement);
+        if (types != null) g.setTypeMix(types);
+        if (colours != null) g.setPaletteSize(colours);
+        if (free != null) g.setFreeRotation(free);
+        for (Path p : g.write(out, counts.stream().mapToInt(Integer::intValue).toArray())) System.out.println("Wrote " + p);
+    }
+
+    private static Map<String, Double> parseMix(String s) {
+        Map<String, Double> m = new LinkedHashMap<>();
+        for (String entry : s.split(",")) {
+            int eq = entry.indexOf('=');
+            if (eq < 0) m.put(entry.trim(), 1.0);
+            else m.put(entry.substring(0, eq).trim(), Double.parseDouble(entry.substring(eq + 1)));
+        }
+        return m;
+    }
+}
@@ -0,0 +1,80 @@
+package com.myfurniture.designapp.Tools;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Starts the JavaFX toolkit once for a command-line tool. When Monocle is on
+ * the class path it runs on Monocle's headless glass platform with the
+ * software Prism pipeline, so no display or GPU is needed; otherwise the
+ * default platform is used, which needs a display (a virtual one will do).
+ * 3D nodes can be built either way, but the software pipeline never draws them.
+ */
+public final class HeadlessFx {
+
+    private static final String MONOCLE = "com.sun.glass.ui.monocle.MonoclePlatformFactory";
+    private static Boolean started;
+
+    private HeadlessFx() { }
+
+    /** Starts the toolkit if needed; false if it cannot start here (no display and no Monocle). */
+    public static synchronized boolean start() {
+        if (started != null) return started;
+        if (isMonocleAvailable()) {
+            System.setProperty("glass.platform", "Monocle");
+            System.setProperty("monocle.platform", "Headless");
+            System.setProperty("prism.order", "sw");
+        }
+        CountDownLatch ready = new CountDownLatch(1);
+        try {
+            Platform.startup(ready::countDown);
+        } catch (IllegalStateException alreadyRunning) {
+            ready.countDown();
+        } catch (RuntimeException | Error ex) {   // no display: UnsupportedOperationException or a glass error
+            System.err.println("Could not start JavaFX: " + ex);
+            return started = false;
+        }
+        Platform.setImplicitExit(false);
+        try {
+            ready.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+        return started = true;
+    }
+
+    private static boolean isMonocleAvailable() {
+        try {
+            Class.forName(MONOCLE, false, HeadlessFx.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException ex) {
+            return false;
+        }
+    }
+
+    /** Runs a task on the FX thread and waits for its result. */
+    public static <T> T call(Callable<T> task) {
+        if (Platform.isFxApplicationThread()) {
+            try {
+                return task.call();
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+        FutureTask<T> f = new FutureTask<>(task);
+        Platform.runLater(f);
+        try {
+            return f.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.myfurniture.designapp.Tools;
+
+import com.myfurniture.designapp.Core.DesignIO;
+import com.myfurniture.designapp.Core.DesignManager;
+import com.myfurniture.designapp.Core.RoomDesign;
+import com.myfurniture.designapp.Main.Dashboard;
+import com.myfurniture.designapp.UI.InteractionRecorder;
+import com.myfurniture.designapp.UI.InteractionRecorder.Input;
+import com.myfurniture.designapp.Util.LatencyHistogram;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.event.Event;
+import javafx.event.EventType;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.input.InputEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.PickResult;
+import javafx.scene.input.ScrollEvent;
+import javafx.stage.Stage;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Replays an {@link InteractionRecorder} session against a design in a full
+ * {@link Dashboard} and measures, per view:
+ * <ul>
+ *   <li>handler: time to dispatch each event through the view's handlers</li>
+ *   <li>frame: time from dispatch to the start of the pulse after the one that
+ *       laid the change out, by when JavaFX has rendered that pulse</li>
+ * </ul>
+ * By default events keep their recorded timing, so coalescing within a pulse
+ * behaves as it did live; {@code --asap} sends each event once the previous
+ * one's frame is done, which is steadier on loaded CI machines. Runs headless
+ * when Monocle is on the class path (see {@link HeadlessFx}). A replay fails
+ * rather than hangs if anything throws on the FX thread or it runs past a
+ * timeout.
+ *
+ * <pre>java -cp app.jar com.myfurniture.designapp.Tools.InteractionPlayer session.input room.design [--json out.json] [--fail-p99 MS] [--timeout S]</pre>
+ */
+public class InteractionPlayer {
+
+    private static final double CHROME_HEIGHT = 80;   // toolbar and tab headers above the views
+    private static final long DEFAULT_TIMEOUT_SECONDS = 600;
+
+    private record Pending(long dispatchNanos, String view) { }
+
+    private final InteractionRecorder.Recording recording;
+    private final RoomDesign design;
+    private final boolean asap;
+    private final double speed;
+    private final Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+
+    private Dashboard dashboard;
+    private final Deque<Pending> awaitingLayout = new ArrayDeque<>();
+    private final Deque<Pending> awaitingFrame = new ArrayDeque<>();
+    private int next;
+    private boolean nextQueued;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile Throwable failure;
+
+    /** @param speed replay speed relative to the recording; ignored with {@code asap} */
+    public InteractionPlayer(InteractionRecorder.Recording recording, RoomDesign design, boolean asap, double speed) {
+        this.recording = recording;
+        this.design = design;
+        this.asap = asap;
+        this.speed = speed;
+    }
+
+    /**
+     * Replays the whole session and blocks until the last event's frame is done.
+     *
+     * @return histograms by "view.handler" and "view.frame", plus "all.*" over both views
+     * @throws TimeoutException      if the replay has not finished within {@code timeoutSeconds}
+     * @throws IllegalStateException if anything threw on the FX thread during the replay
+     */
+    public Map<String, LatencyHistogram> play(long timeoutSeconds) throws InterruptedException, TimeoutException {
+        if (!HeadlessFx.start()) throw new IllegalStateException("JavaFX could not start (no display and no Monocle)");
+        for (String prefix : List.of("all", InteractionRecorder.PLAN, InteractionRecorder.VIEW_3D)) {
+            histograms.put(prefix + ".handler", new LatencyHistogram());
+            histograms.put(prefix + ".frame", new LatencyHistogram());
+        }
+        HeadlessFx.call(() -> {
+            // an exception in a handler would otherwise leave the replay waiting for good
+            Thread.currentThread().setUncaughtExceptionHandler((t, ex) -> {
+                if (failure == null) failure = ex;
+                done.countDown();
+            });
+            return null;
+        });
+        Stage stage = HeadlessFx.call(this::showDashboard);
+
+        if (!asap) {
+            Thread feeder = new Thread(this::feedRealTime, "interaction-replay");
+            feeder.setDaemon(true);
+            feeder.start();
+        }
+        if (!done.await(timeoutSeconds, TimeUnit.SECONDS)) {
+            throw new TimeoutException("replay did not finish within " + timeoutSeconds + " s, "
+                    + next + " of " + recording.inputs().size() + " events sent");
+        }
+        if (failure != null) throw new IllegalStateException("replay failed on the FX thread: " + failure, failure);
+        HeadlessFx.call(() -> {
+            stage.close();
+            return null;
+        });
+        return histograms;
+    }
+
+    private Stage showDashboard() {
+        DesignManager dm = new DesignManager();
+        dashboard = new Dashboard(dm);
+        dashboard.setSplitView(recording.split());
+        dashboard.getRoomDesigner2D().setDesign(design);
+
+        double w = 0, h = 0;
+        for (double[] size : recording.viewSizes().values()) {
+            w = recording.split() ? w + size[0] : Math.max(w, size[0]);
+            h = Math.max(h, size[1]);
+        }
+        Scene scene = new Scene(dashboard, Math.max(w, 400), Math.max(h, 300) + CHROME_HEIGHT);
+        scene.addPostLayoutPulseListener(() -> {
+            awaitingFrame.addAll(awaitingLayout);
+            awaitingLayout.clear();
+        });
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                onPulse();
+                if (done.getCount() == 0) stop();
+            }
+        }.start();
+
+        Stage stage = new Stage();
+        stage.setScene(scene);
+        stage.show();
+        dashboard.getRoomRenderer3D().finishSceneBuild();
+        if (asap) {
+            nextQueued = true;
+            Platform.runLater(this::dispatchNext);
+        }
+        return stage;
+    }
+
+    /** At the start of a pulse: everything laid out in the previous pulse has been rendered. */
+    private void onPulse() {
+        long now = System.nanoTime();
+        while (!awaitingFrame.isEmpty()) {
+            Pending p = awaitingFrame.poll();
+            histograms.get("all.frame").record(now - p.dispatchNanos());
+            histogram(p.view() + ".frame").record(now - p.dispatchNanos());
+        }
+        if (!awaitingLayout.isEmpty()) return;
+        if (next >= recording.inputs().size()) done.countDown();
+        else if (asap && !nextQueued) {
+            nextQueued = true;
+            Platform.runLater(this::dispatchNext);
+        }
+    }
+
+    private LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, k -> new LatencyHistogram());
+    }
+
+    private void feedRealTime() {
+        long start = System.nanoTime();
+        for (Input in : recording.inputs()) {
+            long due = start + (long) (in.micros() * 1000 / speed);
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+                } catch (InterruptedException ex) {
+                    return;
+                }
+            }
+            Platform.runLater(this::dispatchNext);
+        }
+    }
+
+    private void dispatchNext() {
+        nextQueued = false;
+        if (next >= recording.inputs().size()) return;
+        Input in = recording.inputs().get(next++);
+        boolean threeD = InteractionRecorder.VIEW_3D.equals(in.view());
+        if (!recording.split()) dashboard.showView(threeD);
+        Node target = threeD ? dashboard.getRoomRenderer3D() : dashboard.getRoomDesigner2D().getPlanView();
+        Event event = toEvent(in, target);
+
+        long t0 = System.nanoTime();
+        Event.fireEvent(target, event);
+        long t = System.nanoTime() - t0;
+        histograms.get("all.handler").record(t);
+        histogram(in.view() + ".handler").record(t);
+        awaitingLayout.add(new Pending(t0, in.view()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Event toEvent(Input in, Node target) {
+        Point2D scene = target.localToScene(in.x(), in.y());
+        Point2D screen = target.localToScreen(in.x(), in.y());
+        if (screen == null) screen = scene;
+        PickResult pick = new PickResult(target, scene.getX(), scene.getY());
+        if (in.kind() == InteractionRecorder.Kind.SCROLL) {
+            return new ScrollEvent(ScrollEvent.SCROLL, scene.getX(), scene.getY(), screen.getX(), screen.getY(),
+                    in.has(InteractionRecorder.SHIFT), in.has(InteractionRecorder.CONTROL),
+                    in.has(InteractionRecorder.ALT), in.has(InteractionRecorder.META), false, false,
+                    in.deltaX(), in.deltaY(), in.deltaX(), in.deltaY(),
+                    ScrollEvent.HorizontalTextScrollUnits.NONE, 0, ScrollEvent.VerticalTextScrollUnits.NONE, 0, 0, pick);
+        }
+        EventType<? extends InputEvent> type = in.kind().getEventType();
+        return new MouseEvent((EventType<? extends MouseEvent>) type, scene.getX(), scene.getY(),
+                screen.getX(), screen.getY(), in.button(), in.clicks(),
+                in.has(InteractionRecorder.SHIFT), in.has(InteractionRecorder.CONTROL),
+                in.has(InteractionRecorder.ALT), in.has(InteractionRecorder.META),
+                in.has(InteractionRecorder.PRIMARY_DOWN), in.has(InteractionRecorder.MIDDLE_DOWN),
+                in.has(InteractionRecorder.SECONDARY_DOWN), true, false,
+                in.has(InteractionRecorder.STILL_SINCE_PRESS), pick);
+    }
+
+    // ------------------- report -------------------
+
+    public static void writeJson(Map<String, LatencyHistogram> histograms, Writer out) {
+        PrintWriter pw = new PrintWriter(out);
+        pw.println("{");
+        int i = 0;
+        for (Map.Entry<String, LatencyHistogram> e : histograms.entrySet()) {
+            LatencyHistogram h = e.getValue();
+            pw.printf(Locale.ROOT, "  \"%s\": {\"count\": %d, \"p50Ms\": %.3f, \"p99Ms\": %.3f, \"maxMs\": %.3f}%s%n",
+                    e.getKey(), h.getCount(), h.getPercentile(50) / 1e6, h.getPercentile(99) / 1e6, h.getMax() / 1e6,
+                    ++i < histograms.size() ? "," : "");
+        }
+        pw.println("}");
+        pw.flush();
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Path> files = new ArrayList<>();
+        boolean asap = false;
+        double speed = 1;
+        Path json = null;
+        double failP99 = 0;
+        long timeout = DEFAULT_TIMEOUT_SECONDS;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--asap"     -> asap = true;
+                    case "--speed"    -> speed = Double.parseDouble(args[++i]);
+                    case "--json"     -> json = Paths.get(args[++i]);
+                    case "--fail-p99" -> failP99 = Double.parseDouble(args[++i]);
+                    case "--timeout"  -> timeout = Long.parseLong(args[++i]);
+                    default           -> files.add(Paths.get(args[i]));
+                }
+            }
+        } catch (RuntimeException ex) {
+            System.err.println(ex.getMessage());
+            files.clear();
+        }
+        if (files.size() != 2 || speed <= 0 || timeout <= 0) {
+            System.err.println("usage: InteractionPlayer <recording.input> <design.design> [--asap] [--speed X]");
+            System.err.println("       [--json FILE] [--fail-p99 MS]   (exit 1 if the frame p99 is above MS)");
+            System.err.println("       [--timeout S]   (exit 1 if the replay fails or takes longer, default "
+                    + DEFAULT_TIMEOUT_SECONDS + ")");
+            System.exit(2);
+        }
+
+        InteractionRecorder.Recording rec = InteractionRecorder.read(files.get(0));
+        RoomDesign design = DesignIO.read(files.get(1));
+        Map<String, LatencyHistogram> result;
+        try {
+            result = new InteractionPlayer(rec, design, asap, speed).play(timeout);
+        } catch (TimeoutException | IllegalStateException ex) {
+            System.err.println("Could not replay " + files.get(0) + ": " + ex.getMessage());
+            System.exit(1);
+            return;
+        }
+        result.forEach((name, h) -> {
+            if (h.getCount() > 0) System.out.printf("%-12s %s%n", name, h);
+        });
+        if (json != null) {
+            try (Writer w = Files.newBufferedWriter(json, StandardCharsets.UTF_8)) {
+                writeJson(result, w);
+            }
+        }
+        long p99 = result.get("all.frame").getPercentile(99);
+        boolean failed = failP99 > 0 && p99 > failP99 * 1e6;
+        if (failed) System.err.printf(Locale.ROOT, "Frame p99 %.1f ms is above %.1f ms%n", p99 / 1e6, failP99);
+        System.exit(failed ? 1 : 0);
+    }
+}
@@ -0,0 +1,337 @@
+package com.myfurniture.designapp.Tools;
+
+import com.myfurniture.designapp.Core.DesignIO;
+import com.myfurniture.designapp.Core.DesignManager;
+import com.myfurniture.designapp.Core.FurnitureItem;
+import com.myfurniture.designapp.Core.RoomDesign;
+import com.myfurniture.designapp.Export.PlanRasterizer;
+import com.myfurniture.designapp.Render.PathTracer;
+import com.myfurniture.designapp.Render.RenderCamera;
+import com.myfurniture.designapp.Render.SceneTriangulator;
+import com.myfurniture.designapp.Render.TriangleScene;
+import com.myfurniture.designapp.UI.RoomRenderer3D;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+/**
+ * Loads, draws, edits and saves designs of growing size and reports time and
+ * memory against item count, to find where the curve bends. Each design goes
+ * through these phases, timed as the median of several runs:
+ * <ul>
+ *   <li>load: {@link DesignIO#read(Path)}</li>
+ *   <li>plan: the whole plan through {@link PlanRasterizer}, at most 4096 pixels a side</li>
+ *   <li>scene: a full {@link RoomRenderer3D} scene build, progressive build forced to completion</li>
+ *   <li>trace: {@link SceneTriangulator} plus a small, few-sample {@link PathTracer} frame</li>
+ *   <li>edit: one item in a hundred moved, turned and recoloured, and its 3D node rebuilt</li>
+ *   <li>save: {@link DesignIO#write(RoomDesign, Path)}</li>
+ * </ul>
+ * The 3D phases need the JavaFX toolkit. They run headless when Monocle is on
+ * the class path (see {@link HeadlessFx}), and are skipped when the toolkit
+ * cannot start.
+ *
+ * <pre>java -cp app.jar com.myfurniture.designapp.Tools.ScalabilityHarness --generate 10,1000,100000 --csv report.csv</pre>
+ */
+public class ScalabilityHarness {
+
+    private static final int    MAX_PLAN_PIXELS = 4096;
+    private static final int    VIEW_WIDTH = 1280, VIEW_HEIGHT = 800;
+    private static final PathTracer.Settings TRACE = new PathTracer.Settings(160, 100, 4, 2, 1, false);
+    /** per-item cost growth between two sizes that counts as the knee */
+    private static final double KNEE_RATIO = 1.5;
+
+    /** One design's results; times in milliseconds, memory in MiB, NaN for a skipped phase. */
+    public record Row(String design, int items, int roomWidth, int roomHeight, long fileBytes,
+                      double loadMs, double planMs, double sceneMs, double traceMs, double editMs, double saveMs,
+                      double designMiB, double sceneMiB, double peakMiB) { }
+
+    private record Metric(String name, ToDoubleFunction<Row> value) { }
+
+    private static final List<Metric> TIMES = List.of(
+            new Metric("loadMs", Row::loadMs), new Metric("planMs", Row::planMs),
+            new Metric("sceneMs", Row::sceneMs), new Metric("traceMs", Row::traceMs),
+            new Metric("editMs", Row::editMs), new Metric("saveMs", Row::saveMs));
+
+    private final int runs;
+    private final boolean with3d;
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /** @param with3d try the 3D phases; they are skipped anyway if the toolkit cannot start */
+    public ScalabilityHarness(int runs, boolean with3d) {
+        this.runs = Math.max(1, runs);
+        this.with3d = with3d && HeadlessFx.start();
+    }
+
+    public Row measure(Path file) throws IOException {
+        resetPeaks();
+        double base = retainedMiB();
+
+        RoomDesign[] loaded = new RoomDesign[1];
+        double loadMs = time(() -> loaded[0] = DesignIO.read(file));
+        RoomDesign design = loaded[0];
+        double designMiB = retainedMiB() - base;
+
+        double scale = Math.min(1, (double) MAX_PLAN_PIXELS / Math.max(design.getRoomWidth(), design.getRoomHeight()));
+        PlanRasterizer rasterizer = new PlanRasterizer(pool);
+        double planMs = time(() -> rasterizer.render(design, scale));
+
+        double sceneMs = Double.NaN, traceMs = Double.NaN, sceneMiB = Double.NaN;
+        RoomRenderer3D renderer = null;
+        if (with3d) {
+            DesignManager dm = new DesignManager();
+            dm.setCurrentDesign(design);
+            renderer = HeadlessFx.call(() -> {
+                RoomRenderer3D r = new RoomRenderer3D(dm);
+                r.resize(VIEW_WIDTH, VIEW_HEIGHT);
+                return r;
+            });
+            RoomRenderer3D r = renderer;
+            sceneMs = time(() -> HeadlessFx.call(() -> {
+                r.updateScene();
+                r.finishSceneBuild();
+                return null;
+            }));
+            sceneMiB = retainedMiB() - base;
+            RenderCamera camera = HeadlessFx.call(r::getRenderCamera);
+            traceMs = camera == null ? Double.NaN : time(() -> {
+                TriangleScene scene = HeadlessFx.call(() -> SceneTriangulator.triangulate(design));
+                new PathTracer(scene, camera, TRACE).render(pool, null);
+            });
+        }
+
+        RoomRenderer3D r = renderer;
+        int[] edit = {0};
+        double editMs = time(() -> {
+            List<FurnitureItem> items = design.getFurniture();
+            List<FurnitureItem> edited = new ArrayList<>();
+            for (int i = edit[0]++ % 100; i < items.size(); i += 100) {
+                FurnitureItem it = items.get(i);
+                it.setX(Math.min(design.getRoomWidth() - it.getWidth(), it.getX() + 10));
+                it.setRotation((it.getRotation() + 90) % 360);
+                it.setPrimaryColor(it.getPrimaryColor().invert());
+                edited.add(it);
+            }
+            if (r != null) HeadlessFx.call(() -> {
+                for (FurnitureItem it : edited) r.refreshItem(it);
+                return null;
+            });
+        });
+
+        Path saved = Files.createTempFile("scalability", ".design");
+        try {
+            double saveMs = time(() -> DesignIO.write(design, saved));
+            return new Row(file.getFileName().toString(), design.getFurniture().size(),
+                    design.getRoomWidth(), design.getRoomHeight(), Files.size(saved),
+                    loadMs, planMs, sceneMs, traceMs, editMs, saveMs, designMiB, sceneMiB, peakMiB());
+        } finally {
+            Files.deleteIfExists(saved);
+        }
+    }
+
+    // ------------------- timing and memory -------------------
+
+    private interface Phase {
+        void run() throws Exception;
+    }
+
+    /** median wall time of the runs, in milliseconds */
+    private double time(Phase phase) throws IOException {
+        double[] ms = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            long t0 = System.nanoTime();
+            try {
+                phase.run();
+            } catch (IOException | RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+            ms[i] = (System.nanoTime() - t0) / 1e6;
+        }
+        Arrays.sort(ms);
+        return ms[runs / 2];
+    }
+
+    /** heap in use after a full collection */
+    private static double retainedMiB() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024.0 * 1024);
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream().filter(p -> p.getType() == MemoryType.HEAP).toList();
+    }
+
+    private static void resetPeaks() {
+        System.gc();
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    /** sum of the heap pools' peaks since {@link #resetPeaks}; an upper bound, as pools peak at different times */
+    private static double peakMiB() {
+        return heapPools().stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum() / (1024.0 * 1024);
+    }
+
+    // ------------------- report -------------------
+
+    /**
+     * The smallest item count at which a phase's time per item grew by
+     * {@link #KNEE_RATIO} or more over the next smaller design, or 0 if it never did.
+     */
+    public static int knee(List<Row> rows, ToDoubleFunction<Row> metric) {
+        List<Row> sorted = rows.stream().filter(r -> r.items() > 0 && !Double.isNaN(metric.applyAsDouble(r)))
+                .sorted(Comparator.comparingInt(Row::items)).toList();
+        for (int i = 1; i < sorted.size(); i++) {
+            Row a = sorted.get(i - 1), b = sorted.get(i);
+            if (b.items() == a.items()) continue;
+            double perA = metric.applyAsDouble(a) / a.items(), perB = metric.applyAsDouble(b) / b.items();
+            if (perB >= perA * KNEE_RATIO) return b.items();
+        }
+        return 0;
+    }
+
+    public static void writeCsv(List<Row> rows, Writer out) {
+        PrintWriter pw = new PrintWriter(out);
+        pw.println("design,items,roomWidth,roomHeight,fileBytes,loadMs,planMs,sceneMs,traceMs,editMs,saveMs,designMiB,sceneMiB,peakMiB");
+        for (Row r : rows) {
+            pw.println(String.join(",", r.design().contains(",") ? '"' + r.design() + '"' : r.design(),
+                    Integer.toString(r.items()), Integer.toString(r.roomWidth()), Integer.toString(r.roomHeight()),
+                    Long.toString(r.fileBytes()),
+                    num(r.loadMs()), num(r.planMs()), num(r.sceneMs()), num(r.traceMs()), num(r.editMs()), num(r.saveMs()),
+                    num(r.designMiB()), num(r.sceneMiB()), num(r.peakMiB())));
+        }
+        pw.flush();
+    }
+
+    public static void writeJson(List<Row> rows, Writer out) {
+        PrintWriter pw = new PrintWriter(out);
+        pw.println("{");
+        pw.println("  \"rows\": [");
+        for (int i = 0; i < rows.size(); i++) {
+            Row r = rows.get(i);
+            pw.printf(Locale.ROOT, "    {\"design\": \"%s\", \"items\": %d, \"roomWidth\": %d, \"roomHeight\": %d, \"fileBytes\": %d,%n",
+                    r.design().replace("\\", "\\\\").replace("\"", "\\\""),
+                    r.items(), r.roomWidth(), r.roomHeight(), r.fileBytes());
+            pw.printf("     \"loadMs\": %s, \"planMs\": %s, \"sceneMs\": %s, \"traceMs\": %s, \"editMs\": %s, \"saveMs\": %s,%n",
+                    json(r.loadMs()), json(r.planMs()), json(r.sceneMs()), json(r.traceMs()), json(r.editMs()), json(r.saveMs()));
+            pw.printf("     \"designMiB\": %s, \"sceneMiB\": %s, \"peakMiB\": %s}%s%n",
+                    json(r.designMiB()), json(r.sceneMiB()), json(r.peakMiB()), i + 1 < rows.size() ? "," : "");
+        }
+        pw.println("  ],");
+        pw.print("  \"knees\": {");
+        for (int i = 0; i < TIMES.size(); i++) {
+            int k = knee(rows, TIMES.get(i).value());
+            pw.printf("%s\"%s\": %s", i == 0 ? "" : ", ", TIMES.get(i).name(), k == 0 ? "null" : Integer.toString(k));
+        }
+        pw.println("}");
+        pw.println("}");
+        pw.flush();
+    }
+
+    private static String num(double v) {
+        return Double.isNaN(v) ? "" : String.format(Locale.ROOT, "%.3f", v);
+    }
+
+    private static String json(double v) {
+        return Double.isNaN(v) ? "null" : String.format(Locale.ROOT, "%.3f", v);
+    }
+
+    // ------------------- command line -------------------
+
+    public static void main(String[] args) throws IOException {
+        List<Path> inputs = new ArrayList<>();
+        int[] generate = null;
+        long seed = 1;
+        DesignGenerator.Placement placement = DesignGenerator.Placement.UNIFORM;
+        int runs = 3;
+        boolean with3d = true;
+        Path csv = null, json = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--generate"  -> generate = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                    case "--seed"      -> seed = Long.parseLong(args[++i]);
+                    case "--placement" -> placement = DesignGenerator.Placement.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    case "--runs"      -> runs = Integer.parseInt(args[++i]);
+                    case "--no-3d"     -> with3d = false;
+                    case "--csv"       -> csv = Paths.get(args[++i]);
+                    case "--json"      -> json = Paths.get(args[++i]);
+                    default            -> inputs.add(Paths.get(args[i]));
+                }
+            }
+        } catch (RuntimeException ex) {
+            System.err.println(ex.getMessage());
+            inputs.clear();
+            generate = null;
+        }
+        if (inputs.isEmpty() && generate == null) {
+            System.err.println("usage: ScalabilityHarness <design file or dir>... [--generate N,N,...] [--seed N]");
+            System.err.println("       [--placement uniform|clustered] [--runs N] [--no-3d] [--csv FILE] [--json FILE]");
+            System.exit(2);
+        }
+
+        List<Path> files = new ArrayList<>();
+        if (generate != null) {
+            Path dir = Files.createTempDirectory("scalability");
+            files.addAll(new DesignGenerator(seed).setPlacement(placement).write(dir, generate));
+            System.err.println("Generated designs in " + dir);
+        }
+        for (Path in : inputs) {
+            if (Files.isDirectory(in)) {
+                try (Stream<Path> s = Files.list(in)) {
+                    s.filter(p -> p.getFileName().toString().endsWith(".design")).sorted().forEach(files::add);
+                }
+            } else {
+                files.add(in);
+            }
+        }
+
+        ScalabilityHarness harness = new ScalabilityHarness(runs, with3d);
+        if (with3d && !harness.with3d) System.err.println("3D phases skipped: no display and no Monocle");
+        List<Row> rows = new ArrayList<>();
+        for (Path f : files) {
+            try {
+                Row r = harness.measure(f);
+                rows.add(r);
+                System.err.printf(Locale.ROOT, "%s: %d items, load %s ms, plan %s ms, scene %s ms, peak %s MiB%n",
+                        r.design(), r.items(), num(r.loadMs()), num(r.planMs()), num(r.sceneMs()), num(r.peakMiB()));
+            } catch (IOException | RuntimeException ex) {
+                System.err.println("Failed to measure " + f + ": " + ex);
+            }
+        }
+        rows.sort(Comparator.comparingInt(Row::items));
+
+        if (csv != null) {
+            try (Writer w = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+                writeCsv(rows, w);
+            }
+        }
+        if (json != null) {
+            try (Writer w = Files.newBufferedWriter(json, StandardCharsets.UTF_8)) {
+                writeJson(rows, w);
+            }
+        }
+        if (csv == null && json == null) writeCsv(rows, new PrintWriter(System.out));
+        for (Metric m : TIMES) {
+            int k = knee(rows, m.value());
+            if (k > 0) System.err.println("Knee in " + m.name() + " at " + k + " items");
+        }
+        System.exit(0);   // the FX toolkit, if started, keeps the JVM alive
+    }
+}
@@ -0,0 +1,134 @@
+package com.myfurniture.designapp.Tools;
+
+import com.myfurniture.designapp.Main.Launcher;
+import com.myfurniture.designapp.Main.Startup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Starts the application in fresh JVMs, with the class path and module path
+ * of this one, and reports the median time to first frame and to
+ * interactive (see {@link Startup}). With {@code --cds ARCHIVE} every run is
+ * repeated with the class-data-sharing archive, for comparison; with
+ * {@code --train ARCHIVE} one run writes that archive first.
+ *
+ * <pre>java -cp app.jar:... com.myfurniture.designapp.Tools.StartupBenchmark --runs 10 --cds target/app.jsa</pre>
+ */
+public class StartupBenchmark {
+
+    /** Milliseconds from JVM start; -1 where a run did not report. */
+    public record Run(long start, long firstFrame, long interactive, long exitMillis) { }
+
+    private final List<String> baseCommand = new ArrayList<>();
+
+    public StartupBenchmark(List<String> jvmOptions) {
+        baseCommand.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        baseCommand.addAll(jvmOptions);
+        String modulePath = System.getProperty("jdk.module.path");
+        if (modulePath != null && !modulePath.isEmpty()) {
+            baseCommand.addAll(List.of("--module-path", modulePath, "--add-modules", "ALL-MODULE-PATH"));
+        }
+        baseCommand.addAll(List.of("-cp", System.getProperty("java.class.path"),
+                "-D" + Startup.EXIT_PROPERTY + "=true"));
+    }
+
+    /** Runs the app once with extra JVM options, waiting until it exits. */
+    public Run run(List<String> extraOptions) throws IOException, InterruptedException {
+        List<String> cmd = new ArrayList<>(baseCommand);
+        cmd.addAll(1, extraOptions);
+        cmd.add(Launcher.class.getName());
+        long t0 = System.nanoTime();
+        Process p = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+        Map<String, Long> values = new LinkedHashMap<>();
+        String lastLine = "";
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String ln; (ln = br.readLine()) != null; ) {
+                if (!ln.isBlank() && !Character.isWhitespace(ln.charAt(0))) lastLine = ln;   // skip stack frames
+                if (!ln.startsWith(Startup.REPORT_PREFIX)) continue;
+                for (String kv : ln.substring(Startup.REPORT_PREFIX.length()).trim().split("\\s+")) {
+                    String[] pair = kv.split("=");
+                    if (pair.length == 2) values.put(pair[0], Long.parseLong(pair[1]));
+                }
+            }
+        }
+        int exit = p.waitFor();
+        long wall = (System.nanoTime() - t0) / 1_000_000;
+        if (exit != 0 || !values.containsKey("interactive")) {
+            throw new IOException("application exited with " + exit + " without a start-up report: " + lastLine);
+        }
+        return new Run(values.getOrDefault("start", -1L), values.getOrDefault("firstFrame", -1L),
+                values.get("interactive"), wall);
+    }
+
+    public List<Run> run(List<String> extraOptions, int runs) throws IOException, InterruptedException {
+        List<Run> result = new ArrayList<>();
+        for (int i = 0; i < runs; i++) result.add(run(extraOptions));
+        return result;
+    }
+
+    /** Writes a dynamic class-data-sharing archive from one run. */
+    public void train(Path archive) throws IOException, InterruptedException {
+        Files.deleteIfExists(archive);
+        run(List.of("-XX:ArchiveClassesAtExit=" + archive));
+        if (!Files.isRegularFile(archive)) throw new IOException("the JVM did not write " + archive);
+    }
+
+    public static String summary(String label, List<Run> runs) {
+        return String.format(Locale.ROOT, "%-8s start %5d   first frame %5d   interactive %5d   process %5d ms  (median of %d)",
+                label, median(runs, Run::start), median(runs, Run::firstFrame), median(runs, Run::interactive),
+                median(runs, Run::exitMillis), runs.size());
+    }
+
+    private static long median(List<Run> runs, ToLongFunction<Run> f) {
+        long[] v = runs.stream().mapToLong(f).sorted().toArray();
+        return v.length == 0 ? -1 : v[v.length / 2];
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = 5;
+        Path cds = null;
+        boolean train = false;
+        List<String> jvmOptions = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--runs"  -> runs = Integer.parseInt(args[++i]);
+                    case "--cds"   -> cds = Paths.get(args[++i]);
+                    case "--train" -> {
+                        cds = Paths.get(args[++i]);
+                        train = true;
+                    }
+                    case "--jvm"   -> jvmOptions.addAll(Arrays.asList(args[++i].trim().split("\\s+")));
+                    default        -> throw new IllegalArgumentException("unknown option " + args[i]);
+                }
+            }
+        } catch (RuntimeException ex) {
+            System.err.println(ex.getMessage());
+            runs = 0;
+        }
+        if (runs < 1) {
+            System.err.println("usage: StartupBenchmark [--runs N] [--cds ARCHIVE | --train ARCHIVE] [--jvm \"OPTIONS\"]");
+            System.exit(2);
+        }
+
+        StartupBenchmark bench = new StartupBenchmark(jvmOptions);
+        if (train) bench.train(cds);
+        System.out.println(summary("default", bench.run(List.of(), runs)));
+        if (cds != null) {
+            System.out.println(summary("appcds", bench.run(List.of("-XX:SharedArchiveFile=" + cds, "-Xshare:auto"), runs)));
+        }
+    }
+}
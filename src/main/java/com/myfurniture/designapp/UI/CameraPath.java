@@ -0,0 +1,76 @@
+package com.myfurniture.designapp.UI;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keyframed camera path. Between keyframes every pose component follows a
+ * cubic Hermite spline whose tangents are Catmull-Rom style central
+ * differences over time, so the camera moves smoothly through each keyframe
+ * even when keyframes are unevenly spaced.
+ */
+public class CameraPath {
+
+    /** A pose the camera passes through at a given time, in seconds. */
+    public record Keyframe(double time, CameraPose pose) { }
+
+    private final List<Keyframe> keyframes = new ArrayList<>();
+
+    /** Adds a keyframe, keeping the list ordered by time; an equal time replaces. */
+    public void add(double time, CameraPose pose) {
+        keyframes.removeIf(k -> k.time() == time);
+        keyframes.add(new Keyframe(time, pose));
+        keyframes.sort((a, b) -> Double.compare(a.time(), b.time()));
+    }
+
+    public void clear() {
+        keyframes.clear();
+    }
+
+    public List<Keyframe> getKeyframes() {
+        return Collections.unmodifiableList(keyframes);
+    }
+
+    public int size() {
+        return keyframes.size();
+    }
+
+    public double getDuration() {
+        return keyframes.isEmpty() ? 0 : keyframes.get(keyframes.size() - 1).time() - keyframes.get(0).time();
+    }
+
+    public double getStartTime() {
+        return keyframes.isEmpty() ? 0 : keyframes.get(0).time();
+    }
+
+    /** Pose at a time; clamps to the first and last keyframe outside the path. */
+    public CameraPose sample(double time) {
+        int n = keyframes.size();
+        if (n == 0) throw new IllegalStateException("empty camera path");
+        if (n == 1 || time <= keyframes.get(0).time()) return keyframes.get(0).pose();
+        if (time >= keyframes.get(n - 1).time()) return keyframes.get(n - 1).pose();
+
+        int i = 0;
+        while (keyframes.get(i + 1).time() < time) i++;
+        Keyframe k0 = keyframes.get(i), k1 = keyframes.get(i + 1);
+        double dt = k1.time() - k0.time();
+        double s = (time - k0.time()) / dt, s2 = s * s, s3 = s2 * s;
+        double h00 = 2 * s3 - 3 * s2 + 1, h10 = s3 - 2 * s2 + s;
+        double h01 = -2 * s3 + 3 * s2,    h11 = s3 - s2;
+
+        double[] out = new double[CameraPose.COMPONENTS];
+        for (int c = 0; c < out.length; c++) {
+            out[c] = h00 * k0.pose().component(c) + h10 * dt * tangent(i, c)
+                   + h01 * k1.pose().component(c) + h11 * dt * tangent(i + 1, c);
+        }
+        return CameraPose.of(out);
+    }
+
+    /** d(component)/dt at keyframe i: central difference inside, one-sided at the ends. */
+    private double tangent(int i, int c) {
+        int a = Math.max(0, i - 1), b = Math.min(keyframes.size() - 1, i + 1);
+        Keyframe ka = keyframes.get(a), kb = keyframes.get(b);
+        return (kb.pose().component(c) - ka.pose().component(c)) / (kb.time() - ka.time());
+    }
+}
@@ -0,0 +1,28 @@
+package com.myfurniture.designapp.UI;
+
+/**
+ * Where the orbit camera is: the point it orbits (in the 3D view's world
+ * coordinates), yaw and pitch in degrees, distance from the target and the
+ * vertical field of view. Yaw is not wrapped, so a path can spin several turns.
+ */
+public record CameraPose(double targetX, double targetY, double targetZ,
+                         double yaw, double pitch, double distance, double fieldOfView) {
+
+    static final int COMPONENTS = 7;
+
+    double component(int i) {
+        return switch (i) {
+            case 0 -> targetX;
+            case 1 -> targetY;
+            case 2 -> targetZ;
+            case 3 -> yaw;
+            case 4 -> pitch;
+            case 5 -> distance;
+            default -> fieldOfView;
+        };
+    }
+
+    static CameraPose of(double[] c) {
+        return new CameraPose(c[0], c[1], c[2], c[3], c[4], c[5], c[6]);
+    }
+}
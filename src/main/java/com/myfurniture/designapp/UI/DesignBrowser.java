@@ -0,0 +1,208 @@
+package com.myfurniture.designapp.UI;
+
+import com.myfurniture.designapp.Core.RoomDesign;
+import com.myfurniture.designapp.Factory.FurnitureTemplate;
+import com.myfurniture.designapp.Factory.FurnitureTemplates;
+import com.myfurniture.designapp.Library.DesignInfo;
+import com.myfurniture.designapp.Library.DesignLibrary;
+import com.myfurniture.designapp.Library.ThumbnailCache;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Window listing the designs of a {@link DesignLibrary} with thumbnails,
+ * filtered as you type. Only the rows on screen ask for thumbnails, and a row
+ * scrolled away cancels its request, so a folder of thousands of designs is
+ * browsable at once while thumbnails fill in around what is being looked at.
+ * Double-click or Enter opens a design.
+ */
+public class DesignBrowser extends Stage {
+
+    private static final String ANY_TYPE = "Any type";
+
+    private final ThumbnailCache thumbnails = ThumbnailCache.createDefault();
+    private final Consumer<RoomDesign> onOpen;
+    private final ListView<DesignInfo> list = new ListView<>();
+    private final TextField nameField = new TextField();
+    private final ComboBox<String> typeBox = new ComboBox<>();
+    private final CheckBox threeD = new CheckBox("3D thumbnails");
+    private final Label status = new Label("Choose a folder");
+    private DesignLibrary library;
+    private final Runnable onLibraryChanged = () -> Platform.runLater(this::refresh);
+
+    /** @param onOpen called with a design chosen to open */
+    public DesignBrowser(Window owner, Consumer<RoomDesign> onOpen) {
+        this.onOpen = onOpen;
+        initOwner(owner);
+        setTitle("Design Library");
+
+        Button folder = new Button("Folder…");
+        folder.setOnAction(e -> chooseFolder());
+        nameField.setPromptText("Search by name");
+        nameField.textProperty().addListener((o, was, now) -> refresh());
+        typeBox.getItems().add(ANY_TYPE);
+        for (FurnitureTemplate t : FurnitureTemplates.getAll()) typeBox.getItems().add(t.getName());
+        typeBox.setValue(ANY_TYPE);
+        typeBox.setOnAction(e -> refresh());
+        threeD.setOnAction(e -> list.refresh());
+        HBox bar = new HBox(8, folder, nameField, typeBox, threeD);
+        bar.setAlignment(Pos.CENTER_LEFT);
+        bar.setPadding(new Insets(8));
+
+        list.setCellFactory(v -> new DesignCell());
+        list.setFixedCellSize(ThumbnailCache.SIZE + 12);
+        list.setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2) openSelected();
+        });
+        list.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.ENTER) openSelected();
+        });
+
+        HBox bottom = new HBox(status);
+        bottom.setPadding(new Insets(4, 8, 4, 8));
+        BorderPane root = new BorderPane(list);
+        root.setTop(bar);
+        root.setBottom(bottom);
+        setScene(new Scene(root, 720, 800));
+        setOnShown(e -> {
+            if (library == null) chooseFolder();
+        });
+        setOnHidden(e -> {
+            if (library != null) library.close();
+            thumbnails.close();
+        });
+    }
+
+    private void chooseFolder() {
+        DirectoryChooser ch = new DirectoryChooser();
+        ch.setTitle("Design Folder");
+        if (library != null) ch.setInitialDirectory(library.getRoot().toFile());
+        File dir = ch.showDialog(this);
+        if (dir != null) setRoot(dir.toPath());
+    }
+
+    /** Shows the designs under a folder: from the saved index at once, then kept current. */
+    public void setRoot(Path dir) {
+        if (library != null) {
+            library.removeListener(onLibraryChanged);
+            library.close();
+        }
+        DesignLibrary lib = DesignLibrary.forDirectory(dir);
+        library = lib;
+        lib.addListener(onLibraryChanged);
+        refresh();
+        status.setText(lib.size() + " designs, checking for changes…");
+        Thread t = new Thread(() -> {
+            try {
+                lib.startWatching();
+            } catch (IOException ex) {
+                System.err.println("Could not watch " + dir + ": " + ex);
+            }
+            Platform.runLater(this::refresh);
+        }, "design-library-scan");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** The folder shown, or null before one is chosen. */
+    public Path getRoot() {
+        return library != null ? library.getRoot() : null;
+    }
+
+    private void refresh() {
+        if (library == null) return;
+        DesignLibrary.Query q = new DesignLibrary.Query().name(nameField.getText());
+        if (typeBox.getValue() != null && !ANY_TYPE.equals(typeBox.getValue())) q.containing(typeBox.getValue(), 1);
+        List<DesignInfo> found = library.search(q);
+        DesignInfo selected = list.getSelectionModel().getSelectedItem();
+        list.getItems().setAll(found);
+        if (selected != null) list.getSelectionModel().select(library.get(selected.file()));
+        status.setText(found.size() + " of " + library.size() + " designs in " + library.getRoot());
+    }
+
+    private void openSelected() {
+        DesignInfo d = list.getSelectionModel().getSelectedItem();
+        if (d == null) return;
+        try {
+            onOpen.accept(library.open(d.file()));
+        } catch (IOException | RuntimeException ex) {
+            Alert a = new Alert(Alert.AlertType.ERROR, "Could not open " + d.getName() + ": " + ex.getMessage());
+            a.initOwner(this);
+            a.showAndWait();
+        }
+    }
+
+    private DesignLibrary getLibrary() {
+        return library;
+    }
+
+    /** Row with a thumbnail that is requested while the row shows its design. */
+    private class DesignCell extends ListCell<DesignInfo> {
+        private final ImageView image = new ImageView();
+        private final Label name = new Label(), details = new Label();
+        private final HBox box;
+        private ThumbnailCache.Request pending;
+
+        DesignCell() {
+            StackPane frame = new StackPane(image);
+            frame.setPrefSize(ThumbnailCache.SIZE, ThumbnailCache.SIZE);
+            frame.setMinSize(ThumbnailCache.SIZE, ThumbnailCache.SIZE);
+            name.setStyle("-fx-font-weight:bold;");
+            box = new HBox(12, frame, new VBox(4, name, details));
+            box.setAlignment(Pos.CENTER_LEFT);
+        }
+
+        @Override
+        protected void updateItem(DesignInfo d, boolean empty) {
+            super.updateItem(d, empty);
+            if (pending != null) {
+                pending.cancel();       // this row now shows another design, or none
+                pending = null;
+            }
+            image.setImage(null);
+            if (empty || d == null) {
+                setGraphic(null);
+                return;
+            }
+            name.setText(getLibrary().getRoot().relativize(d.file()).toString());
+            details.setText(d.roomWidth() + " × " + d.roomHeight() + ",  " + d.getItemCount() + " items\n"
+                    + DateFormat.getDateTimeInstance().format(new Date(d.modified())));
+            setGraphic(box);
+            ThumbnailCache.Kind kind = threeD.isSelected() ? ThumbnailCache.Kind.VIEW_3D : ThumbnailCache.Kind.PLAN;
+            pending = thumbnails.request(d, kind, png -> Platform.runLater(() -> {
+                if (getItem() != d) return;
+                // decoded in the background; the cell shows it when done
+                image.setImage(new Image(png.toUri().toString(), ThumbnailCache.SIZE, ThumbnailCache.SIZE,
+                        true, true, true));
+            }));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.myfurniture.designapp.UI;
+
+import com.myfurniture.designapp.Export.PngEncoder;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.scene.PerspectiveCamera;
+import javafx.scene.SubScene;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.transform.Affine;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Renders a camera path to numbered PNGs ({@code frame_00000.png}, …) at a
+ * fixed frame rate. Frame i shows the path at {@code start + i / fps}, so the
+ * result does not depend on how fast frames render.
+ *
+ * <p>Snapshots run on the FX thread, one frame per pulse. Encoding and writing
+ * run on a worker pool; at most two frames per worker are in flight, so a slow
+ * disk holds back rendering instead of filling the heap.
+ */
+class FrameSequenceExport extends Task<Integer> {
+
+    private final SubScene view;
+    private final PerspectiveCamera source;
+    private final PerspectiveCamera frameCamera = new PerspectiveCamera(true);
+    private final CameraPath path;
+    private final Consumer<CameraPose> applyPose;
+    private final double fps;
+    private final int width, height;
+    private final File dir;
+
+    /**
+     * @param view      off-screen sub scene holding the scene to render
+     * @param camera    the interactive camera; {@code applyPose} moves it
+     * @param applyPose called on the FX thread to move the camera and update
+     *                  anything that follows it (sun, lamp lights)
+     */
+    FrameSequenceExport(SubScene view, PerspectiveCamera camera, CameraPath path,
+                        Consumer<CameraPose> applyPose, double fps, int width, int height, File dir) {
+        this.view = view;
+        this.source = camera;
+        this.path = path;
+        this.applyPose = applyPose;
+        this.fps = fps;
+        this.width = width;
+        this.height = height;
+        this.dir = dir;
+
+        frameCamera.setNearClip(camera.getNearClip());
+        frameCamera.setFarClip(camera.getFarClip());
+        frameCamera.setVerticalFieldOfView(camera.isVerticalFieldOfView());
+        view.setCamera(frameCamera);
+        view.setWidth(width);
+        view.setHeight(height);
+    }
+
+    /** Number of frames the path gives at this frame rate, both ends included. */
+    static int frameCount(CameraPath path, double fps) {
+        return (int) Math.floor(path.getDuration() * fps + 1e-9) + 1;
+    }
+
+    @Override
+    protected Integer call() throws Exception {
+        int frames = frameCount(path, fps);
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        ForkJoinPool encoders = new ForkJoinPool(workers);
+        Semaphore inFlight = new Semaphore(2 * workers);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Files.createDirectories(dir.toPath());
+
+        try {
+            for (int i = 0; i < frames; i++) {
+                if (isCancelled()) return null;
+                if (error.get() != null) break;
+                CameraPose pose = path.sample(path.getStartTime() + i / fps);
+                int[] argb = new int[width * height];
+                inFlight.acquire();
+                onFxThread(() -> renderFrame(pose, argb));
+
+                File file = new File(dir, String.format("frame_%05d.png", i));
+                encoders.execute(() -> {
+                    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file.toPath()))) {
+                        if (error.get() == null) PngEncoder.write(argb, width, height, out, encoders);
+                    } catch (Throwable t) {
+                        error.compareAndSet(null, t);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+                updateProgress(i + 1, frames);
+                updateMessage("Rendering frame " + (i + 1) + " of " + frames);
+            }
+            updateMessage("Writing last frames…");
+            inFlight.acquire(2 * workers);      // every encode has finished
+        } finally {
+            encoders.shutdown();
+            encoders.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        Throwable t = error.get();
+        if (t instanceof Exception ex) throw ex;
+        if (t != null) throw new RuntimeException(t);
+        updateMessage("Saved " + frames + " frames");
+        return frames;
+    }
+
+    /** Runs on the FX thread: poses the camera and copies one frame into argb. */
+    private void renderFrame(CameraPose pose, int[] argb) {
+        applyPose.accept(pose);
+        frameCamera.setFieldOfView(source.getFieldOfView());
+        frameCamera.getTransforms().setAll(new Affine(source.getLocalToParentTransform()));
+        WritableImage img = view.snapshot(null, null);
+        img.getPixelReader().getPixels(0, 0, width, height,
+                PixelFormat.getIntArgbInstance(), argb, 0, width);
+    }
+
+    private static void onFxThread(Runnable r) throws Exception {
+        FutureTask<Void> f = new FutureTask<>(r, null);
+        Platform.runLater(f);
+        f.get();
+    }
+}
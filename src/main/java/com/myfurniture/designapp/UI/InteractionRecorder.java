@@ -0,0 +1,186 @@
+package com.myfurniture.designapp.UI;
+
+import javafx.event.EventHandler;
+import javafx.event.EventType;
+import javafx.scene.Node;
+import javafx.scene.input.InputEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records the mouse and scroll input of the plan and 3D views with its
+ * timing, for replay by {@code Tools.InteractionPlayer}. Filters see every
+ * event, including those a handler consumes. Recordings are text:
+ * <pre>
+ * # interaction recording 1
+ * layout split|tabs
+ * view NAME WIDTH HEIGHT                               (one per view)
+ * MICROS VIEW KIND X Y BUTTON CLICKS FLAGS DX DY       (one per event)
+ * </pre>
+ * X and Y are in the view's local coordinates; DX and DY are scroll deltas.
+ */
+public class InteractionRecorder {
+
+    public static final String PLAN = "plan", VIEW_3D = "3d";
+    private static final String HEADER = "# interaction recording 1";
+
+    public enum Kind {
+        PRESSED(MouseEvent.MOUSE_PRESSED), DRAGGED(MouseEvent.MOUSE_DRAGGED), RELEASED(MouseEvent.MOUSE_RELEASED),
+        CLICKED(MouseEvent.MOUSE_CLICKED), MOVED(MouseEvent.MOUSE_MOVED), SCROLL(ScrollEvent.SCROLL);
+
+        private final EventType<? extends InputEvent> type;
+
+        Kind(EventType<? extends InputEvent> type) {
+            this.type = type;
+        }
+
+        public EventType<? extends InputEvent> getEventType() {
+            return type;
+        }
+
+        static Kind of(EventType<?> type) {
+            for (Kind k : values()) if (k.type == type) return k;
+            return null;
+        }
+    }
+
+    // FLAGS bits
+    public static final int SHIFT = 1, CONTROL = 2, ALT = 4, META = 8, PRIMARY_DOWN = 16, SECONDARY_DOWN = 32,
+            MIDDLE_DOWN = 64, STILL_SINCE_PRESS = 128;
+
+    /** One recorded event; micros counts from the start of the recording. */
+    public record Input(long micros, String view, Kind kind, double x, double y, MouseButton button,
+                        int clicks, int flags, double deltaX, double deltaY) {
+
+        public boolean has(int flag) {
+            return (flags & flag) != 0;
+        }
+    }
+
+    /** @param viewSizes width and height of each view when recording started */
+    public record Recording(boolean split, Map<String, double[]> viewSizes, List<Input> inputs) {
+
+        public long getDurationMicros() {
+            return inputs.isEmpty() ? 0 : inputs.get(inputs.size() - 1).micros();
+        }
+    }
+
+    private final Map<String, Node> views = new LinkedHashMap<>();
+    private final Map<String, EventHandler<InputEvent>> filters = new LinkedHashMap<>();
+    private final List<Input> inputs = new ArrayList<>();
+    private boolean split;
+    private long startNanos = -1;
+
+    /** Adds a view to record from; takes effect with the next {@link #start}. */
+    public void attach(String name, Node view) {
+        views.put(name, view);
+    }
+
+    public boolean isRecording() {
+        return startNanos >= 0;
+    }
+
+    /** @param split whether both views are shown side by side */
+    public void start(boolean split) {
+        if (isRecording()) stop();
+        this.split = split;
+        inputs.clear();
+        startNanos = System.nanoTime();
+        views.forEach((name, node) -> {
+            EventHandler<InputEvent> f = e -> record(name, e);
+            node.addEventFilter(InputEvent.ANY, f);
+            filters.put(name, f);
+        });
+    }
+
+    public Recording stop() {
+        Map<String, double[]> sizes = new LinkedHashMap<>();
+        views.forEach((name, node) -> {
+            EventHandler<InputEvent> f = filters.remove(name);
+            if (f != null) node.removeEventFilter(InputEvent.ANY, f);
+            sizes.put(name, new double[] {node.getLayoutBounds().getWidth(), node.getLayoutBounds().getHeight()});
+        });
+        startNanos = -1;
+        return new Recording(split, sizes, List.copyOf(inputs));
+    }
+
+    private void record(String view, InputEvent e) {
+        Kind kind = Kind.of(e.getEventType());
+        if (kind == null) return;
+        long micros = (System.nanoTime() - startNanos) / 1000;
+        if (e instanceof ScrollEvent s) {
+            inputs.add(new Input(micros, view, kind, s.getX(), s.getY(), MouseButton.NONE, 0,
+                    modifiers(s.isShiftDown(), s.isControlDown(), s.isAltDown(), s.isMetaDown()),
+                    s.getDeltaX(), s.getDeltaY()));
+        } else if (e instanceof MouseEvent m) {
+            int flags = modifiers(m.isShiftDown(), m.isControlDown(), m.isAltDown(), m.isMetaDown())
+                    | (m.isPrimaryButtonDown() ? PRIMARY_DOWN : 0) | (m.isSecondaryButtonDown() ? SECONDARY_DOWN : 0)
+                    | (m.isMiddleButtonDown() ? MIDDLE_DOWN : 0) | (m.isStillSincePress() ? STILL_SINCE_PRESS : 0);
+            inputs.add(new Input(micros, view, kind, m.getX(), m.getY(), m.getButton(), m.getClickCount(), flags, 0, 0));
+        }
+    }
+
+    private static int modifiers(boolean shift, boolean control, boolean alt, boolean meta) {
+        return (shift ? SHIFT : 0) | (control ? CONTROL : 0) | (alt ? ALT : 0) | (meta ? META : 0);
+    }
+
+    // ------------------- file format -------------------
+
+    public static void write(Recording r, Path file) throws IOException {
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            PrintWriter pw = new PrintWriter(w);
+            pw.println(HEADER);
+            pw.println("layout " + (r.split() ? "split" : "tabs"));
+            r.viewSizes().forEach((name, size) -> pw.printf(Locale.ROOT, "view %s %.0f %.0f%n", name, size[0], size[1]));
+            for (Input in : r.inputs()) {
+                pw.printf(Locale.ROOT, "%d %s %s %.2f %.2f %s %d %d %.2f %.2f%n",
+                        in.micros(), in.view(), in.kind(), in.x(), in.y(), in.button(),
+                        in.clicks(), in.flags(), in.deltaX(), in.deltaY());
+            }
+            pw.flush();
+            if (pw.checkError()) throw new IOException("write failed");
+        }
+    }
+
+    public static Recording read(Path file) throws IOException {
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(br.readLine())) throw new IOException(file + ": not an interaction recording");
+            boolean split = false;
+            Map<String, double[]> sizes = new LinkedHashMap<>();
+            List<Input> inputs = new ArrayList<>();
+            int lineNo = 1;
+            for (String ln; (ln = br.readLine()) != null; ) {
+                lineNo++;
+                if (ln.isBlank() || ln.startsWith("#")) continue;
+                String[] p = ln.trim().split("\\s+");
+                try {
+                    switch (p[0]) {
+                        case "layout" -> split = "split".equals(p[1]);
+                        case "view"   -> sizes.put(p[1], new double[] {Double.parseDouble(p[2]), Double.parseDouble(p[3])});
+                        default       -> inputs.add(new Input(Long.parseLong(p[0]), p[1], Kind.valueOf(p[2]),
+                                Double.parseDouble(p[3]), Double.parseDouble(p[4]), MouseButton.valueOf(p[5]),
+                                Integer.parseInt(p[6]), Integer.parseInt(p[7]),
+                                Double.parseDouble(p[8]), Double.parseDouble(p[9])));
+                    }
+                } catch (RuntimeException ex) {
+                    throw new IOException(file + ":" + lineNo + ": bad line \"" + ln + "\"");
+                }
+            }
+            return new Recording(split, sizes, inputs);
+        }
+    }
+}
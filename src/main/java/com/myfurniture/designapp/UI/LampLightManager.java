@@ -0,0 +1,186 @@
+package com.myfurniture.designapp.UI;
+
+import com.myfurniture.designapp.Core.FurnitureItem;
+import com.myfurniture.designapp.Factory.Furniture3DFactory;
+import com.myfurniture.designapp.Util.SpatialHashGrid;
+import javafx.geometry.Point3D;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.PointLight;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Turns lamp items into real point lights. Only a small pool of lights exists;
+ * each update the most relevant lamps for the current eye position get one, and
+ * every light is scoped to the furniture around it so no mesh is shaded by more
+ * than {@value #MAX_LIGHTS_PER_NODE} lamps.
+ */
+public class LampLightManager {
+
+    /** lamps lighting one furniture node at most (the sun comes on top) */
+    public static final int MAX_LIGHTS_PER_NODE = 2;
+
+    private static final double CELL_SIZE = 200;
+
+    private final Group lightGroup = new Group();
+    private final PointLight[] pool;
+
+    private final SpatialHashGrid<FurnitureItem> lampIndex      = new SpatialHashGrid<>(CELL_SIZE);
+    private final SpatialHashGrid<FurnitureItem> furnitureIndex = new SpatialHashGrid<>(CELL_SIZE);
+    private double searchLimit = CELL_SIZE;
+
+    private double  worldScale = 1;
+    private boolean evening;
+    private boolean dirty = true;
+    private Point3D lastEye;
+
+    public LampLightManager(int maxLights) {
+        pool = new PointLight[maxLights];
+        for (int i = 0; i < maxLights; i++) {
+            pool[i] = new PointLight();
+            pool[i].setLightOn(false);
+        }
+        lightGroup.getChildren().addAll(pool);
+    }
+
+    /** group holding the pooled lights; add it to the group the design is built in */
+    public Group getLightGroup() {
+        return lightGroup;
+    }
+
+    /** scale from design units to world units, used for light range and fall-off */
+    public void setWorldScale(double worldScale) {
+        this.worldScale = worldScale;
+        dirty = true;
+    }
+
+    /** evening lamps are bright; by day they only add a warm touch */
+    public void setEvening(boolean evening) {
+        this.evening = evening;
+        dirty = true;
+    }
+
+    /** Re-indexes all items of a design. */
+    public void setItems(List<FurnitureItem> items) {
+        lampIndex.clear();
+        furnitureIndex.clear();
+        searchLimit = CELL_SIZE;
+        for (FurnitureItem it : items) itemMoved(it);
+        dirty = true;
+    }
+
+    /** Updates the indexes for one item that moved or changed. */
+    public void itemMoved(FurnitureItem it) {
+        furnitureIndex.insert(it, it.getX(), it.getY(),
+                it.getX() + it.getWidth(), it.getY() + it.getHeight());
+        if (Furniture3DFactory.isLightSource(it)) {
+            Point3D p = Furniture3DFactory.lampLightPosition(it);
+            lampIndex.insert(it, p.getX(), p.getZ(), p.getX(), p.getZ());
+            searchLimit = Math.max(searchLimit,
+                    Math.max(Math.abs(p.getX()), Math.abs(p.getZ())) * 2 + CELL_SIZE);
+        }
+        dirty = true;
+    }
+
+    /** Nodes were added or replaced; scopes must be recomputed. */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * Picks the lamps that matter for this eye position and re-scopes the lights.
+     * Cheap when nothing changed and the eye barely moved.
+     *
+     * @param eye    eye position in design coordinates
+     * @param nodeOf furniture node of an item, or null if it is not built yet
+     * @param room   walls and floor, lit by the most relevant lamps
+     */
+    public void update(Point3D eye, Function<FurnitureItem, Node> nodeOf, Node room) {
+        if (!dirty && lastEye != null && lastEye.distance(eye) < CELL_SIZE / 4) return;
+        dirty = false;
+        lastEye = eye;
+
+        List<FurnitureItem> chosen = pickRelevantLamps(eye);
+
+        Map<Node, Integer> lightsPerNode = new IdentityHashMap<>();
+        for (int i = 0; i < pool.length; i++) {
+            PointLight light = pool[i];
+            light.getScope().clear();
+            if (i >= chosen.size()) {
+                light.setLightOn(false);
+                continue;
+            }
+            FurnitureItem lamp = chosen.get(i);
+            Point3D p = Furniture3DFactory.lampLightPosition(lamp);
+            double r = Furniture3DFactory.lampInfluenceRadius(lamp);
+
+            List<Node> scope = new ArrayList<>();
+            if (room != null && i < MAX_LIGHTS_PER_NODE) scope.add(room);
+            furnitureIndex.query(p.getX() - r, p.getZ() - r, p.getX() + r, p.getZ() + r, it -> {
+                Node n = nodeOf.apply(it);
+                if (n == null) return;
+                int count = lightsPerNode.getOrDefault(n, 0);
+                if (count >= MAX_LIGHTS_PER_NODE) return;
+                lightsPerNode.put(n, count + 1);
+                scope.add(n);
+            });
+            // an empty scope would light the whole scene
+            if (scope.isEmpty()) {
+                light.setLightOn(false);
+                continue;
+            }
+
+            double range = r * worldScale;
+            light.setTranslateX(p.getX());
+            light.setTranslateY(p.getY());
+            light.setTranslateZ(p.getZ());
+            light.setMaxRange(range);
+            light.setConstantAttenuation(1);
+            light.setLinearAttenuation(0);
+            light.setQuadraticAttenuation(9 / (range * range)); // ~10% left at the edge
+            light.setColor(lampColor(lamp));
+            light.getScope().setAll(scope);
+            light.setLightOn(true);
+        }
+    }
+
+    /**
+     * Lamps ranked by relevance: influence radius against distance to the eye.
+     * The search ring around the eye grows until enough candidates are found.
+     */
+    private List<FurnitureItem> pickRelevantLamps(Point3D eye) {
+        List<FurnitureItem> candidates = new ArrayList<>();
+        if (lampIndex.size() == 0) return candidates;
+
+        double reach = CELL_SIZE * 2;
+        while (true) {
+            candidates.clear();
+            lampIndex.query(eye.getX() - reach, eye.getZ() - reach,
+                            eye.getX() + reach, eye.getZ() + reach, candidates::add);
+            if (candidates.size() >= pool.length * 2 || candidates.size() == lampIndex.size()
+                    || reach > searchLimit + Math.abs(eye.getX()) + Math.abs(eye.getZ())) break;
+            reach *= 2;
+        }
+
+        candidates.sort((a, b) -> Double.compare(relevance(b, eye), relevance(a, eye)));
+        return candidates.size() > pool.length ? candidates.subList(0, pool.length) : candidates;
+    }
+
+    private static double relevance(FurnitureItem lamp, Point3D eye) {
+        double r = Furniture3DFactory.lampInfluenceRadius(lamp);
+        double d = Furniture3DFactory.lampLightPosition(lamp).distance(eye);
+        return r * r / (d * d + r * r);
+    }
+
+    private Color lampColor(FurnitureItem lamp) {
+        Color warm = lamp.getPrimaryColor().interpolate(Color.rgb(255, 236, 200), 0.6);
+        double k = evening ? 1.0 : 0.35;
+        return Color.color(warm.getRed() * k, warm.getGreen() * k, warm.getBlue() * k);
+    }
+}
@@ -8,6 +8,7 @@ import javafx.scene.transform.Translate;
 
 public class OrbitCameraController {
 
+    private final Translate target = new Translate(0, 0, 0);
     private final Rotate rotateX = new Rotate(-25, Rotate.X_AXIS);
     private final Rotate rotateY = new Rotate(0,   Rotate.Y_AXIS);
     private final Translate translate = new Translate(0, 0, -1400);
@@ -27,12 +28,39 @@ public class OrbitCameraController {
     private static final double ZOOM_MAX          = -500;
 
     private long lastTime = 0;
+    private final PerspectiveCamera camera;
 
     public OrbitCameraController(PerspectiveCamera camera, Group pivotGroup) {
-        camera.getTransforms().addAll(rotateY, rotateX, translate);
+        this.camera = camera;
+        camera.getTransforms().addAll(target, rotateY, rotateX, translate);
         startAnimationLoop();
     }
 
+    /** Current view: orbit target, angles, distance and field of view. */
+    public CameraPose getPose() {
+        return new CameraPose(target.getX(), target.getY(), target.getZ(),
+                rotateY.getAngle(), rotateX.getAngle(), -translate.getZ(),
+                camera.getFieldOfView());
+    }
+
+    /** Jumps to a pose as is (no clamping) and stops any coasting rotation. */
+    public void setPose(CameraPose pose) {
+        velocityX = velocityY = 0;
+        target.setX(pose.targetX());
+        target.setY(pose.targetY());
+        target.setZ(pose.targetZ());
+        rotateY.setAngle(pose.yaw());
+        rotateX.setAngle(pose.pitch());
+        translate.setZ(-pose.distance());
+        camera.setFieldOfView(pose.fieldOfView());
+    }
+
+    /** Orbits by the given angles in degrees, as a drag would, without inertia. */
+    public void rotateBy(double yaw, double pitch) {
+        rotateY.setAngle(rotateY.getAngle() + yaw);
+        rotateX.setAngle(clamp(rotateX.getAngle() + pitch, -60, 60));
+    }
+
     public void onMousePressed(double x, double y) {
         anchorX = x; anchorY = y;
         dragging = true;
@@ -63,6 +91,9 @@ public class OrbitCameraController {
     }
 
     public void resetView() {
+        target.setX(0);
+        target.setY(0);
+        target.setZ(0);
         rotateX.setAngle(-25);
         rotateY.setAngle(0);
         translate.setZ(-1400);
@@ -0,0 +1,176 @@
+package com.myfurniture.designapp.UI;
+
+import com.myfurniture.designapp.Diagnostics.FlightRecording;
+import com.myfurniture.designapp.Diagnostics.Metrics;
+import com.myfurniture.designapp.Util.LatencyHistogram;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Overlay with frame timing, heap and GC activity, plus lines supplied by
+ * the view it sits on and the busiest {@link Metrics} timers. Frame times
+ * are the intervals between pulses, over the last two seconds. While hidden
+ * it has no timer running and computes nothing. "Copy" puts a plain-text
+ * snapshot with system details and all metrics on the clipboard, for support
+ * tickets; "Record" captures a flight recording to attach as well.
+ */
+class PerformanceHud extends VBox {
+
+    private static final long REFRESH_NANOS = 1_000_000_000L;
+    private static final int TOP_TIMERS = 4;
+    private static final Duration RECORDING_LENGTH = Duration.ofSeconds(60);
+
+    private final String title;
+    private final Supplier<List<String>> viewStats;
+    private final Label text = new Label();
+
+    private LatencyHistogram frames = new LatencyHistogram(), previousFrames = new LatencyHistogram();
+    private long lastPulse, lastRefresh;
+    private long gcCount = -1, gcMillis;
+    private List<String> lines = List.of();
+    private String recordingNote;   // where the last flight recording went; shown from the next refresh
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (lastPulse != 0) frames.record(now - lastPulse);
+            lastPulse = now;
+            if (now - lastRefresh >= REFRESH_NANOS) refresh(now);
+        }
+    };
+
+    /** @param viewStats view-specific lines, asked for once a second while showing */
+    PerformanceHud(String title, Supplier<List<String>> viewStats) {
+        this.title = title;
+        this.viewStats = viewStats;
+        text.setFont(Font.font("Monospaced", 12));
+        text.setStyle("-fx-text-fill:#e8ffe8;");
+        Button copy = new Button("Copy");
+        copy.setStyle("-fx-font-size:11px; -fx-padding:2 8;");
+        copy.setOnAction(e -> {
+            ClipboardContent c = new ClipboardContent();
+            c.putString(snapshot());
+            Clipboard.getSystemClipboard().setContent(c);
+        });
+        Button record = new Button("Record 60 s");
+        record.setStyle(copy.getStyle());
+        record.setOnAction(e -> startRecording(record));
+        getChildren().addAll(text, new HBox(4, copy, record));
+        setSpacing(4);
+        setPadding(new Insets(8));
+        setMaxSize(USE_PREF_SIZE, USE_PREF_SIZE);
+        setStyle("-fx-background-color:#000000bb; -fx-background-radius:6;");
+        setVisible(false);
+        setManaged(false);
+        // over the 3D view: presses and scrolls on the panel must not orbit or pick behind it
+        addEventHandler(MouseEvent.ANY, MouseEvent::consume);
+        addEventHandler(ScrollEvent.ANY, ScrollEvent::consume);
+    }
+
+    void setShowing(boolean show) {
+        if (show == isVisible()) return;
+        setVisible(show);
+        setManaged(show);
+        if (show) {
+            frames.clear();
+            previousFrames.clear();
+            lastPulse = 0;
+            gcCount = -1;
+            refresh(System.nanoTime());
+            timer.start();
+        } else {
+            timer.stop();
+        }
+    }
+
+    private void refresh(long now) {
+        lastRefresh = now;
+        LatencyHistogram window = new LatencyHistogram();
+        window.add(previousFrames);
+        window.add(frames);
+
+        List<String> l = new ArrayList<>();
+        l.add(title);
+        double mean = window.getMean();
+        l.add(String.format(Locale.ROOT, "FPS %.1f   frame p50 %.1f  p99 %.1f  max %.1f ms",
+                mean > 0 ? 1e9 / mean : 0, window.getPercentile(50) / 1e6,
+                window.getPercentile(99) / 1e6, window.getMax() / 1e6));
+        l.addAll(viewStats.get());
+        l.addAll(Metrics.topTimers(TOP_TIMERS));
+
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        long count = 0, millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        l.add(String.format(Locale.ROOT, "heap %d / %d MiB   GC %d (+%d/s, %d ms/s)",
+                heap.getUsed() >> 20, (heap.getMax() > 0 ? heap.getMax() : heap.getCommitted()) >> 20,
+                count, gcCount < 0 ? 0 : count - gcCount, gcCount < 0 ? 0 : millis - gcMillis));
+        gcCount = count;
+        gcMillis = millis;
+        if (recordingNote != null) l.add(recordingNote);
+
+        lines = l;
+        text.setText(String.join("\n", l));
+        LatencyHistogram spare = previousFrames;
+        previousFrames = frames;
+        frames = spare;
+        frames.clear();
+    }
+
+    private void startRecording(Button button) {
+        if (FlightRecording.isRecording()) return;
+        try {
+            Path file = FlightRecording.start(RECORDING_LENGTH, done -> Platform.runLater(() -> {
+                button.setText("Record 60 s");
+                button.setDisable(false);
+                recordingNote = "recording saved to " + done;
+            }));
+            button.setText("Recording…");
+            button.setDisable(true);
+            recordingNote = "recording to " + file;
+        } catch (IOException | RuntimeException ex) {
+            recordingNote = "could not start recording: " + ex.getMessage();
+        }
+    }
+
+    /** The current lines with the time, system details and all metrics. */
+    String snapshot() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Furniture Design performance snapshot, ")
+          .append(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)).append('\n');
+        for (String line : lines) sb.append(line).append('\n');
+        sb.append(String.format(Locale.ROOT, "Java %s (%s), JavaFX %s, %s %s %s, %d cores, max heap %d MiB%n",
+                System.getProperty("java.version"), System.getProperty("java.vm.name"),
+                System.getProperty("javafx.runtime.version"),
+                System.getProperty("os.name"), System.getProperty("os.version"), System.getProperty("os.arch"),
+                Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().maxMemory() >> 20));
+        sb.append("Metrics:\n");
+        for (String line : Metrics.report()) sb.append("  ").append(line).append('\n');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,134 @@
+package com.myfurniture.designapp.UI;
+
+import com.myfurniture.designapp.Export.PngEncoder;
+import com.myfurniture.designapp.Render.PathTracer;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Window showing a path-traced render as it refines. Tracing runs on its own
+ * fork-join pool sized to the machine; closing the window stops it. The image
+ * can be saved at any point, with however many samples it has by then.
+ */
+class PhotoRenderWindow extends Stage {
+
+    private final PathTracer tracer;
+    private final WritableImage image;
+    private final Label status = new Label("Preparing…");
+    private final ProgressBar progress = new ProgressBar(0);
+    private final Button stop = new Button("Stop");
+    private final Button save = new Button("Save PNG…");
+    private volatile int[] latest;
+
+    PhotoRenderWindow(Window owner, PathTracer tracer) {
+        this.tracer = tracer;
+        PathTracer.Settings s = tracer.getSettings();
+        this.image = new WritableImage(s.width(), s.height());
+
+        initOwner(owner);
+        setTitle("Photoreal Render");
+
+        progress.setPrefWidth(200);
+        save.setDisable(true);
+        stop.setOnAction(e -> tracer.cancel());
+        save.setOnAction(e -> saveImage());
+        HBox bar = new HBox(10, status, progress, stop, save);
+        bar.setAlignment(Pos.CENTER_LEFT);
+        bar.setPadding(new Insets(8));
+
+        BorderPane root = new BorderPane(new ScrollPane(new ImageView(image)));
+        root.setBottom(bar);
+        setScene(new Scene(root, Math.min(1400, s.width() + 20), Math.min(900, s.height() + 60)));
+        setOnHidden(e -> tracer.cancel());
+    }
+
+    /** Shows the window and starts tracing in the background. */
+    void start() {
+        show();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        int budget = tracer.getSettings().samplesPerPixel();
+        long t0 = System.nanoTime();
+
+        Task<int[]> task = new Task<>() {
+            @Override
+            protected int[] call() {
+                return tracer.render(pool, (samples, argb) -> {
+                    latest = argb;
+                    updateProgress(samples, budget);
+                    updateMessage(String.format("%d / %d samples · %.0f s",
+                            samples, budget, (System.nanoTime() - t0) / 1e9));
+                    Platform.runLater(() -> show(argb));
+                });
+            }
+        };
+        status.textProperty().bind(task.messageProperty());
+        progress.progressProperty().bind(task.progressProperty());
+        task.setOnSucceeded(e -> finished(task.getValue(), tracer.isCancelled() ? "Stopped" : "Done"));
+        task.setOnFailed(e -> finished(latest, "Failed: " + task.getException().getMessage()));
+        task.runningProperty().addListener((o, was, running) -> {
+            if (!running) pool.shutdown();
+        });
+
+        Thread worker = new Thread(task, "path-tracer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void show(int[] argb) {
+        PathTracer.Settings s = tracer.getSettings();
+        image.getPixelWriter().setPixels(0, 0, s.width(), s.height(),
+                PixelFormat.getIntArgbInstance(), argb, 0, s.width());
+        save.setDisable(false);
+    }
+
+    private void finished(int[] argb, String message) {
+        if (argb != null) {
+            latest = argb;
+            show(argb);
+        }
+        status.textProperty().unbind();
+        status.setText(message + " · " + tracer.getSamplesDone() + " samples per pixel");
+        stop.setDisable(true);
+    }
+
+    private void saveImage() {
+        int[] argb = latest;
+        if (argb == null) return;
+        FileChooser ch = new FileChooser();
+        ch.setTitle("Save Render");
+        ch.getExtensionFilters().add(new FileChooser.ExtensionFilter("PNG images", "*.png"));
+        File file = ch.showSaveDialog(this);
+        if (file == null) return;
+        PathTracer.Settings s = tracer.getSettings();
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file.toPath()))) {
+            PngEncoder.write(argb, s.width(), s.height(), out, ForkJoinPool.commonPool());
+        } catch (IOException ex) {
+            Alert a = new Alert(Alert.AlertType.INFORMATION, "Save failed: " + ex.getMessage());
+            a.initOwner(this);
+            a.showAndWait();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.myfurniture.designapp.UI;
+
+import com.myfurniture.designapp.Core.FurnitureItem;
+import com.myfurniture.designapp.Core.RoomDesign;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Small overview of the whole room with the visible part of the plan outlined.
+ * The room layer is only redrawn when the design changes; moving the view
+ * only redraws the outline. Clicking or dragging recentres the view.
+ */
+class PlanMinimap extends Pane {
+
+    private static final double SIZE = 160;
+
+    private final Canvas content = new Canvas(SIZE, SIZE);
+    private final Canvas overlay = new Canvas(SIZE, SIZE);
+
+    private RoomDesign room;
+    private double scale = 1, originX, originY;
+    private BiConsumer<Double, Double> onNavigate;
+
+    PlanMinimap() {
+        getChildren().addAll(content, overlay);
+        setPrefSize(SIZE, SIZE);
+        setMaxSize(SIZE, SIZE);
+        setStyle("-fx-background-color:#ffffffdd; -fx-border-color:#34495e;");
+        overlay.addEventHandler(MouseEvent.MOUSE_PRESSED, this::navigate);
+        overlay.addEventHandler(MouseEvent.MOUSE_DRAGGED, this::navigate);
+    }
+
+    /** called with the design point (x, y) the view should centre on */
+    void setOnNavigate(BiConsumer<Double, Double> onNavigate) {
+        this.onNavigate = onNavigate;
+    }
+
+    void setDesign(RoomDesign room) {
+        this.room = room;
+        double rw = Math.max(1, room.getRoomWidth()), rh = Math.max(1, room.getRoomHeight());
+        scale   = (SIZE - 8) / Math.max(rw, rh);
+        originX = (SIZE - rw * scale) / 2;
+        originY = (SIZE - rh * scale) / 2;
+
+        GraphicsContext gc = content.getGraphicsContext2D();
+        gc.clearRect(0, 0, SIZE, SIZE);
+        gc.setFill(room.getRoomColor());
+        gc.fillRect(originX, originY, rw * scale, rh * scale);
+        gc.setStroke(Color.BLACK);
+        gc.strokeRect(originX, originY, rw * scale, rh * scale);
+        for (FurnitureItem it : room.getFurniture()) {
+            gc.setFill(it.getPrimaryColor());
+            gc.fillRect(originX + it.getX() * scale, originY + it.getY() * scale,
+                    Math.max(1, it.getWidth() * scale), Math.max(1, it.getHeight() * scale));
+        }
+    }
+
+    /** outlines the visible part of the plan, in design coordinates */
+    void setViewport(double minX, double minY, double maxX, double maxY) {
+        GraphicsContext gc = overlay.getGraphicsContext2D();
+        gc.clearRect(0, 0, SIZE, SIZE);
+        if (room == null) return;
+        gc.setStroke(Color.RED);
+        gc.setLineWidth(1.5);
+        gc.strokeRect(originX + minX * scale, originY + minY * scale,
+                (maxX - minX) * scale, (maxY - minY) * scale);
+    }
+
+    private void navigate(MouseEvent e) {
+        if (onNavigate == null || room == null) return;
+        onNavigate.accept((e.getX() - originX) / scale, (e.getY() - originY) / scale);
+        e.consume();
+    }
+}
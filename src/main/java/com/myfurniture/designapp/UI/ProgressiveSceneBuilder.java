@@ -0,0 +1,127 @@
+package com.myfurniture.designapp.UI;
+
+import com.myfurniture.designapp.Core.FurnitureItem;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Point3D;
+import javafx.scene.Group;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Adds furniture nodes to a group a few at a time, spending at most a fixed
+ * budget of each pulse so the view stays interactive while a big design fills in.
+ * Items closest to the eye point are built first.
+ */
+public class ProgressiveSceneBuilder {
+
+    /** default time we are allowed to spend per pulse, in nanoseconds (4 ms) */
+    public static final long DEFAULT_BUDGET_NANOS = 4_000_000L;
+
+    private final Group target;
+    private final Function<FurnitureItem, Node> nodeFactory;
+    private final long budgetNanos;
+
+    private List<FurnitureItem> queue = new ArrayList<>();
+    private int next;
+    private Runnable onFinished;
+
+    private final AnimationTimer pump = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            step();
+        }
+    };
+
+    public ProgressiveSceneBuilder(Group target, Function<FurnitureItem, Node> nodeFactory) {
+        this(target, nodeFactory, DEFAULT_BUDGET_NANOS);
+    }
+
+    public ProgressiveSceneBuilder(Group target, Function<FurnitureItem, Node> nodeFactory, long budgetNanos) {
+        this.target      = target;
+        this.nodeFactory = nodeFactory;
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Cancels any population in progress and starts a new one.
+     * The first chunk is built right away so something shows in the same pulse.
+     *
+     * @param items      furniture to add
+     * @param eye        eye position in the target group's coordinates
+     * @param onFinished called once every item has been added (may be null)
+     */
+    public void start(List<FurnitureItem> items, Point3D eye, Runnable onFinished) {
+        cancel();
+        queue = new ArrayList<>(items);
+        queue.sort(Comparator.comparingDouble(it -> distanceSq(it, eye)));
+        next = 0;
+        this.onFinished = onFinished;
+
+        if (queue.isEmpty()) {
+            this.onFinished = null;
+            if (onFinished != null) onFinished.run();
+            return;
+        }
+        step();
+        if (isRunning()) pump.start();
+    }
+
+    /** Stops adding nodes; whatever was built so far stays in the target group. */
+    public void cancel() {
+        pump.stop();
+        queue = new ArrayList<>();
+        next = 0;
+        onFinished = null;
+    }
+
+    /** Builds everything still queued right away, e.g. before taking a snapshot. */
+    public void finish() {
+        if (!isRunning()) return;
+        pump.stop();
+        List<Node> rest = new ArrayList<>(queue.size() - next);
+        while (next < queue.size()) rest.add(nodeFactory.apply(queue.get(next++)));
+        target.getChildren().addAll(rest);
+        Runnable done = onFinished;
+        onFinished = null;
+        if (done != null) done.run();
+    }
+
+    public boolean isRunning() {
+        return next < queue.size();
+    }
+
+    /** fraction of the current batch that has been built, 0..1 */
+    public double getProgress() {
+        return queue.isEmpty() ? 1.0 : (double) next / queue.size();
+    }
+
+    private void step() {
+        long deadline = System.nanoTime() + budgetNanos;
+        List<Node> chunk = new ArrayList<>();
+
+        // always make progress, even if a single item blows the budget
+        do {
+            chunk.add(nodeFactory.apply(queue.get(next++)));
+        } while (next < queue.size() && System.nanoTime() < deadline);
+
+        // one children change per pulse instead of one per node
+        target.getChildren().addAll(chunk);
+
+        if (!isRunning()) {
+            pump.stop();
+            Runnable done = onFinished;
+            onFinished = null;
+            if (done != null) done.run();
+        }
+    }
+
+    private static double distanceSq(FurnitureItem it, Point3D eye) {
+        double dx = it.getX() + it.getWidth()  / 2.0 - eye.getX();
+        double dz = it.getY() + it.getHeight() / 2.0 - eye.getZ();
+        return dx * dx + dz * dz;
+    }
+}
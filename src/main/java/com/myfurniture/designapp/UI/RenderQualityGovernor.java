@@ -0,0 +1,151 @@
+package com.myfurniture.designapp.UI;
+
+import com.myfurniture.designapp.Factory.RenderQuality;
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+
+import java.util.Arrays;
+
+/**
+ * Watches pulse-to-pulse frame times of the 3D view. While the user interacts
+ * and frames miss the budget, quality is lowered one tier at a time. It goes
+ * back up one tier at a time too: while interacting only when frames are well
+ * inside the budget and never to a tier that missed it, and once the view has
+ * been idle for a moment one tier per step interval until the best.
+ */
+public class RenderQualityGovernor {
+
+    /** 30 fps */
+    public static final double DEFAULT_BUDGET_MS = 1000.0 / 30.0;
+
+    private static final int    HISTORY        = 240;  // frames kept for percentiles
+    private static final int    WINDOW         = 45;   // interactive frames judged per decision
+    private static final double MISS_PERCENTILE = 90;
+    private static final long   IDLE_NANOS     = 1_500_000_000L;
+    private static final long   COOLDOWN_NANOS = 1_000_000_000L;
+    private static final long   STEP_UP_NANOS  = 1_000_000_000L;  // between steps up while idle
+    /** fraction of the budget frames must stay under before an interactive step up */
+    private static final double STEP_UP_HEADROOM = 0.6;
+
+    private final double budgetMs;
+    private final ReadOnlyObjectWrapper<RenderQuality> tier =
+            new ReadOnlyObjectWrapper<>(RenderQuality.HIGH);
+
+    private final float[] history = new float[HISTORY];
+    private int historyCount, historyNext;
+
+    private final float[] window = new float[WINDOW];
+    private int windowCount;
+
+    private long lastFrame;
+    private long lastInteraction;
+    private long lastChange;
+    /** last tier to miss the budget since the view was idle, or null; steps up stop below it */
+    private RenderQuality ceiling;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            onFrame(now);
+        }
+    };
+
+    public RenderQualityGovernor() {
+        this(DEFAULT_BUDGET_MS);
+    }
+
+    public RenderQualityGovernor(double budgetMs) {
+        this.budgetMs = budgetMs;
+    }
+
+    public void start() {
+        lastFrame = 0;
+        timer.start();
+    }
+
+    public void stop() {
+        timer.stop();
+    }
+
+    /** Goes back to the best tier right away, e.g. before an offline render. */
+    public void reset() {
+        windowCount = 0;
+        lastInteraction = 0;
+        ceiling = null;
+        if (getTier() != RenderQuality.HIGH) change(RenderQuality.HIGH, System.nanoTime());
+    }
+
+    /** Call on every user input that moves the view (drag, zoom, auto-rotate step). */
+    public void noteInteraction() {
+        lastInteraction = System.nanoTime();
+    }
+
+    public RenderQuality getTier() {
+        return tier.get();
+    }
+
+    public ReadOnlyObjectProperty<RenderQuality> tierProperty() {
+        return tier.getReadOnlyProperty();
+    }
+
+    /**
+     * Frame time at the given percentile over the last {@value #HISTORY} frames, in ms.
+     * Returns 0 before any frame was measured.
+     */
+    public double getFrameTimePercentile(double percentile) {
+        if (historyCount == 0) return 0;
+        float[] sorted = Arrays.copyOf(history, historyCount);
+        Arrays.sort(sorted);
+        return percentileOfSorted(sorted, sorted.length, percentile);
+    }
+
+    private void onFrame(long now) {
+        if (lastFrame == 0) {
+            lastFrame = now;
+            return;
+        }
+        float frameMs = (now - lastFrame) / 1_000_000f;
+        lastFrame = now;
+
+        history[historyNext] = frameMs;
+        historyNext = (historyNext + 1) % HISTORY;
+        historyCount = Math.min(historyCount + 1, HISTORY);
+
+        boolean interacting = now - lastInteraction < IDLE_NANOS;
+        if (!interacting) {
+            windowCount = 0;
+            ceiling = null;
+            if (getTier() != RenderQuality.HIGH && now - lastChange >= STEP_UP_NANOS) {
+                change(getTier().higher(), now);
+            }
+            return;
+        }
+        if (now - lastChange < COOLDOWN_NANOS) return;
+
+        window[windowCount++] = frameMs;
+        if (windowCount < WINDOW) return;
+
+        Arrays.sort(window);
+        double p = percentileOfSorted(window, WINDOW, MISS_PERCENTILE);
+        windowCount = 0;
+        RenderQuality t = getTier();
+        if (p > budgetMs && t != t.lower()) {
+            ceiling = t;
+            change(t.lower(), now);
+        } else if (p < budgetMs * STEP_UP_HEADROOM && t != t.higher()
+                && (ceiling == null || t.higher().compareTo(ceiling) > 0)) {
+            change(t.higher(), now);
+        }
+    }
+
+    private void change(RenderQuality next, long now) {
+        lastChange = now;
+        tier.set(next);
+    }
+
+    private static double percentileOfSorted(float[] sorted, int n, double percentile) {
+        int idx = (int) Math.ceil(percentile / 100.0 * n) - 1;
+        return sorted[Math.max(0, Math.min(n - 1, idx))];
+    }
+}
@@ -1,14 +1,26 @@
 package com.myfurniture.designapp.UI;
 
+import com.myfurniture.designapp.Core.DesignIO;
 import com.myfurniture.designapp.Core.DesignManager;
+import com.myfurniture.designapp.Core.Footprint;
 import com.myfurniture.designapp.Core.FurnitureItem;
 import com.myfurniture.designapp.Core.RoomDesign;
 import com.myfurniture.designapp.Core.ShapeType;
+import com.myfurniture.designapp.Diagnostics.Events;
+import com.myfurniture.designapp.Diagnostics.Metrics;
 import com.myfurniture.designapp.Factory.Furniture2DFactory;
 import com.myfurniture.designapp.Factory.FurnitureFactory;
+import com.myfurniture.designapp.Factory.FurnitureTemplate;
+import com.myfurniture.designapp.Factory.FurnitureTemplates;
+import com.myfurniture.designapp.Factory.FxPlanGraphics;
+import com.myfurniture.designapp.Factory.PlanGraphics;
+import com.myfurniture.designapp.Util.SpatialHashGrid;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.*;
@@ -16,12 +28,22 @@ import javafx.scene.effect.DropShadow;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.*;
+import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.transform.Affine;
 import javafx.stage.FileChooser;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class RoomDesigner2D extends BorderPane {
 
@@ -37,10 +59,18 @@ public class RoomDesigner2D extends BorderPane {
     private Color chosenSecondary = Color.DARKGRAY;
     private final Runnable update3DCallback;
 
+    // live preview: set while a 3D view is shown next to the plan
+    private Consumer<FurnitureItem> itemMovedListener;
+    private Consumer<FurnitureItem> itemChangedListener;
+
     private TextField           txtRoomWidth, txtRoomHeight;
     private ComboBox<ShapeType> shapeCombo;
 
     private Region primarySwatch, secondarySwatch;
+    private PerformanceHud hud;
+    private static final Metrics.Timer drawTimer = Metrics.timer("plan.draw");
+    private static final Metrics.Timer hitTestTimer = Metrics.timer("plan.hitTest");
+    private static final Metrics.Timer collideTimer = Metrics.timer("plan.collide");
 
     /* --------------------------------------------------------------------- */
     /* constructor                                                            */
@@ -120,6 +150,7 @@ public class RoomDesigner2D extends BorderPane {
                 currentRoomDesign.setBackWallColor(c);
                 currentRoomDesign.setLeftWallColor(c);
                 currentRoomDesign.setRightWallColor(c);
+                canvas.designChanged();
                 refreshAll();
             }
         });
@@ -136,9 +167,8 @@ public class RoomDesigner2D extends BorderPane {
         /* add‑furniture list --------------------------------------------- */
         FlowPane flow = new FlowPane(10,10);
         flow.setPrefWidth(260);
-        String[] types = {"Chair","Table","Bed","Sofa","Bookshelf",
-                "Wardrobe","Dining Table","Lamp","TV Stand","Coffee Table"};
-        for (String t : types) {
+        for (FurnitureTemplate template : FurnitureTemplates.getAll()) {
+            String t = template.getName();
             Button b = styledButton(t);
             b.setPrefWidth(120);
             b.setOnAction(e -> addFurniture(t));
@@ -156,18 +186,27 @@ public class RoomDesigner2D extends BorderPane {
         Button btnInc  = styledButton("Size +");
         Button btnDec  = styledButton("Size -");
         Button btnRot  = styledButton("Rotate");
+        CheckBox chkPush = new CheckBox("Push out of overlaps");
+        Spinner<Integer> spnClearance = new Spinner<>(0, 120, 0, 5);
+        spnClearance.setPrefWidth(80);
 
         btnSave.setOnAction(e -> saveDesign());
         btnLoad.setOnAction(e -> loadDesign());
         btnDel .setOnAction(e -> { if (canvas.deleteSelected()) refreshAll(); });
-        btnInc .setOnAction(e -> { canvas.adjustSize(true);  refreshAll(); });
-        btnDec .setOnAction(e -> { canvas.adjustSize(false); refreshAll(); });
-        btnRot .setOnAction(e -> { canvas.rotateSelected(90); refreshAll(); });
-
+        btnInc .setOnAction(e -> refreshItem(canvas.adjustSize(true),  false));
+        btnDec .setOnAction(e -> refreshItem(canvas.adjustSize(false), false));
+        btnRot .setOnAction(e -> refreshItem(canvas.rotateSelected(90), true));
+        chkPush.setOnAction(e -> canvas.setPushBack(chkPush.isSelected()));
+        spnClearance.valueProperty().addListener((o, was, now) -> canvas.setClearance(now));
+
+        HBox clearanceBox = new HBox(8, new Label("Clearance"), spnClearance);
+        clearanceBox.setAlignment(Pos.CENTER_LEFT);
         VBox actionBox = new VBox(10,
                 btnSave, btnLoad, btnDel,
                 new Separator(),
-                btnInc, btnDec, btnRot);
+                btnInc, btnDec, btnRot,
+                new Separator(),
+                clearanceBox, chkPush);
         styleCard(actionBox);
 
         palettePanel.getChildren().addAll(roomPane, colourPane, wallPane,
@@ -198,16 +237,47 @@ public class RoomDesigner2D extends BorderPane {
 
         /* centre – preview bar + canvas ---------------------------------- */
         canvas = new DesignerCanvas(currentRoomDesign);
-
-        StackPane canvasHolder = new StackPane(canvas);
+        designManager.selectedItemProperty().addListener((o, oldItem, newItem) -> canvas.showSelection(newItem));
+
+        // the canvas only covers the visible viewport; the pane lets it shrink with the window
+        Pane viewport = new Pane(canvas);
+        viewport.setMinSize(0, 0);
+        viewport.setPrefSize(1, 1);
+        canvas.widthProperty().bind(viewport.widthProperty());
+        canvas.heightProperty().bind(viewport.heightProperty());
+        Rectangle clip = new Rectangle();
+        clip.widthProperty().bind(viewport.widthProperty());
+        clip.heightProperty().bind(viewport.heightProperty());
+        viewport.setClip(clip);
+
+        PlanMinimap minimap = new PlanMinimap();
+        canvas.setMinimap(minimap);
+        StackPane.setAlignment(minimap, Pos.BOTTOM_RIGHT);
+        StackPane.setMargin(minimap, new Insets(10));
+
+        Button btnZoomIn  = new Button("+");
+        Button btnZoomOut = new Button("−");
+        Button btnFit     = new Button("Fit");
+        btnZoomIn .setOnAction(e -> canvas.zoomBy(1));
+        btnZoomOut.setOnAction(e -> canvas.zoomBy(-1));
+        btnFit    .setOnAction(e -> canvas.fitToRoom());
+        HBox zoomBar = new HBox(4, btnZoomIn, btnZoomOut, btnFit);
+        zoomBar.setPickOnBounds(false);
+        zoomBar.setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        StackPane.setAlignment(zoomBar, Pos.TOP_RIGHT);
+        StackPane.setMargin(zoomBar, new Insets(10));
+
+        hud = new PerformanceHud("2D plan", canvas::hudStats);
+        StackPane.setAlignment(hud, Pos.TOP_LEFT);
+        StackPane.setMargin(hud, new Insets(10));
+
+        StackPane canvasHolder = new StackPane(viewport, minimap, zoomBar, hud);
         canvasHolder.setAlignment(Pos.CENTER);
         canvasHolder.setStyle(
                 "-fx-background-color:#ecf0f1;" +
                         "-fx-background-radius:8;" +
                         "-fx-padding:8;");
         canvasHolder.setEffect(new DropShadow(10, Color.gray(0,0.25)));
-        canvasHolder.widthProperty().addListener((o,__,___)-> canvas.draw());
-        canvasHolder.heightProperty().addListener((o,__,___)-> canvas.draw());
 
         VBox centreBox = new VBox(previewBar, canvasHolder);
         VBox.setVgrow(canvasHolder, Priority.ALWAYS);
@@ -233,8 +303,8 @@ public class RoomDesigner2D extends BorderPane {
     }
 
     private void updateColourPreview() {
-        primarySwatch .setStyle("-fx-background-color:" + toHex(chosenPrimary) + "; -fx-border-color:black;");
-        secondarySwatch.setStyle("-fx-background-color:" + toHex(chosenSecondary) + "; -fx-border-color:black;");
+        primarySwatch .setStyle("-fx-background-color:" + DesignIO.toHex(chosenPrimary) + "; -fx-border-color:black;");
+        secondarySwatch.setStyle("-fx-background-color:" + DesignIO.toHex(chosenSecondary) + "; -fx-border-color:black;");
     }
 
     private void onShapeSelected() {
@@ -257,8 +327,7 @@ public class RoomDesigner2D extends BorderPane {
             currentRoomDesign.setRoomWidth(w);
             currentRoomDesign.setRoomHeight(h);
 
-            canvas.setWidth(w);
-            canvas.setHeight(h);
+            canvas.setRoom(currentRoomDesign);
 
             refreshAll();
         } catch (NumberFormatException ex) {
@@ -280,6 +349,7 @@ public class RoomDesigner2D extends BorderPane {
             case "left"  -> currentRoomDesign.setLeftWallColor(c);
             case "right" -> currentRoomDesign.setRightWallColor(c);
         }
+        canvas.designChanged();
         refreshAll();
     }
 
@@ -293,6 +363,7 @@ public class RoomDesigner2D extends BorderPane {
         it.setX(currentRoomDesign.getRoomWidth()/2  - it.getWidth()/2);
         it.setY(currentRoomDesign.getRoomHeight()/2 - it.getHeight()/2);
         currentRoomDesign.addFurniture(it);
+        canvas.designChanged();
 
         // instant 3D rebuild
         refreshAll();
@@ -306,23 +377,8 @@ public class RoomDesigner2D extends BorderPane {
         File file = ch.showSaveDialog(getScene().getWindow());
         if (file == null) return;
 
-        try (PrintWriter pw = new PrintWriter(file)) {
-            pw.printf("%d,%d,%s,%s,%s,%s%n",
-                    currentRoomDesign.getRoomWidth(),
-                    currentRoomDesign.getRoomHeight(),
-                    toHex(currentRoomDesign.getRoomColor()),
-                    toHex(currentRoomDesign.getBackWallColor()),
-                    toHex(currentRoomDesign.getLeftWallColor()),
-                    toHex(currentRoomDesign.getRightWallColor()));
-            for (FurnitureItem it : currentRoomDesign.getFurniture()) {
-                pw.printf("%s;%d;%d;%d;%d;%s;%s;%s;%.2f%n",
-                        it.getType(), it.getX(), it.getY(),
-                        it.getWidth(), it.getHeight(),
-                        toHex(it.getPrimaryColor()),
-                        toHex(it.getSecondaryColor()),
-                        it.getMaterial(),
-                        it.getRotation());
-            }
+        try {
+            DesignIO.write(currentRoomDesign, file.toPath());
             showAlert("Design saved.");
         } catch (IOException ex) {
             showAlert("Save failed: " + ex.getMessage());
@@ -337,45 +393,14 @@ public class RoomDesigner2D extends BorderPane {
         File file = ch.showOpenDialog(getScene().getWindow());
         if (file == null) return;
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String[] room = br.readLine().split(",");
-            currentRoomDesign = new RoomDesign(
-                    Integer.parseInt(room[0]),
-                    Integer.parseInt(room[1]),
-                    Color.web(room[2]));
-            currentRoomDesign.setBackWallColor (Color.web(room[3]));
-            currentRoomDesign.setLeftWallColor (Color.web(room[4]));
-            currentRoomDesign.setRightWallColor(Color.web(room[5]));
-
-            List<FurnitureItem> list = new ArrayList<>();
-            for (String ln; (ln = br.readLine()) != null; ) {
-                String[] p = ln.split(";");
-                FurnitureItem it = new FurnitureItem(
-                        p[0], Integer.parseInt(p[1]), Integer.parseInt(p[2]),
-                        Integer.parseInt(p[3]), Integer.parseInt(p[4]),
-                        Color.web(p[5]), Color.web(p[6]), p[7]);
-                it.setRotation(Double.parseDouble(p[8]));
-                list.add(it);
-            }
-            currentRoomDesign.getFurniture().clear();
-            currentRoomDesign.getFurniture().addAll(list);
-
-            designManager.setCurrentDesign(currentRoomDesign);
-            canvas.setRoom(currentRoomDesign);
-            refreshAll();
+        try {
+            setDesign(DesignIO.read(file.toPath()));
             showAlert("Design loaded.");
         } catch (Exception ex) {
             showAlert("Load failed: " + ex.getMessage());
         }
     }
 
-    private String toHex(Color c) {
-        return String.format("#%02X%02X%02X",
-                (int)(c.getRed()*255),
-                (int)(c.getGreen()*255),
-                (int)(c.getBlue()*255));
-    }
-
     private void showAlert(String msg) {
         Alert a = new Alert(Alert.AlertType.INFORMATION, msg);
         a.initOwner(getScene().getWindow());
@@ -424,44 +449,234 @@ public class RoomDesigner2D extends BorderPane {
         if (update3DCallback != null) update3DCallback.run();
     }
 
+    /** Makes a design the current one and fits the plan to it. */
+    public void setDesign(RoomDesign design) {
+        currentRoomDesign = design;
+        designManager.setCurrentDesign(design);
+        canvas.setRoom(design);
+        refreshAll();
+    }
+
+    /** Shows or hides the performance overlay; hidden, it costs nothing. */
+    public void setHudVisible(boolean visible) {
+        hud.setShowing(visible);
+    }
+
+    /** The plan canvas, which receives the mouse input. */
+    public Node getPlanView() {
+        return canvas;
+    }
+
+    /** Redraws the plan after the design was edited elsewhere (e.g. dragged in 3D). */
+    public void redraw() {
+        canvas.clearConflicts();   // the moved item may no longer be where it was checked
+        canvas.draw();
+    }
+
+    /**
+     * Enables live preview: while set, drags and single-item edits are reported
+     * per item instead of triggering a full 3D rebuild. Pass nulls to turn it off.
+     *
+     * @param onMoved   item moved or rotated (transform-only update)
+     * @param onChanged item resized (its node needs recreating)
+     */
+    public void setLivePreview(Consumer<FurnitureItem> onMoved, Consumer<FurnitureItem> onChanged) {
+        this.itemMovedListener   = onMoved;
+        this.itemChangedListener = onChanged;
+    }
+
+    private boolean isLivePreview() {
+        return itemMovedListener != null && itemChangedListener != null;
+    }
+
+    /** redraw after an edit of one item; falls back to a full refresh without live preview */
+    private void refreshItem(FurnitureItem it, boolean transformOnly) {
+        if (it == null) return;
+        if (!isLivePreview()) { refreshAll(); return; }
+        canvas.draw();
+        if (transformOnly) itemMovedListener.accept(it);
+        else               itemChangedListener.accept(it);
+    }
+
     /* --------------------------------------------------------------------- */
     /* inner canvas                                                          */
     /* --------------------------------------------------------------------- */
+
+    /**
+     * Viewport onto the plan. The canvas is only as big as the visible area; the
+     * plan is drawn through fixed-size tiles cached per zoom level, so memory stays
+     * bounded whatever the room size. Selected items are kept out of the tiles and
+     * drawn live on top, so dragging never invalidates the cache.
+     */
     private class DesignerCanvas extends Canvas {
 
+        private static final int    TILE             = 256;
+        private static final int    MIN_TILE_CAP     = 96;   // ~24 MB of 256² ARGB tiles
+        private static final int    TILES_PER_DRAW   = 6;    // cache misses rendered per draw
+        private static final int    ZOOM_STEPS_PER_2X = 4;
+        private static final int    MIN_ZOOM_STEP    = -40;
+        private static final int    MAX_ZOOM_STEP    = 12;
+        private static final double INDEX_CELL       = 256;
+        private static final Color  BACKGROUND       = Color.web("#ecf0f1");
+        private static final Color  OVERLAP          = Color.web("#e74c3c");
+        private static final Color  TOO_CLOSE        = Color.web("#f39c12");
+        private static final int    PUSH_PASSES      = 4;    // each pass clears the deepest conflict
+
         private RoomDesign   roomDesign;
         private FurnitureItem selectedItem, lastSelectedItem;
         private double offsetX, offsetY;
+        private boolean dragged;
+
+        // collision feedback for the dragged item, found through the index on every drag event
+        private double clearance;
+        private boolean pushBack;
+        private FurnitureItem checkedItem;
+        private final List<FurnitureItem> overlapping = new ArrayList<>(), tooClose = new ArrayList<>();
+
+        // view: screen = design * zoom + pan
+        private int    zoomStep;
+        private double panX, panY;
+        private boolean panning, fitted;
+        private double panAnchorX, panAnchorY;
+
+        private final SpatialHashGrid<FurnitureItem> index = new SpatialHashGrid<>(INDEX_CELL);
+        private final List<FurnitureItem> liveItems = new ArrayList<>(2);
+        /** position of each item in the design, for drawing and picking in design order */
+        private final Map<FurnitureItem, Integer> designOrder = new IdentityHashMap<>();
+        private final LinkedHashMap<Long, WritableImage> tiles = new LinkedHashMap<>(128, 0.75f, true);
+        /** tiles kept: twice what the viewport shows, so no tile on screen is ever the eldest */
+        private int tileCap = MIN_TILE_CAP;
+        private final Canvas tileCanvas = new Canvas(TILE, TILE);
+        private final SnapshotParameters tileSnapshot = new SnapshotParameters();
+        private WritableImage spareTile;
+
+        private PlanMinimap minimap;
+        private boolean redrawScheduled;
+        private long lastDrawNanos;
+        private int lastDrawTilesRendered;
 
         DesignerCanvas(RoomDesign rd) {
-            super(rd.getRoomWidth(), rd.getRoomHeight());
+            super(0, 0);
             roomDesign = rd;
-            draw();
+            tileSnapshot.setFill(BACKGROUND);
+            designChanged();
 
             setOnMousePressed(this::onMousePressed);
             setOnMouseDragged(this::onMouseDragged);
             setOnMouseReleased(e -> {
+                if (panning) { panning = false; return; }
                 if (selectedItem != null) lastSelectedItem = selectedItem;
                 draw();
-                // immediate 3D update after drag
-                refreshAll();
+                // the live preview already followed the drag; otherwise update 3D now
+                if (!(dragged && isLivePreview())) refreshAll();
+                dragged = false;
             });
             setOnMouseClicked(this::onMouseClicked);
+            setOnScroll(e -> {
+                zoomAt(e.getX(), e.getY(), e.getDeltaY() > 0 ? 1 : -1);
+                e.consume();
+            });
+
+            widthProperty() .addListener((o, __, ___) -> onViewportResized());
+            heightProperty().addListener((o, __, ___) -> onViewportResized());
+        }
+
+        void setMinimap(PlanMinimap minimap) {
+            this.minimap = minimap;
+            minimap.setOnNavigate(this::centreOn);
+            minimap.setDesign(roomDesign);
         }
 
         void setRoom(RoomDesign rd) {
             roomDesign = rd;
-            setWidth(rd.getRoomWidth());
-            setHeight(rd.getRoomHeight());
+            selectedItem = lastSelectedItem = null;
+            designChanged();
+            fitToRoom();
+        }
+
+        /** Items were added/removed or room settings changed: re-index and drop cached tiles. */
+        void designChanged() {
+            index.clear();
+            liveItems.clear();
+            clearConflicts();
+            designOrder.clear();
+            List<FurnitureItem> all = roomDesign.getFurniture();
+            for (int i = 0; i < all.size(); i++) {
+                indexItem(all.get(i));
+                designOrder.put(all.get(i), i);
+            }
+            tiles.clear();
+            if (minimap != null) minimap.setDesign(roomDesign);
+        }
+
+        /* -------------------------- view ------------------------------- */
+
+        private double zoom() {
+            return Math.pow(2, zoomStep / (double) ZOOM_STEPS_PER_2X);
+        }
+
+        private double toDesignX(double screenX) { return (screenX - panX) / zoom(); }
+        private double toDesignY(double screenY) { return (screenY - panY) / zoom(); }
+
+        void fitToRoom() {
+            double w = getWidth(), h = getHeight();
+            if (w <= 0 || h <= 0) return;
+            double rw = Math.max(1, roomDesign.getRoomWidth()), rh = Math.max(1, roomDesign.getRoomHeight());
+            double fit = Math.min(w / rw, h / rh) * 0.95;
+            zoomStep = clampStep((int) Math.floor(Math.log(fit) / Math.log(2) * ZOOM_STEPS_PER_2X));
+            double z = zoom();
+            panX = Math.round((w - rw * z) / 2);
+            panY = Math.round((h - rh * z) / 2);
+            draw();
+        }
+
+        void zoomBy(int steps) {
+            zoomAt(getWidth() / 2, getHeight() / 2, steps);
+        }
+
+        /** zooms by whole steps keeping the design point under (sx, sy) in place */
+        private void zoomAt(double sx, double sy, int steps) {
+            int next = clampStep(zoomStep + steps);
+            if (next == zoomStep) return;
+            double dx = toDesignX(sx), dy = toDesignY(sy);
+            zoomStep = next;
+            double z = zoom();
+            panX = Math.round(sx - dx * z);
+            panY = Math.round(sy - dy * z);
+            draw();
+        }
+
+        private void centreOn(double designX, double designY) {
+            double z = zoom();
+            panX = Math.round(getWidth()  / 2 - designX * z);
+            panY = Math.round(getHeight() / 2 - designY * z);
+            draw();
+        }
+
+        private int clampStep(int step) {
+            return Math.max(MIN_ZOOM_STEP, Math.min(MAX_ZOOM_STEP, step));
+        }
+
+        private void onViewportResized() {
+            if (!fitted && getWidth() > 0 && getHeight() > 0) {
+                fitted = true;
+                fitToRoom();
+            } else {
+                draw();
+            }
         }
 
+        /* -------------------------- input ------------------------------ */
+
         private void onMouseClicked(MouseEvent e) {
             if (e.getButton() == MouseButton.SECONDARY && selectedItem != null) {
                 ContextMenu m = new ContextMenu();
                 MenuItem del = new MenuItem("Delete");
                 del.setOnAction(ev -> {
                     roomDesign.removeFurniture(selectedItem);
+                    if (designManager.getSelectedItem() == selectedItem) designManager.setSelectedItem(null);
                     selectedItem = null;
+                    designChanged();
                     draw();
                     refreshAll();
                 });
@@ -471,42 +686,180 @@ public class RoomDesigner2D extends BorderPane {
         }
 
         private void onMousePressed(MouseEvent e) {
-            double x = e.getX(), y = e.getY();
+            clearConflicts();
+            double x = toDesignX(e.getX()), y = toDesignY(e.getY());
             selectedItem = null;
-            for (FurnitureItem it : roomDesign.getFurniture()) {
+            dragged = false;
+            if (e.getButton() != MouseButton.MIDDLE) selectedItem = itemAt(x, y);
+            if (selectedItem != null) {
+                offsetX = x - selectedItem.getX();
+                offsetY = y - selectedItem.getY();
+                designManager.setSelectedItem(selectedItem);
+            } else if (e.getButton() != MouseButton.SECONDARY) {
+                // empty space (or middle button): pan the view
+                panning = true;
+                panAnchorX = e.getX() - panX;
+                panAnchorY = e.getY() - panY;
+            }
+            draw();
+        }
+
+        /** first item in design order whose footprint contains the point */
+        private FurnitureItem itemAt(double x, double y) {
+            Events.HitTest event = new Events.HitTest();
+            event.begin();
+            long t0 = System.nanoTime();
+            FurnitureItem best = null;
+            int bestIndex = Integer.MAX_VALUE;
+            List<FurnitureItem> candidates = index.query(x, y, x, y);
+            for (FurnitureItem it : candidates) {
                 if (x >= it.getX() && x <= it.getX()+it.getWidth() &&
                         y >= it.getY() && y <= it.getY()+it.getHeight()) {
-                    selectedItem = it;
-                    offsetX = x - it.getX();
-                    offsetY = y - it.getY();
-                    break;
+                    int i = orderOf(it);
+                    if (i < bestIndex) { bestIndex = i; best = it; }
                 }
             }
+            hitTestTimer.recordSince(t0);
+            event.end();
+            if (event.shouldCommit()) {
+                event.view = "plan";
+                event.candidates = candidates.size();
+                event.hit = best != null;
+                event.commit();
+            }
+            return best;
+        }
+
+        /** selection changed through the shared model (e.g. picked in 3D) */
+        void showSelection(FurnitureItem it) {
+            if (selectedItem != it) selectedItem = null;
+            lastSelectedItem = it;
             draw();
         }
 
         private void onMouseDragged(MouseEvent e) {
+            if (panning) {
+                panX = Math.round(e.getX() - panAnchorX);
+                panY = Math.round(e.getY() - panAnchorY);
+                draw();
+                return;
+            }
             if (selectedItem == null) return;
-            double nx = e.getX() - offsetX;
-            double ny = e.getY() - offsetY;
+            double nx = toDesignX(e.getX()) - offsetX;
+            double ny = toDesignY(e.getY()) - offsetY;
             nx = clamp(nx, 0, roomDesign.getRoomWidth() - selectedItem.getWidth());
             ny = clamp(ny, 0, roomDesign.getRoomHeight() - selectedItem.getHeight());
             selectedItem.setX((int) nx);
             selectedItem.setY((int) ny);
+            checkCollisions(selectedItem);
+            dragged = true;
             draw();
+            if (isLivePreview()) itemMovedListener.accept(selectedItem);
+        }
+
+        /* -------------------------- collisions -------------------------- */
+
+        void setClearance(double clearance) {
+            this.clearance = clearance;
+        }
+
+        void setPushBack(boolean pushBack) {
+            this.pushBack = pushBack;
+        }
+
+        void clearConflicts() {
+            checkedItem = null;
+            overlapping.clear();
+            tooClose.clear();
+        }
+
+        /**
+         * Finds the items a moved item overlaps or comes closer to than the
+         * clearance: candidates from the index around its footprint, then the
+         * exact test on the rotated footprints. With push back on, first moves
+         * the item out of the deepest conflict, a few times over, staying in
+         * the room.
+         */
+        private void checkCollisions(FurnitureItem it) {
+            long t0 = System.nanoTime();
+            clearConflicts();
+            if (pushBack) {
+                for (int pass = 0; pass < PUSH_PASSES; pass++) {
+                    Footprint f = Footprint.of(it);
+                    double[] push = null;
+                    double deepest = 0;
+                    for (FurnitureItem other : neighbours(it, f)) {
+                        Footprint o = Footprint.of(other);
+                        if (!f.overlaps(o) && f.distance(o) >= clearance) continue;
+                        double[] p = f.pushOut(o, clearance);
+                        if (p == null) continue;
+                        double d = Math.hypot(p[0], p[1]);
+                        if (d > deepest) { deepest = d; push = p; }
+                    }
+                    if (push == null) break;
+                    // whole units away from the other item, so rounding cannot leave it overlapping
+                    int nx = (int) clamp(it.getX() + away(push[0]), 0, roomDesign.getRoomWidth() - it.getWidth());
+                    int ny = (int) clamp(it.getY() + away(push[1]), 0, roomDesign.getRoomHeight() - it.getHeight());
+                    if (nx == it.getX() && ny == it.getY()) break;   // against a wall
+                    it.setX(nx);
+                    it.setY(ny);
+                }
+            }
+            Footprint f = Footprint.of(it);
+            for (FurnitureItem other : neighbours(it, f)) {
+                Footprint o = Footprint.of(other);
+                if (f.overlaps(o)) overlapping.add(other);
+                else if (clearance > 0 && f.distance(o) < clearance) tooClose.add(other);
+            }
+            if (!overlapping.isEmpty() || !tooClose.isEmpty()) checkedItem = it;
+            collideTimer.recordSince(t0);
+        }
+
+        /** other items whose bounds come within the clearance of a footprint */
+        private List<FurnitureItem> neighbours(FurnitureItem it, Footprint f) {
+            double[] b = f.bounds();
+            List<FurnitureItem> found = index.query(b[0] - clearance, b[1] - clearance,
+                    b[2] + clearance, b[3] + clearance);
+            found.remove(it);
+            return found;
+        }
+
+        private double away(double v) {
+            return v > 0 ? Math.ceil(v) : Math.floor(v);
+        }
+
+        /** outlines the checked item and what it overlaps (red) or is too close to (orange) */
+        private void drawConflicts(GraphicsContext gc, double z) {
+            if (checkedItem == null) return;
+            gc.setLineWidth(2 / z);
+            gc.setStroke(TOO_CLOSE);
+            gc.setLineDashes(6 / z);
+            for (FurnitureItem it : tooClose) strokeFootprint(gc, it);
+            gc.setLineDashes(null);
+            gc.setStroke(OVERLAP);
+            for (FurnitureItem it : overlapping) strokeFootprint(gc, it);
+            gc.setStroke(overlapping.isEmpty() ? TOO_CLOSE : OVERLAP);
+            strokeFootprint(gc, checkedItem);
+        }
+
+        private void strokeFootprint(GraphicsContext gc, FurnitureItem it) {
+            double[] c = Footprint.of(it).corners();
+            gc.strokePolygon(new double[] { c[0], c[2], c[4], c[6] }, new double[] { c[1], c[3], c[5], c[7] }, 4);
         }
 
         boolean deleteSelected() {
             if (lastSelectedItem == null) return false;
             roomDesign.removeFurniture(lastSelectedItem);
+            if (designManager.getSelectedItem() == lastSelectedItem) designManager.setSelectedItem(null);
             lastSelectedItem = null;
+            designChanged();
             draw();
             return true;
         }
 
-        void adjustSize(boolean inc) {
+        FurnitureItem adjustSize(boolean inc) {
             FurnitureItem it = (selectedItem != null) ? selectedItem : lastSelectedItem;
-            if (it == null) return;
+            if (it == null) return null;
             double f = inc ? 1.1 : 0.9;
             double cx = it.getX() + it.getWidth()/2.0;
             double cy = it.getY() + it.getHeight()/2.0;
@@ -516,42 +869,185 @@ public class RoomDesigner2D extends BorderPane {
             it.setWidth(nw);
             it.setHeight(nh);
             draw();
+            return it;
         }
 
-        void rotateSelected(double a) {
+        FurnitureItem rotateSelected(double a) {
             FurnitureItem it = (selectedItem != null) ? selectedItem : lastSelectedItem;
-            if (it == null) return;
+            if (it == null) return null;
             it.setRotation((it.getRotation() + a) % 360);
             draw();
+            return it;
         }
 
+        /* -------------------------- drawing ---------------------------- */
+
         void draw() {
+            double w = getWidth(), h = getHeight();
+            if (w <= 0 || h <= 0) return;
+            Events.PlanDraw event = new Events.PlanDraw();
+            event.begin();
+            long t0 = System.nanoTime();
             GraphicsContext gc = getGraphicsContext2D();
-            double rw = roomDesign.getRoomWidth(), rh = roomDesign.getRoomHeight();
-
-            gc.setFill(roomDesign.getRoomColor());
-            gc.fillRect(0, 0, rw, rh);
-            gc.setStroke(Color.BLACK);
-            gc.strokeRect(0, 0, rw, rh);
-
-            double t = 10;
-            gc.setFill(roomDesign.getBackWallColor());
-            gc.fillRect(0, 0, rw, t);
-            gc.setFill(roomDesign.getLeftWallColor());
-            gc.fillRect(0, 0, t, rh);
-            gc.setFill(roomDesign.getRightWallColor());
-            gc.fillRect(rw-t, 0, t, rh);
-
-            for (FurnitureItem it : roomDesign.getFurniture()) {
-                boolean sel = (it == selectedItem || it == lastSelectedItem);
-                gc.save();
-                gc.translate(it.getX() + it.getWidth()/2.0,
-                        it.getY() + it.getHeight()/2.0);
-                gc.rotate(it.getRotation());
-                gc.translate(-it.getWidth()/2.0, -it.getHeight()/2.0);
-                Furniture2DFactory.drawFurniture(gc, it, sel);
-                gc.restore();
+            gc.setTransform(new Affine());
+            gc.setFill(BACKGROUND);
+            gc.fillRect(0, 0, w, h);
+
+            syncLiveItems();
+
+            double z = zoom();
+            int tx0 = Math.floorDiv((int) -panX, TILE), tx1 = Math.floorDiv((int) (w - panX - 1), TILE);
+            int ty0 = Math.floorDiv((int) -panY, TILE), ty1 = Math.floorDiv((int) (h - panY - 1), TILE);
+            tileCap = Math.max(MIN_TILE_CAP, 2 * (tx1 - tx0 + 1) * (ty1 - ty0 + 1));
+            int budget = TILES_PER_DRAW;
+            for (int ty = ty0; ty <= ty1; ty++) {
+                for (int tx = tx0; tx <= tx1; tx++) {
+                    double sx = panX + (double) tx * TILE, sy = panY + (double) ty * TILE;
+                    WritableImage img = tiles.get(tileKey(zoomStep, tx, ty));
+                    if (img == null && budget > 0) {
+                        budget--;
+                        img = renderTile(tx, ty, z);
+                    }
+                    if (img != null) {
+                        gc.drawImage(img, sx, sy);
+                    } else {
+                        // over budget this frame: draw the tile's content straight onto the view
+                        gc.save();
+                        gc.beginPath();
+                        gc.rect(sx, sy, TILE, TILE);
+                        gc.clip();
+                        gc.setTransform(z, 0, 0, z, panX, panY);
+                        drawPlan(gc, tx * TILE / z, ty * TILE / z, (tx + 1) * TILE / z, (ty + 1) * TILE / z);
+                        gc.restore();
+                        scheduleRedraw(); // fill the cache over the next pulses
+                    }
+                }
             }
+
+            // live items on top of the cached plan
+            gc.setTransform(z, 0, 0, z, panX, panY);
+            PlanGraphics g = new FxPlanGraphics(gc);
+            for (FurnitureItem it : liveItems) Furniture2DFactory.drawPlaced(g, it, true);
+            drawConflicts(gc, z);
+            gc.setTransform(new Affine());
+
+            if (minimap != null) {
+                minimap.setViewport(toDesignX(0), toDesignY(0), toDesignX(w), toDesignY(h));
+            }
+            lastDrawTilesRendered = TILES_PER_DRAW - budget;
+            lastDrawNanos = System.nanoTime() - t0;
+            drawTimer.record(lastDrawNanos);
+            event.end();
+            if (event.shouldCommit()) {
+                event.items = roomDesign.getFurniture().size();
+                event.liveItems = liveItems.size();
+                event.tilesRendered = lastDrawTilesRendered;
+                event.zoom = z;
+                event.commit();
+            }
+        }
+
+        /** view and tile-cache figures for the performance overlay */
+        List<String> hudStats() {
+            return List.of(
+                    String.format(Locale.ROOT, "items %d   live %d   zoom %.0f%%", roomDesign.getFurniture().size(),
+                            liveItems.size(), zoom() * 100),
+                    String.format(Locale.ROOT, "tiles %d / %d, %.1f MiB   last draw %.1f ms (%d tiles rendered)",
+                            tiles.size(), tileCap, tiles.size() * (double) TILE * TILE * 4 / (1024 * 1024),
+                            lastDrawNanos / 1e6, lastDrawTilesRendered));
+        }
+
+        private void scheduleRedraw() {
+            if (redrawScheduled) return;
+            redrawScheduled = true;
+            Platform.runLater(() -> {
+                redrawScheduled = false;
+                draw();
+            });
+        }
+
+        /** Draws the room and every non-live item intersecting the design rectangle. */
+        private void drawPlan(GraphicsContext gc, double minX, double minY, double maxX, double maxY) {
+            PlanGraphics g = new FxPlanGraphics(gc);
+            Furniture2DFactory.drawRoom(g, roomDesign);
+
+            // keep design order so overlapping items stack as before
+            List<FurnitureItem> visible = index.query(minX, minY, maxX, maxY);
+            if (visible.size() > 1) visible.sort(Comparator.comparingInt(this::orderOf));
+            for (FurnitureItem it : visible) {
+                if (!liveItems.contains(it)) Furniture2DFactory.drawPlaced(g, it, false);
+            }
+        }
+
+        private WritableImage renderTile(int tx, int ty, double z) {
+            GraphicsContext gc = tileCanvas.getGraphicsContext2D();
+            gc.setTransform(new Affine());
+            gc.setFill(BACKGROUND);
+            gc.fillRect(0, 0, TILE, TILE);
+            gc.setTransform(z, 0, 0, z, -(double) tx * TILE, -(double) ty * TILE);
+            drawPlan(gc, tx * TILE / z, ty * TILE / z, (tx + 1) * TILE / z, (ty + 1) * TILE / z);
+
+            WritableImage img = tileCanvas.snapshot(tileSnapshot, spareTile);
+            spareTile = null;
+            tiles.put(tileKey(zoomStep, tx, ty), img);
+            // more than one goes when the viewport shrank
+            for (Iterator<WritableImage> eldest = tiles.values().iterator(); tiles.size() > tileCap; ) {
+                spareTile = eldest.next(); // recycled by the next snapshot
+                eldest.remove();
+            }
+            return img;
+        }
+
+        /**
+         * Keeps selected items out of the tiles: items that stop being live are put
+         * back (and their tiles redrawn), new live items have their tiles dropped.
+         */
+        private void syncLiveItems() {
+            FurnitureItem a = selectedItem, b = lastSelectedItem;
+            for (Iterator<FurnitureItem> i = liveItems.iterator(); i.hasNext(); ) {
+                FurnitureItem it = i.next();
+                if (it != a && it != b) {
+                    i.remove();
+                    indexItem(it);
+                    invalidate(it);
+                }
+            }
+            for (FurnitureItem it : new FurnitureItem[] { a, b }) {
+                if (it == null) continue;
+                if (!liveItems.contains(it)) {
+                    invalidate(it);
+                    liveItems.add(it);
+                }
+                indexItem(it); // live items move: keep hit-testing current
+            }
+        }
+
+        private int orderOf(FurnitureItem it) {
+            return designOrder.getOrDefault(it, Integer.MAX_VALUE);
+        }
+
+        private void indexItem(FurnitureItem it) {
+            double[] r = Furniture2DFactory.footprintBounds(it);
+            index.insert(it, r[0], r[1], r[2], r[3]);
+        }
+
+        /** drops cached tiles (at every zoom level) that show the item where it is indexed */
+        private void invalidate(FurnitureItem it) {
+            double[] r = Furniture2DFactory.footprintBounds(it);
+            tiles.keySet().removeIf(key -> {
+                int step = (int) (key >> 48) - 512;
+                int tx = (int) (key >> 24 & 0xFFFFFF) - 0x800000, ty = (int) (key & 0xFFFFFF) - 0x800000;
+                double z = Math.pow(2, step / (double) ZOOM_STEPS_PER_2X);
+                double minX = tx * TILE / z, minY = ty * TILE / z;
+                double maxX = (tx + 1) * TILE / z, maxY = (ty + 1) * TILE / z;
+                return r[2] >= minX - 2 && r[0] <= maxX + 2 && r[3] >= minY - 2 && r[1] <= maxY + 2;
+            });
+        }
+
+        private long tileKey(int step, int tx, int ty) {
+            return ((long) (step + 512) << 48)
+                    | ((long) ((tx + 0x800000) & 0xFFFFFF) << 24)
+                    | ((ty + 0x800000) & 0xFFFFFF);
         }
 
         private double clamp(double v, double min, double max) {
@@ -3,42 +3,129 @@ package com.myfurniture.designapp.UI;
 import com.myfurniture.designapp.Core.DesignManager;
 import com.myfurniture.designapp.Core.FurnitureItem;
 import com.myfurniture.designapp.Core.RoomDesign;
+import com.myfurniture.designapp.Diagnostics.Events;
+import com.myfurniture.designapp.Diagnostics.Metrics;
+import com.myfurniture.designapp.Export.ExportScene;
+import com.myfurniture.designapp.Export.GlbWriter;
+import com.myfurniture.designapp.Export.ObjWriter;
 import com.myfurniture.designapp.Factory.BoothRoomFactory;
 import com.myfurniture.designapp.Factory.Furniture3DFactory;
+import com.myfurniture.designapp.Factory.RenderQuality;
+import com.myfurniture.designapp.Render.PathTracer;
+import com.myfurniture.designapp.Render.RenderCamera;
+import com.myfurniture.designapp.Render.SceneTriangulator;
+import com.myfurniture.designapp.Util.BoundingVolumeHierarchy;
 import javafx.animation.*;
+import javafx.concurrent.Task;
+import javafx.event.EventHandler;
 import javafx.geometry.Bounds;
 import javafx.geometry.Point3D;
 import javafx.scene.*;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceDialog;
+import javafx.scene.control.ContextMenu;
 import javafx.scene.control.Label;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TextInputDialog;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Material;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.Box;
+import javafx.scene.shape.DrawMode;
+import javafx.scene.shape.Mesh;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.Shape3D;
 import javafx.scene.text.Font;
+import javafx.scene.transform.NonInvertibleTransformException;
 import javafx.scene.transform.Scale;
+import javafx.scene.transform.Transform;
 import javafx.scene.transform.Translate;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
 import javafx.util.Duration;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
 public class RoomRenderer3D extends StackPane {
 
     private final DesignManager designManager;
     private final Group roomGroup  = new Group();
+    private final Group furnitureGroup = new Group();
     private final Group pivotGroup = new Group(roomGroup);
     private final Group root3D     = new Group(pivotGroup);
 
     private final PerspectiveCamera camera = new PerspectiveCamera(true);
+    private SubScene subScene;
+    private final RenderQualityGovernor qualityGovernor = new RenderQualityGovernor();
+    /** detail new nodes are built at; follows the governor's tier */
+    private RenderQuality quality = RenderQuality.HIGH;
     private OrbitCameraController cameraController;
 
     private AmbientLight ambient;
     private PointLight   sun;
     private AnimationTimer lightUpdater;
 
+    private static final int MAX_LAMP_LIGHTS = 8;
+    private final LampLightManager lampLights = new LampLightManager(MAX_LAMP_LIGHTS);
+    private Node booth;
+
     private boolean isLightMode    = true;
     private boolean isAutoRotating = false;
     private Timeline autoRotateTimeline;
 
+    private ProgressiveSceneBuilder sceneBuilder;
+    private final Map<FurnitureItem, Node> nodesByItem   = new IdentityHashMap<>();
+    private final Set<FurnitureItem>       pendingMoves  = new LinkedHashSet<>();
+    // node properties: the item a node shows and the tier it was built at
+    private static final String BUILT_FOR = "renderer3d.builtFor", BUILT_QUALITY = "renderer3d.builtQuality";
+    /** next furniture child to check after a tier change, or -1 when all match the tier */
+    private int requalifyNext = -1;
+
+    // picking: ray cast against a BVH of furniture bounds, rebuilt lazily
+    private BoundingVolumeHierarchy<FurnitureItem> pickIndex;
+    private boolean pickIndexDirty = true;
+    private FurnitureItem dragItem;
+    private double dragOffsetX, dragOffsetZ;
+    private boolean dragMoved;
+    private final Box selectionBox = new Box();
+    private Consumer<FurnitureItem> onItemEdited;
+    private final FadeTransition furnitureFade = new FadeTransition(Duration.millis(700), furnitureGroup);
+
+    // performance overlay
+    private final PerformanceHud hud = new PerformanceHud("3D view", this::hudStats);
+    private long rebuildStarted, lastRebuildNanos;
+    private static final Metrics.Timer rebuildTimer = Metrics.timer("3d.rebuild");
+    private static final Metrics.Timer pickTimer = Metrics.timer("3d.pick");
+
     private static final double FIT_W = 700, FIT_D = 500;
+    private static final Color  BACKGROUND = Color.rgb(240,240,245);
+
+    private Task<?> runningExport;
+    private boolean selectionShownBeforeExport;
+
+    // walkthrough: keyframes are added at WALKTHROUGH_STEP second intervals
+    private final CameraPath walkthrough = new CameraPath();
+    private AnimationTimer walkthroughPreview;
+    private final EventHandler<MouseEvent> stopPreviewOnPress = e -> stopWalkthroughPreview();
+    private static final double WALKTHROUGH_STEP = 3, WALKTHROUGH_FPS = 30;
 
     public RoomRenderer3D(DesignManager designManager) {
         this.designManager = designManager;
@@ -46,24 +133,43 @@ public class RoomRenderer3D extends StackPane {
     }
 
     private void init3D() {
-        SubScene subScene = new SubScene(root3D, 0,0, true, SceneAntialiasing.BALANCED);
-        subScene.widthProperty().bind(widthProperty());
-        subScene.heightProperty().bind(heightProperty());
-        subScene.setFill(Color.rgb(240,240,245));
-        subScene.setCamera(camera);
-        getChildren().add(subScene);
+        createSubScene(qualityGovernor.getTier());
 
         camera.setFieldOfView(35);
         camera.setNearClip(0.1);
         camera.setFarClip(10000);
 
         cameraController = new OrbitCameraController(camera, pivotGroup);
+        sceneBuilder = new ProgressiveSceneBuilder(furnitureGroup, this::buildFurnitureNode);
+        furnitureFade.setFromValue(0);
+        furnitureFade.setToValue(1);
 
         // Mouse controls
-        setOnMousePressed(e  -> cameraController.onMousePressed(e.getSceneX(), e.getSceneY()));
-        setOnMouseDragged(e  -> cameraController.onMouseDragged(e.getSceneX(), e.getSceneY()));
-        setOnMouseReleased(e -> cameraController.onMouseReleased());
-        addEventHandler(ScrollEvent.SCROLL, e -> cameraController.zoom(e.getDeltaY()));
+        setOnMousePressed(e  -> {
+            qualityGovernor.noteInteraction();
+            if (e.getButton() == MouseButton.PRIMARY && beginItemDrag(e.getX(), e.getY())) return;
+            cameraController.onMousePressed(e.getSceneX(), e.getSceneY());
+        });
+        setOnMouseDragged(e  -> {
+            qualityGovernor.noteInteraction();
+            if (dragItem != null) dragItemTo(e.getX(), e.getY());
+            else cameraController.onMouseDragged(e.getSceneX(), e.getSceneY());
+        });
+        setOnMouseReleased(e -> {
+            if (dragItem != null) endItemDrag();
+            else cameraController.onMouseReleased();
+        });
+        addEventHandler(ScrollEvent.SCROLL, e -> {
+            qualityGovernor.noteInteraction();
+            cameraController.zoom(e.getDeltaY());
+        });
+
+        PhongMaterial selectionMat = new PhongMaterial(Color.RED);
+        selectionBox.setMaterial(selectionMat);
+        selectionBox.setDrawMode(DrawMode.LINE);
+        selectionBox.setMouseTransparent(true);
+        selectionBox.setVisible(false);
+        designManager.selectedItemProperty().addListener((o, oldItem, newItem) -> updateSelectionBox());
 
         widthProperty().addListener((o, __, ___) -> rebuild());
         heightProperty().addListener((o, __, ___) -> rebuild());
@@ -78,33 +184,168 @@ public class RoomRenderer3D extends StackPane {
             @Override
             public void handle(long now) {
                 updateSunPosition();
+                applyPendingMoves();
+                requalify(false);
+                lampLights.update(eyeInRoom(), nodesByItem::get, booth);
             }
         };
         lightUpdater.start();
 
+        qualityGovernor.tierProperty().addListener((o, oldTier, newTier) -> applyQuality(oldTier, newTier));
+        qualityGovernor.start();
+
         rebuild();
         showUserHint("💡 Drag to rotate, scroll to zoom");
         addOverlayButtons();
+        getChildren().add(hud);
+        StackPane.setAlignment(hud, javafx.geometry.Pos.TOP_RIGHT);
+        StackPane.setMargin(hud, new javafx.geometry.Insets(10));
+    }
+
+    /**
+     * (Re)creates the SubScene for a quality tier. Antialiasing is fixed at
+     * construction, and the render scale renders smaller then scales up.
+     */
+    private void createSubScene(RenderQuality q) {
+        if (subScene != null) {
+            subScene.setRoot(new Group()); // release root3D for the new SubScene
+            getChildren().remove(subScene);
+        }
+        subScene = new SubScene(root3D, 0, 0, true,
+                q.isAntialiasing() ? SceneAntialiasing.BALANCED : SceneAntialiasing.DISABLED);
+        double s = q.getRenderScale();
+        subScene.widthProperty().bind(widthProperty().multiply(s));
+        subScene.heightProperty().bind(heightProperty().multiply(s));
+        subScene.setScaleX(1 / s);
+        subScene.setScaleY(1 / s);
+        subScene.setFill(BACKGROUND);
+        subScene.setCamera(camera);
+        getChildren().add(0, subScene);
+    }
+
+    /**
+     * Switches to a tier without rebuilding the scene: the booth is replaced
+     * at once, furniture nodes built at a different detail are replaced in
+     * place a few per pulse, and nothing fades, so a tier change mid-orbit
+     * does not flash.
+     */
+    private void applyQuality(RenderQuality oldTier, RenderQuality newTier) {
+        if (oldTier.isAntialiasing() != newTier.isAntialiasing()
+                || oldTier.getRenderScale() != newTier.getRenderScale()) {
+            createSubScene(newTier);
+        }
+        quality = newTier;
+        if (!oldTier.differsInGeometry(newTier)) return;
+        RoomDesign room = designManager.getCurrentDesign();
+        if (booth != null && room != null) {
+            Node fresh = BoothRoomFactory.createBooth(room, quality);
+            roomGroup.getChildren().set(roomGroup.getChildren().indexOf(booth), fresh);
+            booth = fresh;
+            lampLights.invalidate();   // light scopes still name the old booth
+        }
+        requalifyNext = 0;
+    }
+
+    /**
+     * Replaces furniture nodes whose detail differs from the current tier, in
+     * child order (nearest first, as the scene builder added them), within the
+     * scene builder's per-pulse budget, or all of them if {@code all}.
+     */
+    private void requalify(boolean all) {
+        if (requalifyNext < 0) return;
+        List<Node> children = furnitureGroup.getChildren();
+        long deadline = System.nanoTime() + ProgressiveSceneBuilder.DEFAULT_BUDGET_NANOS;
+        boolean replaced = false;
+        while (requalifyNext < children.size() && (all || System.nanoTime() < deadline)) {
+            Node node = children.get(requalifyNext);
+            if (((RenderQuality) node.getProperties().get(BUILT_QUALITY)).differsInGeometry(quality)) {
+                children.set(requalifyNext, buildFurnitureNode((FurnitureItem) node.getProperties().get(BUILT_FOR)));
+                replaced = true;
+            }
+            requalifyNext++;
+        }
+        if (requalifyNext >= children.size()) requalifyNext = -1;
+        if (replaced) {
+            lampLights.invalidate();
+            updateSelectionBox();
+        }
+    }
+
+    public RenderQualityGovernor getQualityGovernor() {
+        return qualityGovernor;
+    }
+
+    /** Shows or hides the performance overlay; hidden, it costs nothing. */
+    public void setHudVisible(boolean visible) {
+        hud.setShowing(visible);
+    }
+
+    /** scene-graph and resource counts for the performance overlay */
+    private List<String> hudStats() {
+        int[] nodes = {0};
+        Set<Mesh> meshes = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Material> materials = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Image> textures = Collections.newSetFromMap(new IdentityHashMap<>());
+        int[] shapes = {0};
+        countNodes(root3D, nodes, shapes, meshes, materials);
+        long textureBytes = 0;
+        for (Material m : materials) {
+            if (!(m instanceof PhongMaterial pm)) continue;
+            for (Image img : new Image[] {pm.getDiffuseMap(), pm.getSpecularMap(), pm.getBumpMap(), pm.getSelfIlluminationMap()}) {
+                if (img != null && textures.add(img)) textureBytes += (long) img.getWidth() * (long) img.getHeight() * 4;
+            }
+        }
+        RoomDesign room = designManager.getCurrentDesign();
+        int items = room == null ? 0 : room.getFurniture().size();
+        List<String> l = new ArrayList<>();
+        l.add(String.format(Locale.ROOT, "items %d (%d built%s)   quality %s", items, nodesByItem.size(),
+                sceneBuilder.isRunning() ? String.format(Locale.ROOT, ", %.0f%%", sceneBuilder.getProgress() * 100) : "",
+                qualityGovernor.getTier()));
+        l.add(String.format(Locale.ROOT, "nodes %d   shapes %d   meshes %d   materials %d", nodes[0], shapes[0],
+                meshes.size(), materials.size()));
+        l.add(String.format(Locale.ROOT, "textures %d, ~%.1f MiB   last rebuild %.0f ms", textures.size(),
+                textureBytes / (1024.0 * 1024), lastRebuildNanos / 1e6));
+        return l;
+    }
+
+    private static void countNodes(Node node, int[] nodes, int[] shapes, Set<Mesh> meshes, Set<Material> materials) {
+        nodes[0]++;
+        if (node instanceof Shape3D shape) {
+            shapes[0]++;
+            if (shape.getMaterial() != null) materials.add(shape.getMaterial());
+            if (shape instanceof MeshView mv && mv.getMesh() != null) meshes.add(mv.getMesh());
+        } else if (node instanceof Parent parent) {
+            for (Node child : parent.getChildrenUnmodifiable()) countNodes(child, nodes, shapes, meshes, materials);
+        }
     }
 
     private void rebuild() {
+        sceneBuilder.cancel();
+        furnitureGroup.getChildren().clear();
+        nodesByItem.clear();
+        pendingMoves.clear();
+        booth = null;
+        pickIndexDirty = true;
+        dragItem = null;
         roomGroup.getChildren().clear();
+        requalifyNext = -1;
 
         RoomDesign room = designManager.getCurrentDesign();
         if (room == null) return;
+        rebuildStarted = System.nanoTime();
+        Events.SceneRebuild event = new Events.SceneRebuild();
+        event.begin();
 
         // Walls + floor
-        roomGroup.getChildren().add(BoothRoomFactory.createBooth(room));
-        // Furniture
-        for (FurnitureItem item : room.getFurniture()) {
-            roomGroup.getChildren().add(Furniture3DFactory.createFurniture3D(item));
-        }
+        booth = BoothRoomFactory.createBooth(room, quality);
+        roomGroup.getChildren().add(booth);
 
-        // Scale & center
+        // Scale & center on the booth; furniture streams in afterwards
         double sX = FIT_W / room.getRoomWidth();
         double sZ = FIT_D / room.getRoomHeight();
         double scale = Math.min(sX, sZ);
         roomGroup.getTransforms().setAll(new Scale(scale, -scale, -scale));
+        lampLights.setWorldScale(scale);
 
         Bounds b = roomGroup.getBoundsInParent();
         double cX = (b.getMinX()+b.getMaxX())/2.0;
@@ -112,10 +353,198 @@ public class RoomRenderer3D extends StackPane {
         double cZ = (b.getMinZ()+b.getMaxZ())/2.0;
         roomGroup.getTransforms().add(new Translate(-cX, -cY, -cZ));
 
+        // Furniture: a few per pulse, nearest first, under one shared fade
+        roomGroup.getChildren().addAll(furnitureGroup, lampLights.getLightGroup(), selectionBox);
+        furnitureGroup.setOpacity(0);
+        furnitureFade.playFromStart();
+        lampLights.setItems(room.getFurniture());
+        sceneBuilder.start(room.getFurniture(), eyeInRoom(), () -> {
+            lastRebuildNanos = System.nanoTime() - rebuildStarted;
+            rebuildTimer.record(lastRebuildNanos);
+            event.end();
+            if (event.shouldCommit()) {
+                event.items = room.getFurniture().size();
+                event.quality = quality.name();
+                event.commit();
+            }
+            lampLights.invalidate();
+            updateSelectionBox();
+        });
+
         setupLighting();  // set base intensities
     }
 
+    private Node buildFurnitureNode(FurnitureItem item) {
+        Node node = Furniture3DFactory.createFurniture3D(item, quality);
+        node.getProperties().put(BUILT_FOR, item);
+        node.getProperties().put(BUILT_QUALITY, quality);
+        nodesByItem.put(item, node);
+        pickIndexDirty = true;
+        return node;
+    }
+
+    /**
+     * Live preview hook: the item moved or rotated. Only its transform is touched,
+     * once per pulse however many drag events arrive in between.
+     */
+    public void previewItem(FurnitureItem item) {
+        pendingMoves.add(item);
+    }
+
+    /** Recreates the node of a single item (size, colour…) without touching the camera. */
+    public void refreshItem(FurnitureItem item) {
+        pendingMoves.remove(item);
+        Node old = nodesByItem.get(item);
+        if (old == null) return; // not built yet, the scene builder will pick it up
+        int index = furnitureGroup.getChildren().indexOf(old);
+        furnitureGroup.getChildren().set(index, buildFurnitureNode(item));
+        lampLights.itemMoved(item);
+        updateSelectionBox();
+    }
+
+    private void applyPendingMoves() {
+        if (pendingMoves.isEmpty()) return;
+        for (FurnitureItem item : pendingMoves) {
+            Node node = nodesByItem.get(item);
+            if (node != null && !Furniture3DFactory.updateTransform(node, item)) {
+                int index = furnitureGroup.getChildren().indexOf(node);
+                furnitureGroup.getChildren().set(index, buildFurnitureNode(item));
+            }
+            lampLights.itemMoved(item);
+        }
+        pendingMoves.clear();
+        pickIndexDirty = true;
+        updateSelectionBox();
+    }
+
+    /** called after an item was moved by dragging it in the 3D view */
+    public void setOnItemEdited(Consumer<FurnitureItem> onItemEdited) {
+        this.onItemEdited = onItemEdited;
+    }
+
+    // ------------------- picking -------------------
+
+    /** Furniture under a point of this view, or null. */
+    public FurnitureItem pick(double x, double y) {
+        double[] ray = pickRay(x, y);
+        if (ray == null) return null;
+        Events.HitTest event = new Events.HitTest();
+        event.begin();
+        long t0 = System.nanoTime();
+        if (pickIndexDirty || pickIndex == null) rebuildPickIndex();
+        BoundingVolumeHierarchy.Hit<FurnitureItem> hit =
+                pickIndex.raycast(ray[0], ray[1], ray[2], ray[3], ray[4], ray[5]);
+        pickTimer.recordSince(t0);
+        event.end();
+        if (event.shouldCommit()) {
+            event.view = "3d";
+            event.candidates = nodesByItem.size();
+            event.hit = hit != null;
+            event.commit();
+        }
+        return hit == null ? null : hit.item();
+    }
+
+    private void rebuildPickIndex() {
+        List<FurnitureItem> items = new ArrayList<>(nodesByItem.keySet());
+        float[] boxes = new float[items.size() * 6];
+        for (int i = 0; i < items.size(); i++) {
+            Bounds b = nodesByItem.get(items.get(i)).getBoundsInParent();
+            int o = i * 6;
+            boxes[o]     = (float) b.getMinX(); boxes[o + 1] = (float) b.getMinY(); boxes[o + 2] = (float) b.getMinZ();
+            boxes[o + 3] = (float) b.getMaxX(); boxes[o + 4] = (float) b.getMaxY(); boxes[o + 5] = (float) b.getMaxZ();
+        }
+        pickIndex = new BoundingVolumeHierarchy<>(items, boxes);
+        pickIndexDirty = false;
+    }
+
+    /**
+     * Ray through a point of this view, in design coordinates:
+     * {originX, originY, originZ, dirX, dirY, dirZ}.
+     */
+    private double[] pickRay(double x, double y) {
+        double w = getWidth(), h = getHeight();
+        if (w <= 0 || h <= 0) return null;
+        // fixed-eye perspective camera: looks down +Z, Y down, vertical field of view
+        double t = Math.tan(Math.toRadians(camera.getFieldOfView()) / 2);
+        Point3D dirCam = new Point3D((2 * x / w - 1) * t * (w / h), (2 * y / h - 1) * t, 1);
+
+        Transform camToWorld  = camera.getLocalToParentTransform();
+        Transform roomToWorld = pivotGroup.getLocalToParentTransform()
+                .createConcatenation(roomGroup.getLocalToParentTransform());
+        try {
+            Point3D o = roomToWorld.inverseTransform(camToWorld.transform(Point3D.ZERO));
+            Point3D d = roomToWorld.inverseDeltaTransform(camToWorld.deltaTransform(dirCam));
+            return new double[] { o.getX(), o.getY(), o.getZ(), d.getX(), d.getY(), d.getZ() };
+        } catch (NonInvertibleTransformException ex) {
+            return null;
+        }
+    }
+
+    /** where the ray through a view point meets the floor, as {x, z}; null if it does not */
+    private double[] floorPoint(double x, double y) {
+        double[] r = pickRay(x, y);
+        if (r == null || Math.abs(r[4]) < 1e-9) return null;
+        double t = -r[1] / r[4];
+        if (t < 0) return null;
+        return new double[] { r[0] + t * r[3], r[2] + t * r[5] };
+    }
+
+    private boolean beginItemDrag(double x, double y) {
+        FurnitureItem hit = pick(x, y);
+        if (hit == null) return false;
+        designManager.setSelectedItem(hit);
+        double[] p = floorPoint(x, y);
+        dragItem = hit;
+        dragMoved = false;
+        dragOffsetX = p == null ? 0 : hit.getX() - p[0];
+        dragOffsetZ = p == null ? 0 : hit.getY() - p[1];
+        return true;
+    }
+
+    private void dragItemTo(double x, double y) {
+        RoomDesign room = designManager.getCurrentDesign();
+        double[] p = floorPoint(x, y);
+        if (p == null || room == null) return;
+        double nx = Math.max(0, Math.min(room.getRoomWidth()  - dragItem.getWidth(),  p[0] + dragOffsetX));
+        double nz = Math.max(0, Math.min(room.getRoomHeight() - dragItem.getHeight(), p[1] + dragOffsetZ));
+        dragItem.setX((int) nx);
+        dragItem.setY((int) nz);
+        dragMoved = true;
+        previewItem(dragItem);
+    }
+
+    private void endItemDrag() {
+        FurnitureItem item = dragItem;
+        dragItem = null;
+        if (dragMoved && onItemEdited != null) onItemEdited.accept(item);
+    }
+
+    private void updateSelectionBox() {
+        FurnitureItem item = designManager.getSelectedItem();
+        Node node = item == null ? null : nodesByItem.get(item);
+        if (node == null) {
+            selectionBox.setVisible(false);
+            return;
+        }
+        Bounds b = node.getBoundsInParent();
+        selectionBox.setWidth (b.getWidth()  + 4);
+        selectionBox.setHeight(b.getHeight() + 4);
+        selectionBox.setDepth (b.getDepth()  + 4);
+        selectionBox.setTranslateX((b.getMinX() + b.getMaxX()) / 2);
+        selectionBox.setTranslateY((b.getMinY() + b.getMaxY()) / 2);
+        selectionBox.setTranslateZ((b.getMinZ() + b.getMaxZ()) / 2);
+        selectionBox.setVisible(true);
+    }
+
+    /** camera position expressed in roomGroup's (design) coordinates */
+    private Point3D eyeInRoom() {
+        Point3D eye = camera.getLocalToParentTransform().transform(Point3D.ZERO);
+        return roomGroup.parentToLocal(pivotGroup.parentToLocal(eye));
+    }
+
     private void setupLighting() {
+        lampLights.setEvening(!isLightMode);
         if (isLightMode) {
             ambient.setColor(Color.rgb(200,200,200, 0.10));
             sun.setColor   (Color.rgb(255,244,220, 0.60));
@@ -148,8 +577,16 @@ public class RoomRenderer3D extends StackPane {
         Button btnReset       = overlayButton("🔄 Reset View");
         Button btnLightToggle = overlayButton("💡 Toggle Light");
         Button btnAutoRotate  = overlayButton("🎥 Toggle Auto-Rotate");
+        Button btnExport      = overlayButton("🖼 Export Image…");
+        Button btnPhoto       = overlayButton("✨ Photoreal Render…");
+        Button btnWalkthrough = overlayButton("🎬 Walkthrough");
+        Button btnModel       = overlayButton("📦 Export 3D Model…");
 
         btnReset      .setOnAction(e -> cameraController.resetView());
+        btnExport     .setOnAction(e -> promptImageExport());
+        btnPhoto      .setOnAction(e -> promptPhotoRender());
+        btnWalkthrough.setOnAction(e -> showWalkthroughMenu(btnWalkthrough));
+        btnModel      .setOnAction(e -> promptModelExport());
         btnLightToggle.setOnAction(e -> { isLightMode = !isLightMode; setupLighting(); });
         btnAutoRotate .setOnAction(e -> {
             isAutoRotating = !isAutoRotating;
@@ -157,7 +594,8 @@ public class RoomRenderer3D extends StackPane {
             else              stopAutoRotate();
         });
 
-        VBox box = new VBox(8, btnReset, btnLightToggle, btnAutoRotate);
+        VBox box = new VBox(8, btnReset, btnLightToggle, btnAutoRotate, btnExport, btnPhoto,
+                btnWalkthrough, btnModel);
         box.setStyle("-fx-padding:10;");
         box.setTranslateX(10);
         box.setTranslateY(10);
@@ -165,12 +603,305 @@ public class RoomRenderer3D extends StackPane {
         StackPane.setAlignment(box, javafx.geometry.Pos.TOP_LEFT);
     }
 
+    // ------------------- image export -------------------
+
+    private void promptImageExport() {
+        if (runningExport != null || designManager.getCurrentDesign() == null || getWidth() <= 0) return;
+        TextInputDialog dlg = new TextInputDialog(String.valueOf((int) Math.round(getWidth() * 4)));
+        dlg.initOwner(getScene().getWindow());
+        dlg.setTitle("Export Image");
+        dlg.setHeaderText("Width in pixels (height follows the view's aspect ratio)");
+        String answer = dlg.showAndWait().orElse(null);
+        if (answer == null) return;
+
+        int width;
+        try {
+            width = Integer.parseInt(answer.trim());
+        } catch (NumberFormatException ex) {
+            showAlert("Enter a whole number of pixels.");
+            return;
+        }
+        int height = (int) Math.round(width * getHeight() / getWidth());
+        if (width < 16 || height < 16 || (long) width * height > 400_000_000L) {
+            showAlert("Choose a width that gives between 16 px and 400 megapixels.");
+            return;
+        }
+
+        FileChooser ch = new FileChooser();
+        ch.setTitle("Export Image");
+        ch.getExtensionFilters().add(new FileChooser.ExtensionFilter("PNG images", "*.png"));
+        File file = ch.showSaveDialog(getScene().getWindow());
+        if (file == null) return;
+        exportImage(file, width, height);
+    }
+
+    /**
+     * Renders the current view to a PNG of the given size in tiles, in the
+     * background. Progress is shown over the view, which is frozen until the
+     * export ends; the returned task can be cancelled.
+     *
+     * @throws IllegalArgumentException if a band of tiles across the image
+     *         would not fit in one array (wider than about 2 million pixels)
+     */
+    public Task<File> exportImage(File file, int width, int height) {
+        if (runningExport != null) throw new IllegalStateException("an export is already running");
+        TiledImageExport.checkSize(width, height);   // before the view is frozen
+        SubScene exportView = freezeForExport();
+        TiledImageExport task = new TiledImageExport(exportView, camera, width, height, file);
+        runExport(task, exportView, "image-export",
+                "Saved " + width + " × " + height + " image to " + file.getName() + ".", () -> { });
+        return task;
+    }
+
+    /**
+     * Brings the scene to its final, full-quality state, keeps it there and
+     * moves it to an off-screen sub scene that exports render with.
+     */
+    private SubScene freezeForExport() {
+        if (isAutoRotating) {
+            isAutoRotating = false;
+            stopAutoRotate();
+        }
+        stopWalkthroughPreview();
+        qualityGovernor.stop();
+        qualityGovernor.reset();
+        sceneBuilder.finish();
+        applyPendingMoves();
+        requalify(true);
+        furnitureFade.stop();
+        furnitureGroup.setOpacity(1);
+        selectionShownBeforeExport = selectionBox.isVisible();
+        selectionBox.setVisible(false);
+
+        subScene.setRoot(new Group());
+        SubScene exportView = new SubScene(root3D, 1, 1, true, SceneAntialiasing.BALANCED);
+        exportView.setFill(BACKGROUND);
+        exportView.setManaged(false);
+        getChildren().add(0, exportView);
+        return exportView;
+    }
+
+    /** Runs an export in the background behind a progress overlay, then puts the live view back. */
+    private void runExport(Task<?> task, SubScene exportView, String threadName,
+                           String doneMessage, Runnable afterRestore) {
+        runningExport = task;
+
+        ProgressBar bar = new ProgressBar();
+        bar.setPrefWidth(260);
+        bar.progressProperty().bind(task.progressProperty());
+        Label status = new Label();
+        status.setStyle("-fx-text-fill:white;");
+        status.textProperty().bind(task.messageProperty());
+        Button cancel = overlayButton("Cancel");
+        cancel.setOnAction(e -> task.cancel());
+        VBox panel = new VBox(10, status, bar, cancel);
+        panel.setAlignment(javafx.geometry.Pos.CENTER);
+        panel.setStyle("-fx-background-color:#000000aa;");
+        panel.addEventHandler(MouseEvent.ANY, MouseEvent::consume);
+        panel.addEventHandler(ScrollEvent.ANY, ScrollEvent::consume);
+        getChildren().add(panel);
+
+        Runnable restore = () -> {
+            getChildren().removeAll(panel, exportView);
+            exportView.setRoot(new Group());
+            subScene.setRoot(root3D);
+            runningExport = null;
+            selectionBox.setVisible(selectionShownBeforeExport);
+            updateSelectionBox();
+            afterRestore.run();
+            qualityGovernor.start();
+        };
+        task.setOnSucceeded(e -> {
+            restore.run();
+            showAlert(doneMessage);
+        });
+        task.setOnFailed(e -> {
+            restore.run();
+            showAlert("Export failed: " + task.getException().getMessage());
+        });
+        task.setOnCancelled(e -> {
+            restore.run();
+            showUserHint("Export cancelled");
+        });
+
+        Thread worker = new Thread(task, threadName);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void showAlert(String msg) {
+        Alert a = new Alert(Alert.AlertType.INFORMATION, msg);
+        a.initOwner(getScene().getWindow());
+        a.showAndWait();
+    }
+
+    // ------------------- walkthrough -------------------
+
+    private void showWalkthroughMenu(Button owner) {
+        int n = walkthrough.size();
+        MenuItem add = new MenuItem("Add Keyframe (" + n + " so far)");
+        MenuItem play = new MenuItem("Play Preview");
+        MenuItem export = new MenuItem("Export Frames…");
+        MenuItem clear = new MenuItem("Clear Keyframes");
+        add.setOnAction(e -> {
+            walkthrough.add(n * WALKTHROUGH_STEP, cameraController.getPose());
+            showUserHint("Keyframe " + (n + 1) + " at " + (int) (n * WALKTHROUGH_STEP) + " s");
+        });
+        play.setOnAction(e -> playWalkthroughPreview());
+        export.setOnAction(e -> promptFrameExport());
+        clear.setOnAction(e -> walkthrough.clear());
+        play.setDisable(n < 2);
+        export.setDisable(n < 2 || runningExport != null);
+        clear.setDisable(n == 0);
+        new ContextMenu(add, play, export, clear).show(owner, javafx.geometry.Side.RIGHT, 0, 0);
+    }
+
+    /** Plays the path in real time; any click in the view stops it. */
+    private void playWalkthroughPreview() {
+        stopWalkthroughPreview();
+        if (isAutoRotating) {
+            isAutoRotating = false;
+            stopAutoRotate();
+        }
+        walkthroughPreview = new AnimationTimer() {
+            private long start = -1;
+
+            @Override
+            public void handle(long now) {
+                if (start < 0) start = now;
+                double t = (now - start) / 1e9;
+                qualityGovernor.noteInteraction();
+                cameraController.setPose(walkthrough.sample(walkthrough.getStartTime() + t));
+                if (t >= walkthrough.getDuration()) stopWalkthroughPreview();
+            }
+        };
+        addEventFilter(MouseEvent.MOUSE_PRESSED, stopPreviewOnPress);
+        walkthroughPreview.start();
+    }
+
+    private void stopWalkthroughPreview() {
+        if (walkthroughPreview == null) return;
+        walkthroughPreview.stop();
+        walkthroughPreview = null;
+        removeEventFilter(MouseEvent.MOUSE_PRESSED, stopPreviewOnPress);
+    }
+
+    private void promptFrameExport() {
+        if (runningExport != null || walkthrough.size() < 2 || getWidth() <= 0 || getHeight() <= 0) return;
+        DirectoryChooser ch = new DirectoryChooser();
+        ch.setTitle("Export Walkthrough Frames");
+        File dir = ch.showDialog(getScene().getWindow());
+        if (dir == null) return;
+        exportFrames(dir, (int) Math.round(getWidth()), (int) Math.round(getHeight()), WALKTHROUGH_FPS);
+    }
+
+    /**
+     * Renders the walkthrough to numbered PNGs in a directory at a fixed frame
+     * rate, in the background. The camera returns to where it was afterwards.
+     */
+    public Task<Integer> exportFrames(File dir, int width, int height, double fps) {
+        if (runningExport != null) throw new IllegalStateException("an export is already running");
+        if (walkthrough.size() < 2) throw new IllegalStateException("the walkthrough needs two keyframes");
+        CameraPose before = cameraController.getPose();
+        SubScene exportView = freezeForExport();
+        FrameSequenceExport task = new FrameSequenceExport(exportView, camera, walkthrough, pose -> {
+            cameraController.setPose(pose);
+            updateSunPosition();
+            lampLights.update(eyeInRoom(), nodesByItem::get, booth);
+        }, fps, width, height, dir);
+        runExport(task, exportView, "frame-export",
+                "Saved " + FrameSequenceExport.frameCount(walkthrough, fps) + " frames to " + dir.getName() + ".",
+                () -> cameraController.setPose(before));
+        return task;
+    }
+
+    public CameraPath getWalkthrough() {
+        return walkthrough;
+    }
+
+    // ------------------- model export -------------------
+
+    private void promptModelExport() {
+        RoomDesign room = designManager.getCurrentDesign();
+        if (room == null) return;
+        FileChooser ch = new FileChooser();
+        ch.setTitle("Export 3D Model");
+        ch.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Binary glTF", "*.glb"),
+                new FileChooser.ExtensionFilter("Wavefront OBJ", "*.obj"));
+        File file = ch.showSaveDialog(getScene().getWindow());
+        if (file == null) return;
+        exportModel(room, file);
+    }
+
+    /**
+     * Writes the design as a 3D model: OBJ if the file name ends in .obj,
+     * binary glTF otherwise. The scene is captured here on the FX thread and
+     * written in the background.
+     */
+    public Task<File> exportModel(RoomDesign room, File file) {
+        ExportScene scene = ExportScene.capture(room);
+        boolean obj = file.getName().toLowerCase(Locale.ROOT).endsWith(".obj");
+        Task<File> task = new Task<>() {
+            @Override
+            protected File call() throws Exception {
+                if (obj) ObjWriter.write(scene, file.toPath(), ForkJoinPool.commonPool());
+                else     GlbWriter.write(scene, file.toPath(), ForkJoinPool.commonPool());
+                return file;
+            }
+        };
+        task.setOnSucceeded(e -> showUserHint("Saved " + file.getName()));
+        task.setOnFailed(e -> showAlert("Export failed: " + task.getException().getMessage()));
+        Thread worker = new Thread(task, "model-export");
+        worker.setDaemon(true);
+        worker.start();
+        return task;
+    }
+
+    // ------------------- photoreal render -------------------
+
+    private void promptPhotoRender() {
+        RoomDesign room = designManager.getCurrentDesign();
+        RenderCamera view = getRenderCamera();
+        if (room == null || view == null || getWidth() <= 0 || getHeight() <= 0) return;
+        ChoiceDialog<Integer> dlg = new ChoiceDialog<>(256, 64, 256, 1024, 4096);
+        dlg.initOwner(getScene().getWindow());
+        dlg.setTitle("Photoreal Render");
+        dlg.setHeaderText("Samples per pixel (more is smoother and slower)");
+        Integer samples = dlg.showAndWait().orElse(null);
+        if (samples == null) return;
+
+        PathTracer.Settings settings = new PathTracer.Settings(
+                (int) Math.round(getWidth()), (int) Math.round(getHeight()), samples, 5, 1, !isLightMode);
+        PathTracer tracer = new PathTracer(SceneTriangulator.triangulate(room), view, settings);
+        new PhotoRenderWindow(getScene().getWindow(), tracer).start();
+    }
+
+    /** The current view as a path-tracer camera, in room (design) coordinates; null if degenerate. */
+    public RenderCamera getRenderCamera() {
+        Transform camToWorld  = camera.getLocalToParentTransform();
+        Transform roomToWorld = pivotGroup.getLocalToParentTransform()
+                .createConcatenation(roomGroup.getLocalToParentTransform());
+        try {
+            Point3D eye     = roomToWorld.inverseTransform(camToWorld.transform(Point3D.ZERO));
+            Point3D forward = roomToWorld.inverseDeltaTransform(camToWorld.deltaTransform(0, 0, 1)).normalize();
+            Point3D right   = roomToWorld.inverseDeltaTransform(camToWorld.deltaTransform(1, 0, 0)).normalize();
+            // JavaFX camera space has y pointing down
+            Point3D up      = roomToWorld.inverseDeltaTransform(camToWorld.deltaTransform(0, -1, 0)).normalize();
+            return new RenderCamera(eye.getX(), eye.getY(), eye.getZ(),
+                    forward.getX(), forward.getY(), forward.getZ(),
+                    right.getX(), right.getY(), right.getZ(),
+                    up.getX(), up.getY(), up.getZ(),
+                    camera.getFieldOfView());
+        } catch (NonInvertibleTransformException ex) {
+            return null;
+        }
+    }
+
     private void startAutoRotate() {
         autoRotateTimeline = new Timeline(new KeyFrame(Duration.millis(16), e -> {
-            double cx = getWidth()/2.0, cy = getHeight()/2.0;
-            cameraController.onMousePressed(cx, cy);
-            cameraController.onMouseDragged(cx+1, cy);
-            cameraController.onMouseReleased();
+            qualityGovernor.noteInteraction();
+            cameraController.rotateBy(0.25, 0);
         }));
         autoRotateTimeline.setCycleCount(Animation.INDEFINITE);
         autoRotateTimeline.play();
@@ -197,6 +928,11 @@ public class RoomRenderer3D extends StackPane {
         rebuild();
     }
 
+    /** Builds the furniture still streaming in right away, rather than over the next pulses. */
+    public void finishSceneBuild() {
+        sceneBuilder.finish();
+    }
+
     private void showUserHint(String message) {
         Label hint = new Label(message);
         hint.setStyle("""
@@ -0,0 +1,168 @@
+package com.myfurniture.designapp.UI;
+
+import com.myfurniture.designapp.Export.PngWriter;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.scene.PerspectiveCamera;
+import javafx.scene.SubScene;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.transform.Affine;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Renders a 3D view at a resolution far beyond texture limits by splitting it
+ * into tiles. Each tile is an off-axis slice of the full frustum: the tile
+ * camera keeps the full image's focal length and adds a camera-space shear
+ * that moves the tile's centre onto the optical axis, so tiles meet without
+ * seams. Finished rows of tiles are streamed into a PNG, so only one band of
+ * the image is ever held in memory.
+ *
+ * <p>Snapshots run on the FX thread, one tile per pulse; encoding of a band
+ * overlaps with rendering of the next one.
+ */
+class TiledImageExport extends Task<File> {
+
+    static final int TILE = 1024;
+    private static final long MAX_BAND = Integer.MAX_VALUE - 8;   // largest int[] the VM allocates
+
+
+    private final SubScene view;
+    private final PerspectiveCamera tileCamera = new PerspectiveCamera(true);
+    private final Affine viewTransform;
+    private final double focal;            // pixels, for the full image
+    private final boolean verticalFov;
+    private final int width, height;
+    private final File file;
+
+    /** Throws IllegalArgumentException unless a band of tiles across the image fits in one array. */
+    static void checkSize(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("image size must be positive: " + width + " × " + height);
+        }
+        if ((long) width * Math.min(TILE, height) > MAX_BAND) {
+            throw new IllegalArgumentException("image too wide to export in bands: " + width + " px");
+        }
+    }
+
+    /**
+     * @param view   off-screen sub scene holding the scene to render; its camera
+     *               and size are changed per tile
+     * @param camera the interactive camera whose view is exported
+     */
+    TiledImageExport(SubScene view, PerspectiveCamera camera, int width, int height, File file) {
+        checkSize(width, height);
+        this.view = view;
+        this.width = width;
+        this.height = height;
+        this.file = file;
+        this.viewTransform = new Affine(camera.getLocalToParentTransform());
+        this.verticalFov = camera.isVerticalFieldOfView();
+        double extent = verticalFov ? height : width;
+        this.focal = extent / 2 / Math.tan(Math.toRadians(camera.getFieldOfView()) / 2);
+
+        tileCamera.setNearClip(camera.getNearClip());
+        tileCamera.setFarClip(camera.getFarClip());
+        tileCamera.setVerticalFieldOfView(verticalFov);
+        view.setCamera(tileCamera);
+    }
+
+    @Override
+    protected File call() throws Exception {
+        int cols = (width + TILE - 1) / TILE, rows = (height + TILE - 1) / TILE;
+        int total = cols * rows, done = 0;
+        int[] band = new int[width * Math.min(TILE, height)];   // cannot overflow, see checkSize
+        int[] spare = new int[band.length];
+        ExecutorService encoder = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "png-encoder");
+            t.setDaemon(true);
+            return t;
+        });
+        CompletableFuture<Void> encoding = CompletableFuture.completedFuture(null);
+        boolean complete = false;
+
+        PngWriter png = new PngWriter(new BufferedOutputStream(Files.newOutputStream(file.toPath())),
+                width, height, false);
+        try {
+            for (int r = 0; r < rows; r++) {
+                int y0 = r * TILE, th = Math.min(TILE, height - y0);
+                for (int c = 0; c < cols; c++) {
+                    if (isCancelled()) return null;
+                    int x0 = c * TILE, tw = Math.min(TILE, width - x0);
+                    int[] target = band;
+                    onFxThread(() -> renderTile(x0, y0, tw, th, target));
+                    updateProgress(++done, total);
+                    updateMessage("Rendering tile " + done + " of " + total);
+                }
+                // hand the band to the encoder and render the next one into the other buffer
+                encoding.get();
+                int[] finished = band;
+                encoding = CompletableFuture.runAsync(() -> {
+                    try {
+                        png.writeRows(finished, 0, width, th);
+                    } catch (IOException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                }, encoder);
+                band = spare;
+                spare = finished;
+            }
+            encoding.get();
+            complete = true;
+        } finally {
+            encoder.shutdown();
+            try {
+                if (complete) png.close();
+                else closeQuietly(png);
+            } finally {
+                if (!complete) Files.deleteIfExists(file.toPath());
+            }
+        }
+        updateMessage("Saved " + file.getName());
+        return file;
+    }
+
+    /** Runs on the FX thread: renders one tile into the band buffer. */
+    private void renderTile(int x0, int y0, int tw, int th, int[] band) {
+        // same focal length as the full image, so pixel scale matches across tiles
+        double extent = verticalFov ? th : tw;
+        tileCamera.setFieldOfView(Math.toDegrees(2 * Math.atan(extent / 2 / focal)));
+
+        // shift the tile centre onto the optical axis: x' = x + s*z, y' = y + t*z
+        double s = (width  / 2.0 - x0 - tw / 2.0) / focal;
+        double t = (height / 2.0 - y0 - th / 2.0) / focal;
+        Affine inverseShear = new Affine(
+                1, 0, -s, 0,
+                0, 1, -t, 0,
+                0, 0,  1, 0);
+        tileCamera.getTransforms().setAll(viewTransform, inverseShear);
+
+        view.setWidth(tw);
+        view.setHeight(th);
+        WritableImage img = view.snapshot(null, null);
+        img.getPixelReader().getPixels(0, 0, tw, th,
+                PixelFormat.getIntArgbInstance(), band, x0, width);
+    }
+
+    private static void onFxThread(Runnable r) throws Exception {
+        FutureTask<Void> f = new FutureTask<>(r, null);
+        Platform.runLater(f);
+        f.get();
+    }
+
+    private static void closeQuietly(PngWriter png) {
+        try {
+            png.close();
+        } catch (IOException ignored) {
+            // the partial file is deleted anyway
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.myfurniture.designapp.Util;
+
+import java.util.List;
+
+/**
+ * Static bounding-volume hierarchy over axis-aligned boxes, flattened into
+ * primitive arrays for cache-friendly ray queries. Build once, query often;
+ * rebuild when the boxes change.
+ */
+public class BoundingVolumeHierarchy<T> {
+
+    /** Result of a ray query: the item hit and the ray parameter of the entry point. */
+    public record Hit<T>(T item, double distance) { }
+
+    private static final int LEAF_SIZE = 4;
+
+    private final Object[] items;
+    private final float[]  boxes;      // 6 floats per item: min xyz, max xyz
+
+    // node i: bounds in nodeBounds[6*i..]; leaves hold a range of order[], inner nodes their right child
+    private float[] nodeBounds;
+    private int[]   nodeStart;
+    private int[]   nodeCount;         // 0 marks an inner node: children are i + 1 and nodeStart[i]
+    private int     nodeTotal;
+    private final int[] order;         // item indices sorted into leaf order
+
+    /**
+     * @param items items to index
+     * @param boxes 6 floats per item (minX, minY, minZ, maxX, maxY, maxZ), same order as items
+     */
+    public BoundingVolumeHierarchy(List<T> items, float[] boxes) {
+        int n = items.size();
+        if (boxes.length < n * 6) throw new IllegalArgumentException("need 6 floats per item");
+        this.items = items.toArray();
+        this.boxes = boxes;
+        this.order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+
+        int maxNodes = Math.max(1, 2 * n);
+        nodeBounds = new float[maxNodes * 6];
+        nodeStart  = new int[maxNodes];
+        nodeCount  = new int[maxNodes];
+        if (n > 0) build(0, n);
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    /** Nearest item whose box the ray enters, or null. Direction need not be normalised. */
+    @SuppressWarnings("unchecked")
+    public Hit<T> raycast(double ox, double oy, double oz, double dx, double dy, double dz) {
+        if (items.length == 0) return null;
+        double ix = RayBox.inverse(dx), iy = RayBox.inverse(dy), iz = RayBox.inverse(dz);
+
+        int[] stack = new int[64];
+        int sp = 0;
+        stack[sp++] = 0;
+        double best = Double.POSITIVE_INFINITY;
+        int bestItem = -1;
+
+        while (sp > 0) {
+            int node = stack[--sp];
+            if (RayBox.entry(nodeBounds, node * 6, ox, oy, oz, ix, iy, iz) >= best) continue;
+
+            int count = nodeCount[node];
+            if (count > 0) {
+                for (int k = nodeStart[node], end = k + count; k < end; k++) {
+                    int item = order[k];
+                    double t = RayBox.entry(boxes, item * 6, ox, oy, oz, ix, iy, iz);
+                    if (t < best) { best = t; bestItem = item; }
+                }
+            } else {
+                int left = node + 1, right = nodeStart[node];
+                double tl = RayBox.entry(nodeBounds, left  * 6, ox, oy, oz, ix, iy, iz);
+                double tr = RayBox.entry(nodeBounds, right * 6, ox, oy, oz, ix, iy, iz);
+                sp = RayBox.pushNearerLast(stack, sp, left, tl, right, tr, best);
+            }
+        }
+        return bestItem < 0 ? null : new Hit<>((T) items[bestItem], best);
+    }
+
+
+    /** Builds the subtree for order[from..to) and returns its node index. */
+    private int build(int from, int to) {
+        int node = nodeTotal++;
+        int o = node * 6;
+        float[] nb = nodeBounds;
+        nb[o] = nb[o + 1] = nb[o + 2] = Float.POSITIVE_INFINITY;
+        nb[o + 3] = nb[o + 4] = nb[o + 5] = Float.NEGATIVE_INFINITY;
+        float cMinX = Float.POSITIVE_INFINITY, cMinY = cMinX, cMinZ = cMinX;
+        float cMaxX = Float.NEGATIVE_INFINITY, cMaxY = cMaxX, cMaxZ = cMaxX;
+        for (int k = from; k < to; k++) {
+            int b = order[k] * 6;
+            for (int a = 0; a < 3; a++) {
+                nb[o + a]     = Math.min(nb[o + a],     boxes[b + a]);
+                nb[o + 3 + a] = Math.max(nb[o + 3 + a], boxes[b + 3 + a]);
+            }
+            float cx = boxes[b] + boxes[b + 3], cy = boxes[b + 1] + boxes[b + 4], cz = boxes[b + 2] + boxes[b + 5];
+            cMinX = Math.min(cMinX, cx); cMaxX = Math.max(cMaxX, cx);
+            cMinY = Math.min(cMinY, cy); cMaxY = Math.max(cMaxY, cy);
+            cMinZ = Math.min(cMinZ, cz); cMaxZ = Math.max(cMaxZ, cz);
+        }
+
+        int count = to - from;
+        float ex = cMaxX - cMinX, ey = cMaxY - cMinY, ez = cMaxZ - cMinZ;
+        if (count <= LEAF_SIZE || Math.max(ex, Math.max(ey, ez)) == 0) {
+            nodeStart[node] = from;
+            nodeCount[node] = count;
+            return node;
+        }
+
+        // split at the median centroid of the widest axis
+        int axis = ex >= ey && ex >= ez ? 0 : (ey >= ez ? 1 : 2);
+        int mid = (from + to) >>> 1;
+        selectNth(from, to - 1, mid, axis);
+
+        nodeCount[node] = 0;
+        build(from, mid);            // left child is always node + 1
+        nodeStart[node] = build(mid, to);
+        return node;
+    }
+
+    private float centroid(int k, int axis) {
+        int b = order[k] * 6 + axis;
+        return boxes[b] + boxes[b + 3];
+    }
+
+    /** Quickselect on order[lo..hi] so that position n holds the median along the axis. */
+    private void selectNth(int lo, int hi, int n, int axis) {
+        while (lo < hi) {
+            float pivot = centroid((lo + hi) >>> 1, axis);
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (centroid(i, axis) < pivot) i++;
+                while (centroid(j, axis) > pivot) j--;
+                if (i <= j) {
+                    int t = order[i]; order[i] = order[j]; order[j] = t;
+                    i++; j--;
+                }
+            }
+            if (n <= j) hi = j;
+            else if (n >= i) lo = i;
+            else return;
+        }
+    }
+}
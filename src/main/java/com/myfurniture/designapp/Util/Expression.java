@@ -0,0 +1,218 @@
+package com.myfurniture.designapp.Util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Arithmetic expression compiled to postfix code over numbered variables.
+ * Supports numbers, variables, {@code + - * /}, unary minus, parentheses and
+ * {@code min(a, b)} / {@code max(a, b)}. Parts without variables are folded
+ * to constants while compiling, so evaluating is a short loop over an
+ * {@code int[]}, or just a field read for a constant.
+ */
+public final class Expression {
+
+    private static final int CONST = 0, LOAD = 1, ADD = 2, SUB = 3, MUL = 4, DIV = 5, NEG = 6, MIN = 7, MAX = 8;
+
+    private final int[] code;          // op, arg pairs
+    private final double[] constants;
+    private final int depth;
+
+    private Expression(int[] code, double[] constants, int depth) {
+        this.code = code;
+        this.constants = constants;
+        this.depth = depth;
+    }
+
+    /**
+     * @param variables variable names; a name's index is its slot in the array passed to {@link #eval}
+     * @throws IllegalArgumentException on a syntax error or an unknown name
+     */
+    public static Expression compile(String source, List<String> variables) {
+        Parser p = new Parser(source, variables);
+        Node n = p.expression();
+        p.skipSpaces();
+        if (p.pos < source.length()) throw p.error("unexpected '" + source.charAt(p.pos) + "'");
+        List<Integer> code = new ArrayList<>();
+        List<Double> constants = new ArrayList<>();
+        int depth = n.emit(code, constants, 0);
+        return new Expression(code.stream().mapToInt(Integer::intValue).toArray(),
+                constants.stream().mapToDouble(Double::doubleValue).toArray(), depth);
+    }
+
+    public boolean isConstant() {
+        return code.length == 2 && code[0] == CONST;
+    }
+
+    /** Operand stack size {@link #eval(double[], double[])} needs. */
+    public int getStackDepth() {
+        return depth;
+    }
+
+    public double eval(double[] vars) {
+        return isConstant() ? constants[code[1]] : eval(vars, new double[depth]);
+    }
+
+    /**
+     * Evaluates with a caller's operand stack, so a batch of evaluations
+     * allocates nothing.
+     *
+     * @param stack at least {@link #getStackDepth()} long; overwritten
+     */
+    public double eval(double[] vars, double[] stack) {
+        if (isConstant()) return constants[code[1]];
+        int sp = 0;
+        for (int pc = 0; pc < code.length; pc += 2) {
+            switch (code[pc]) {
+                case CONST -> stack[sp++] = constants[code[pc + 1]];
+                case LOAD  -> stack[sp++] = vars[code[pc + 1]];
+                case ADD   -> { sp--; stack[sp - 1] += stack[sp]; }
+                case SUB   -> { sp--; stack[sp - 1] -= stack[sp]; }
+                case MUL   -> { sp--; stack[sp - 1] *= stack[sp]; }
+                case DIV   -> { sp--; stack[sp - 1] /= stack[sp]; }
+                case MIN   -> { sp--; stack[sp - 1] = Math.min(stack[sp - 1], stack[sp]); }
+                case MAX   -> { sp--; stack[sp - 1] = Math.max(stack[sp - 1], stack[sp]); }
+                case NEG   -> stack[sp - 1] = -stack[sp - 1];
+                default    -> throw new IllegalStateException();
+            }
+        }
+        return stack[0];
+    }
+
+    // ------------------- parse tree -------------------
+
+    private sealed interface Node permits Num, Var, Op {
+        /** appends the code, returns the stack depth it needs on top of {@code base} */
+        int emit(List<Integer> code, List<Double> constants, int base);
+    }
+
+    private record Num(double value) implements Node {
+        public int emit(List<Integer> code, List<Double> constants, int base) {
+            code.add(CONST);
+            code.add(constants.size());
+            constants.add(value);
+            return base + 1;
+        }
+    }
+
+    private record Var(int slot) implements Node {
+        public int emit(List<Integer> code, List<Double> constants, int base) {
+            code.add(LOAD);
+            code.add(slot);
+            return base + 1;
+        }
+    }
+
+    /** b is null for NEG */
+    private record Op(int op, Node a, Node b) implements Node {
+        public int emit(List<Integer> code, List<Double> constants, int base) {
+            int d = a.emit(code, constants, base);
+            if (b != null) d = Math.max(d, b.emit(code, constants, base + 1));
+            code.add(op);
+            code.add(0);
+            return d;
+        }
+    }
+
+    private static Node fold(int op, Node a, Node b) {
+        if (a instanceof Num x && (b == null || b instanceof Num)) {
+            double y = b == null ? 0 : ((Num) b).value();
+            return new Num(switch (op) {
+                case ADD -> x.value() + y;
+                case SUB -> x.value() - y;
+                case MUL -> x.value() * y;
+                case DIV -> x.value() / y;
+                case MIN -> Math.min(x.value(), y);
+                case MAX -> Math.max(x.value(), y);
+                default  -> -x.value();
+            });
+        }
+        return new Op(op, a, b);
+    }
+
+    private static final class Parser {
+        private final String s;
+        private final List<String> variables;
+        int pos;
+
+        Parser(String s, List<String> variables) {
+            this.s = s;
+            this.variables = variables;
+        }
+
+        Node expression() {
+            Node n = term();
+            for (char c; (c = peek()) == '+' || c == '-'; ) {
+                pos++;
+                n = fold(c == '+' ? ADD : SUB, n, term());
+            }
+            return n;
+        }
+
+        private Node term() {
+            Node n = factor();
+            for (char c; (c = peek()) == '*' || c == '/'; ) {
+                pos++;
+                n = fold(c == '*' ? MUL : DIV, n, factor());
+            }
+            return n;
+        }
+
+        private Node factor() {
+            char c = peek();
+            if (c == '-') {
+                pos++;
+                return fold(NEG, factor(), null);
+            }
+            if (c == '(') {
+                pos++;
+                Node n = expression();
+                expect(')');
+                return n;
+            }
+            int start = pos;
+            if (Character.isDigit(c) || c == '.') {
+                while (pos < s.length() && (Character.isDigit(s.charAt(pos)) || s.charAt(pos) == '.')) pos++;
+                try {
+                    return new Num(Double.parseDouble(s.substring(start, pos)));
+                } catch (NumberFormatException ex) {
+                    throw error("bad number " + s.substring(start, pos));
+                }
+            }
+            if (Character.isLetter(c)) {
+                while (pos < s.length() && Character.isLetterOrDigit(s.charAt(pos))) pos++;
+                String name = s.substring(start, pos);
+                if ((name.equals("min") || name.equals("max")) && peek() == '(') {
+                    pos++;
+                    Node a = expression();
+                    expect(',');
+                    Node b = expression();
+                    expect(')');
+                    return fold(name.equals("min") ? MIN : MAX, a, b);
+                }
+                int slot = variables.indexOf(name);
+                if (slot < 0) throw error("unknown name " + name);
+                return new Var(slot);
+            }
+            throw error(pos < s.length() ? "unexpected '" + c + "'" : "unexpected end");
+        }
+
+        private void expect(char c) {
+            if (peek() != c) throw error("expected '" + c + "'");
+            pos++;
+        }
+
+        char peek() {
+            skipSpaces();
+            return pos < s.length() ? s.charAt(pos) : '\0';
+        }
+
+        void skipSpaces() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " in \"" + s + "\" at " + pos);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.myfurniture.designapp.Util;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Histogram of durations in nanoseconds with log-linear buckets: each power
+ * of two is split into {@value #SUB_BUCKETS} equal steps, so any recorded
+ * value lands within about 3% of its bucket's bound, from a microsecond to
+ * half an hour, in a few kilobytes whatever the sample count. A finer
+ * resolution suits other non-negative values, such as item counts.
+ * Not thread-safe.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAGNITUDES = 27;         // up to 2^(26 + resolution bits + SUB_BITS); larger values are clamped
+
+    private final int minShift;
+    private final long[] counts = new long[MAGNITUDES * SUB_BUCKETS];
+    private long total, max, min = Long.MAX_VALUE;
+    private double sum;
+
+    /** For nanosecond durations: steps of about a microsecond at the low end, up to about 36 minutes. */
+    public LatencyHistogram() {
+        this(10);
+    }
+
+    /** @param resolutionBits log2 of the smallest step; 0 gives exact small integers */
+    public LatencyHistogram(int resolutionBits) {
+        this.minShift = resolutionBits;
+    }
+
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts[index(v)]++;
+        total++;
+        sum += v;
+        max = Math.max(max, v);
+        min = Math.min(min, v);
+    }
+
+    /** Adds every sample of another histogram of the same resolution. */
+    public void add(LatencyHistogram other) {
+        if (other.minShift != minShift) throw new IllegalArgumentException("different resolution");
+        for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+        total += other.total;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+        min = Math.min(min, other.min);
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        total = max = 0;
+        min = Long.MAX_VALUE;
+        sum = 0;
+    }
+
+    public long getCount() {
+        return total;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getMin() {
+        return total == 0 ? 0 : min;
+    }
+
+    public double getMean() {
+        return total == 0 ? 0 : sum / total;
+    }
+
+    /**
+     * Upper bound of the bucket holding the given percentile, never above
+     * the largest recorded value; 0 when empty.
+     *
+     * @param percentile 0 to 100
+     */
+    public long getPercentile(double percentile) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, upperBound(i));
+        }
+        return max;
+    }
+
+    /**
+     * Below 2^(minShift + SUB_BITS) the steps are 2^minShift wide; above,
+     * each power of two [2^h, 2^(h+1)) gets SUB_BUCKETS steps of 2^(h - SUB_BITS).
+     */
+    private int index(long v) {
+        int h = 63 - Long.numberOfLeadingZeros(v | 1);
+        if (h < minShift + SUB_BITS) return (int) (v >>> minShift);
+        int magnitude = h - minShift - SUB_BITS + 1;
+        if (magnitude >= MAGNITUDES) return MAGNITUDES * SUB_BUCKETS - 1;
+        return magnitude * SUB_BUCKETS + (int) (v >>> (h - SUB_BITS)) - SUB_BUCKETS;
+    }
+
+    private long upperBound(int index) {
+        int magnitude = index / SUB_BUCKETS, sub = index % SUB_BUCKETS;
+        if (magnitude == 0) return ((long) (sub + 1) << minShift) - 1;
+        return ((long) (SUB_BUCKETS + sub + 1) << (magnitude + minShift - 1)) - 1;
+    }
+
+    /** e.g. "n=1200 p50=1.8 ms p99=14.2 ms max=31.0 ms" */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "n=%d p50=%.1f ms p99=%.1f ms max=%.1f ms",
+                total, getPercentile(50) / 1e6, getPercentile(99) / 1e6, max / 1e6);
+    }
+}
@@ -0,0 +1,49 @@
+package com.myfurniture.designapp.Util;
+
+/**
+ * Ray–box slab test and nearer-child-first traversal shared by the flattened
+ * BVHs ({@link BoundingVolumeHierarchy} and {@code Render.TriangleBvh}).
+ * Boxes are 6 floats (min xyz, max xyz) at an offset into a float array.
+ */
+public final class RayBox {
+
+    private RayBox() { }
+
+    /** 1 / d for a ray direction component, never infinite: avoids 0 * inf = NaN for axis-parallel rays. */
+    public static double inverse(double d) {
+        return 1 / (d == 0 ? 1e-12 : d);
+    }
+
+    /**
+     * Entry distance of the ray into the box at b[o..o+5], or +infinity if
+     * missed; 0 if the origin is inside. ix, iy, iz come from {@link #inverse}.
+     */
+    public static double entry(float[] b, int o, double ox, double oy, double oz,
+                               double ix, double iy, double iz) {
+        double t1 = (b[o]     - ox) * ix, t2 = (b[o + 3] - ox) * ix;
+        double tmin = Math.min(t1, t2), tmax = Math.max(t1, t2);
+        t1 = (b[o + 1] - oy) * iy; t2 = (b[o + 4] - oy) * iy;
+        tmin = Math.max(tmin, Math.min(t1, t2)); tmax = Math.min(tmax, Math.max(t1, t2));
+        t1 = (b[o + 2] - oz) * iz; t2 = (b[o + 5] - oz) * iz;
+        tmin = Math.max(tmin, Math.min(t1, t2)); tmax = Math.min(tmax, Math.max(t1, t2));
+        if (tmax < Math.max(tmin, 0)) return Double.POSITIVE_INFINITY;
+        return Math.max(tmin, 0);
+    }
+
+    /**
+     * Pushes the children entered before {@code best}, the farther first so
+     * the nearer one is popped first.
+     *
+     * @return the new stack size
+     */
+    public static int pushNearerLast(int[] stack, int sp, int left, double tl, int right, double tr, double best) {
+        if (tl <= tr) {
+            if (tr < best) stack[sp++] = right;
+            if (tl < best) stack[sp++] = left;
+        } else {
+            if (tl < best) stack[sp++] = left;
+            if (tr < best) stack[sp++] = right;
+        }
+        return sp;
+    }
+}
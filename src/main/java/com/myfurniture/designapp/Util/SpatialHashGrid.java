@@ -0,0 +1,127 @@
+package com.myfurniture.designapp.Util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Uniform grid over axis-aligned rectangles in the design plane.
+ * Items are keyed by identity; an item spanning several cells is reported
+ * once per query.
+ */
+public class SpatialHashGrid<T> {
+
+    private static final class Entry<T> {
+        final T item;
+        double minX, minY, maxX, maxY;
+        int minCx, minCy, maxCx, maxCy;
+
+        Entry(T item) {
+            this.item = item;
+        }
+    }
+
+    private final double cellSize;
+    private final Map<Long, List<Entry<T>>> cells   = new HashMap<>();
+    private final Map<T, Entry<T>>          entries = new IdentityHashMap<>();
+
+    public SpatialHashGrid(double cellSize) {
+        if (cellSize <= 0) throw new IllegalArgumentException("cellSize must be positive");
+        this.cellSize = cellSize;
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean contains(T item) {
+        return entries.containsKey(item);
+    }
+
+    public void clear() {
+        cells.clear();
+        entries.clear();
+    }
+
+    /** Adds the item, or moves it if it is already in the grid. */
+    public void insert(T item, double minX, double minY, double maxX, double maxY) {
+        Entry<T> e = entries.get(item);
+        if (e != null) {
+            int minCx = cell(minX), minCy = cell(minY), maxCx = cell(maxX), maxCy = cell(maxY);
+            if (minCx == e.minCx && minCy == e.minCy && maxCx == e.maxCx && maxCy == e.maxCy) {
+                // same cells: only the exact bounds change
+                e.minX = minX; e.minY = minY; e.maxX = maxX; e.maxY = maxY;
+                return;
+            }
+            unlink(e);
+        } else {
+            e = new Entry<>(item);
+            entries.put(item, e);
+        }
+        e.minX = minX; e.minY = minY; e.maxX = maxX; e.maxY = maxY;
+        e.minCx = cell(minX); e.minCy = cell(minY);
+        e.maxCx = cell(maxX); e.maxCy = cell(maxY);
+        for (int cx = e.minCx; cx <= e.maxCx; cx++) {
+            for (int cy = e.minCy; cy <= e.maxCy; cy++) {
+                cells.computeIfAbsent(key(cx, cy), k -> new ArrayList<>(4)).add(e);
+            }
+        }
+    }
+
+    public void remove(T item) {
+        Entry<T> e = entries.remove(item);
+        if (e != null) unlink(e);
+    }
+
+    /** Reports every item whose rectangle intersects the query rectangle. */
+    public void query(double minX, double minY, double maxX, double maxY, Consumer<? super T> visitor) {
+        int qMinCx = cell(minX), qMinCy = cell(minY), qMaxCx = cell(maxX), qMaxCy = cell(maxY);
+        for (int cx = qMinCx; cx <= qMaxCx; cx++) {
+            for (int cy = qMinCy; cy <= qMaxCy; cy++) {
+                List<Entry<T>> list = cells.get(key(cx, cy));
+                if (list == null) continue;
+                for (int i = 0, n = list.size(); i < n; i++) {
+                    Entry<T> e = list.get(i);
+                    // report only from the first cell shared by item and query
+                    if (cx != Math.max(e.minCx, qMinCx) || cy != Math.max(e.minCy, qMinCy)) continue;
+                    if (e.maxX < minX || e.minX > maxX || e.maxY < minY || e.minY > maxY) continue;
+                    visitor.accept(e.item);
+                }
+            }
+        }
+    }
+
+    /** Convenience: items intersecting the rectangle, collected into a new list. */
+    public List<T> query(double minX, double minY, double maxX, double maxY) {
+        List<T> out = new ArrayList<>();
+        query(minX, minY, maxX, maxY, out::add);
+        return out;
+    }
+
+    private void unlink(Entry<T> e) {
+        for (int cx = e.minCx; cx <= e.maxCx; cx++) {
+            for (int cy = e.minCy; cy <= e.maxCy; cy++) {
+                Long k = key(cx, cy);
+                List<Entry<T>> list = cells.get(k);
+                if (list == null) continue;
+                list.remove(e);
+                if (list.isEmpty()) cells.remove(k);
+            }
+        }
+    }
+
+    private int cell(double v) {
+        return (int) Math.floor(v / cellSize);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+}